@@ -34,6 +34,8 @@ public class SurvivalCore extends JavaPlugin {
     private DatabaseManager databaseManager;
     private CooldownManager cooldownManager;
     private TpaManager tpaManager;
+    private ChunkTicketManager chunkTicketManager;
+    private TeleportService teleportService;
     private HomeManager homeManager;
     private WarpManager warpManager;
     private PlayerWarpManager playerWarpManager;
@@ -42,6 +44,7 @@ public class SurvivalCore extends JavaPlugin {
     private StatsManager statsManager;
     private ChatManager chatManager;
     private AdminToolsManager adminToolsManager;
+    private RtpLocationPool rtpLocationPool;
     private long serverStartTime;
     
     @Override
@@ -56,8 +59,10 @@ public class SurvivalCore extends JavaPlugin {
             // Initialize managers
             this.configManager = new ConfigManager(this);
             this.databaseManager = new DatabaseManager(this);
-            this.cooldownManager = new CooldownManager();
+            this.cooldownManager = new CooldownManager(this);
             this.tpaManager = new TpaManager(this);
+            this.chunkTicketManager = new ChunkTicketManager(this);
+            this.teleportService = new TeleportService(this);
             this.homeManager = new HomeManager(this);
             this.warpManager = new WarpManager(this);
             this.playerWarpManager = new PlayerWarpManager(this);
@@ -66,6 +71,7 @@ public class SurvivalCore extends JavaPlugin {
             this.statsManager = new StatsManager(this);
             this.chatManager = new ChatManager(this);
             this.adminToolsManager = new AdminToolsManager(this);
+            this.rtpLocationPool = new RtpLocationPool(this);
             
             // Initialize database
             if (!databaseManager.initialize()) {
@@ -103,6 +109,24 @@ public class SurvivalCore extends JavaPlugin {
             if (playerWarpManager != null) {
                 playerWarpManager.saveAllData();
             }
+            if (teleportService != null) {
+                teleportService.shutdown();
+            }
+            if (rtpLocationPool != null) {
+                rtpLocationPool.shutdown();
+            }
+            if (chunkTicketManager != null) {
+                chunkTicketManager.releaseAll();
+            }
+            if (cooldownManager != null) {
+                cooldownManager.shutdown();
+            }
+            if (tpaManager != null) {
+                tpaManager.shutdown();
+            }
+            if (statsManager != null) {
+                statsManager.shutdown();
+            }
             if (databaseManager != null) {
                 databaseManager.closeConnection();
             }
@@ -122,29 +146,38 @@ public class SurvivalCore extends JavaPlugin {
         TpaCommand tpaCommand = new TpaCommand(this);
         getCommand("tpa").setExecutor(tpaCommand);
         getCommand("tpaccept").setExecutor(tpaCommand);
+        getCommand("tpaccept").setTabCompleter(tpaCommand);
         getCommand("tpdeny").setExecutor(tpaCommand);
+        getCommand("tpdeny").setTabCompleter(tpaCommand);
         getCommand("tpahere").setExecutor(tpaCommand);
         
         // Home Commands
         HomeCommand homeCommand = new HomeCommand(this);
         getCommand("home").setExecutor(homeCommand);
+        getCommand("home").setTabCompleter(homeCommand);
         getCommand("sethome").setExecutor(homeCommand);
         getCommand("delhome").setExecutor(homeCommand);
+        getCommand("delhome").setTabCompleter(homeCommand);
         getCommand("homes").setExecutor(homeCommand);
         
         // Warp Commands
         WarpCommand warpCommand = new WarpCommand(this);
         getCommand("warp").setExecutor(warpCommand);
+        getCommand("warp").setTabCompleter(warpCommand);
         getCommand("warps").setExecutor(warpCommand);
         getCommand("setwarp").setExecutor(warpCommand);
         getCommand("delwarp").setExecutor(warpCommand);
+        getCommand("delwarp").setTabCompleter(warpCommand);
         
         // Player Warp Commands
         PlayerWarpCommand pwarpCommand = new PlayerWarpCommand(this);
         getCommand("pwarp").setExecutor(pwarpCommand);
+        getCommand("pwarp").setTabCompleter(pwarpCommand);
         getCommand("pwarps").setExecutor(pwarpCommand);
+        getCommand("pwarps").setTabCompleter(pwarpCommand);
         getCommand("setpwarp").setExecutor(pwarpCommand);
         getCommand("delpwarp").setExecutor(pwarpCommand);
+        getCommand("delpwarp").setTabCompleter(pwarpCommand);
         
         // Shop Commands
         getCommand("shop").setExecutor(new ShopCommand(this));
@@ -191,6 +224,15 @@ public class SurvivalCore extends JavaPlugin {
         try {
             reloadConfig();
             configManager.reloadConfigs();
+            if (statsManager != null) {
+                statsManager.reload();
+            }
+            if (rtpLocationPool != null) {
+                rtpLocationPool.reload();
+            }
+            if (chatManager != null) {
+                chatManager.reloadConfig();
+            }
             getLogger().info("SurvivalCore-V2 configuration reloaded successfully!");
         } catch (Exception e) {
             getLogger().log(Level.SEVERE, "Error reloading SurvivalCore-V2 configuration", e);
@@ -218,6 +260,14 @@ public class SurvivalCore extends JavaPlugin {
         return tpaManager;
     }
     
+    public ChunkTicketManager getChunkTicketManager() {
+        return chunkTicketManager;
+    }
+    
+    public TeleportService getTeleportService() {
+        return teleportService;
+    }
+    
     public HomeManager getHomeManager() {
         return homeManager;
     }
@@ -250,6 +300,10 @@ public class SurvivalCore extends JavaPlugin {
         return adminToolsManager;
     }
     
+    public RtpLocationPool getRtpLocationPool() {
+        return rtpLocationPool;
+    }
+    
     public long getServerStartTime() {
         return serverStartTime;
     }
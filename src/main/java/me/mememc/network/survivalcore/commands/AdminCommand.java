@@ -1,6 +1,8 @@
 package me.mememc.network.survivalcore.commands;
 
 import me.mememc.network.survivalcore.SurvivalCore;
+import me.mememc.network.survivalcore.utils.ConnectionPool;
+import me.mememc.network.survivalcore.utils.DatabaseExecutor;
 import me.mememc.network.survivalcore.utils.MessageUtils;
 import org.bukkit.command.Command;
 import org.bukkit.command.CommandExecutor;
@@ -20,8 +22,8 @@ public class AdminCommand implements CommandExecutor {
     @Override
     public boolean onCommand(CommandSender sender, Command command, String label, String[] args) {
         if (!sender.hasPermission("survivalcore.admin")) {
-            MessageUtils.sendMessage(sender, plugin.getConfigManager().getMessagesConfig()
-                .getString("general.no-permission", "You don't have permission to use this command!"));
+            MessageUtils.sendMessage(sender, plugin.getConfigManager()
+                .getMessage("general.no-permission", "You don't have permission to use this command!"));
             return true;
         }
         
@@ -46,38 +48,49 @@ public class AdminCommand implements CommandExecutor {
     private boolean handleReload(CommandSender sender) {
         try {
             plugin.reloadPlugin();
-            MessageUtils.sendMessage(sender, plugin.getConfigManager().getMessagesConfig()
-                .getString("admin.reloaded", "Configuration reloaded successfully!"));
+            MessageUtils.sendMessage(sender, plugin.getConfigManager()
+                .getMessage("admin.reloaded", "Configuration reloaded successfully!"));
         } catch (Exception e) {
-            MessageUtils.sendMessage(sender, plugin.getConfigManager().getMessagesConfig()
-                .getString("admin.reload-error", "Error occurred while reloading configuration!"));
+            MessageUtils.sendMessage(sender, plugin.getConfigManager()
+                .getMessage("admin.reload-error", "Error occurred while reloading configuration!"));
             plugin.getLogger().severe("Error reloading plugin: " + e.getMessage());
         }
         return true;
     }
     
     private boolean handleInfo(CommandSender sender) {
-        MessageUtils.sendMessage(sender, plugin.getConfigManager().getMessagesConfig()
-            .getString("admin.info-header", "--- SurvivalCore-V2 Info ---"));
+        MessageUtils.sendMessage(sender, plugin.getConfigManager()
+            .getMessage("admin.info-header", "--- SurvivalCore-V2 Info ---"));
         
-        String version = plugin.getConfigManager().getMessagesConfig()
-            .getString("admin.info-version", "Version: {version}")
-            .replace("{version}", plugin.getDescription().getVersion());
-        MessageUtils.sendMessage(sender, version);
+        MessageUtils.sendMessage(sender, plugin.getConfigManager()
+            .getMessage("admin.info-version", "Version: {version}"),
+            "{version}", plugin.getDescription().getVersion());
         
-        String author = plugin.getConfigManager().getMessagesConfig()
-            .getString("admin.info-author", "Author: MemeMC Network");
-        MessageUtils.sendMessage(sender, author);
+        MessageUtils.sendMessage(sender, plugin.getConfigManager()
+            .getMessage("admin.info-author", "Author: MemeMC Network"));
         
-        String database = plugin.getConfigManager().getMessagesConfig()
-            .getString("admin.info-database", "Database: {database}")
-            .replace("{database}", plugin.getConfigManager().getDatabaseType().toUpperCase());
-        MessageUtils.sendMessage(sender, database);
+        MessageUtils.sendMessage(sender, plugin.getConfigManager()
+            .getMessage("admin.info-database", "Database: {database}"),
+            "{database}", plugin.getConfigManager().getDatabaseType().toUpperCase());
         
-        String players = plugin.getConfigManager().getMessagesConfig()
-            .getString("admin.info-players", "Online Players: {players}")
-            .replace("{players}", String.valueOf(plugin.getServer().getOnlinePlayers().size()));
-        MessageUtils.sendMessage(sender, players);
+        ConnectionPool writePool = plugin.getDatabaseManager().getWritePool();
+        ConnectionPool readPool = plugin.getDatabaseManager().getReadPool();
+        if (writePool != null) {
+            sendPoolInfo(sender, writePool);
+        }
+        if (readPool != null && readPool != writePool) {
+            sendPoolInfo(sender, readPool);
+        }
+        
+        DatabaseExecutor executor = plugin.getDatabaseManager().getExecutor();
+        MessageUtils.sendMessage(sender, String.format(
+            "&7- Executor: &a%d &7queued writes, &a%d &7queued reads, &a%d &7completed, &c%d &7caller-runs, &c%d &7rejected",
+            executor.getQueuedWrites(), executor.getQueuedReads(), executor.getCompletedTasks(),
+            executor.getCallerRuns(), executor.getRejected()));
+        
+        MessageUtils.sendMessage(sender, plugin.getConfigManager()
+            .getMessage("admin.info-players", "Online Players: {players}"),
+            "{players}", String.valueOf(plugin.getServer().getOnlinePlayers().size()));
         
         // Feature status
         MessageUtils.sendMessage(sender, "&7Features:");
@@ -105,6 +118,13 @@ public class AdminCommand implements CommandExecutor {
         return true;
     }
     
+    private void sendPoolInfo(CommandSender sender, ConnectionPool pool) {
+        MessageUtils.sendMessage(sender, String.format(
+            "&7- Pool &e%s&7: &a%d &7active, &a%d &7idle, &a%d&7/&a%d &7open, &a%d &7waiting, avg wait &a%.1fms&7, timeouts &c%d&7, leaks &c%d",
+            pool.getName(), pool.getActiveConnections(), pool.getIdleConnections(), pool.getTotalConnections(),
+            pool.getMaxSize(), pool.getWaitingThreads(), pool.getAverageWaitMillis(), pool.getTimeouts(), pool.getLeaksDetected()));
+    }
+    
     private void sendUsage(CommandSender sender) {
         MessageUtils.sendMessage(sender, "&6SurvivalCore-V2 Admin Commands:");
         MessageUtils.sendMessage(sender, "&7/survivalcore reload &f- Reload configuration");
@@ -1,6 +1,7 @@
 package me.mememc.network.survivalcore.commands;
 
 import me.mememc.network.survivalcore.SurvivalCore;
+import me.mememc.network.survivalcore.utils.MessageTemplate;
 import me.mememc.network.survivalcore.utils.MessageUtils;
 import org.bukkit.Bukkit;
 import org.bukkit.command.Command;
@@ -38,14 +39,14 @@ public class ChatCommand implements CommandExecutor {
     
     private boolean handleMuteCommand(CommandSender sender, String[] args) {
         if (!sender.hasPermission("survivalcore.chat.mute")) {
-            MessageUtils.sendMessage(sender, plugin.getConfigManager().getMessagesConfig()
-                .getString("general.no-permission", "You don't have permission to use this command!"));
+            MessageUtils.sendMessage(sender, plugin.getConfigManager()
+                .getMessage("general.no-permission", "You don't have permission to use this command!"));
             return true;
         }
         
         if (args.length == 0) {
-            MessageUtils.sendMessage(sender, plugin.getConfigManager().getMessagesConfig()
-                .getString("general.invalid-usage", "Usage: /mute <player>"));
+            MessageUtils.sendMessage(sender, plugin.getConfigManager()
+                .getMessage("general.invalid-usage", "Usage: /mute <player>"));
             return true;
         }
         
@@ -53,48 +54,48 @@ public class ChatCommand implements CommandExecutor {
         Player target = Bukkit.getPlayer(targetName);
         
         if (target == null) {
-            MessageUtils.sendMessage(sender, plugin.getConfigManager().getMessagesConfig()
-                .getString("general.invalid-player", "Player '{player}' not found or is offline!")
-                .replace("{player}", targetName));
+            MessageUtils.sendMessage(sender, plugin.getConfigManager()
+                .getMessage("general.invalid-player", "Player '{player}' not found or is offline!"),
+                "{player}", targetName);
             return true;
         }
         
         if (target.hasPermission("survivalcore.chat.bypass.mute")) {
-            MessageUtils.sendMessage(sender, plugin.getConfigManager().getMessagesConfig()
-                .getString("chat.cannot-mute", "{prefix}&cYou cannot mute this player!"));
+            MessageUtils.sendMessage(sender, plugin.getConfigManager()
+                .getMessage("chat.cannot-mute", "{prefix}&cYou cannot mute this player!"));
             return true;
         }
         
         if (plugin.getChatManager().isMuted(target.getUniqueId())) {
-            MessageUtils.sendMessage(sender, plugin.getConfigManager().getMessagesConfig()
-                .getString("chat.already-muted", "{prefix}&cPlayer {player} is already muted!")
-                .replace("{player}", target.getName()));
+            MessageUtils.sendMessage(sender, plugin.getConfigManager()
+                .getMessage("chat.already-muted", "{prefix}&cPlayer {player} is already muted!"),
+                "{player}", target.getName());
             return true;
         }
         
         plugin.getChatManager().mutePlayer(target.getUniqueId());
         
-        MessageUtils.sendMessage(sender, plugin.getConfigManager().getMessagesConfig()
-            .getString("chat.player-muted", "{prefix}&aPlayer {player} has been muted!")
-            .replace("{player}", target.getName()));
+        MessageUtils.sendMessage(sender, plugin.getConfigManager()
+            .getMessage("chat.player-muted", "{prefix}&aPlayer {player} has been muted!"),
+            "{player}", target.getName());
         
-        MessageUtils.sendMessage(target, plugin.getConfigManager().getMessagesConfig()
-            .getString("chat.you-were-muted", "{prefix}&cYou have been muted by {staff}!")
-            .replace("{staff}", sender.getName()));
+        MessageUtils.sendMessage(target, plugin.getConfigManager()
+            .getMessage("chat.you-were-muted", "{prefix}&cYou have been muted by {staff}!"),
+            "{staff}", sender.getName());
         
         return true;
     }
     
     private boolean handleUnmuteCommand(CommandSender sender, String[] args) {
         if (!sender.hasPermission("survivalcore.chat.unmute")) {
-            MessageUtils.sendMessage(sender, plugin.getConfigManager().getMessagesConfig()
-                .getString("general.no-permission", "You don't have permission to use this command!"));
+            MessageUtils.sendMessage(sender, plugin.getConfigManager()
+                .getMessage("general.no-permission", "You don't have permission to use this command!"));
             return true;
         }
         
         if (args.length == 0) {
-            MessageUtils.sendMessage(sender, plugin.getConfigManager().getMessagesConfig()
-                .getString("general.invalid-usage", "Usage: /unmute <player>"));
+            MessageUtils.sendMessage(sender, plugin.getConfigManager()
+                .getMessage("general.invalid-usage", "Usage: /unmute <player>"));
             return true;
         }
         
@@ -102,44 +103,44 @@ public class ChatCommand implements CommandExecutor {
         Player target = Bukkit.getPlayer(targetName);
         
         if (target == null) {
-            MessageUtils.sendMessage(sender, plugin.getConfigManager().getMessagesConfig()
-                .getString("general.invalid-player", "Player '{player}' not found or is offline!")
-                .replace("{player}", targetName));
+            MessageUtils.sendMessage(sender, plugin.getConfigManager()
+                .getMessage("general.invalid-player", "Player '{player}' not found or is offline!"),
+                "{player}", targetName);
             return true;
         }
         
         if (!plugin.getChatManager().isMuted(target.getUniqueId())) {
-            MessageUtils.sendMessage(sender, plugin.getConfigManager().getMessagesConfig()
-                .getString("chat.not-muted", "{prefix}&cPlayer {player} is not muted!")
-                .replace("{player}", target.getName()));
+            MessageUtils.sendMessage(sender, plugin.getConfigManager()
+                .getMessage("chat.not-muted", "{prefix}&cPlayer {player} is not muted!"),
+                "{player}", target.getName());
             return true;
         }
         
         plugin.getChatManager().unmutePlayer(target.getUniqueId());
         
-        MessageUtils.sendMessage(sender, plugin.getConfigManager().getMessagesConfig()
-            .getString("chat.player-unmuted", "{prefix}&aPlayer {player} has been unmuted!")
-            .replace("{player}", target.getName()));
+        MessageUtils.sendMessage(sender, plugin.getConfigManager()
+            .getMessage("chat.player-unmuted", "{prefix}&aPlayer {player} has been unmuted!"),
+            "{player}", target.getName());
         
-        MessageUtils.sendMessage(target, plugin.getConfigManager().getMessagesConfig()
-            .getString("chat.you-were-unmuted", "{prefix}&aYou have been unmuted by {staff}!")
-            .replace("{staff}", sender.getName()));
+        MessageUtils.sendMessage(target, plugin.getConfigManager()
+            .getMessage("chat.you-were-unmuted", "{prefix}&aYou have been unmuted by {staff}!"),
+            "{staff}", sender.getName());
         
         return true;
     }
     
     private boolean handleClearChatCommand(CommandSender sender, String[] args) {
         if (!sender.hasPermission("survivalcore.chat.clear")) {
-            MessageUtils.sendMessage(sender, plugin.getConfigManager().getMessagesConfig()
-                .getString("general.no-permission", "You don't have permission to use this command!"));
+            MessageUtils.sendMessage(sender, plugin.getConfigManager()
+                .getMessage("general.no-permission", "You don't have permission to use this command!"));
             return true;
         }
         
         plugin.getChatManager().clearChat();
         
         if (sender instanceof Player) {
-            MessageUtils.sendMessage(sender, plugin.getConfigManager().getMessagesConfig()
-                .getString("chat.cleared-by-you", "{prefix}&aYou cleared the chat!"));
+            MessageUtils.sendMessage(sender, plugin.getConfigManager()
+                .getMessage("chat.cleared-by-you", "{prefix}&aYou cleared the chat!"));
         }
         
         return true;
@@ -147,19 +148,19 @@ public class ChatCommand implements CommandExecutor {
     
     private boolean handleMuteChatCommand(CommandSender sender, String[] args) {
         if (!sender.hasPermission("survivalcore.chat.toggle")) {
-            MessageUtils.sendMessage(sender, plugin.getConfigManager().getMessagesConfig()
-                .getString("general.no-permission", "You don't have permission to use this command!"));
+            MessageUtils.sendMessage(sender, plugin.getConfigManager()
+                .getMessage("general.no-permission", "You don't have permission to use this command!"));
             return true;
         }
         
-        boolean currentState = plugin.getConfigManager().getConfig().getBoolean("chat.enabled", true);
+        boolean currentState = plugin.getConfigManager().getSnapshot().isChatEnabled();
         boolean newState = !currentState;
         
         plugin.getChatManager().toggleChat(newState);
         
-        String message = newState 
-            ? plugin.getConfigManager().getMessagesConfig().getString("chat.enabled-by-staff", "{prefix}&aYou enabled chat for everyone!")
-            : plugin.getConfigManager().getMessagesConfig().getString("chat.disabled-by-staff", "{prefix}&cYou disabled chat for everyone!");
+        MessageTemplate message = newState 
+            ? plugin.getConfigManager().getMessage("chat.enabled-by-staff", "{prefix}&aYou enabled chat for everyone!")
+            : plugin.getConfigManager().getMessage("chat.disabled-by-staff", "{prefix}&cYou disabled chat for everyone!");
         
         MessageUtils.sendMessage(sender, message);
         
@@ -52,16 +52,16 @@ public class EnhancedAdminCommand implements CommandExecutor {
     
     private boolean handleAdminPanel(CommandSender sender, String[] args) {
         if (!(sender instanceof Player)) {
-            MessageUtils.sendMessage(sender, plugin.getConfigManager().getMessagesConfig()
-                .getString("general.player-only", "This command can only be used by players!"));
+            MessageUtils.sendMessage(sender, plugin.getConfigManager()
+                .getMessage("general.player-only", "This command can only be used by players!"));
             return true;
         }
         
         Player player = (Player) sender;
         
         if (!player.hasPermission("survivalcore.admin.panel")) {
-            MessageUtils.sendMessage(player, plugin.getConfigManager().getMessagesConfig()
-                .getString("general.no-permission", "You don't have permission to use this command!"));
+            MessageUtils.sendMessage(player, plugin.getConfigManager()
+                .getMessage("general.no-permission", "You don't have permission to use this command!"));
             return true;
         }
         
@@ -71,16 +71,16 @@ public class EnhancedAdminCommand implements CommandExecutor {
     
     private boolean handleGodMode(CommandSender sender, String[] args) {
         if (!(sender instanceof Player)) {
-            MessageUtils.sendMessage(sender, plugin.getConfigManager().getMessagesConfig()
-                .getString("general.player-only", "This command can only be used by players!"));
+            MessageUtils.sendMessage(sender, plugin.getConfigManager()
+                .getMessage("general.player-only", "This command can only be used by players!"));
             return true;
         }
         
         Player player = (Player) sender;
         
         if (!player.hasPermission("survivalcore.admin.god")) {
-            MessageUtils.sendMessage(player, plugin.getConfigManager().getMessagesConfig()
-                .getString("general.no-permission", "You don't have permission to use this command!"));
+            MessageUtils.sendMessage(player, plugin.getConfigManager()
+                .getMessage("general.no-permission", "You don't have permission to use this command!"));
             return true;
         }
         
@@ -89,9 +89,9 @@ public class EnhancedAdminCommand implements CommandExecutor {
         if (args.length > 0 && player.hasPermission("survivalcore.admin.god.others")) {
             target = Bukkit.getPlayer(args[0]);
             if (target == null) {
-                MessageUtils.sendMessage(player, plugin.getConfigManager().getMessagesConfig()
-                    .getString("general.invalid-player", "Player '{player}' not found or is offline!")
-                    .replace("{player}", args[0]));
+                MessageUtils.sendMessage(player, plugin.getConfigManager()
+                    .getMessage("general.invalid-player", "Player '{player}' not found or is offline!"),
+                    "{player}", args[0]);
                 return true;
             }
         }
@@ -102,16 +102,16 @@ public class EnhancedAdminCommand implements CommandExecutor {
     
     private boolean handleVanish(CommandSender sender, String[] args) {
         if (!(sender instanceof Player)) {
-            MessageUtils.sendMessage(sender, plugin.getConfigManager().getMessagesConfig()
-                .getString("general.player-only", "This command can only be used by players!"));
+            MessageUtils.sendMessage(sender, plugin.getConfigManager()
+                .getMessage("general.player-only", "This command can only be used by players!"));
             return true;
         }
         
         Player player = (Player) sender;
         
         if (!player.hasPermission("survivalcore.admin.vanish")) {
-            MessageUtils.sendMessage(player, plugin.getConfigManager().getMessagesConfig()
-                .getString("general.no-permission", "You don't have permission to use this command!"));
+            MessageUtils.sendMessage(player, plugin.getConfigManager()
+                .getMessage("general.no-permission", "You don't have permission to use this command!"));
             return true;
         }
         
@@ -121,8 +121,8 @@ public class EnhancedAdminCommand implements CommandExecutor {
     
     private boolean handleHeal(CommandSender sender, String[] args) {
         if (!sender.hasPermission("survivalcore.admin.heal")) {
-            MessageUtils.sendMessage(sender, plugin.getConfigManager().getMessagesConfig()
-                .getString("general.no-permission", "You don't have permission to use this command!"));
+            MessageUtils.sendMessage(sender, plugin.getConfigManager()
+                .getMessage("general.no-permission", "You don't have permission to use this command!"));
             return true;
         }
         
@@ -132,16 +132,16 @@ public class EnhancedAdminCommand implements CommandExecutor {
             if (sender instanceof Player) {
                 target = (Player) sender;
             } else {
-                MessageUtils.sendMessage(sender, plugin.getConfigManager().getMessagesConfig()
-                    .getString("general.invalid-usage", "Usage: /heal <player>"));
+                MessageUtils.sendMessage(sender, plugin.getConfigManager()
+                    .getMessage("general.invalid-usage", "Usage: /heal <player>"));
                 return true;
             }
         } else {
             target = Bukkit.getPlayer(args[0]);
             if (target == null) {
-                MessageUtils.sendMessage(sender, plugin.getConfigManager().getMessagesConfig()
-                    .getString("general.invalid-player", "Player '{player}' not found or is offline!")
-                    .replace("{player}", args[0]));
+                MessageUtils.sendMessage(sender, plugin.getConfigManager()
+                    .getMessage("general.invalid-player", "Player '{player}' not found or is offline!"),
+                    "{player}", args[0]);
                 return true;
             }
         }
@@ -152,8 +152,8 @@ public class EnhancedAdminCommand implements CommandExecutor {
     
     private boolean handleFeed(CommandSender sender, String[] args) {
         if (!sender.hasPermission("survivalcore.admin.feed")) {
-            MessageUtils.sendMessage(sender, plugin.getConfigManager().getMessagesConfig()
-                .getString("general.no-permission", "You don't have permission to use this command!"));
+            MessageUtils.sendMessage(sender, plugin.getConfigManager()
+                .getMessage("general.no-permission", "You don't have permission to use this command!"));
             return true;
         }
         
@@ -163,16 +163,16 @@ public class EnhancedAdminCommand implements CommandExecutor {
             if (sender instanceof Player) {
                 target = (Player) sender;
             } else {
-                MessageUtils.sendMessage(sender, plugin.getConfigManager().getMessagesConfig()
-                    .getString("general.invalid-usage", "Usage: /feed <player>"));
+                MessageUtils.sendMessage(sender, plugin.getConfigManager()
+                    .getMessage("general.invalid-usage", "Usage: /feed <player>"));
                 return true;
             }
         } else {
             target = Bukkit.getPlayer(args[0]);
             if (target == null) {
-                MessageUtils.sendMessage(sender, plugin.getConfigManager().getMessagesConfig()
-                    .getString("general.invalid-player", "Player '{player}' not found or is offline!")
-                    .replace("{player}", args[0]));
+                MessageUtils.sendMessage(sender, plugin.getConfigManager()
+                    .getMessage("general.invalid-player", "Player '{player}' not found or is offline!"),
+                    "{player}", args[0]);
                 return true;
             }
         }
@@ -183,21 +183,21 @@ public class EnhancedAdminCommand implements CommandExecutor {
     
     private boolean handleGameMode(CommandSender sender, String[] args) {
         if (!sender.hasPermission("survivalcore.admin.gamemode")) {
-            MessageUtils.sendMessage(sender, plugin.getConfigManager().getMessagesConfig()
-                .getString("general.no-permission", "You don't have permission to use this command!"));
+            MessageUtils.sendMessage(sender, plugin.getConfigManager()
+                .getMessage("general.no-permission", "You don't have permission to use this command!"));
             return true;
         }
         
         if (args.length == 0) {
-            MessageUtils.sendMessage(sender, plugin.getConfigManager().getMessagesConfig()
-                .getString("general.invalid-usage", "Usage: /gamemode <mode> [player]"));
+            MessageUtils.sendMessage(sender, plugin.getConfigManager()
+                .getMessage("general.invalid-usage", "Usage: /gamemode <mode> [player]"));
             return true;
         }
         
         GameMode gameMode = parseGameMode(args[0]);
         if (gameMode == null) {
-            MessageUtils.sendMessage(sender, plugin.getConfigManager().getMessagesConfig()
-                .getString("admin.invalid-gamemode", "{prefix}&cInvalid gamemode! Use: survival, creative, adventure, spectator"));
+            MessageUtils.sendMessage(sender, plugin.getConfigManager()
+                .getMessage("admin.invalid-gamemode", "{prefix}&cInvalid gamemode! Use: survival, creative, adventure, spectator"));
             return true;
         }
         
@@ -207,31 +207,30 @@ public class EnhancedAdminCommand implements CommandExecutor {
             if (sender instanceof Player) {
                 target = (Player) sender;
             } else {
-                MessageUtils.sendMessage(sender, plugin.getConfigManager().getMessagesConfig()
-                    .getString("general.invalid-usage", "Usage: /gamemode <mode> <player>"));
+                MessageUtils.sendMessage(sender, plugin.getConfigManager()
+                    .getMessage("general.invalid-usage", "Usage: /gamemode <mode> <player>"));
                 return true;
             }
         } else {
             target = Bukkit.getPlayer(args[1]);
             if (target == null) {
-                MessageUtils.sendMessage(sender, plugin.getConfigManager().getMessagesConfig()
-                    .getString("general.invalid-player", "Player '{player}' not found or is offline!")
-                    .replace("{player}", args[1]));
+                MessageUtils.sendMessage(sender, plugin.getConfigManager()
+                    .getMessage("general.invalid-player", "Player '{player}' not found or is offline!"),
+                    "{player}", args[1]);
                 return true;
             }
         }
         
         target.setGameMode(gameMode);
         
-        MessageUtils.sendMessage(target, plugin.getConfigManager().getMessagesConfig()
-            .getString("admin.gamemode-changed", "{prefix}&aYour gamemode has been changed to {gamemode}!")
-            .replace("{gamemode}", gameMode.toString().toLowerCase()));
+        MessageUtils.sendMessage(target, plugin.getConfigManager()
+            .getMessage("admin.gamemode-changed", "{prefix}&aYour gamemode has been changed to {gamemode}!"),
+            "{gamemode}", gameMode.toString().toLowerCase());
         
         if (!target.equals(sender)) {
-            MessageUtils.sendMessage(sender, plugin.getConfigManager().getMessagesConfig()
-                .getString("admin.gamemode-changed-other", "{prefix}&aChanged {player}'s gamemode to {gamemode}!")
-                .replace("{player}", target.getName())
-                .replace("{gamemode}", gameMode.toString().toLowerCase()));
+            MessageUtils.sendMessage(sender, plugin.getConfigManager()
+                .getMessage("admin.gamemode-changed-other", "{prefix}&aChanged {player}'s gamemode to {gamemode}!"),
+                "{player}", target.getName(), "{gamemode}", gameMode.toString().toLowerCase());
         }
         
         return true;
@@ -239,22 +238,22 @@ public class EnhancedAdminCommand implements CommandExecutor {
     
     private boolean handleTeleport(CommandSender sender, String[] args) {
         if (!(sender instanceof Player)) {
-            MessageUtils.sendMessage(sender, plugin.getConfigManager().getMessagesConfig()
-                .getString("general.player-only", "This command can only be used by players!"));
+            MessageUtils.sendMessage(sender, plugin.getConfigManager()
+                .getMessage("general.player-only", "This command can only be used by players!"));
             return true;
         }
         
         Player player = (Player) sender;
         
         if (!player.hasPermission("survivalcore.admin.teleport")) {
-            MessageUtils.sendMessage(player, plugin.getConfigManager().getMessagesConfig()
-                .getString("general.no-permission", "You don't have permission to use this command!"));
+            MessageUtils.sendMessage(player, plugin.getConfigManager()
+                .getMessage("general.no-permission", "You don't have permission to use this command!"));
             return true;
         }
         
         if (args.length == 0) {
-            MessageUtils.sendMessage(player, plugin.getConfigManager().getMessagesConfig()
-                .getString("general.invalid-usage", "Usage: /teleport <player> or /teleport <x> <y> <z>"));
+            MessageUtils.sendMessage(player, plugin.getConfigManager()
+                .getMessage("general.invalid-usage", "Usage: /teleport <player> or /teleport <x> <y> <z>"));
             return true;
         }
         
@@ -262,16 +261,16 @@ public class EnhancedAdminCommand implements CommandExecutor {
             // Teleport to player
             Player target = Bukkit.getPlayer(args[0]);
             if (target == null) {
-                MessageUtils.sendMessage(player, plugin.getConfigManager().getMessagesConfig()
-                    .getString("general.invalid-player", "Player '{player}' not found or is offline!")
-                    .replace("{player}", args[0]));
+                MessageUtils.sendMessage(player, plugin.getConfigManager()
+                    .getMessage("general.invalid-player", "Player '{player}' not found or is offline!"),
+                    "{player}", args[0]);
                 return true;
             }
             
             player.teleport(target.getLocation());
-            MessageUtils.sendMessage(player, plugin.getConfigManager().getMessagesConfig()
-                .getString("admin.teleported-to-player", "{prefix}&aTeleported to {player}!")
-                .replace("{player}", target.getName()));
+            MessageUtils.sendMessage(player, plugin.getConfigManager()
+                .getMessage("admin.teleported-to-player", "{prefix}&aTeleported to {player}!"),
+                "{player}", target.getName());
             
         } else if (args.length >= 3) {
             // Teleport to coordinates
@@ -281,15 +280,13 @@ public class EnhancedAdminCommand implements CommandExecutor {
                 double z = Double.parseDouble(args[2]);
                 
                 player.teleport(new org.bukkit.Location(player.getWorld(), x, y, z));
-                MessageUtils.sendMessage(player, plugin.getConfigManager().getMessagesConfig()
-                    .getString("admin.teleported-to-coords", "{prefix}&aTeleported to {x}, {y}, {z}!")
-                    .replace("{x}", String.valueOf((int)x))
-                    .replace("{y}", String.valueOf((int)y))
-                    .replace("{z}", String.valueOf((int)z)));
+                MessageUtils.sendMessage(player, plugin.getConfigManager()
+                    .getMessage("admin.teleported-to-coords", "{prefix}&aTeleported to {x}, {y}, {z}!"),
+                    "{x}", String.valueOf((int)x), "{y}", String.valueOf((int)y), "{z}", String.valueOf((int)z));
                 
             } catch (NumberFormatException e) {
-                MessageUtils.sendMessage(player, plugin.getConfigManager().getMessagesConfig()
-                    .getString("admin.invalid-coordinates", "{prefix}&cInvalid coordinates!"));
+                MessageUtils.sendMessage(player, plugin.getConfigManager()
+                    .getMessage("admin.invalid-coordinates", "{prefix}&cInvalid coordinates!"));
             }
         }
         
@@ -298,26 +295,26 @@ public class EnhancedAdminCommand implements CommandExecutor {
     
     private boolean handleBackup(CommandSender sender, String[] args) {
         if (!sender.hasPermission("survivalcore.admin.backup")) {
-            MessageUtils.sendMessage(sender, plugin.getConfigManager().getMessagesConfig()
-                .getString("general.no-permission", "You don't have permission to use this command!"));
+            MessageUtils.sendMessage(sender, plugin.getConfigManager()
+                .getMessage("general.no-permission", "You don't have permission to use this command!"));
             return true;
         }
         
         String backupName = args.length > 0 ? args[0] : null;
         
-        MessageUtils.sendMessage(sender, plugin.getConfigManager().getMessagesConfig()
-            .getString("admin.backup-starting", "{prefix}&aStarting backup..."));
+        MessageUtils.sendMessage(sender, plugin.getConfigManager()
+            .getMessage("admin.backup-starting", "{prefix}&aStarting backup..."));
         
         Bukkit.getScheduler().runTaskAsynchronously(plugin, () -> {
             boolean success = plugin.getAdminToolsManager().createBackup(backupName);
             
             Bukkit.getScheduler().runTask(plugin, () -> {
                 if (success) {
-                    MessageUtils.sendMessage(sender, plugin.getConfigManager().getMessagesConfig()
-                        .getString("admin.backup-completed", "{prefix}&aBackup completed successfully!"));
+                    MessageUtils.sendMessage(sender, plugin.getConfigManager()
+                        .getMessage("admin.backup-completed", "{prefix}&aBackup completed successfully!"));
                 } else {
-                    MessageUtils.sendMessage(sender, plugin.getConfigManager().getMessagesConfig()
-                        .getString("admin.backup-failed", "{prefix}&cBackup failed! Check console for errors."));
+                    MessageUtils.sendMessage(sender, plugin.getConfigManager()
+                        .getMessage("admin.backup-failed", "{prefix}&cBackup failed! Check console for errors."));
                 }
             });
         });
@@ -1,23 +1,34 @@
 package me.mememc.network.survivalcore.commands;
 
 import me.mememc.network.survivalcore.SurvivalCore;
+import me.mememc.network.survivalcore.managers.CooldownManager;
 import me.mememc.network.survivalcore.models.Home;
+import me.mememc.network.survivalcore.utils.ConfigSnapshot;
+import me.mememc.network.survivalcore.utils.MessageTemplate;
 import me.mememc.network.survivalcore.utils.MessageUtils;
+import org.bukkit.Bukkit;
 import org.bukkit.Location;
+import org.bukkit.OfflinePlayer;
 import org.bukkit.Sound;
 import org.bukkit.command.Command;
 import org.bukkit.command.CommandExecutor;
 import org.bukkit.command.CommandSender;
+import org.bukkit.command.TabCompleter;
 import org.bukkit.entity.Player;
-import org.bukkit.scheduler.BukkitRunnable;
 
+import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.UUID;
+import java.util.logging.Level;
 
 /**
  * Handles Home command functionality
  */
-public class HomeCommand implements CommandExecutor {
+public class HomeCommand implements CommandExecutor, TabCompleter {
+    
+    private static final int MAX_COMPLETIONS = 50;
     
     private final SurvivalCore plugin;
     
@@ -28,19 +39,31 @@ public class HomeCommand implements CommandExecutor {
     @Override
     public boolean onCommand(CommandSender sender, Command command, String label, String[] args) {
         if (!plugin.getConfigManager().isHomeEnabled()) {
-            MessageUtils.sendMessage(sender, plugin.getConfigManager().getMessagesConfig()
-                .getString("general.feature-disabled", "This feature is currently disabled!"));
+            MessageUtils.sendMessage(sender, plugin.getConfigManager()
+                .getMessage("general.feature-disabled", "This feature is currently disabled!"));
             return true;
         }
         
+        String commandName = command.getName().toLowerCase();
+        
+        // Listing someone else's homes works from the console too
+        if ((commandName.equals("homes") || commandName.equals("listhomes")) && args.length == 1) {
+            return handleOtherHomesCommand(sender, args[0]);
+        }
+        
         if (!(sender instanceof Player)) {
-            MessageUtils.sendMessage(sender, plugin.getConfigManager().getMessagesConfig()
-                .getString("general.player-only", "This command can only be used by players!"));
+            MessageUtils.sendMessage(sender, plugin.getConfigManager()
+                .getMessage("general.player-only", "This command can only be used by players!"));
             return true;
         }
         
         Player player = (Player) sender;
-        String commandName = command.getName().toLowerCase();
+        
+        if (!plugin.getHomeManager().ensureLoaded(player)) {
+            MessageUtils.sendMessage(player, plugin.getConfigManager()
+                .getMessage("home.loading", "Your homes are still loading, try again in a moment!"));
+            return true;
+        }
         
         switch (commandName) {
             case "home":
@@ -61,20 +84,19 @@ public class HomeCommand implements CommandExecutor {
     
     private boolean handleHomeCommand(Player player, String[] args) {
         if (!player.hasPermission("survivalcore.home.use")) {
-            MessageUtils.sendMessage(player, plugin.getConfigManager().getMessagesConfig()
-                .getString("general.no-permission", "You don't have permission to use this command!"));
+            MessageUtils.sendMessage(player, plugin.getConfigManager()
+                .getMessage("general.no-permission", "You don't have permission to use this command!"));
             return true;
         }
         
         // Check cooldown
         if (!player.hasPermission("survivalcore.bypass.cooldown")) {
-            if (plugin.getCooldownManager().hasCooldown(player, "home")) {
-                int remaining = plugin.getCooldownManager().getRemainingCooldown(player, "home");
+            if (plugin.getCooldownManager().hasCooldown(player, CooldownManager.HOME)) {
+                int remaining = plugin.getCooldownManager().getRemainingCooldown(player, CooldownManager.HOME);
                 String timeFormat = plugin.getCooldownManager().formatTime(remaining);
-                String message = plugin.getConfigManager().getMessagesConfig()
-                    .getString("general.cooldown", "You must wait {time} before using this command again!")
-                    .replace("{time}", timeFormat);
-                MessageUtils.sendMessage(player, message);
+                MessageUtils.sendMessage(player, plugin.getConfigManager()
+                    .getMessage("general.cooldown", "You must wait {time} before using this command again!"),
+                    "{time}", timeFormat);
                 return true;
             }
         }
@@ -94,25 +116,23 @@ public class HomeCommand implements CommandExecutor {
         }
         
         if (home == null) {
-            String message = plugin.getConfigManager().getMessagesConfig()
-                .getString("home.not-found", "Home '{home}' not found!")
-                .replace("{home}", homeName);
-            MessageUtils.sendMessage(player, message);
+            MessageUtils.sendMessage(player, plugin.getConfigManager()
+                .getMessage("home.not-found", "Home '{home}' not found!"),
+                "{home}", homeName);
             return true;
         }
         
         if (!home.isValidLocation()) {
-            String message = plugin.getConfigManager().getMessagesConfig()
-                .getString("home.not-found", "Home '{home}' not found!")
-                .replace("{home}", homeName);
-            MessageUtils.sendMessage(player, message);
+            MessageUtils.sendMessage(player, plugin.getConfigManager()
+                .getMessage("home.not-found", "Home '{home}' not found!"),
+                "{home}", homeName);
             return true;
         }
         
         // Set cooldown
         if (!player.hasPermission("survivalcore.bypass.cooldown")) {
             int cooldown = plugin.getConfigManager().getHomeCooldown();
-            plugin.getCooldownManager().setCooldown(player, "home", cooldown);
+            plugin.getCooldownManager().setCooldown(player, CooldownManager.HOME, cooldown);
         }
         
         // Teleport with delay
@@ -123,8 +143,8 @@ public class HomeCommand implements CommandExecutor {
     
     private boolean handleSetHomeCommand(Player player, String[] args) {
         if (!player.hasPermission("survivalcore.home.set")) {
-            MessageUtils.sendMessage(player, plugin.getConfigManager().getMessagesConfig()
-                .getString("general.no-permission", "You don't have permission to use this command!"));
+            MessageUtils.sendMessage(player, plugin.getConfigManager()
+                .getMessage("general.no-permission", "You don't have permission to use this command!"));
             return true;
         }
         
@@ -135,8 +155,8 @@ public class HomeCommand implements CommandExecutor {
         
         // Validate home name
         if (!homeName.matches("^[a-zA-Z0-9_]+$") || homeName.length() > 32) {
-            MessageUtils.sendMessage(player, plugin.getConfigManager().getMessagesConfig()
-                .getString("home.invalid-name", "Invalid home name! Use only letters, numbers, and underscores."));
+            MessageUtils.sendMessage(player, plugin.getConfigManager()
+                .getMessage("home.invalid-name", "Invalid home name! Use only letters, numbers, and underscores."));
             return true;
         }
         
@@ -149,10 +169,9 @@ public class HomeCommand implements CommandExecutor {
             Map<String, Home> currentHomes = plugin.getHomeManager().getPlayerHomes(player);
             
             if (currentHomes.size() >= maxHomes) {
-                String message = plugin.getConfigManager().getMessagesConfig()
-                    .getString("home.max-homes-reached", "You have reached the maximum number of homes ({max})!")
-                    .replace("{max}", String.valueOf(maxHomes));
-                MessageUtils.sendMessage(player, message);
+                MessageUtils.sendMessage(player, plugin.getConfigManager()
+                    .getMessage("home.max-homes-reached", "You have reached the maximum number of homes ({max})!"),
+                    "{max}", String.valueOf(maxHomes));
                 return true;
             }
         }
@@ -160,10 +179,9 @@ public class HomeCommand implements CommandExecutor {
         // Set the home
         Location location = player.getLocation();
         if (plugin.getHomeManager().setHome(player, homeName, location)) {
-            String message = plugin.getConfigManager().getMessagesConfig()
-                .getString("home.set", "Home '{home}' has been set!")
-                .replace("{home}", homeName);
-            MessageUtils.sendMessage(player, message);
+            MessageUtils.sendMessage(player, plugin.getConfigManager()
+                .getMessage("home.set", "Home '{home}' has been set!"),
+                "{home}", homeName);
             
             player.playSound(player.getLocation(), Sound.BLOCK_NOTE_BLOCK_PLING, 1.0f, 1.5f);
         } else {
@@ -175,32 +193,30 @@ public class HomeCommand implements CommandExecutor {
     
     private boolean handleDelHomeCommand(Player player, String[] args) {
         if (!player.hasPermission("survivalcore.home.delete")) {
-            MessageUtils.sendMessage(player, plugin.getConfigManager().getMessagesConfig()
-                .getString("general.no-permission", "You don't have permission to use this command!"));
+            MessageUtils.sendMessage(player, plugin.getConfigManager()
+                .getMessage("general.no-permission", "You don't have permission to use this command!"));
             return true;
         }
         
         if (args.length != 1) {
-            MessageUtils.sendMessage(player, plugin.getConfigManager().getMessagesConfig()
-                .getString("general.invalid-usage", "Usage: /delhome <name>")
-                .replace("{usage}", "/delhome <name>"));
+            MessageUtils.sendMessage(player, plugin.getConfigManager()
+                .getMessage("general.invalid-usage", "Usage: /delhome <name>"),
+                "{usage}", "/delhome <name>");
             return true;
         }
         
         String homeName = args[0];
         
         if (plugin.getHomeManager().deleteHome(player, homeName)) {
-            String message = plugin.getConfigManager().getMessagesConfig()
-                .getString("home.deleted", "Home '{home}' has been deleted!")
-                .replace("{home}", homeName);
-            MessageUtils.sendMessage(player, message);
+            MessageUtils.sendMessage(player, plugin.getConfigManager()
+                .getMessage("home.deleted", "Home '{home}' has been deleted!"),
+                "{home}", homeName);
             
             player.playSound(player.getLocation(), Sound.BLOCK_NOTE_BLOCK_BASS, 1.0f, 0.8f);
         } else {
-            String message = plugin.getConfigManager().getMessagesConfig()
-                .getString("home.not-found", "Home '{home}' not found!")
-                .replace("{home}", homeName);
-            MessageUtils.sendMessage(player, message);
+            MessageUtils.sendMessage(player, plugin.getConfigManager()
+                .getMessage("home.not-found", "Home '{home}' not found!"),
+                "{home}", homeName);
         }
         
         return true;
@@ -208,109 +224,130 @@ public class HomeCommand implements CommandExecutor {
     
     private boolean handleHomesCommand(Player player, String[] args) {
         if (!player.hasPermission("survivalcore.home.list")) {
-            MessageUtils.sendMessage(player, plugin.getConfigManager().getMessagesConfig()
-                .getString("general.no-permission", "You don't have permission to use this command!"));
+            MessageUtils.sendMessage(player, plugin.getConfigManager()
+                .getMessage("general.no-permission", "You don't have permission to use this command!"));
             return true;
         }
         
         Map<String, Home> homes = plugin.getHomeManager().getPlayerHomes(player);
         
         if (homes.isEmpty()) {
-            MessageUtils.sendMessage(player, plugin.getConfigManager().getMessagesConfig()
-                .getString("home.no-homes", "You don't have any homes set!"));
+            MessageUtils.sendMessage(player, plugin.getConfigManager()
+                .getMessage("home.no-homes", "You don't have any homes set!"));
             return true;
         }
         
-        MessageUtils.sendMessage(player, plugin.getConfigManager().getMessagesConfig()
-            .getString("home.list-header", "Your homes:"));
-        
-        String itemFormat = plugin.getConfigManager().getMessagesConfig()
-            .getString("home.list-item", "- {home} in {world} at {x}, {y}, {z}");
-        
-        for (Home home : homes.values()) {
-            if (home.isValidLocation()) {
-                String homeInfo = itemFormat
-                    .replace("{home}", home.getName())
-                    .replace("{world}", home.getWorldName())
-                    .replace("{x}", String.valueOf((int) home.getX()))
-                    .replace("{y}", String.valueOf((int) home.getY()))
-                    .replace("{z}", String.valueOf((int) home.getZ()));
-                
-                MessageUtils.sendMessage(player, homeInfo);
-            }
-        }
+        MessageUtils.sendMessage(player, plugin.getConfigManager()
+            .getMessage("home.list-header", "Your homes:"));
+        sendHomeList(player, homes.values());
         
         return true;
     }
     
-    private void performTeleportation(Player player, Home home) {
-        int delay = plugin.getConfigManager().getConfig().getInt("homes.teleport-delay", 3);
-        boolean cancelOnMove = plugin.getConfigManager().getConfig().getBoolean("homes.cancel-on-move", true);
-        
-        if (delay <= 0) {
-            // Instant teleport
-            executeTeleport(player, home);
-            return;
+    private boolean handleOtherHomesCommand(CommandSender sender, String targetName) {
+        if (!sender.hasPermission("survivalcore.admin.homes")) {
+            MessageUtils.sendMessage(sender, plugin.getConfigManager()
+                .getMessage("general.no-permission", "You don't have permission to use this command!"));
+            return true;
         }
         
-        // Store initial location for movement check
-        Location initialLocation = player.getLocation().clone();
-        
-        String delayMessage = plugin.getConfigManager().getMessagesConfig()
-            .getString("general.teleporting", "Teleporting in {delay} seconds... Don't move!")
-            .replace("{delay}", String.valueOf(delay));
-        MessageUtils.sendMessage(player, delayMessage);
+        Player online = Bukkit.getPlayerExact(targetName);
+        if (online != null) {
+            listOtherHomes(sender, online.getName(), online.getUniqueId());
+            return true;
+        }
         
-        new BukkitRunnable() {
-            private int countdown = delay;
-            
-            @Override
-            public void run() {
-                if (!player.isOnline()) {
-                    cancel();
+        // Resolving the name of an offline player may ask Mojang, so keep it off the server thread
+        Bukkit.getScheduler().runTaskAsynchronously(plugin, () -> {
+            @SuppressWarnings("deprecation")
+            OfflinePlayer target = Bukkit.getOfflinePlayer(targetName);
+            Bukkit.getScheduler().runTask(plugin, () -> {
+                if (!target.hasPlayedBefore()) {
+                    MessageUtils.sendMessage(sender, plugin.getConfigManager()
+                        .getMessage("general.invalid-player", "Player '{player}' not found or is offline!"),
+                        "{player}", targetName);
                     return;
                 }
-                
-                // Check if player moved (if enabled)
-                if (cancelOnMove && hasPlayerMoved(player.getLocation(), initialLocation)) {
-                    MessageUtils.sendMessage(player, plugin.getConfigManager().getMessagesConfig()
-                        .getString("general.teleport-cancelled", "Teleportation cancelled because you moved!"));
-                    cancel();
+                listOtherHomes(sender, target.getName() != null ? target.getName() : targetName, target.getUniqueId());
+            });
+        });
+        return true;
+    }
+    
+    /**
+     * Send another player's homes, read without caching them, once they arrive
+     */
+    private void listOtherHomes(CommandSender sender, String targetName, UUID targetUuid) {
+        plugin.getHomeManager().getHomesAsync(targetUuid).whenComplete((homes, e) ->
+            Bukkit.getScheduler().runTask(plugin, () -> {
+                if (sender instanceof Player && !((Player) sender).isOnline()) {
                     return;
                 }
-                
-                countdown--;
-                
-                if (countdown <= 0) {
-                    executeTeleport(player, home);
-                    cancel();
-                } else if (countdown <= 3) {
-                    MessageUtils.sendMessage(player, "&e" + countdown + "...");
+                if (e != null) {
+                    plugin.getLogger().log(Level.WARNING, "Error looking up homes of " + targetName, e);
+                    MessageUtils.sendMessage(sender, plugin.getConfigManager()
+                        .getMessage("home.others-failed", "Could not look up the homes of {player}!"),
+                        "{player}", targetName);
+                    return;
                 }
+                if (homes.isEmpty()) {
+                    MessageUtils.sendMessage(sender, plugin.getConfigManager()
+                        .getMessage("home.others-no-homes", "{player} doesn't have any homes set!"),
+                        "{player}", targetName);
+                    return;
+                }
+                
+                MessageUtils.sendMessage(sender, plugin.getConfigManager()
+                    .getMessage("home.others-list-header", "Homes of {player}:"),
+                    "{player}", targetName);
+                sendHomeList(sender, homes.values());
+            }));
+    }
+    
+    private void sendHomeList(CommandSender sender, Collection<Home> homes) {
+        MessageTemplate itemFormat = plugin.getConfigManager()
+            .getMessage("home.list-item", "- {home} in {world} at {x}, {y}, {z}");
+        
+        for (Home home : homes) {
+            if (home.isValidLocation()) {
+                MessageUtils.sendMessage(sender, itemFormat,
+                    "{home}", home.getName(),
+                    "{world}", home.getWorldName(),
+                    "{x}", String.valueOf((int) home.getX()),
+                    "{y}", String.valueOf((int) home.getY()),
+                    "{z}", String.valueOf((int) home.getZ()));
             }
-        }.runTaskTimer(plugin, 0L, 20L); // Run every second
+        }
     }
     
-    private void executeTeleport(Player player, Home home) {
-        Location location = home.getLocation();
-        if (location == null) {
+    private void performTeleportation(Player player, Home home) {
+        if (home.getLocation() == null) {
             MessageUtils.sendMessage(player, "&cHome location is invalid!");
             return;
         }
         
-        player.teleport(location);
-        
-        String message = plugin.getConfigManager().getMessagesConfig()
-            .getString("home.teleported", "Teleported to home '{home}'!")
-            .replace("{home}", home.getName());
-        MessageUtils.sendMessage(player, message);
-        
-        player.playSound(player.getLocation(), Sound.ENTITY_ENDERMAN_TELEPORT, 1.0f, 1.0f);
+        ConfigSnapshot snapshot = plugin.getConfigManager().getSnapshot();
+        plugin.getTeleportService().teleport(player, home::getLocation, snapshot.getHomeTeleportDelay(),
+            snapshot.isHomeCancelOnMove(), snapshot.getHomeTeleportCost(), arrived -> {
+                MessageUtils.sendMessage(arrived, plugin.getConfigManager()
+                    .getMessage("home.teleported", "Teleported to home '{home}'!"),
+                    "{home}", home.getName());
+                
+                arrived.playSound(arrived.getLocation(), Sound.ENTITY_ENDERMAN_TELEPORT, 1.0f, 1.0f);
+            });
     }
     
-    private boolean hasPlayerMoved(Location current, Location initial) {
-        return current.getBlockX() != initial.getBlockX() ||
-               current.getBlockY() != initial.getBlockY() ||
-               current.getBlockZ() != initial.getBlockZ();
+    @Override
+    public List<String> onTabComplete(CommandSender sender, Command command, String alias, String[] args) {
+        if (!(sender instanceof Player) || args.length != 1) {
+            return Collections.emptyList();
+        }
+        
+        String commandName = command.getName().toLowerCase();
+        if (!commandName.equals("home") && !commandName.equals("delhome")) {
+            return Collections.emptyList();
+        }
+        
+        return plugin.getHomeManager().completeHomeNames((Player) sender, args[0], MAX_COMPLETIONS);
     }
 }
\ No newline at end of file
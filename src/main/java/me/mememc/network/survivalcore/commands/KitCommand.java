@@ -24,16 +24,16 @@ public class KitCommand implements CommandExecutor {
     @Override
     public boolean onCommand(CommandSender sender, Command command, String label, String[] args) {
         if (!(sender instanceof Player)) {
-            MessageUtils.sendMessage(sender, plugin.getConfigManager().getMessagesConfig()
-                .getString("general.player-only", "This command can only be used by players!"));
+            MessageUtils.sendMessage(sender, plugin.getConfigManager()
+                .getMessage("general.player-only", "This command can only be used by players!"));
             return true;
         }
         
         Player player = (Player) sender;
         
         if (!plugin.getConfigManager().isKitEnabled()) {
-            MessageUtils.sendMessage(player, plugin.getConfigManager().getMessagesConfig()
-                .getString("general.feature-disabled", "This feature is currently disabled!"));
+            MessageUtils.sendMessage(player, plugin.getConfigManager()
+                .getMessage("general.feature-disabled", "This feature is currently disabled!"));
             return true;
         }
         
@@ -62,8 +62,8 @@ public class KitCommand implements CommandExecutor {
     
     private boolean handleKitClaim(Player player, String kitName) {
         if (!player.hasPermission("survivalcore.kit.use")) {
-            MessageUtils.sendMessage(player, plugin.getConfigManager().getMessagesConfig()
-                .getString("general.no-permission", "You don't have permission to use this command!"));
+            MessageUtils.sendMessage(player, plugin.getConfigManager()
+                .getMessage("general.no-permission", "You don't have permission to use this command!"));
             return true;
         }
         
@@ -73,8 +73,8 @@ public class KitCommand implements CommandExecutor {
     
     private boolean handleListCommand(Player player) {
         if (!player.hasPermission("survivalcore.kit.list")) {
-            MessageUtils.sendMessage(player, plugin.getConfigManager().getMessagesConfig()
-                .getString("general.no-permission", "You don't have permission to use this command!"));
+            MessageUtils.sendMessage(player, plugin.getConfigManager()
+                .getMessage("general.no-permission", "You don't have permission to use this command!"));
             return true;
         }
         
@@ -84,14 +84,14 @@ public class KitCommand implements CommandExecutor {
     
     private boolean handleReloadCommand(Player player) {
         if (!player.hasPermission("survivalcore.kit.reload")) {
-            MessageUtils.sendMessage(player, plugin.getConfigManager().getMessagesConfig()
-                .getString("general.no-permission", "You don't have permission to use this command!"));
+            MessageUtils.sendMessage(player, plugin.getConfigManager()
+                .getMessage("general.no-permission", "You don't have permission to use this command!"));
             return true;
         }
         
         plugin.getKitManager().reloadKits();
-        MessageUtils.sendMessage(player, plugin.getConfigManager().getMessagesConfig()
-            .getString("kit.reloaded", "{prefix}&aKits reloaded successfully!"));
+        MessageUtils.sendMessage(player, plugin.getConfigManager()
+            .getMessage("kit.reloaded", "{prefix}&aKits reloaded successfully!"));
         return true;
     }
     
@@ -99,36 +99,32 @@ public class KitCommand implements CommandExecutor {
         Collection<Kit> availableKits = plugin.getKitManager().getAvailableKits(player);
         
         if (availableKits.isEmpty()) {
-            MessageUtils.sendMessage(player, plugin.getConfigManager().getMessagesConfig()
-                .getString("kit.no-kits", "{prefix}&cNo kits available!"));
+            MessageUtils.sendMessage(player, plugin.getConfigManager()
+                .getMessage("kit.no-kits", "{prefix}&cNo kits available!"));
             return;
         }
         
-        MessageUtils.sendMessage(player, plugin.getConfigManager().getMessagesConfig()
-            .getString("kit.list-header", "{prefix}&aAvailable Kits:"));
+        MessageUtils.sendMessage(player, plugin.getConfigManager()
+            .getMessage("kit.list-header", "{prefix}&aAvailable Kits:"));
         
         for (Kit kit : availableKits) {
             String status = "";
             
             if (kit.isOneTime() && plugin.getKitManager().hasClaimedKit(player, kit.getName())) {
                 status = " §c(Claimed)";
-            } else if (kit.getCooldown() > 0 && plugin.getCooldownManager().hasCooldown(player, "kit_" + kit.getName())) {
-                int remaining = plugin.getCooldownManager().getRemainingCooldown(player, "kit_" + kit.getName());
+            } else if (kit.getCooldown() > 0 && plugin.getCooldownManager().hasCooldown(player, kit.getCooldownFeature())) {
+                int remaining = plugin.getCooldownManager().getRemainingCooldown(player, kit.getCooldownFeature());
                 status = " §e(Cooldown: " + plugin.getCooldownManager().formatTime(remaining) + ")";
             } else {
                 status = " §a(Available)";
             }
             
-            String message = plugin.getConfigManager().getMessagesConfig()
-                .getString("kit.list-item", "&7- &e{kit}&7: {description}{status}")
-                .replace("{kit}", kit.getDisplayName())
-                .replace("{description}", kit.getDescription().isEmpty() ? "No description" : kit.getDescription())
-                .replace("{status}", status);
-            
-            MessageUtils.sendMessage(player, message);
+            MessageUtils.sendMessage(player, plugin.getConfigManager()
+                .getMessage("kit.list-item", "&7- &e{kit}&7: {description}{status}"),
+                "{kit}", kit.getDisplayName(), "{description}", kit.getDescription().isEmpty() ? "No description" : kit.getDescription(), "{status}", status);
         }
         
-        MessageUtils.sendMessage(player, plugin.getConfigManager().getMessagesConfig()
-            .getString("kit.list-footer", "&7Use &e/kit <name> &7to claim a kit"));
+        MessageUtils.sendMessage(player, plugin.getConfigManager()
+            .getMessage("kit.list-footer", "&7Use &e/kit <name> &7to claim a kit"));
     }
 }
\ No newline at end of file
@@ -1,23 +1,31 @@
 package me.mememc.network.survivalcore.commands;
 
 import me.mememc.network.survivalcore.SurvivalCore;
+import me.mememc.network.survivalcore.managers.CooldownManager;
+import me.mememc.network.survivalcore.managers.PlayerWarpManager;
 import me.mememc.network.survivalcore.models.PlayerWarp;
+import me.mememc.network.survivalcore.utils.ConfigSnapshot;
+import me.mememc.network.survivalcore.utils.MessageTemplate;
 import me.mememc.network.survivalcore.utils.MessageUtils;
 import org.bukkit.Location;
 import org.bukkit.Sound;
 import org.bukkit.command.Command;
 import org.bukkit.command.CommandExecutor;
 import org.bukkit.command.CommandSender;
+import org.bukkit.command.TabCompleter;
 import org.bukkit.entity.Player;
-import org.bukkit.scheduler.BukkitRunnable;
 
 import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 
 /**
  * Handles Player Warp command functionality
  */
-public class PlayerWarpCommand implements CommandExecutor {
+public class PlayerWarpCommand implements CommandExecutor, TabCompleter {
+    
+    private static final int MAX_COMPLETIONS = 50;
+    private static final int MAX_NEAR_RESULTS = 10;
     
     private final SurvivalCore plugin;
     
@@ -28,14 +36,14 @@ public class PlayerWarpCommand implements CommandExecutor {
     @Override
     public boolean onCommand(CommandSender sender, Command command, String label, String[] args) {
         if (!plugin.getConfigManager().isPlayerWarpEnabled()) {
-            MessageUtils.sendMessage(sender, plugin.getConfigManager().getMessagesConfig()
-                .getString("general.feature-disabled", "This feature is currently disabled!"));
+            MessageUtils.sendMessage(sender, plugin.getConfigManager()
+                .getMessage("general.feature-disabled", "This feature is currently disabled!"));
             return true;
         }
         
         if (!(sender instanceof Player)) {
-            MessageUtils.sendMessage(sender, plugin.getConfigManager().getMessagesConfig()
-                .getString("general.player-only", "This command can only be used by players!"));
+            MessageUtils.sendMessage(sender, plugin.getConfigManager()
+                .getMessage("general.player-only", "This command can only be used by players!"));
             return true;
         }
         
@@ -64,27 +72,32 @@ public class PlayerWarpCommand implements CommandExecutor {
     
     private boolean handlePlayerWarpCommand(Player player, String[] args) {
         if (!player.hasPermission("survivalcore.pwarp.use")) {
-            MessageUtils.sendMessage(player, plugin.getConfigManager().getMessagesConfig()
-                .getString("general.no-permission", "You don't have permission to use this command!"));
+            MessageUtils.sendMessage(player, plugin.getConfigManager()
+                .getMessage("general.no-permission", "You don't have permission to use this command!"));
             return true;
         }
         
+        // "near" only means a warp of that name when one exists and no radius is given
+        if (args.length > 0 && args[0].equalsIgnoreCase("near")
+                && (args.length == 2 || !plugin.getPlayerWarpManager().playerWarpExists("near"))) {
+            return handleNearCommand(player, args);
+        }
+        
         if (args.length != 1) {
-            MessageUtils.sendMessage(player, plugin.getConfigManager().getMessagesConfig()
-                .getString("general.invalid-usage", "Usage: /pwarp <name>")
-                .replace("{usage}", "/pwarp <name>"));
+            MessageUtils.sendMessage(player, plugin.getConfigManager()
+                .getMessage("general.invalid-usage", "Usage: /pwarp <name>"),
+                "{usage}", "/pwarp <name>");
             return true;
         }
         
         // Check cooldown
         if (!player.hasPermission("survivalcore.bypass.cooldown")) {
-            if (plugin.getCooldownManager().hasCooldown(player, "pwarp")) {
-                int remaining = plugin.getCooldownManager().getRemainingCooldown(player, "pwarp");
+            if (plugin.getCooldownManager().hasCooldown(player, CooldownManager.PWARP)) {
+                int remaining = plugin.getCooldownManager().getRemainingCooldown(player, CooldownManager.PWARP);
                 String timeFormat = plugin.getCooldownManager().formatTime(remaining);
-                String message = plugin.getConfigManager().getMessagesConfig()
-                    .getString("general.cooldown", "You must wait {time} before using this command again!")
-                    .replace("{time}", timeFormat);
-                MessageUtils.sendMessage(player, message);
+                MessageUtils.sendMessage(player, plugin.getConfigManager()
+                    .getMessage("general.cooldown", "You must wait {time} before using this command again!"),
+                    "{time}", timeFormat);
                 return true;
             }
         }
@@ -93,25 +106,23 @@ public class PlayerWarpCommand implements CommandExecutor {
         PlayerWarp playerWarp = plugin.getPlayerWarpManager().getPlayerWarp(warpName);
         
         if (playerWarp == null) {
-            String message = plugin.getConfigManager().getMessagesConfig()
-                .getString("pwarp.not-found", "Player warp '{warp}' not found!")
-                .replace("{warp}", warpName);
-            MessageUtils.sendMessage(player, message);
+            MessageUtils.sendMessage(player, plugin.getConfigManager()
+                .getMessage("pwarp.not-found", "Player warp '{warp}' not found!"),
+                "{warp}", warpName);
             return true;
         }
         
         if (!playerWarp.isValidLocation()) {
-            String message = plugin.getConfigManager().getMessagesConfig()
-                .getString("pwarp.not-found", "Player warp '{warp}' not found!")
-                .replace("{warp}", warpName);
-            MessageUtils.sendMessage(player, message);
+            MessageUtils.sendMessage(player, plugin.getConfigManager()
+                .getMessage("pwarp.not-found", "Player warp '{warp}' not found!"),
+                "{warp}", warpName);
             return true;
         }
         
         // Set cooldown
         if (!player.hasPermission("survivalcore.bypass.cooldown")) {
             int cooldown = plugin.getConfigManager().getPlayerWarpCooldown();
-            plugin.getCooldownManager().setCooldown(player, "pwarp", cooldown);
+            plugin.getCooldownManager().setCooldown(player, CooldownManager.PWARP, cooldown);
         }
         
         // Teleport with delay
@@ -120,10 +131,58 @@ public class PlayerWarpCommand implements CommandExecutor {
         return true;
     }
     
+    private boolean handleNearCommand(Player player, String[] args) {
+        ConfigSnapshot settings = plugin.getConfigManager().getSnapshot();
+        int radius = settings.getPlayerWarpNearRadius();
+        if (args.length == 2) {
+            try {
+                radius = Integer.parseInt(args[1]);
+            } catch (NumberFormatException e) {
+                radius = -1;
+            }
+        }
+        if (radius <= 0 || args.length > 2) {
+            MessageUtils.sendMessage(player, plugin.getConfigManager()
+                .getMessage("general.invalid-usage", "Usage: /pwarp near [radius]"),
+                "{usage}", "/pwarp near [radius]");
+            return true;
+        }
+        radius = Math.min(radius, settings.getPlayerWarpMaxNearRadius());
+        
+        Location location = player.getLocation();
+        List<PlayerWarp> nearby = plugin.getPlayerWarpManager().getPlayerWarpsNear(location, radius, MAX_NEAR_RESULTS);
+        if (nearby.isEmpty()) {
+            MessageUtils.sendMessage(player, plugin.getConfigManager()
+                .getMessage("pwarp.none-near", "No player warps within {radius} blocks!"),
+                "{radius}", String.valueOf(radius));
+            return true;
+        }
+        
+        MessageUtils.sendMessage(player, plugin.getConfigManager()
+            .getMessage("pwarp.near-header", "Player warps within {radius} blocks:"),
+            "{radius}", String.valueOf(radius));
+        
+        MessageTemplate itemFormat = plugin.getConfigManager()
+            .getMessage("pwarp.near-item", "- {warp} by {owner} ({distance} blocks)");
+        
+        // Nearest first
+        for (PlayerWarp warp : nearby) {
+            String ownerName = plugin.getServer().getOfflinePlayer(java.util.UUID.fromString(warp.getPlayerUuid())).getName();
+            double dx = warp.getX() - location.getX();
+            double dz = warp.getZ() - location.getZ();
+            MessageUtils.sendMessage(player, itemFormat,
+                "{warp}", warp.getName(),
+                "{owner}", ownerName != null ? ownerName : "Unknown",
+                "{distance}", String.valueOf((int) Math.sqrt(dx * dx + dz * dz)));
+        }
+        
+        return true;
+    }
+    
     private boolean handlePlayerWarpsCommand(Player player, String[] args) {
         if (!player.hasPermission("survivalcore.pwarp.list")) {
-            MessageUtils.sendMessage(player, plugin.getConfigManager().getMessagesConfig()
-                .getString("general.no-permission", "You don't have permission to use this command!"));
+            MessageUtils.sendMessage(player, plugin.getConfigManager()
+                .getMessage("general.no-permission", "You don't have permission to use this command!"));
             return true;
         }
         
@@ -134,53 +193,49 @@ public class PlayerWarpCommand implements CommandExecutor {
             List<PlayerWarp> ownedWarps = plugin.getPlayerWarpManager().getPlayerWarpsOwnedBy(player);
             
             if (ownedWarps.isEmpty()) {
-                MessageUtils.sendMessage(player, plugin.getConfigManager().getMessagesConfig()
-                    .getString("pwarp.no-own-warps", "You don't have any player warps!"));
+                MessageUtils.sendMessage(player, plugin.getConfigManager()
+                    .getMessage("pwarp.no-own-warps", "You don't have any player warps!"));
                 return true;
             }
             
-            MessageUtils.sendMessage(player, plugin.getConfigManager().getMessagesConfig()
-                .getString("pwarp.list-header", "Your player warps:"));
+            MessageUtils.sendMessage(player, plugin.getConfigManager()
+                .getMessage("pwarp.list-header", "Your player warps:"));
             
-            String itemFormat = plugin.getConfigManager().getMessagesConfig()
-                .getString("pwarp.list-own-item", "- {warp} in {world} at {x}, {y}, {z}");
+            MessageTemplate itemFormat = plugin.getConfigManager()
+                .getMessage("pwarp.list-own-item", "- {warp} in {world} at {x}, {y}, {z}");
             
             for (PlayerWarp warp : ownedWarps) {
                 if (warp.isValidLocation()) {
-                    String warpInfo = itemFormat
-                        .replace("{warp}", warp.getName())
-                        .replace("{world}", warp.getWorldName())
-                        .replace("{x}", String.valueOf((int) warp.getX()))
-                        .replace("{y}", String.valueOf((int) warp.getY()))
-                        .replace("{z}", String.valueOf((int) warp.getZ()));
-                    
-                    MessageUtils.sendMessage(player, warpInfo);
+                    MessageUtils.sendMessage(player, itemFormat,
+                        "{warp}", warp.getName(),
+                        "{world}", warp.getWorldName(),
+                        "{x}", String.valueOf((int) warp.getX()),
+                        "{y}", String.valueOf((int) warp.getY()),
+                        "{z}", String.valueOf((int) warp.getZ()));
                 }
             }
         } else {
             Collection<PlayerWarp> allWarps = plugin.getPlayerWarpManager().getAllPlayerWarps();
             
             if (allWarps.isEmpty()) {
-                MessageUtils.sendMessage(player, plugin.getConfigManager().getMessagesConfig()
-                    .getString("pwarp.no-warps", "No player warps available!"));
+                MessageUtils.sendMessage(player, plugin.getConfigManager()
+                    .getMessage("pwarp.no-warps", "No player warps available!"));
                 return true;
             }
             
-            MessageUtils.sendMessage(player, plugin.getConfigManager().getMessagesConfig()
-                .getString("pwarp.list-header", "Available player warps:"));
+            MessageUtils.sendMessage(player, plugin.getConfigManager()
+                .getMessage("pwarp.list-header", "Available player warps:"));
             
-            String itemFormat = plugin.getConfigManager().getMessagesConfig()
-                .getString("pwarp.list-item", "- {warp} by {owner} in {world}");
+            MessageTemplate itemFormat = plugin.getConfigManager()
+                .getMessage("pwarp.list-item", "- {warp} by {owner} in {world}");
             
             for (PlayerWarp warp : allWarps) {
                 if (warp.isValidLocation()) {
                     String ownerName = plugin.getServer().getOfflinePlayer(java.util.UUID.fromString(warp.getPlayerUuid())).getName();
-                    String warpInfo = itemFormat
-                        .replace("{warp}", warp.getName())
-                        .replace("{owner}", ownerName != null ? ownerName : "Unknown")
-                        .replace("{world}", warp.getWorldName());
-                    
-                    MessageUtils.sendMessage(player, warpInfo);
+                    MessageUtils.sendMessage(player, itemFormat,
+                        "{warp}", warp.getName(),
+                        "{owner}", ownerName != null ? ownerName : "Unknown",
+                        "{world}", warp.getWorldName());
                 }
             }
         }
@@ -190,59 +245,52 @@ public class PlayerWarpCommand implements CommandExecutor {
     
     private boolean handleSetPlayerWarpCommand(Player player, String[] args) {
         if (!player.hasPermission("survivalcore.pwarp.set")) {
-            MessageUtils.sendMessage(player, plugin.getConfigManager().getMessagesConfig()
-                .getString("general.no-permission", "You don't have permission to use this command!"));
+            MessageUtils.sendMessage(player, plugin.getConfigManager()
+                .getMessage("general.no-permission", "You don't have permission to use this command!"));
             return true;
         }
         
         if (args.length != 1) {
-            MessageUtils.sendMessage(player, plugin.getConfigManager().getMessagesConfig()
-                .getString("general.invalid-usage", "Usage: /setpwarp <name>")
-                .replace("{usage}", "/setpwarp <name>"));
+            MessageUtils.sendMessage(player, plugin.getConfigManager()
+                .getMessage("general.invalid-usage", "Usage: /setpwarp <name>"),
+                "{usage}", "/setpwarp <name>");
             return true;
         }
         
         String warpName = args[0];
         
-        // Validate warp name
-        if (!warpName.matches("^[a-zA-Z0-9_]+$") || warpName.length() > 32) {
-            MessageUtils.sendMessage(player, plugin.getConfigManager().getMessagesConfig()
-                .getString("pwarp.invalid-name", "Invalid warp name! Use only letters, numbers, and underscores."));
-            return true;
-        }
-        
-        // Check if warp already exists
-        if (plugin.getPlayerWarpManager().playerWarpExists(warpName)) {
-            String message = plugin.getConfigManager().getMessagesConfig()
-                .getString("pwarp.already-exists", "You already have a player warp named '{warp}'!")
-                .replace("{warp}", warpName);
-            MessageUtils.sendMessage(player, message);
-            return true;
-        }
-        
-        // Check max warps limit
-        int maxWarps = plugin.getPlayerWarpManager().getMaxPlayerWarps(player);
-        int currentWarps = plugin.getPlayerWarpManager().getPlayerWarpCount(player);
-        
-        if (currentWarps >= maxWarps) {
-            String message = plugin.getConfigManager().getMessagesConfig()
-                .getString("pwarp.max-warps-reached", "You have reached the maximum number of player warps ({max})!")
-                .replace("{max}", String.valueOf(maxWarps));
-            MessageUtils.sendMessage(player, message);
-            return true;
-        }
-        
         // Create the player warp
-        Location location = player.getLocation();
-        if (plugin.getPlayerWarpManager().createPlayerWarp(player, warpName, location)) {
-            String message = plugin.getConfigManager().getMessagesConfig()
-                .getString("pwarp.created", "Player warp '{warp}' has been created!")
-                .replace("{warp}", warpName);
-            MessageUtils.sendMessage(player, message);
-            
-            player.playSound(player.getLocation(), Sound.BLOCK_NOTE_BLOCK_PLING, 1.0f, 1.5f);
-        } else {
-            MessageUtils.sendMessage(player, "&cFailed to create player warp. Please try again.");
+        PlayerWarpManager.CreateResult result = plugin.getPlayerWarpManager()
+            .createPlayerWarp(player, warpName, player.getLocation());
+        switch (result) {
+            case CREATED:
+                MessageUtils.sendMessage(player, plugin.getConfigManager()
+                    .getMessage("pwarp.created", "Player warp '{warp}' has been created!"),
+                    "{warp}", warpName);
+                
+                player.playSound(player.getLocation(), Sound.BLOCK_NOTE_BLOCK_PLING, 1.0f, 1.5f);
+                break;
+            case INVALID_NAME:
+                MessageUtils.sendMessage(player, plugin.getConfigManager()
+                    .getMessage("pwarp.invalid-name", "Invalid warp name! Use only letters, numbers, and underscores."));
+                break;
+            case ALREADY_EXISTS:
+                MessageUtils.sendMessage(player, plugin.getConfigManager()
+                    .getMessage("pwarp.already-exists", "You already have a player warp named '{warp}'!"),
+                    "{warp}", warpName);
+                break;
+            case LIMIT_REACHED:
+                MessageUtils.sendMessage(player, plugin.getConfigManager()
+                    .getMessage("pwarp.max-warps-reached", "You have reached the maximum number of player warps ({max})!"),
+                    "{max}", String.valueOf(plugin.getPlayerWarpManager().getMaxPlayerWarps(player)));
+                break;
+            case REGION_FULL:
+                ConfigSnapshot settings = plugin.getConfigManager().getSnapshot();
+                MessageUtils.sendMessage(player, plugin.getConfigManager()
+                    .getMessage("pwarp.region-full", "There are already {max} player warps within {radius} blocks of here!"),
+                    "{max}", String.valueOf(settings.getPlayerWarpRegionCapMax()),
+                    "{radius}", String.valueOf(settings.getPlayerWarpRegionCapRadius()));
+                break;
         }
         
         return true;
@@ -250,15 +298,15 @@ public class PlayerWarpCommand implements CommandExecutor {
     
     private boolean handleDelPlayerWarpCommand(Player player, String[] args) {
         if (!player.hasPermission("survivalcore.pwarp.delete")) {
-            MessageUtils.sendMessage(player, plugin.getConfigManager().getMessagesConfig()
-                .getString("general.no-permission", "You don't have permission to use this command!"));
+            MessageUtils.sendMessage(player, plugin.getConfigManager()
+                .getMessage("general.no-permission", "You don't have permission to use this command!"));
             return true;
         }
         
         if (args.length != 1) {
-            MessageUtils.sendMessage(player, plugin.getConfigManager().getMessagesConfig()
-                .getString("general.invalid-usage", "Usage: /delpwarp <name>")
-                .replace("{usage}", "/delpwarp <name>"));
+            MessageUtils.sendMessage(player, plugin.getConfigManager()
+                .getMessage("general.invalid-usage", "Usage: /delpwarp <name>"),
+                "{usage}", "/delpwarp <name>");
             return true;
         }
         
@@ -266,100 +314,68 @@ public class PlayerWarpCommand implements CommandExecutor {
         
         // Check if player owns the warp
         if (!plugin.getPlayerWarpManager().playerOwnsWarp(player, warpName)) {
-            String message = plugin.getConfigManager().getMessagesConfig()
-                .getString("pwarp.not-owner", "You don't own the player warp '{warp}'!")
-                .replace("{warp}", warpName);
-            MessageUtils.sendMessage(player, message);
+            MessageUtils.sendMessage(player, plugin.getConfigManager()
+                .getMessage("pwarp.not-owner", "You don't own the player warp '{warp}'!"),
+                "{warp}", warpName);
             return true;
         }
         
         if (plugin.getPlayerWarpManager().deletePlayerWarp(player, warpName)) {
-            String message = plugin.getConfigManager().getMessagesConfig()
-                .getString("pwarp.deleted", "Player warp '{warp}' has been deleted!")
-                .replace("{warp}", warpName);
-            MessageUtils.sendMessage(player, message);
+            MessageUtils.sendMessage(player, plugin.getConfigManager()
+                .getMessage("pwarp.deleted", "Player warp '{warp}' has been deleted!"),
+                "{warp}", warpName);
             
             player.playSound(player.getLocation(), Sound.BLOCK_NOTE_BLOCK_BASS, 1.0f, 0.8f);
         } else {
-            String message = plugin.getConfigManager().getMessagesConfig()
-                .getString("pwarp.not-found", "Player warp '{warp}' not found!")
-                .replace("{warp}", warpName);
-            MessageUtils.sendMessage(player, message);
+            MessageUtils.sendMessage(player, plugin.getConfigManager()
+                .getMessage("pwarp.not-found", "Player warp '{warp}' not found!"),
+                "{warp}", warpName);
         }
         
         return true;
     }
     
     private void performTeleportation(Player player, PlayerWarp playerWarp) {
-        int delay = plugin.getConfigManager().getConfig().getInt("player-warps.teleport-delay", 3);
-        boolean cancelOnMove = plugin.getConfigManager().getConfig().getBoolean("player-warps.cancel-on-move", true);
-        
-        if (delay <= 0) {
-            // Instant teleport
-            executeTeleport(player, playerWarp);
+        if (playerWarp.getLocation() == null) {
+            MessageUtils.sendMessage(player, "&cPlayer warp location is invalid!");
             return;
         }
         
-        // Store initial location for movement check
-        Location initialLocation = player.getLocation().clone();
-        
-        String delayMessage = plugin.getConfigManager().getMessagesConfig()
-            .getString("general.teleporting", "Teleporting in {delay} seconds... Don't move!")
-            .replace("{delay}", String.valueOf(delay));
-        MessageUtils.sendMessage(player, delayMessage);
-        
-        new BukkitRunnable() {
-            private int countdown = delay;
-            
-            @Override
-            public void run() {
-                if (!player.isOnline()) {
-                    cancel();
-                    return;
-                }
-                
-                // Check if player moved (if enabled)
-                if (cancelOnMove && hasPlayerMoved(player.getLocation(), initialLocation)) {
-                    MessageUtils.sendMessage(player, plugin.getConfigManager().getMessagesConfig()
-                        .getString("general.teleport-cancelled", "Teleportation cancelled because you moved!"));
-                    cancel();
-                    return;
-                }
-                
-                countdown--;
+        ConfigSnapshot snapshot = plugin.getConfigManager().getSnapshot();
+        plugin.getTeleportService().teleport(player, playerWarp::getLocation, snapshot.getPlayerWarpTeleportDelay(),
+            snapshot.isPlayerWarpCancelOnMove(), snapshot.getPlayerWarpTeleportCost(), arrived -> {
+                String ownerName = plugin.getServer().getOfflinePlayer(java.util.UUID.fromString(playerWarp.getPlayerUuid())).getName();
+                MessageUtils.sendMessage(arrived, plugin.getConfigManager()
+                    .getMessage("pwarp.teleported", "Teleported to player warp '{warp}' owned by {owner}!"),
+                    "{warp}", playerWarp.getName(), "{owner}", ownerName != null ? ownerName : "Unknown");
                 
-                if (countdown <= 0) {
-                    executeTeleport(player, playerWarp);
-                    cancel();
-                } else if (countdown <= 3) {
-                    MessageUtils.sendMessage(player, "&e" + countdown + "...");
-                }
-            }
-        }.runTaskTimer(plugin, 0L, 20L); // Run every second
+                arrived.playSound(arrived.getLocation(), Sound.ENTITY_ENDERMAN_TELEPORT, 1.0f, 1.0f);
+            });
     }
     
-    private void executeTeleport(Player player, PlayerWarp playerWarp) {
-        Location location = playerWarp.getLocation();
-        if (location == null) {
-            MessageUtils.sendMessage(player, "&cPlayer warp location is invalid!");
-            return;
+    @Override
+    public List<String> onTabComplete(CommandSender sender, Command command, String alias, String[] args) {
+        if (!(sender instanceof Player) || args.length != 1) {
+            return Collections.emptyList();
         }
         
-        player.teleport(location);
-        
-        String ownerName = plugin.getServer().getOfflinePlayer(java.util.UUID.fromString(playerWarp.getPlayerUuid())).getName();
-        String message = plugin.getConfigManager().getMessagesConfig()
-            .getString("pwarp.teleported", "Teleported to player warp '{warp}' owned by {owner}!")
-            .replace("{warp}", playerWarp.getName())
-            .replace("{owner}", ownerName != null ? ownerName : "Unknown");
-        MessageUtils.sendMessage(player, message);
-        
-        player.playSound(player.getLocation(), Sound.ENTITY_ENDERMAN_TELEPORT, 1.0f, 1.0f);
-    }
-    
-    private boolean hasPlayerMoved(Location current, Location initial) {
-        return current.getBlockX() != initial.getBlockX() ||
-               current.getBlockY() != initial.getBlockY() ||
-               current.getBlockZ() != initial.getBlockZ();
+        Player player = (Player) sender;
+        switch (command.getName().toLowerCase()) {
+            case "pwarp":
+                if (!player.hasPermission("survivalcore.pwarp.use")) {
+                    return Collections.emptyList();
+                }
+                List<String> completions = plugin.getPlayerWarpManager().completePlayerWarpNames(args[0], MAX_COMPLETIONS);
+                if ("near".startsWith(args[0].toLowerCase()) && !completions.contains("near")) {
+                    completions.add(0, "near");
+                }
+                return completions;
+            case "delpwarp":
+                return plugin.getPlayerWarpManager().completeOwnedPlayerWarpNames(player, args[0], MAX_COMPLETIONS);
+            case "pwarps":
+                return "own".startsWith(args[0].toLowerCase()) ? Collections.singletonList("own") : Collections.emptyList();
+            default:
+                return Collections.emptyList();
+        }
     }
 }
\ No newline at end of file
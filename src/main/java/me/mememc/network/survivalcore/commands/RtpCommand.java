@@ -1,17 +1,15 @@
 package me.mememc.network.survivalcore.commands;
 
 import me.mememc.network.survivalcore.SurvivalCore;
+import me.mememc.network.survivalcore.managers.CooldownManager;
+import me.mememc.network.survivalcore.managers.RtpLocationPool;
 import me.mememc.network.survivalcore.utils.MessageUtils;
 import org.bukkit.*;
-import org.bukkit.block.Block;
 import org.bukkit.command.Command;
 import org.bukkit.command.CommandExecutor;
 import org.bukkit.command.CommandSender;
 import org.bukkit.entity.Player;
 
-import java.util.Arrays;
-import java.util.List;
-import java.util.Random;
 
 /**
  * Handles RTP (Random Teleport) command functionality
@@ -19,14 +17,6 @@ import java.util.Random;
 public class RtpCommand implements CommandExecutor {
     
     private final SurvivalCore plugin;
-    private final Random random = new Random();
-    
-    // Unsafe materials for teleportation
-    private final List<Material> unsafeMaterials = Arrays.asList(
-        Material.LAVA, Material.FIRE, Material.MAGMA_BLOCK, 
-        Material.SWEET_BERRY_BUSH, Material.WITHER_ROSE, Material.CACTUS,
-        Material.CAMPFIRE, Material.SOUL_CAMPFIRE, Material.SOUL_FIRE
-    );
     
     public RtpCommand(SurvivalCore plugin) {
         this.plugin = plugin;
@@ -35,14 +25,14 @@ public class RtpCommand implements CommandExecutor {
     @Override
     public boolean onCommand(CommandSender sender, Command command, String label, String[] args) {
         if (!plugin.getConfigManager().isRtpEnabled()) {
-            MessageUtils.sendMessage(sender, plugin.getConfigManager().getMessagesConfig()
-                .getString("general.feature-disabled", "This feature is currently disabled!"));
+            MessageUtils.sendMessage(sender, plugin.getConfigManager()
+                .getMessage("general.feature-disabled", "This feature is currently disabled!"));
             return true;
         }
         
         if (!(sender instanceof Player)) {
-            MessageUtils.sendMessage(sender, plugin.getConfigManager().getMessagesConfig()
-                .getString("general.player-only", "This command can only be used by players!"));
+            MessageUtils.sendMessage(sender, plugin.getConfigManager()
+                .getMessage("general.player-only", "This command can only be used by players!"));
             return true;
         }
         
@@ -50,29 +40,27 @@ public class RtpCommand implements CommandExecutor {
         
         // Check permissions
         if (!player.hasPermission("survivalcore.rtp.use")) {
-            MessageUtils.sendMessage(player, plugin.getConfigManager().getMessagesConfig()
-                .getString("general.no-permission", "You don't have permission to use this command!"));
+            MessageUtils.sendMessage(player, plugin.getConfigManager()
+                .getMessage("general.no-permission", "You don't have permission to use this command!"));
             return true;
         }
         
         // Check if world allows RTP
         World world = player.getWorld();
-        List<String> allowedWorlds = plugin.getConfigManager().getConfig().getStringList("rtp.allowed-worlds");
-        if (!allowedWorlds.contains(world.getName())) {
-            MessageUtils.sendMessage(player, plugin.getConfigManager().getMessagesConfig()
-                .getString("rtp.world-not-allowed", "Random teleport is not allowed in this world!"));
+        if (!plugin.getConfigManager().getSnapshot().getRtpAllowedWorlds().contains(world.getName())) {
+            MessageUtils.sendMessage(player, plugin.getConfigManager()
+                .getMessage("rtp.world-not-allowed", "Random teleport is not allowed in this world!"));
             return true;
         }
         
         // Check cooldown (unless player has bypass permission)
         if (!player.hasPermission("survivalcore.bypass.cooldown")) {
-            if (plugin.getCooldownManager().hasCooldown(player, "rtp")) {
-                int remaining = plugin.getCooldownManager().getRemainingCooldown(player, "rtp");
+            if (plugin.getCooldownManager().hasCooldown(player, CooldownManager.RTP)) {
+                int remaining = plugin.getCooldownManager().getRemainingCooldown(player, CooldownManager.RTP);
                 String timeFormat = plugin.getCooldownManager().formatTime(remaining);
-                String message = plugin.getConfigManager().getMessagesConfig()
-                    .getString("general.cooldown", "You must wait {time} before using this command again!")
-                    .replace("{time}", timeFormat);
-                MessageUtils.sendMessage(player, message);
+                MessageUtils.sendMessage(player, plugin.getConfigManager()
+                    .getMessage("general.cooldown", "You must wait {time} before using this command again!"),
+                    "{time}", timeFormat);
                 return true;
             }
         }
@@ -81,17 +69,16 @@ public class RtpCommand implements CommandExecutor {
         Player targetPlayer = player;
         if (args.length > 0) {
             if (!player.hasPermission("survivalcore.rtp.others")) {
-                MessageUtils.sendMessage(player, plugin.getConfigManager().getMessagesConfig()
-                    .getString("general.no-permission", "You don't have permission to use this command!"));
+                MessageUtils.sendMessage(player, plugin.getConfigManager()
+                    .getMessage("general.no-permission", "You don't have permission to use this command!"));
                 return true;
             }
             
             targetPlayer = Bukkit.getPlayer(args[0]);
             if (targetPlayer == null) {
-                String message = plugin.getConfigManager().getMessagesConfig()
-                    .getString("general.invalid-player", "Player '{player}' not found or is offline!")
-                    .replace("{player}", args[0]);
-                MessageUtils.sendMessage(player, message);
+                MessageUtils.sendMessage(player, plugin.getConfigManager()
+                    .getMessage("general.invalid-player", "Player '{player}' not found or is offline!"),
+                    "{player}", args[0]);
                 return true;
             }
         }
@@ -107,109 +94,41 @@ public class RtpCommand implements CommandExecutor {
         // Set cooldown for the command sender
         if (!sender.hasPermission("survivalcore.bypass.cooldown")) {
             int cooldown = plugin.getConfigManager().getRtpCooldown();
-            plugin.getCooldownManager().setCooldown(sender, "rtp", cooldown);
+            plugin.getCooldownManager().setCooldown(sender, CooldownManager.RTP, cooldown);
         }
         
-        // Find safe location asynchronously to avoid blocking main thread
-        Bukkit.getScheduler().runTaskAsynchronously(plugin, () -> {
-            Location safeLocation = findSafeLocation(world);
-            
-            // Teleport on main thread
-            Bukkit.getScheduler().runTask(plugin, () -> {
-                if (safeLocation != null) {
-                    target.teleport(safeLocation);
-                    
-                    String message = plugin.getConfigManager().getMessagesConfig()
-                        .getString("rtp.success", "Teleported to a random location! ({x}, {y}, {z})")
-                        .replace("{x}", String.valueOf((int) safeLocation.getX()))
-                        .replace("{y}", String.valueOf((int) safeLocation.getY()))
-                        .replace("{z}", String.valueOf((int) safeLocation.getZ()));
-                    
-                    MessageUtils.sendMessage(target, message);
-                    
-                    // If sender is different from target, notify sender
-                    if (!sender.equals(target)) {
-                        String adminMessage = "Teleported " + target.getName() + " to a random location!";
-                        MessageUtils.sendMessage(sender, adminMessage);
-                    }
-                    
-                    // Play sound effect
-                    target.playSound(target.getLocation(), Sound.ENTITY_ENDERMAN_TELEPORT, 1.0f, 1.0f);
-                    
-                } else {
-                    String message = plugin.getConfigManager().getMessagesConfig()
-                        .getString("rtp.no-safe-location", "Could not find a safe location to teleport you to. Try again!");
-                    MessageUtils.sendMessage(sender, message);
-                }
-            });
-        });
-    }
-    
-    private Location findSafeLocation(World world) {
-        int maxDistance = plugin.getConfigManager().getRtpMaxDistance();
-        int minDistance = plugin.getConfigManager().getRtpMinDistance();
-        int maxAttempts = plugin.getConfig().getInt("rtp.max-attempts", 50);
-        
-        Location spawnLocation = world.getSpawnLocation();
+        RtpLocationPool pool = plugin.getRtpLocationPool();
+        if (pool.getPooledCount(world) == 0) {
+            MessageUtils.sendMessage(sender, plugin.getConfigManager()
+                .getMessage("rtp.searching", "Searching for a safe location..."));
+        }
         
-        for (int attempt = 0; attempt < maxAttempts; attempt++) {
-            // Generate random coordinates
-            int x = random.nextInt(maxDistance * 2) - maxDistance;
-            int z = random.nextInt(maxDistance * 2) - maxDistance;
-            
-            // Ensure minimum distance from spawn
-            if (Math.abs(x) < minDistance && Math.abs(z) < minDistance) {
-                continue;
+        // Served from the pre-generated pool, or as soon as the pool finds a spot
+        pool.request(world, safeLocation -> {
+            if (!target.isOnline()) {
+                return;
             }
             
-            // Get highest block at coordinates
-            int y = world.getHighestBlockYAt(spawnLocation.getBlockX() + x, spawnLocation.getBlockZ() + z);
-            Location testLocation = new Location(world, spawnLocation.getX() + x, y + 1, spawnLocation.getZ() + z);
+            if (safeLocation != null) {
+                target.teleport(safeLocation);
+                
+                MessageUtils.sendMessage(target, plugin.getConfigManager()
+                    .getMessage("rtp.success", "Teleported to a random location! ({x}, {y}, {z})"),
+                    "{x}", String.valueOf((int) safeLocation.getX()), "{y}", String.valueOf((int) safeLocation.getY()), "{z}", String.valueOf((int) safeLocation.getZ()));
+                
+                // If sender is different from target, notify sender
+                if (!sender.equals(target)) {
+                    String adminMessage = "Teleported " + target.getName() + " to a random location!";
+                    MessageUtils.sendMessage(sender, adminMessage);
+                }
+                
+                // Play sound effect
+                target.playSound(target.getLocation(), Sound.ENTITY_ENDERMAN_TELEPORT, 1.0f, 1.0f);
             
-            if (isSafeLocation(testLocation)) {
-                return testLocation;
+            } else {
+                MessageUtils.sendMessage(sender, plugin.getConfigManager()
+                    .getMessage("rtp.no-safe-location", "Could not find a safe location to teleport you to. Try again!"));
             }
-        }
-        
-        return null; // No safe location found
-    }
-    
-    private boolean isSafeLocation(Location location) {
-        World world = location.getWorld();
-        if (world == null) return false;
-        
-        Block groundBlock = world.getBlockAt(location.getBlockX(), location.getBlockY() - 1, location.getBlockZ());
-        Block feetBlock = world.getBlockAt(location.getBlockX(), location.getBlockY(), location.getBlockZ());
-        Block headBlock = world.getBlockAt(location.getBlockX(), location.getBlockY() + 1, location.getBlockZ());
-        
-        // Check if ground is solid
-        if (!groundBlock.getType().isSolid()) {
-            return false;
-        }
-        
-        // Check if feet and head space are clear
-        if (feetBlock.getType().isSolid() || headBlock.getType().isSolid()) {
-            return false;
-        }
-        
-        // Check for unsafe materials
-        if (unsafeMaterials.contains(groundBlock.getType()) ||
-            unsafeMaterials.contains(feetBlock.getType()) ||
-            unsafeMaterials.contains(headBlock.getType())) {
-            return false;
-        }
-        
-        // Don't teleport into water/lava unless it's shallow
-        if (feetBlock.getType() == Material.WATER || feetBlock.getType() == Material.LAVA) {
-            return false;
-        }
-        
-        // Check if location is too high or too low
-        int y = location.getBlockY();
-        if (y < 5 || y > world.getMaxHeight() - 10) {
-            return false;
-        }
-        
-        return true;
+        });
     }
 }
\ No newline at end of file
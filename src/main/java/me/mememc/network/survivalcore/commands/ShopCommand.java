@@ -23,22 +23,22 @@ public class ShopCommand implements CommandExecutor {
     @Override
     public boolean onCommand(CommandSender sender, Command command, String label, String[] args) {
         if (!plugin.getConfigManager().isShopEnabled()) {
-            MessageUtils.sendMessage(sender, plugin.getConfigManager().getMessagesConfig()
-                .getString("general.feature-disabled", "This feature is currently disabled!"));
+            MessageUtils.sendMessage(sender, plugin.getConfigManager()
+                .getMessage("general.feature-disabled", "This feature is currently disabled!"));
             return true;
         }
         
         if (!(sender instanceof Player)) {
-            MessageUtils.sendMessage(sender, plugin.getConfigManager().getMessagesConfig()
-                .getString("general.player-only", "This command can only be used by players!"));
+            MessageUtils.sendMessage(sender, plugin.getConfigManager()
+                .getMessage("general.player-only", "This command can only be used by players!"));
             return true;
         }
         
         Player player = (Player) sender;
         
         if (!player.hasPermission("survivalcore.shop.use")) {
-            MessageUtils.sendMessage(player, plugin.getConfigManager().getMessagesConfig()
-                .getString("general.no-permission", "You don't have permission to use this command!"));
+            MessageUtils.sendMessage(player, plugin.getConfigManager()
+                .getMessage("general.no-permission", "You don't have permission to use this command!"));
             return true;
         }
         
@@ -46,17 +46,16 @@ public class ShopCommand implements CommandExecutor {
             // Open main shop (default to blocks category)
             plugin.getShopManager().openMainShop(player);
             
-            MessageUtils.sendMessage(player, plugin.getConfigManager().getMessagesConfig()
-                .getString("shop.opened", "Opened the shop!"));
+            MessageUtils.sendMessage(player, plugin.getConfigManager()
+                .getMessage("shop.opened", "Opened the shop!"));
         } else {
             String category = args[0].toLowerCase();
             List<String> availableCategories = plugin.getShopManager().getAvailableCategories();
             
             if (!availableCategories.contains(category)) {
-                String message = plugin.getConfigManager().getMessagesConfig()
-                    .getString("shop.category-not-found", "Shop category '{category}' not found!")
-                    .replace("{category}", category);
-                MessageUtils.sendMessage(player, message);
+                MessageUtils.sendMessage(player, plugin.getConfigManager()
+                    .getMessage("shop.category-not-found", "Shop category '{category}' not found!"),
+                    "{category}", category);
                 
                 // Show available categories
                 MessageUtils.sendMessage(player, "&7Available categories: &e" + String.join(", ", availableCategories));
@@ -66,8 +65,8 @@ public class ShopCommand implements CommandExecutor {
             // Open specific category
             plugin.getShopManager().openCategoryShop(player, category, 1);
             
-            MessageUtils.sendMessage(player, plugin.getConfigManager().getMessagesConfig()
-                .getString("shop.opened", "Opened the shop!"));
+            MessageUtils.sendMessage(player, plugin.getConfigManager()
+                .getMessage("shop.opened", "Opened the shop!"));
         }
         
         return true;
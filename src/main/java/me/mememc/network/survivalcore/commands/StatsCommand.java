@@ -1,6 +1,7 @@
 package me.mememc.network.survivalcore.commands;
 
 import me.mememc.network.survivalcore.SurvivalCore;
+import me.mememc.network.survivalcore.models.StatCategory;
 import me.mememc.network.survivalcore.utils.MessageUtils;
 import org.bukkit.Bukkit;
 import org.bukkit.command.Command;
@@ -22,16 +23,16 @@ public class StatsCommand implements CommandExecutor {
     @Override
     public boolean onCommand(CommandSender sender, Command command, String label, String[] args) {
         if (!(sender instanceof Player)) {
-            MessageUtils.sendMessage(sender, plugin.getConfigManager().getMessagesConfig()
-                .getString("general.player-only", "This command can only be used by players!"));
+            MessageUtils.sendMessage(sender, plugin.getConfigManager()
+                .getMessage("general.player-only", "This command can only be used by players!"));
             return true;
         }
         
         Player player = (Player) sender;
         
         if (!plugin.getConfigManager().isStatsEnabled()) {
-            MessageUtils.sendMessage(player, plugin.getConfigManager().getMessagesConfig()
-                .getString("general.feature-disabled", "This feature is currently disabled!"));
+            MessageUtils.sendMessage(player, plugin.getConfigManager()
+                .getMessage("general.feature-disabled", "This feature is currently disabled!"));
             return true;
         }
         
@@ -50,8 +51,8 @@ public class StatsCommand implements CommandExecutor {
         if (args.length == 0) {
             // Show player's own stats
             if (!player.hasPermission("survivalcore.stats.view")) {
-                MessageUtils.sendMessage(player, plugin.getConfigManager().getMessagesConfig()
-                    .getString("general.no-permission", "You don't have permission to use this command!"));
+                MessageUtils.sendMessage(player, plugin.getConfigManager()
+                    .getMessage("general.no-permission", "You don't have permission to use this command!"));
                 return true;
             }
             
@@ -61,8 +62,8 @@ public class StatsCommand implements CommandExecutor {
         
         // Show another player's stats
         if (!player.hasPermission("survivalcore.stats.others")) {
-            MessageUtils.sendMessage(player, plugin.getConfigManager().getMessagesConfig()
-                .getString("general.no-permission", "You don't have permission to view other players' stats!"));
+            MessageUtils.sendMessage(player, plugin.getConfigManager()
+                .getMessage("general.no-permission", "You don't have permission to view other players' stats!"));
             return true;
         }
         
@@ -70,9 +71,9 @@ public class StatsCommand implements CommandExecutor {
         Player target = Bukkit.getPlayer(targetName);
         
         if (target == null) {
-            MessageUtils.sendMessage(player, plugin.getConfigManager().getMessagesConfig()
-                .getString("general.invalid-player", "Player '{player}' not found or is offline!")
-                .replace("{player}", targetName));
+            MessageUtils.sendMessage(player, plugin.getConfigManager()
+                .getMessage("general.invalid-player", "Player '{player}' not found or is offline!"),
+                "{player}", targetName);
             return true;
         }
         
@@ -82,8 +83,8 @@ public class StatsCommand implements CommandExecutor {
     
     private boolean handleLeaderboardCommand(Player player, String[] args) {
         if (!player.hasPermission("survivalcore.stats.leaderboard")) {
-            MessageUtils.sendMessage(player, plugin.getConfigManager().getMessagesConfig()
-                .getString("general.no-permission", "You don't have permission to use this command!"));
+            MessageUtils.sendMessage(player, plugin.getConfigManager()
+                .getMessage("general.no-permission", "You don't have permission to use this command!"));
             return true;
         }
         
@@ -94,8 +95,8 @@ public class StatsCommand implements CommandExecutor {
             if (isValidCategory(input)) {
                 category = input;
             } else {
-                MessageUtils.sendMessage(player, plugin.getConfigManager().getMessagesConfig()
-                    .getString("stats.invalid-category", "{prefix}&cInvalid category! Available: playtime, blocks, broken, kills, pvp, deaths, travel, crafted, fish"));
+                MessageUtils.sendMessage(player, plugin.getConfigManager()
+                    .getMessage("stats.invalid-category", "{prefix}&cInvalid category! Available: playtime, blocks, broken, kills, pvp, deaths, travel, crafted, fish"));
                 return true;
             }
         }
@@ -105,14 +106,6 @@ public class StatsCommand implements CommandExecutor {
     }
     
     private boolean isValidCategory(String category) {
-        return category.equals("playtime") || 
-               category.equals("blocks") || 
-               category.equals("broken") || 
-               category.equals("kills") || 
-               category.equals("pvp") || 
-               category.equals("deaths") || 
-               category.equals("travel") || 
-               category.equals("crafted") || 
-               category.equals("fish");
+        return StatCategory.fromName(category) != null;
     }
 }
\ No newline at end of file
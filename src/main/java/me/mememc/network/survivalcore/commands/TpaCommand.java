@@ -1,21 +1,27 @@
 package me.mememc.network.survivalcore.commands;
 
 import me.mememc.network.survivalcore.SurvivalCore;
+import me.mememc.network.survivalcore.managers.CooldownManager;
+import me.mememc.network.survivalcore.managers.TpaManager;
 import me.mememc.network.survivalcore.models.TpaRequest;
+import me.mememc.network.survivalcore.utils.ConfigSnapshot;
 import me.mememc.network.survivalcore.utils.MessageUtils;
 import org.bukkit.Bukkit;
-import org.bukkit.Location;
 import org.bukkit.Sound;
 import org.bukkit.command.Command;
 import org.bukkit.command.CommandExecutor;
 import org.bukkit.command.CommandSender;
+import org.bukkit.command.TabCompleter;
 import org.bukkit.entity.Player;
-import org.bukkit.scheduler.BukkitRunnable;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 
 /**
  * Handles TPA (Teleport Accept) command functionality
  */
-public class TpaCommand implements CommandExecutor {
+public class TpaCommand implements CommandExecutor, TabCompleter {
     
     private final SurvivalCore plugin;
     
@@ -26,14 +32,14 @@ public class TpaCommand implements CommandExecutor {
     @Override
     public boolean onCommand(CommandSender sender, Command command, String label, String[] args) {
         if (!plugin.getConfigManager().isTpaEnabled()) {
-            MessageUtils.sendMessage(sender, plugin.getConfigManager().getMessagesConfig()
-                .getString("general.feature-disabled", "This feature is currently disabled!"));
+            MessageUtils.sendMessage(sender, plugin.getConfigManager()
+                .getMessage("general.feature-disabled", "This feature is currently disabled!"));
             return true;
         }
         
         if (!(sender instanceof Player)) {
-            MessageUtils.sendMessage(sender, plugin.getConfigManager().getMessagesConfig()
-                .getString("general.player-only", "This command can only be used by players!"));
+            MessageUtils.sendMessage(sender, plugin.getConfigManager()
+                .getMessage("general.player-only", "This command can only be used by players!"));
             return true;
         }
         
@@ -56,68 +62,69 @@ public class TpaCommand implements CommandExecutor {
     
     private boolean handleTpaCommand(Player player, String[] args) {
         if (!player.hasPermission("survivalcore.tpa.send")) {
-            MessageUtils.sendMessage(player, plugin.getConfigManager().getMessagesConfig()
-                .getString("general.no-permission", "You don't have permission to use this command!"));
+            MessageUtils.sendMessage(player, plugin.getConfigManager()
+                .getMessage("general.no-permission", "You don't have permission to use this command!"));
             return true;
         }
         
         if (args.length != 1) {
-            MessageUtils.sendMessage(player, plugin.getConfigManager().getMessagesConfig()
-                .getString("general.invalid-usage", "Usage: /tpa <player>")
-                .replace("{usage}", "/tpa <player>"));
+            MessageUtils.sendMessage(player, plugin.getConfigManager()
+                .getMessage("general.invalid-usage", "Usage: /tpa <player>"),
+                "{usage}", "/tpa <player>");
             return true;
         }
         
         Player target = Bukkit.getPlayer(args[0]);
         if (target == null) {
-            String message = plugin.getConfigManager().getMessagesConfig()
-                .getString("general.invalid-player", "Player '{player}' not found or is offline!")
-                .replace("{player}", args[0]);
-            MessageUtils.sendMessage(player, message);
+            MessageUtils.sendMessage(player, plugin.getConfigManager()
+                .getMessage("general.invalid-player", "Player '{player}' not found or is offline!"),
+                "{player}", args[0]);
             return true;
         }
         
         if (target.equals(player)) {
-            MessageUtils.sendMessage(player, plugin.getConfigManager().getMessagesConfig()
-                .getString("tpa.cannot-request-self", "You cannot send a teleport request to yourself!"));
+            MessageUtils.sendMessage(player, plugin.getConfigManager()
+                .getMessage("tpa.cannot-request-self", "You cannot send a teleport request to yourself!"));
             return true;
         }
         
         // Check cooldown
         if (!player.hasPermission("survivalcore.bypass.cooldown")) {
-            if (plugin.getCooldownManager().hasCooldown(player, "tpa")) {
-                int remaining = plugin.getCooldownManager().getRemainingCooldown(player, "tpa");
+            if (plugin.getCooldownManager().hasCooldown(player, CooldownManager.TPA)) {
+                int remaining = plugin.getCooldownManager().getRemainingCooldown(player, CooldownManager.TPA);
                 String timeFormat = plugin.getCooldownManager().formatTime(remaining);
-                String message = plugin.getConfigManager().getMessagesConfig()
-                    .getString("general.cooldown", "You must wait {time} before using this command again!")
-                    .replace("{time}", timeFormat);
-                MessageUtils.sendMessage(player, message);
+                MessageUtils.sendMessage(player, plugin.getConfigManager()
+                    .getMessage("general.cooldown", "You must wait {time} before using this command again!"),
+                    "{time}", timeFormat);
                 return true;
             }
         }
         
         // Send request
-        if (plugin.getTpaManager().sendRequest(player, target, TpaRequest.TpaType.TPA)) {
+        TpaManager.SendResult result = plugin.getTpaManager().sendRequest(player, target, TpaRequest.TpaType.TPA);
+        if (result == TpaManager.SendResult.SENT) {
             // Set cooldown
             if (!player.hasPermission("survivalcore.bypass.cooldown")) {
                 int cooldown = plugin.getConfigManager().getTpaCooldown();
-                plugin.getCooldownManager().setCooldown(player, "tpa", cooldown);
+                plugin.getCooldownManager().setCooldown(player, CooldownManager.TPA, cooldown);
             }
             
-            String message = plugin.getConfigManager().getMessagesConfig()
-                .getString("tpa.request-sent", "Teleport request sent to {player}!")
-                .replace("{player}", target.getName());
-            MessageUtils.sendMessage(player, message);
+            MessageUtils.sendMessage(player, plugin.getConfigManager()
+                .getMessage("tpa.request-sent", "Teleport request sent to {player}!"),
+                "{player}", target.getName());
             
-            String targetMessage = plugin.getConfigManager().getMessagesConfig()
-                .getString("tpa.request-received", "{player} wants to teleport to you. /tpaccept or /tpdeny")
-                .replace("{player}", player.getName());
-            MessageUtils.sendMessage(target, targetMessage);
+            MessageUtils.sendMessage(target, plugin.getConfigManager()
+                .getMessage("tpa.request-received", "{player} wants to teleport to you. /tpaccept or /tpdeny"),
+                "{player}", player.getName());
             
             target.playSound(target.getLocation(), Sound.BLOCK_NOTE_BLOCK_PLING, 1.0f, 1.0f);
+        } else if (result == TpaManager.SendResult.INBOX_FULL) {
+            MessageUtils.sendMessage(player, plugin.getConfigManager()
+                .getMessage("tpa.target-inbox-full", "{player} has too many pending teleport requests, try again later!"),
+                "{player}", target.getName());
         } else {
-            MessageUtils.sendMessage(player, plugin.getConfigManager().getMessagesConfig()
-                .getString("tpa.request-already-exists", "You already have a pending request to this player!"));
+            MessageUtils.sendMessage(player, plugin.getConfigManager()
+                .getMessage("tpa.request-already-exists", "You already have a pending request to this player!"));
         }
         
         return true;
@@ -125,68 +132,69 @@ public class TpaCommand implements CommandExecutor {
     
     private boolean handleTpaHereCommand(Player player, String[] args) {
         if (!player.hasPermission("survivalcore.tpa.here")) {
-            MessageUtils.sendMessage(player, plugin.getConfigManager().getMessagesConfig()
-                .getString("general.no-permission", "You don't have permission to use this command!"));
+            MessageUtils.sendMessage(player, plugin.getConfigManager()
+                .getMessage("general.no-permission", "You don't have permission to use this command!"));
             return true;
         }
         
         if (args.length != 1) {
-            MessageUtils.sendMessage(player, plugin.getConfigManager().getMessagesConfig()
-                .getString("general.invalid-usage", "Usage: /tpahere <player>")
-                .replace("{usage}", "/tpahere <player>"));
+            MessageUtils.sendMessage(player, plugin.getConfigManager()
+                .getMessage("general.invalid-usage", "Usage: /tpahere <player>"),
+                "{usage}", "/tpahere <player>");
             return true;
         }
         
         Player target = Bukkit.getPlayer(args[0]);
         if (target == null) {
-            String message = plugin.getConfigManager().getMessagesConfig()
-                .getString("general.invalid-player", "Player '{player}' not found or is offline!")
-                .replace("{player}", args[0]);
-            MessageUtils.sendMessage(player, message);
+            MessageUtils.sendMessage(player, plugin.getConfigManager()
+                .getMessage("general.invalid-player", "Player '{player}' not found or is offline!"),
+                "{player}", args[0]);
             return true;
         }
         
         if (target.equals(player)) {
-            MessageUtils.sendMessage(player, plugin.getConfigManager().getMessagesConfig()
-                .getString("tpa.cannot-request-self", "You cannot send a teleport request to yourself!"));
+            MessageUtils.sendMessage(player, plugin.getConfigManager()
+                .getMessage("tpa.cannot-request-self", "You cannot send a teleport request to yourself!"));
             return true;
         }
         
         // Check cooldown
         if (!player.hasPermission("survivalcore.bypass.cooldown")) {
-            if (plugin.getCooldownManager().hasCooldown(player, "tpa")) {
-                int remaining = plugin.getCooldownManager().getRemainingCooldown(player, "tpa");
+            if (plugin.getCooldownManager().hasCooldown(player, CooldownManager.TPA)) {
+                int remaining = plugin.getCooldownManager().getRemainingCooldown(player, CooldownManager.TPA);
                 String timeFormat = plugin.getCooldownManager().formatTime(remaining);
-                String message = plugin.getConfigManager().getMessagesConfig()
-                    .getString("general.cooldown", "You must wait {time} before using this command again!")
-                    .replace("{time}", timeFormat);
-                MessageUtils.sendMessage(player, message);
+                MessageUtils.sendMessage(player, plugin.getConfigManager()
+                    .getMessage("general.cooldown", "You must wait {time} before using this command again!"),
+                    "{time}", timeFormat);
                 return true;
             }
         }
         
         // Send request
-        if (plugin.getTpaManager().sendRequest(player, target, TpaRequest.TpaType.TPA_HERE)) {
+        TpaManager.SendResult result = plugin.getTpaManager().sendRequest(player, target, TpaRequest.TpaType.TPA_HERE);
+        if (result == TpaManager.SendResult.SENT) {
             // Set cooldown
             if (!player.hasPermission("survivalcore.bypass.cooldown")) {
                 int cooldown = plugin.getConfigManager().getTpaCooldown();
-                plugin.getCooldownManager().setCooldown(player, "tpa", cooldown);
+                plugin.getCooldownManager().setCooldown(player, CooldownManager.TPA, cooldown);
             }
             
-            String message = plugin.getConfigManager().getMessagesConfig()
-                .getString("tpa.request-sent", "Teleport request sent to {player}!")
-                .replace("{player}", target.getName());
-            MessageUtils.sendMessage(player, message);
+            MessageUtils.sendMessage(player, plugin.getConfigManager()
+                .getMessage("tpa.request-sent", "Teleport request sent to {player}!"),
+                "{player}", target.getName());
             
-            String targetMessage = plugin.getConfigManager().getMessagesConfig()
-                .getString("tpa.request-received-here", "{player} wants you to teleport to them. /tpaccept or /tpdeny")
-                .replace("{player}", player.getName());
-            MessageUtils.sendMessage(target, targetMessage);
+            MessageUtils.sendMessage(target, plugin.getConfigManager()
+                .getMessage("tpa.request-received-here", "{player} wants you to teleport to them. /tpaccept or /tpdeny"),
+                "{player}", player.getName());
             
             target.playSound(target.getLocation(), Sound.BLOCK_NOTE_BLOCK_PLING, 1.0f, 1.0f);
+        } else if (result == TpaManager.SendResult.INBOX_FULL) {
+            MessageUtils.sendMessage(player, plugin.getConfigManager()
+                .getMessage("tpa.target-inbox-full", "{player} has too many pending teleport requests, try again later!"),
+                "{player}", target.getName());
         } else {
-            MessageUtils.sendMessage(player, plugin.getConfigManager().getMessagesConfig()
-                .getString("tpa.request-already-exists", "You already have a pending request to this player!"));
+            MessageUtils.sendMessage(player, plugin.getConfigManager()
+                .getMessage("tpa.request-already-exists", "You already have a pending request to this player!"));
         }
         
         return true;
@@ -194,143 +202,169 @@ public class TpaCommand implements CommandExecutor {
     
     private boolean handleTpAcceptCommand(Player player, String[] args) {
         if (!player.hasPermission("survivalcore.tpa.accept")) {
-            MessageUtils.sendMessage(player, plugin.getConfigManager().getMessagesConfig()
-                .getString("general.no-permission", "You don't have permission to use this command!"));
+            MessageUtils.sendMessage(player, plugin.getConfigManager()
+                .getMessage("general.no-permission", "You don't have permission to use this command!"));
             return true;
         }
         
-        TpaRequest request = plugin.getTpaManager().acceptRequest(player);
-        if (request == null) {
-            MessageUtils.sendMessage(player, plugin.getConfigManager().getMessagesConfig()
-                .getString("tpa.no-pending-requests", "You have no pending teleport requests!"));
+        if (args.length > 0 && args[0].equalsIgnoreCase("all")) {
+            List<TpaRequest> accepted = plugin.getTpaManager().acceptAllRequests(player);
+            if (accepted.isEmpty()) {
+                MessageUtils.sendMessage(player, plugin.getConfigManager()
+                    .getMessage("tpa.no-pending-requests", "You have no pending teleport requests!"));
+                return true;
+            }
+            
+            MessageUtils.sendMessage(player, plugin.getConfigManager()
+                .getMessage("tpa.accepted-all", "Accepted {count} teleport request(s)!"),
+                "{count}", String.valueOf(accepted.size()));
+            for (TpaRequest request : accepted) {
+                notifyAccepted(player, request);
+            }
             return true;
         }
         
-        Player requester = request.getRequester();
-        Player target = request.getTarget();
+        TpaRequest request;
+        if (args.length > 0) {
+            Player requester = Bukkit.getPlayer(args[0]);
+            request = requester != null ? plugin.getTpaManager().acceptRequest(player, requester.getUniqueId()) : null;
+            if (request == null) {
+                MessageUtils.sendMessage(player, plugin.getConfigManager()
+                    .getMessage("tpa.no-request-from", "You have no pending teleport request from {player}!"),
+                    "{player}", requester != null ? requester.getName() : args[0]);
+                return true;
+            }
+        } else {
+            request = plugin.getTpaManager().acceptRequest(player);
+            if (request == null) {
+                MessageUtils.sendMessage(player, plugin.getConfigManager()
+                    .getMessage("tpa.no-pending-requests", "You have no pending teleport requests!"));
+                return true;
+            }
+        }
+        
+        MessageUtils.sendMessage(player, plugin.getConfigManager()
+            .getMessage("tpa.request-accepted", "You accepted {player}'s teleport request!"),
+            "{player}", request.getRequesterName());
+        notifyAccepted(player, request);
         
-        String message = plugin.getConfigManager().getMessagesConfig()
-            .getString("tpa.request-accepted", "You accepted {player}'s teleport request!")
-            .replace("{player}", requester.getName());
-        MessageUtils.sendMessage(player, message);
+        return true;
+    }
+    
+    /**
+     * Tell the requester their request was accepted and start the teleport
+     */
+    private void notifyAccepted(Player player, TpaRequest request) {
+        Player requester = request.getRequester();
+        if (requester == null) {
+            return;
+        }
         
-        String requesterMessage = plugin.getConfigManager().getMessagesConfig()
-            .getString("tpa.request-accepted-sender", "{player} accepted your teleport request!")
-            .replace("{player}", player.getName());
-        MessageUtils.sendMessage(requester, requesterMessage);
+        MessageUtils.sendMessage(requester, plugin.getConfigManager()
+            .getMessage("tpa.request-accepted-sender", "{player} accepted your teleport request!"),
+            "{player}", player.getName());
         
         // Perform teleportation with delay
         performTeleportation(request);
-        
-        return true;
     }
     
     private boolean handleTpDenyCommand(Player player, String[] args) {
         if (!player.hasPermission("survivalcore.tpa.deny")) {
-            MessageUtils.sendMessage(player, plugin.getConfigManager().getMessagesConfig()
-                .getString("general.no-permission", "You don't have permission to use this command!"));
+            MessageUtils.sendMessage(player, plugin.getConfigManager()
+                .getMessage("general.no-permission", "You don't have permission to use this command!"));
             return true;
         }
         
-        TpaRequest request = plugin.getTpaManager().denyRequest(player);
-        if (request == null) {
-            MessageUtils.sendMessage(player, plugin.getConfigManager().getMessagesConfig()
-                .getString("tpa.no-pending-requests", "You have no pending teleport requests!"));
+        if (args.length > 0 && args[0].equalsIgnoreCase("all")) {
+            List<TpaRequest> denied = plugin.getTpaManager().denyAllRequests(player);
+            if (denied.isEmpty()) {
+                MessageUtils.sendMessage(player, plugin.getConfigManager()
+                    .getMessage("tpa.no-pending-requests", "You have no pending teleport requests!"));
+                return true;
+            }
+            
+            MessageUtils.sendMessage(player, plugin.getConfigManager()
+                .getMessage("tpa.denied-all", "Denied {count} teleport request(s)!"),
+                "{count}", String.valueOf(denied.size()));
+            for (TpaRequest request : denied) {
+                notifyDenied(player, request);
+            }
             return true;
         }
         
-        Player requester = request.getRequester();
-        
-        String message = plugin.getConfigManager().getMessagesConfig()
-            .getString("tpa.request-denied", "You denied {player}'s teleport request!")
-            .replace("{player}", requester.getName());
-        MessageUtils.sendMessage(player, message);
+        TpaRequest request;
+        if (args.length > 0) {
+            Player requester = Bukkit.getPlayer(args[0]);
+            request = requester != null ? plugin.getTpaManager().denyRequest(player, requester.getUniqueId()) : null;
+            if (request == null) {
+                MessageUtils.sendMessage(player, plugin.getConfigManager()
+                    .getMessage("tpa.no-request-from", "You have no pending teleport request from {player}!"),
+                    "{player}", requester != null ? requester.getName() : args[0]);
+                return true;
+            }
+        } else {
+            request = plugin.getTpaManager().denyRequest(player);
+            if (request == null) {
+                MessageUtils.sendMessage(player, plugin.getConfigManager()
+                    .getMessage("tpa.no-pending-requests", "You have no pending teleport requests!"));
+                return true;
+            }
+        }
         
-        String requesterMessage = plugin.getConfigManager().getMessagesConfig()
-            .getString("tpa.request-denied-sender", "{player} denied your teleport request!")
-            .replace("{player}", player.getName());
-        MessageUtils.sendMessage(requester, requesterMessage);
+        MessageUtils.sendMessage(player, plugin.getConfigManager()
+            .getMessage("tpa.request-denied", "You denied {player}'s teleport request!"),
+            "{player}", request.getRequesterName());
+        notifyDenied(player, request);
         
         return true;
     }
     
-    private void performTeleportation(TpaRequest request) {
+    private void notifyDenied(Player player, TpaRequest request) {
         Player requester = request.getRequester();
-        Player target = request.getTarget();
-        
-        int delay = plugin.getConfigManager().getConfig().getInt("tpa.teleport-delay", 3);
-        boolean cancelOnMove = plugin.getConfigManager().getConfig().getBoolean("tpa.cancel-on-move", true);
-        
-        if (delay <= 0) {
-            // Instant teleport
-            executeTeleport(request);
-            return;
+        if (requester != null) {
+            MessageUtils.sendMessage(requester, plugin.getConfigManager()
+                .getMessage("tpa.request-denied-sender", "{player} denied your teleport request!"),
+                "{player}", player.getName());
         }
-        
-        // Store initial location for movement check
-        Location initialLocation = requester.getLocation().clone();
-        
-        String delayMessage = plugin.getConfigManager().getMessagesConfig()
-            .getString("general.teleporting", "Teleporting in {delay} seconds... Don't move!")
-            .replace("{delay}", String.valueOf(delay));
-        MessageUtils.sendMessage(requester, delayMessage);
-        
-        new BukkitRunnable() {
-            private int countdown = delay;
-            
-            @Override
-            public void run() {
-                if (!requester.isOnline() || !target.isOnline()) {
-                    cancel();
-                    return;
-                }
-                
-                // Check if player moved (if enabled)
-                if (cancelOnMove && hasPlayerMoved(requester.getLocation(), initialLocation)) {
-                    MessageUtils.sendMessage(requester, plugin.getConfigManager().getMessagesConfig()
-                        .getString("general.teleport-cancelled", "Teleportation cancelled because you moved!"));
-                    cancel();
-                    return;
-                }
-                
-                countdown--;
-                
-                if (countdown <= 0) {
-                    executeTeleport(request);
-                    cancel();
-                } else if (countdown <= 3) {
-                    MessageUtils.sendMessage(requester, "&e" + countdown + "...");
-                }
-            }
-        }.runTaskTimer(plugin, 0L, 20L); // Run every second
     }
     
-    private void executeTeleport(TpaRequest request) {
-        Player requester = request.getRequester();
-        Player target = request.getTarget();
-        
-        if (!requester.isOnline() || !target.isOnline()) {
+    private void performTeleportation(TpaRequest request) {
+        // For /tpahere it is the target who travels, so the countdown and movement check are theirs
+        boolean toTarget = request.getType() == TpaRequest.TpaType.TPA;
+        Player traveler = toTarget ? request.getRequester() : request.getTarget();
+        if (traveler == null) {
             return;
         }
         
-        Location teleportLocation;
-        
-        if (request.getType() == TpaRequest.TpaType.TPA) {
-            // Requester teleports to target
-            teleportLocation = target.getLocation();
-            requester.teleport(teleportLocation);
-            requester.playSound(requester.getLocation(), Sound.ENTITY_ENDERMAN_TELEPORT, 1.0f, 1.0f);
-        } else {
-            // Target teleports to requester
-            teleportLocation = requester.getLocation();
-            target.teleport(teleportLocation);
-            target.playSound(target.getLocation(), Sound.ENTITY_ENDERMAN_TELEPORT, 1.0f, 1.0f);
-        }
+        ConfigSnapshot snapshot = plugin.getConfigManager().getSnapshot();
+        plugin.getTeleportService().teleport(traveler, () -> {
+            Player destination = toTarget ? request.getTarget() : request.getRequester();
+            return destination != null ? destination.getLocation() : null;
+        }, snapshot.getTpaTeleportDelay(), snapshot.isTpaCancelOnMove(), 0.0,
+            arrived -> arrived.playSound(arrived.getLocation(), Sound.ENTITY_ENDERMAN_TELEPORT, 1.0f, 1.0f));
     }
     
-    private boolean hasPlayerMoved(Location current, Location initial) {
-        return current.getBlockX() != initial.getBlockX() ||
-               current.getBlockY() != initial.getBlockY() ||
-               current.getBlockZ() != initial.getBlockZ();
+    @Override
+    public List<String> onTabComplete(CommandSender sender, Command command, String alias, String[] args) {
+        if (!(sender instanceof Player) || args.length != 1) {
+            return Collections.emptyList();
+        }
+        String commandName = command.getName().toLowerCase();
+        if (!commandName.equals("tpaccept") && !commandName.equals("tpdeny")) {
+            return Collections.emptyList();
+        }
+        
+        // Only players with a request waiting, straight from the inbox
+        String prefix = args[0].toLowerCase();
+        List<String> completions = new ArrayList<>();
+        for (String name : plugin.getTpaManager().getRequesterNames((Player) sender)) {
+            if (name.toLowerCase().startsWith(prefix)) {
+                completions.add(name);
+            }
+        }
+        if (!completions.isEmpty() && "all".startsWith(prefix)) {
+            completions.add("all");
+        }
+        return completions;
     }
 }
\ No newline at end of file
@@ -1,22 +1,30 @@
 package me.mememc.network.survivalcore.commands;
 
 import me.mememc.network.survivalcore.SurvivalCore;
+import me.mememc.network.survivalcore.managers.CooldownManager;
 import me.mememc.network.survivalcore.models.Warp;
+import me.mememc.network.survivalcore.utils.ConfigSnapshot;
+import me.mememc.network.survivalcore.utils.MessageTemplate;
 import me.mememc.network.survivalcore.utils.MessageUtils;
 import org.bukkit.Location;
 import org.bukkit.Sound;
 import org.bukkit.command.Command;
 import org.bukkit.command.CommandExecutor;
 import org.bukkit.command.CommandSender;
+import org.bukkit.command.TabCompleter;
 import org.bukkit.entity.Player;
-import org.bukkit.scheduler.BukkitRunnable;
 
 import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
 
 /**
  * Handles Warp command functionality
  */
-public class WarpCommand implements CommandExecutor {
+public class WarpCommand implements CommandExecutor, TabCompleter {
+    
+    private static final int MAX_COMPLETIONS = 50;
+    private static final int MAX_NEAR_RESULTS = 10;
     
     private final SurvivalCore plugin;
     
@@ -27,14 +35,14 @@ public class WarpCommand implements CommandExecutor {
     @Override
     public boolean onCommand(CommandSender sender, Command command, String label, String[] args) {
         if (!plugin.getConfigManager().isWarpEnabled()) {
-            MessageUtils.sendMessage(sender, plugin.getConfigManager().getMessagesConfig()
-                .getString("general.feature-disabled", "This feature is currently disabled!"));
+            MessageUtils.sendMessage(sender, plugin.getConfigManager()
+                .getMessage("general.feature-disabled", "This feature is currently disabled!"));
             return true;
         }
         
         if (!(sender instanceof Player)) {
-            MessageUtils.sendMessage(sender, plugin.getConfigManager().getMessagesConfig()
-                .getString("general.player-only", "This command can only be used by players!"));
+            MessageUtils.sendMessage(sender, plugin.getConfigManager()
+                .getMessage("general.player-only", "This command can only be used by players!"));
             return true;
         }
         
@@ -60,27 +68,32 @@ public class WarpCommand implements CommandExecutor {
     
     private boolean handleWarpCommand(Player player, String[] args) {
         if (!player.hasPermission("survivalcore.warp.use")) {
-            MessageUtils.sendMessage(player, plugin.getConfigManager().getMessagesConfig()
-                .getString("general.no-permission", "You don't have permission to use this command!"));
+            MessageUtils.sendMessage(player, plugin.getConfigManager()
+                .getMessage("general.no-permission", "You don't have permission to use this command!"));
             return true;
         }
         
+        // "near" only means a warp of that name when one exists and no radius is given
+        if (args.length > 0 && args[0].equalsIgnoreCase("near")
+                && (args.length == 2 || !plugin.getWarpManager().warpExists("near"))) {
+            return handleNearCommand(player, args);
+        }
+        
         if (args.length != 1) {
-            MessageUtils.sendMessage(player, plugin.getConfigManager().getMessagesConfig()
-                .getString("general.invalid-usage", "Usage: /warp <name>")
-                .replace("{usage}", "/warp <name>"));
+            MessageUtils.sendMessage(player, plugin.getConfigManager()
+                .getMessage("general.invalid-usage", "Usage: /warp <name>"),
+                "{usage}", "/warp <name>");
             return true;
         }
         
         // Check cooldown
         if (!player.hasPermission("survivalcore.bypass.cooldown")) {
-            if (plugin.getCooldownManager().hasCooldown(player, "warp")) {
-                int remaining = plugin.getCooldownManager().getRemainingCooldown(player, "warp");
+            if (plugin.getCooldownManager().hasCooldown(player, CooldownManager.WARP)) {
+                int remaining = plugin.getCooldownManager().getRemainingCooldown(player, CooldownManager.WARP);
                 String timeFormat = plugin.getCooldownManager().formatTime(remaining);
-                String message = plugin.getConfigManager().getMessagesConfig()
-                    .getString("general.cooldown", "You must wait {time} before using this command again!")
-                    .replace("{time}", timeFormat);
-                MessageUtils.sendMessage(player, message);
+                MessageUtils.sendMessage(player, plugin.getConfigManager()
+                    .getMessage("general.cooldown", "You must wait {time} before using this command again!"),
+                    "{time}", timeFormat);
                 return true;
             }
         }
@@ -89,25 +102,23 @@ public class WarpCommand implements CommandExecutor {
         Warp warp = plugin.getWarpManager().getWarp(warpName);
         
         if (warp == null) {
-            String message = plugin.getConfigManager().getMessagesConfig()
-                .getString("warp.not-found", "Warp '{warp}' not found!")
-                .replace("{warp}", warpName);
-            MessageUtils.sendMessage(player, message);
+            MessageUtils.sendMessage(player, plugin.getConfigManager()
+                .getMessage("warp.not-found", "Warp '{warp}' not found!"),
+                "{warp}", warpName);
             return true;
         }
         
         if (!warp.isValidLocation()) {
-            String message = plugin.getConfigManager().getMessagesConfig()
-                .getString("warp.not-found", "Warp '{warp}' not found!")
-                .replace("{warp}", warpName);
-            MessageUtils.sendMessage(player, message);
+            MessageUtils.sendMessage(player, plugin.getConfigManager()
+                .getMessage("warp.not-found", "Warp '{warp}' not found!"),
+                "{warp}", warpName);
             return true;
         }
         
         // Set cooldown
         if (!player.hasPermission("survivalcore.bypass.cooldown")) {
             int cooldown = plugin.getConfigManager().getWarpCooldown();
-            plugin.getCooldownManager().setCooldown(player, "warp", cooldown);
+            plugin.getCooldownManager().setCooldown(player, CooldownManager.WARP, cooldown);
         }
         
         // Teleport with delay
@@ -116,37 +127,81 @@ public class WarpCommand implements CommandExecutor {
         return true;
     }
     
+    private boolean handleNearCommand(Player player, String[] args) {
+        ConfigSnapshot settings = plugin.getConfigManager().getSnapshot();
+        int radius = settings.getWarpNearRadius();
+        if (args.length == 2) {
+            try {
+                radius = Integer.parseInt(args[1]);
+            } catch (NumberFormatException e) {
+                radius = -1;
+            }
+        }
+        if (radius <= 0 || args.length > 2) {
+            MessageUtils.sendMessage(player, plugin.getConfigManager()
+                .getMessage("general.invalid-usage", "Usage: /warp near [radius]"),
+                "{usage}", "/warp near [radius]");
+            return true;
+        }
+        radius = Math.min(radius, settings.getWarpMaxNearRadius());
+        
+        Location location = player.getLocation();
+        List<Warp> nearby = plugin.getWarpManager().getWarpsNear(location, radius, MAX_NEAR_RESULTS);
+        if (nearby.isEmpty()) {
+            MessageUtils.sendMessage(player, plugin.getConfigManager()
+                .getMessage("warp.none-near", "No warps within {radius} blocks!"),
+                "{radius}", String.valueOf(radius));
+            return true;
+        }
+        
+        MessageUtils.sendMessage(player, plugin.getConfigManager()
+            .getMessage("warp.near-header", "Warps within {radius} blocks:"),
+            "{radius}", String.valueOf(radius));
+        
+        MessageTemplate itemFormat = plugin.getConfigManager()
+            .getMessage("warp.near-item", "- {warp} ({distance} blocks)");
+        
+        // Nearest first
+        for (Warp warp : nearby) {
+            double dx = warp.getX() - location.getX();
+            double dz = warp.getZ() - location.getZ();
+            MessageUtils.sendMessage(player, itemFormat,
+                "{warp}", warp.getName(),
+                "{distance}", String.valueOf((int) Math.sqrt(dx * dx + dz * dz)));
+        }
+        
+        return true;
+    }
+    
     private boolean handleWarpsCommand(Player player, String[] args) {
         if (!player.hasPermission("survivalcore.warp.list")) {
-            MessageUtils.sendMessage(player, plugin.getConfigManager().getMessagesConfig()
-                .getString("general.no-permission", "You don't have permission to use this command!"));
+            MessageUtils.sendMessage(player, plugin.getConfigManager()
+                .getMessage("general.no-permission", "You don't have permission to use this command!"));
             return true;
         }
         
         Collection<Warp> warps = plugin.getWarpManager().getAllWarps();
         
         if (warps.isEmpty()) {
-            MessageUtils.sendMessage(player, plugin.getConfigManager().getMessagesConfig()
-                .getString("warp.no-warps", "No warps available!"));
+            MessageUtils.sendMessage(player, plugin.getConfigManager()
+                .getMessage("warp.no-warps", "No warps available!"));
             return true;
         }
         
-        MessageUtils.sendMessage(player, plugin.getConfigManager().getMessagesConfig()
-            .getString("warp.list-header", "Available warps:"));
+        MessageUtils.sendMessage(player, plugin.getConfigManager()
+            .getMessage("warp.list-header", "Available warps:"));
         
-        String itemFormat = plugin.getConfigManager().getMessagesConfig()
-            .getString("warp.list-item", "- {warp} in {world} at {x}, {y}, {z}");
+        MessageTemplate itemFormat = plugin.getConfigManager()
+            .getMessage("warp.list-item", "- {warp} in {world} at {x}, {y}, {z}");
         
         for (Warp warp : warps) {
             if (warp.isValidLocation()) {
-                String warpInfo = itemFormat
-                    .replace("{warp}", warp.getName())
-                    .replace("{world}", warp.getWorldName())
-                    .replace("{x}", String.valueOf((int) warp.getX()))
-                    .replace("{y}", String.valueOf((int) warp.getY()))
-                    .replace("{z}", String.valueOf((int) warp.getZ()));
-                
-                MessageUtils.sendMessage(player, warpInfo);
+                MessageUtils.sendMessage(player, itemFormat,
+                    "{warp}", warp.getName(),
+                    "{world}", warp.getWorldName(),
+                    "{x}", String.valueOf((int) warp.getX()),
+                    "{y}", String.valueOf((int) warp.getY()),
+                    "{z}", String.valueOf((int) warp.getZ()));
             }
         }
         
@@ -155,15 +210,15 @@ public class WarpCommand implements CommandExecutor {
     
     private boolean handleSetWarpCommand(Player player, String[] args) {
         if (!player.hasPermission("survivalcore.warp.set")) {
-            MessageUtils.sendMessage(player, plugin.getConfigManager().getMessagesConfig()
-                .getString("general.no-permission", "You don't have permission to use this command!"));
+            MessageUtils.sendMessage(player, plugin.getConfigManager()
+                .getMessage("general.no-permission", "You don't have permission to use this command!"));
             return true;
         }
         
         if (args.length != 1) {
-            MessageUtils.sendMessage(player, plugin.getConfigManager().getMessagesConfig()
-                .getString("general.invalid-usage", "Usage: /setwarp <name>")
-                .replace("{usage}", "/setwarp <name>"));
+            MessageUtils.sendMessage(player, plugin.getConfigManager()
+                .getMessage("general.invalid-usage", "Usage: /setwarp <name>"),
+                "{usage}", "/setwarp <name>");
             return true;
         }
         
@@ -171,27 +226,25 @@ public class WarpCommand implements CommandExecutor {
         
         // Validate warp name
         if (!warpName.matches("^[a-zA-Z0-9_]+$") || warpName.length() > 32) {
-            MessageUtils.sendMessage(player, plugin.getConfigManager().getMessagesConfig()
-                .getString("warp.invalid-name", "Invalid warp name! Use only letters, numbers, and underscores."));
+            MessageUtils.sendMessage(player, plugin.getConfigManager()
+                .getMessage("warp.invalid-name", "Invalid warp name! Use only letters, numbers, and underscores."));
             return true;
         }
         
         // Check if warp already exists
         if (plugin.getWarpManager().warpExists(warpName)) {
-            String message = plugin.getConfigManager().getMessagesConfig()
-                .getString("warp.already-exists", "Warp '{warp}' already exists!")
-                .replace("{warp}", warpName);
-            MessageUtils.sendMessage(player, message);
+            MessageUtils.sendMessage(player, plugin.getConfigManager()
+                .getMessage("warp.already-exists", "Warp '{warp}' already exists!"),
+                "{warp}", warpName);
             return true;
         }
         
         // Create the warp
         Location location = player.getLocation();
         if (plugin.getWarpManager().createWarp(warpName, location, player.getUniqueId().toString())) {
-            String message = plugin.getConfigManager().getMessagesConfig()
-                .getString("warp.created", "Warp '{warp}' has been created!")
-                .replace("{warp}", warpName);
-            MessageUtils.sendMessage(player, message);
+            MessageUtils.sendMessage(player, plugin.getConfigManager()
+                .getMessage("warp.created", "Warp '{warp}' has been created!"),
+                "{warp}", warpName);
             
             player.playSound(player.getLocation(), Sound.BLOCK_NOTE_BLOCK_PLING, 1.0f, 1.5f);
         } else {
@@ -203,105 +256,77 @@ public class WarpCommand implements CommandExecutor {
     
     private boolean handleDelWarpCommand(Player player, String[] args) {
         if (!player.hasPermission("survivalcore.warp.delete")) {
-            MessageUtils.sendMessage(player, plugin.getConfigManager().getMessagesConfig()
-                .getString("general.no-permission", "You don't have permission to use this command!"));
+            MessageUtils.sendMessage(player, plugin.getConfigManager()
+                .getMessage("general.no-permission", "You don't have permission to use this command!"));
             return true;
         }
         
         if (args.length != 1) {
-            MessageUtils.sendMessage(player, plugin.getConfigManager().getMessagesConfig()
-                .getString("general.invalid-usage", "Usage: /delwarp <name>")
-                .replace("{usage}", "/delwarp <name>"));
+            MessageUtils.sendMessage(player, plugin.getConfigManager()
+                .getMessage("general.invalid-usage", "Usage: /delwarp <name>"),
+                "{usage}", "/delwarp <name>");
             return true;
         }
         
         String warpName = args[0];
         
         if (plugin.getWarpManager().deleteWarp(warpName)) {
-            String message = plugin.getConfigManager().getMessagesConfig()
-                .getString("warp.deleted", "Warp '{warp}' has been deleted!")
-                .replace("{warp}", warpName);
-            MessageUtils.sendMessage(player, message);
+            MessageUtils.sendMessage(player, plugin.getConfigManager()
+                .getMessage("warp.deleted", "Warp '{warp}' has been deleted!"),
+                "{warp}", warpName);
             
             player.playSound(player.getLocation(), Sound.BLOCK_NOTE_BLOCK_BASS, 1.0f, 0.8f);
         } else {
-            String message = plugin.getConfigManager().getMessagesConfig()
-                .getString("warp.not-found", "Warp '{warp}' not found!")
-                .replace("{warp}", warpName);
-            MessageUtils.sendMessage(player, message);
+            MessageUtils.sendMessage(player, plugin.getConfigManager()
+                .getMessage("warp.not-found", "Warp '{warp}' not found!"),
+                "{warp}", warpName);
         }
         
         return true;
     }
     
     private void performTeleportation(Player player, Warp warp) {
-        int delay = plugin.getConfigManager().getConfig().getInt("warps.teleport-delay", 3);
-        boolean cancelOnMove = plugin.getConfigManager().getConfig().getBoolean("warps.cancel-on-move", true);
-        
-        if (delay <= 0) {
-            // Instant teleport
-            executeTeleport(player, warp);
+        if (warp.getLocation() == null) {
+            MessageUtils.sendMessage(player, "&cWarp location is invalid!");
             return;
         }
         
-        // Store initial location for movement check
-        Location initialLocation = player.getLocation().clone();
-        
-        String delayMessage = plugin.getConfigManager().getMessagesConfig()
-            .getString("general.teleporting", "Teleporting in {delay} seconds... Don't move!")
-            .replace("{delay}", String.valueOf(delay));
-        MessageUtils.sendMessage(player, delayMessage);
-        
-        new BukkitRunnable() {
-            private int countdown = delay;
-            
-            @Override
-            public void run() {
-                if (!player.isOnline()) {
-                    cancel();
-                    return;
-                }
-                
-                // Check if player moved (if enabled)
-                if (cancelOnMove && hasPlayerMoved(player.getLocation(), initialLocation)) {
-                    MessageUtils.sendMessage(player, plugin.getConfigManager().getMessagesConfig()
-                        .getString("general.teleport-cancelled", "Teleportation cancelled because you moved!"));
-                    cancel();
-                    return;
-                }
+        ConfigSnapshot snapshot = plugin.getConfigManager().getSnapshot();
+        plugin.getTeleportService().teleport(player, warp::getLocation, snapshot.getWarpTeleportDelay(),
+            snapshot.isWarpCancelOnMove(), snapshot.getWarpTeleportCost(), arrived -> {
+                MessageUtils.sendMessage(arrived, plugin.getConfigManager()
+                    .getMessage("warp.teleported", "Teleported to warp '{warp}'!"),
+                    "{warp}", warp.getName());
                 
-                countdown--;
-                
-                if (countdown <= 0) {
-                    executeTeleport(player, warp);
-                    cancel();
-                } else if (countdown <= 3) {
-                    MessageUtils.sendMessage(player, "&e" + countdown + "...");
-                }
-            }
-        }.runTaskTimer(plugin, 0L, 20L); // Run every second
+                arrived.playSound(arrived.getLocation(), Sound.ENTITY_ENDERMAN_TELEPORT, 1.0f, 1.0f);
+            });
     }
     
-    private void executeTeleport(Player player, Warp warp) {
-        Location location = warp.getLocation();
-        if (location == null) {
-            MessageUtils.sendMessage(player, "&cWarp location is invalid!");
-            return;
+    @Override
+    public List<String> onTabComplete(CommandSender sender, Command command, String alias, String[] args) {
+        if (!(sender instanceof Player) || args.length != 1) {
+            return Collections.emptyList();
         }
         
-        player.teleport(location);
-        
-        String message = plugin.getConfigManager().getMessagesConfig()
-            .getString("warp.teleported", "Teleported to warp '{warp}'!")
-            .replace("{warp}", warp.getName());
-        MessageUtils.sendMessage(player, message);
+        switch (command.getName().toLowerCase()) {
+            case "warp":
+                if (!sender.hasPermission("survivalcore.warp.use")) {
+                    return Collections.emptyList();
+                }
+                List<String> completions = plugin.getWarpManager().completeWarpNames(args[0], MAX_COMPLETIONS);
+                if ("near".startsWith(args[0].toLowerCase()) && !completions.contains("near")) {
+                    completions.add(0, "near");
+                }
+                return completions;
+            case "delwarp":
+                if (!sender.hasPermission("survivalcore.warp.delete")) {
+                    return Collections.emptyList();
+                }
+                break;
+            default:
+                return Collections.emptyList();
+        }
         
-        player.playSound(player.getLocation(), Sound.ENTITY_ENDERMAN_TELEPORT, 1.0f, 1.0f);
-    }
-    
-    private boolean hasPlayerMoved(Location current, Location initial) {
-        return current.getBlockX() != initial.getBlockX() ||
-               current.getBlockY() != initial.getBlockY() ||
-               current.getBlockZ() != initial.getBlockZ();
+        return plugin.getWarpManager().completeWarpNames(args[0], MAX_COMPLETIONS);
     }
 }
\ No newline at end of file
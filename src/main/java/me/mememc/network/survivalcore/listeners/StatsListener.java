@@ -13,7 +13,6 @@ import org.bukkit.event.entity.PlayerDeathEvent;
 import org.bukkit.event.inventory.CraftItemEvent;
 import org.bukkit.event.player.PlayerFishEvent;
 import org.bukkit.event.player.PlayerJoinEvent;
-import org.bukkit.event.player.PlayerMoveEvent;
 import org.bukkit.event.player.PlayerQuitEvent;
 
 /**
@@ -75,24 +74,6 @@ public class StatsListener implements Listener {
         }
     }
     
-    @EventHandler
-    public void onPlayerMove(PlayerMoveEvent event) {
-        if (!plugin.getConfigManager().getConfig().getBoolean("stats.track-movement", true)) {
-            return;
-        }
-        
-        if (event.getFrom().getWorld() != event.getTo().getWorld()) {
-            return; // Different world, don't count
-        }
-        
-        double distance = event.getFrom().distance(event.getTo());
-        double minDistance = plugin.getConfigManager().getConfig().getDouble("stats.min-move-distance", 1.0);
-        
-        if (distance >= minDistance) {
-            plugin.getStatsManager().onPlayerMove(event.getPlayer(), distance);
-        }
-    }
-    
     @EventHandler
     public void onCraftItem(CraftItemEvent event) {
         if (event.getWhoClicked() instanceof Player && !event.isCancelled()) {
@@ -189,12 +189,12 @@ public class AdminToolsManager {
     public void toggleGodMode(Player player) {
         if (godModeEnabled.contains(player.getUniqueId())) {
             godModeEnabled.remove(player.getUniqueId());
-            MessageUtils.sendMessage(player, plugin.getConfigManager().getMessagesConfig()
-                .getString("admin.godmode-disabled", "{prefix}&cGod mode disabled!"));
+            MessageUtils.sendMessage(player, plugin.getConfigManager()
+                .getMessage("admin.godmode-disabled", "{prefix}&cGod mode disabled!"));
         } else {
             godModeEnabled.add(player.getUniqueId());
-            MessageUtils.sendMessage(player, plugin.getConfigManager().getMessagesConfig()
-                .getString("admin.godmode-enabled", "{prefix}&aGod mode enabled!"));
+            MessageUtils.sendMessage(player, plugin.getConfigManager()
+                .getMessage("admin.godmode-enabled", "{prefix}&aGod mode enabled!"));
         }
     }
     
@@ -215,8 +215,8 @@ public class AdminToolsManager {
             for (Player other : Bukkit.getOnlinePlayers()) {
                 other.showPlayer(plugin, player);
             }
-            MessageUtils.sendMessage(player, plugin.getConfigManager().getMessagesConfig()
-                .getString("admin.vanish-disabled", "{prefix}&cYou are now visible!"));
+            MessageUtils.sendMessage(player, plugin.getConfigManager()
+                .getMessage("admin.vanish-disabled", "{prefix}&cYou are now visible!"));
         } else {
             vanishedPlayers.add(player.getUniqueId());
             // Hide player from others
@@ -225,8 +225,8 @@ public class AdminToolsManager {
                     other.hidePlayer(plugin, player);
                 }
             }
-            MessageUtils.sendMessage(player, plugin.getConfigManager().getMessagesConfig()
-                .getString("admin.vanish-enabled", "{prefix}&aYou are now invisible!"));
+            MessageUtils.sendMessage(player, plugin.getConfigManager()
+                .getMessage("admin.vanish-enabled", "{prefix}&aYou are now invisible!"));
         }
     }
     
@@ -247,13 +247,13 @@ public class AdminToolsManager {
         target.getActivePotionEffects().clear();
         target.setFireTicks(0);
         
-        MessageUtils.sendMessage(target, plugin.getConfigManager().getMessagesConfig()
-            .getString("admin.healed", "{prefix}&aYou have been healed!"));
+        MessageUtils.sendMessage(target, plugin.getConfigManager()
+            .getMessage("admin.healed", "{prefix}&aYou have been healed!"));
         
         if (!target.equals(admin)) {
-            MessageUtils.sendMessage(admin, plugin.getConfigManager().getMessagesConfig()
-                .getString("admin.healed-other", "{prefix}&aYou healed {player}!")
-                .replace("{player}", target.getName()));
+            MessageUtils.sendMessage(admin, plugin.getConfigManager()
+                .getMessage("admin.healed-other", "{prefix}&aYou healed {player}!"),
+                "{player}", target.getName());
         }
     }
     
@@ -264,13 +264,13 @@ public class AdminToolsManager {
         target.setFoodLevel(20);
         target.setSaturation(20f);
         
-        MessageUtils.sendMessage(target, plugin.getConfigManager().getMessagesConfig()
-            .getString("admin.fed", "{prefix}&aYou have been fed!"));
+        MessageUtils.sendMessage(target, plugin.getConfigManager()
+            .getMessage("admin.fed", "{prefix}&aYou have been fed!"));
         
         if (!target.equals(admin)) {
-            MessageUtils.sendMessage(admin, plugin.getConfigManager().getMessagesConfig()
-                .getString("admin.fed-other", "{prefix}&aYou fed {player}!")
-                .replace("{player}", target.getName()));
+            MessageUtils.sendMessage(admin, plugin.getConfigManager()
+                .getMessage("admin.fed-other", "{prefix}&aYou fed {player}!"),
+                "{player}", target.getName());
         }
     }
     
@@ -1,111 +1,175 @@
 package me.mememc.network.survivalcore.managers;
 
 import me.mememc.network.survivalcore.SurvivalCore;
+import me.mememc.network.survivalcore.utils.ChatFormatTemplate;
+import me.mememc.network.survivalcore.utils.ConfigSnapshot;
 import me.mememc.network.survivalcore.utils.MessageUtils;
+import me.mememc.network.survivalcore.utils.ProfanityFilter;
+import me.mememc.network.survivalcore.utils.UrlDetector;
 import org.bukkit.Bukkit;
+import org.bukkit.configuration.ConfigurationSection;
 import org.bukkit.entity.Player;
 import org.bukkit.event.EventHandler;
 import org.bukkit.event.EventPriority;
 import org.bukkit.event.Listener;
 import org.bukkit.event.player.AsyncPlayerChatEvent;
+import org.bukkit.event.player.PlayerChangedWorldEvent;
+import org.bukkit.event.player.PlayerJoinEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
 
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.regex.Pattern;
 
 /**
  * Manages chat formatting, filters, and moderation features
  */
 public class ChatManager implements Listener {
     
+    private static final int CLEAR_CHAT_LINES = 100;
+    
     private final SurvivalCore plugin;
     private final Set<UUID> mutedPlayers = ConcurrentHashMap.newKeySet();
-    private final Map<UUID, Long> lastMessageTime = new ConcurrentHashMap<>();
-    private final Map<UUID, String> lastMessage = new ConcurrentHashMap<>();
-    private final Set<String> bannedWords = new HashSet<>();
-    private final List<Pattern> urlPatterns = new ArrayList<>();
+    private final ChatRateLimiter rateLimiter;
+    private volatile ProfanityFilter profanityFilter;
+    private final UrlDetector urlDetector = new UrlDetector(UrlDetector.DEFAULT_TLDS);
+    private final Map<UUID, ResolvedFormat> resolvedFormats = new ConcurrentHashMap<>();
+    private volatile FormatSet formats;
+    
+    /**
+     * Chat formats from the config, compiled once per load
+     */
+    private static final class FormatSet {
+        private final ChatFormatTemplate defaultFormat;
+        private final String[] groupPermissions;
+        private final ChatFormatTemplate[] groupFormats;
+        private final long recheckMillis;
+        
+        private FormatSet(ChatFormatTemplate defaultFormat, String[] groupPermissions,
+                          ChatFormatTemplate[] groupFormats, long recheckMillis) {
+            this.defaultFormat = defaultFormat;
+            this.groupPermissions = groupPermissions;
+            this.groupFormats = groupFormats;
+            this.recheckMillis = recheckMillis;
+        }
+    }
+    
+    /**
+     * A player's rendered format and what it was rendered from
+     */
+    private static final class ResolvedFormat {
+        private final FormatSet source;
+        private final String format;
+        private final long expiresAt;
+        
+        private ResolvedFormat(FormatSet source, String format, long expiresAt) {
+            this.source = source;
+            this.format = format;
+            this.expiresAt = expiresAt;
+        }
+    }
     
     public ChatManager(SurvivalCore plugin) {
         this.plugin = plugin;
+        this.rateLimiter = new ChatRateLimiter(loadRateLimits());
         loadBannedWords();
-        loadUrlPatterns();
+        loadFormats();
         plugin.getServer().getPluginManager().registerEvents(this, plugin);
     }
     
     private void loadBannedWords() {
-        bannedWords.clear();
         List<String> words = plugin.getConfigManager().getConfig().getStringList("chat.banned-words");
-        bannedWords.addAll(words);
+        profanityFilter = ProfanityFilter.compile(words,
+            plugin.getConfigManager().getConfig().getBoolean("chat.filter.leetspeak", false),
+            plugin.getConfigManager().getConfig().getBoolean("chat.filter.whole-words-only", false));
+    }
+    
+    private void loadFormats() {
+        ChatFormatTemplate defaultFormat = ChatFormatTemplate.compile(
+            plugin.getConfigManager().getConfig().getString("chat.format.default", "&7{player}&f: {message}"));
+        
+        List<String> permissions = new ArrayList<>();
+        List<ChatFormatTemplate> templates = new ArrayList<>();
+        ConfigurationSection groups = plugin.getConfigManager().getConfig().getConfigurationSection("chat.format.groups");
+        if (groups != null) {
+            for (String group : groups.getKeys(false)) {
+                permissions.add("survivalcore.chat.format." + group);
+                templates.add(ChatFormatTemplate.compile(groups.getString(group, "")));
+            }
+        }
+        
+        long recheckMillis = plugin.getConfigManager().getConfig().getLong("chat.format.permission-recheck", 30L) * 1000L;
+        formats = new FormatSet(defaultFormat, permissions.toArray(new String[0]),
+            templates.toArray(new ChatFormatTemplate[0]), recheckMillis);
+        resolvedFormats.clear();
     }
     
-    private void loadUrlPatterns() {
-        urlPatterns.clear();
-        urlPatterns.add(Pattern.compile("(?i)https?://[\\w\\.-]+\\.[a-z]{2,}"));
-        urlPatterns.add(Pattern.compile("(?i)www\\.[\\w\\.-]+\\.[a-z]{2,}"));
-        urlPatterns.add(Pattern.compile("(?i)[\\w\\.-]+\\.(com|net|org|edu|gov|mil|int|co|uk|de|fr|it|es|nl|au|ca|jp|ru|br|in|mx|ch|se|no|dk|fi|pl|cz|hu|ro|bg|hr|si|sk|lt|lv|ee|ie|mt|cy|lu|is|li|mc|sm|va|ad|md|by|ua|mk|al|me|rs|ba|xk|tr|ge|am|az|kz|kg|uz|tm|tj|mn|cn|kp|kr|jp|ph|th|vn|my|sg|id|bn|kh|la|mm|bd|lk|np|bt|mv|af|pk|ir|iq|sy|lb|jo|il|ps|sa|ye|om|ae|qa|bh|kw|eg|ly|tn|dz|ma|sd|ss|et|so|dj|er|ke|ug|tz|rw|bi|mw|zm|zw|bw|sz|ls|za|na|mg|mu|sc|km|mz|ao|cd|cg|cf|td|cm|gq|ga|st|cv|gw|gm|sn|ml|bf|ne|ng|bj|tg|gh|ci|lr|sl|gn)");
+    private ChatRateLimiter.Settings loadRateLimits() {
+        return new ChatRateLimiter.Settings(
+            plugin.getConfigManager().getConfig().getDouble("chat.cooldown", 3),
+            plugin.getConfigManager().getConfig().getInt("chat.burst", 3),
+            plugin.getConfigManager().getConfig().getDouble("chat.flood.messages-per-second", 10),
+            plugin.getConfigManager().getConfig().getInt("chat.flood.burst", 20),
+            plugin.getConfigManager().getConfig().getDouble("chat.flood.slowdown", 3.0),
+            plugin.getConfigManager().getConfig().getInt("chat.flood.duration", 30),
+            plugin.getConfigManager().getConfig().getInt("chat.anti-spam.history", 5),
+            plugin.getConfigManager().getConfig().getInt("chat.anti-spam.window", 60));
     }
     
     @EventHandler(priority = EventPriority.HIGH)
     public void onPlayerChat(AsyncPlayerChatEvent event) {
         Player player = event.getPlayer();
         String message = event.getMessage();
+        ConfigSnapshot settings = plugin.getConfigManager().getSnapshot();
         
         // Check if chat is globally enabled
-        if (!plugin.getConfigManager().getConfig().getBoolean("chat.enabled", true) &&
+        if (!settings.isChatEnabled() &&
             !player.hasPermission("survivalcore.chat.bypass.disabled")) {
             event.setCancelled(true);
-            MessageUtils.sendMessage(player, plugin.getConfigManager().getMessagesConfig()
-                .getString("chat.disabled-for-player", "{prefix}&cChat is currently disabled!"));
+            MessageUtils.sendMessage(player, plugin.getConfigManager()
+                .getMessage("chat.disabled-for-player", "{prefix}&cChat is currently disabled!"));
             return;
         }
         
         // Check if player is muted
         if (mutedPlayers.contains(player.getUniqueId())) {
             event.setCancelled(true);
-            MessageUtils.sendMessage(player, plugin.getConfigManager().getMessagesConfig()
-                .getString("chat.muted", "{prefix}&cYou are currently muted and cannot speak in chat!"));
+            MessageUtils.sendMessage(player, plugin.getConfigManager()
+                .getMessage("chat.muted", "{prefix}&cYou are currently muted and cannot speak in chat!"));
             return;
         }
         
-        // Chat cooldown check
+        // Chat rate limit (token bucket, slowed down while the server is flooded)
         if (!player.hasPermission("survivalcore.chat.bypass.cooldown")) {
-            int cooldown = plugin.getConfigManager().getConfig().getInt("chat.cooldown", 3);
-            if (cooldown > 0) {
-                Long lastTime = lastMessageTime.get(player.getUniqueId());
-                if (lastTime != null && System.currentTimeMillis() - lastTime < cooldown * 1000L) {
-                    event.setCancelled(true);
-                    long remaining = (cooldown * 1000L - (System.currentTimeMillis() - lastTime)) / 1000L;
-                    MessageUtils.sendMessage(player, plugin.getConfigManager().getMessagesConfig()
-                        .getString("chat.cooldown", "{prefix}&cYou must wait {time} seconds before sending another message!")
-                        .replace("{time}", String.valueOf(remaining + 1)));
-                    return;
-                }
+            long waitMillis = rateLimiter.tryAcquire(player.getUniqueId());
+            if (waitMillis > 0) {
+                event.setCancelled(true);
+                MessageUtils.sendMessage(player, plugin.getConfigManager()
+                    .getMessage("chat.cooldown", "{prefix}&cYou must wait {time} seconds before sending another message!"),
+                    "{time}", String.valueOf((waitMillis + 999) / 1000));
+                return;
             }
-            lastMessageTime.put(player.getUniqueId(), System.currentTimeMillis());
         }
         
-        // Anti-spam check (repeated messages)
+        // Anti-spam check (recently repeated messages)
         if (!player.hasPermission("survivalcore.chat.bypass.spam")) {
-            String lastMsg = lastMessage.get(player.getUniqueId());
-            if (lastMsg != null && lastMsg.equalsIgnoreCase(message.trim())) {
+            if (rateLimiter.isRepeat(player.getUniqueId(), message)) {
                 event.setCancelled(true);
-                MessageUtils.sendMessage(player, plugin.getConfigManager().getMessagesConfig()
-                    .getString("chat.spam", "{prefix}&cPlease don't repeat the same message!"));
+                MessageUtils.sendMessage(player, plugin.getConfigManager()
+                    .getMessage("chat.spam", "{prefix}&cPlease don't repeat the same message!"));
                 return;
             }
-            lastMessage.put(player.getUniqueId(), message.trim());
         }
         
         // Profanity filter
-        if (plugin.getConfigManager().getConfig().getBoolean("chat.filter.enabled", true) && 
+        if (settings.isChatFilterEnabled() && 
             !player.hasPermission("survivalcore.chat.bypass.filter")) {
             
-            String filteredMessage = filterProfanity(message);
+            String filteredMessage = profanityFilter.filter(message, settings.getChatFilterReplacement());
             if (!filteredMessage.equals(message)) {
-                if (plugin.getConfigManager().getConfig().getBoolean("chat.filter.block-message", false)) {
+                if (settings.isChatFilterBlockMessage()) {
                     event.setCancelled(true);
-                    MessageUtils.sendMessage(player, plugin.getConfigManager().getMessagesConfig()
-                        .getString("chat.filtered", "{prefix}&cYour message contains inappropriate language and was blocked!"));
+                    MessageUtils.sendMessage(player, plugin.getConfigManager()
+                        .getMessage("chat.filtered", "{prefix}&cYour message contains inappropriate language and was blocked!"));
                     return;
                 } else {
                     message = filteredMessage;
@@ -115,27 +179,27 @@ public class ChatManager implements Listener {
         }
         
         // URL filter
-        if (plugin.getConfigManager().getConfig().getBoolean("chat.block-urls", true) && 
+        if (settings.isChatBlockUrls() && 
             !player.hasPermission("survivalcore.chat.bypass.urls")) {
             
             if (containsURL(message)) {
                 event.setCancelled(true);
-                MessageUtils.sendMessage(player, plugin.getConfigManager().getMessagesConfig()
-                    .getString("chat.no-urls", "{prefix}&cYou cannot send URLs in chat!"));
+                MessageUtils.sendMessage(player, plugin.getConfigManager()
+                    .getMessage("chat.no-urls", "{prefix}&cYou cannot send URLs in chat!"));
                 return;
             }
         }
         
         // Caps filter
-        if (plugin.getConfigManager().getConfig().getBoolean("chat.caps-filter", true) && 
+        if (settings.isChatCapsFilter() && 
             !player.hasPermission("survivalcore.chat.bypass.caps")) {
             
-            message = filterCaps(message);
+            message = filterCaps(message, settings.getChatMaxCapsPercent());
             event.setMessage(message);
         }
         
         // Apply chat format
-        if (plugin.getConfigManager().getConfig().getBoolean("chat.format.enabled", true)) {
+        if (settings.isChatFormatEnabled()) {
             String format = getChatFormat(player);
             event.setFormat(format);
         }
@@ -147,28 +211,17 @@ public class ChatManager implements Listener {
         }
     }
     
-    private String filterProfanity(String message) {
-        String filtered = message;
-        String replacement = plugin.getConfigManager().getConfig().getString("chat.filter.replacement", "***");
-        
-        for (String word : bannedWords) {
-            filtered = filtered.replaceAll("(?i)" + Pattern.quote(word), replacement);
-        }
-        
-        return filtered;
+    @EventHandler
+    public void onPlayerQuit(PlayerQuitEvent event) {
+        rateLimiter.remove(event.getPlayer().getUniqueId());
+        resolvedFormats.remove(event.getPlayer().getUniqueId());
     }
     
     private boolean containsURL(String message) {
-        for (Pattern pattern : urlPatterns) {
-            if (pattern.matcher(message).find()) {
-                return true;
-            }
-        }
-        return false;
+        return urlDetector.containsUrl(message);
     }
     
-    private String filterCaps(String message) {
-        int maxCaps = plugin.getConfigManager().getConfig().getInt("chat.max-caps-percent", 50);
+    private String filterCaps(String message, int maxCaps) {
         if (maxCaps >= 100) return message;
         
         int totalLetters = 0;
@@ -191,29 +244,38 @@ public class ChatManager implements Listener {
     }
     
     private String getChatFormat(Player player) {
-        String format = plugin.getConfigManager().getConfig().getString("chat.format.default", "&7{player}&f: {message}");
+        FormatSet current = formats;
+        long now = System.currentTimeMillis();
+        ResolvedFormat resolved = resolvedFormats.get(player.getUniqueId());
+        if (resolved != null && resolved.source == current && now < resolved.expiresAt) {
+            return resolved.format;
+        }
         
-        // Check for group-specific formats
-        Map<String, Object> groupFormats = plugin.getConfigManager().getConfig().getConfigurationSection("chat.format.groups").getValues(false);
-        for (Map.Entry<String, Object> entry : groupFormats.entrySet()) {
-            String permission = "survivalcore.chat.format." + entry.getKey();
-            if (player.hasPermission(permission)) {
-                format = (String) entry.getValue();
-                break; // Use the first matching format
+        // Use the first group format the player has permission for
+        ChatFormatTemplate template = current.defaultFormat;
+        for (int i = 0; i < current.groupPermissions.length; i++) {
+            if (player.hasPermission(current.groupPermissions[i])) {
+                template = current.groupFormats[i];
+                break;
             }
         }
         
-        // Replace placeholders
-        format = format.replace("{player}", player.getDisplayName())
-                      .replace("{name}", player.getName())
-                      .replace("{world}", player.getWorld().getName());
-        
-        // Add color codes
-        format = MessageUtils.colorize(format);
-        
+        // Permissions can change without an event, so the group is checked again after a while
+        String format = template.render(player.getName(), player.getWorld().getName());
+        resolvedFormats.put(player.getUniqueId(), new ResolvedFormat(current, format, now + current.recheckMillis));
         return format;
     }
     
+    @EventHandler
+    public void onPlayerJoin(PlayerJoinEvent event) {
+        resolvedFormats.remove(event.getPlayer().getUniqueId());
+    }
+    
+    @EventHandler
+    public void onPlayerChangedWorld(PlayerChangedWorldEvent event) {
+        resolvedFormats.remove(event.getPlayer().getUniqueId());
+    }
+    
     /**
      * Mute a player
      */
@@ -239,11 +301,17 @@ public class ChatManager implements Listener {
      * Clear chat for all players
      */
     public void clearChat() {
-        for (int i = 0; i < 100; i++) {
-            Bukkit.broadcastMessage(" ");
+        String cleared = plugin.getConfigManager()
+            .getMessage("chat.cleared", "{prefix}&aChat has been cleared!").render();
+        
+        // Built once and sent to each player in one call instead of 101 broadcasts
+        String[] lines = new String[CLEAR_CHAT_LINES + 1];
+        Arrays.fill(lines, 0, CLEAR_CHAT_LINES, " ");
+        lines[CLEAR_CHAT_LINES] = cleared;
+        for (Player player : Bukkit.getOnlinePlayers()) {
+            player.sendMessage(lines);
         }
-        Bukkit.broadcastMessage(MessageUtils.colorize(plugin.getConfigManager().getMessagesConfig()
-            .getString("chat.cleared", "{prefix}&aChat has been cleared!")));
+        Bukkit.getConsoleSender().sendMessage(cleared);
     }
     
     /**
@@ -251,13 +319,14 @@ public class ChatManager implements Listener {
      */
     public void toggleChat(boolean enabled) {
         plugin.getConfigManager().getConfig().set("chat.enabled", enabled);
+        plugin.getConfigManager().refreshSnapshot();
         
         if (enabled) {
-            Bukkit.broadcastMessage(MessageUtils.colorize(plugin.getConfigManager().getMessagesConfig()
-                .getString("chat.enabled", "{prefix}&aChat has been enabled!")));
+            Bukkit.broadcastMessage(plugin.getConfigManager()
+                .getMessage("chat.enabled", "{prefix}&aChat has been enabled!").render());
         } else {
-            Bukkit.broadcastMessage(MessageUtils.colorize(plugin.getConfigManager().getMessagesConfig()
-                .getString("chat.disabled", "{prefix}&cChat has been disabled!")));
+            Bukkit.broadcastMessage(plugin.getConfigManager()
+                .getMessage("chat.disabled", "{prefix}&cChat has been disabled!").render());
         }
     }
     
@@ -265,8 +334,9 @@ public class ChatManager implements Listener {
      * Reload chat configuration
      */
     public void reloadConfig() {
+        rateLimiter.configure(loadRateLimits());
         loadBannedWords();
-        loadUrlPatterns();
+        loadFormats();
     }
     
     /**
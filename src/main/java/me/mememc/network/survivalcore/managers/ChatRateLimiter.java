@@ -0,0 +1,328 @@
+package me.mememc.network.survivalcore.managers;
+
+import java.util.UUID;
+
+/**
+ * Chat rate limiting and repeat detection, safe to call from async chat threads.
+ *
+ * Every player has a token bucket: each message costs one token, tokens refill at
+ * one per cooldown period and up to a burst size. A server-wide bucket counts all
+ * chat; when it runs dry the server is considered flooded and every player's refill
+ * rate is slowed for a while. Each player also keeps a small ring of fingerprints
+ * (FNV-1a hashes of the message with case, punctuation and repeated letters folded
+ * away) of their recent messages to catch repeats without keeping the text.
+ *
+ * Players are kept in open-addressing tables keyed by the two halves of their UUID,
+ * split into stripes with their own lock so chat threads rarely contend.
+ */
+public class ChatRateLimiter {
+    
+    private static final int STRIPES = 16;
+    private static final int FNV_OFFSET = 0x811C9DC5;
+    private static final int FNV_PRIME = 0x01000193;
+    
+    /**
+     * Limits as configured; replaced as a whole on reload
+     */
+    public static final class Settings {
+        private final double refillPerNano;
+        private final double burst;
+        private final double floodRefillPerNano;
+        private final double floodBurst;
+        private final double floodSlowdown;
+        private final long floodDurationNanos;
+        private final int history;
+        private final long historyWindowNanos;
+        
+        /**
+         * @param cooldownSeconds seconds for one message token to refill, 0 disables rate limiting
+         * @param burst messages a player can send back to back
+         * @param floodMessagesPerSecond sustained server-wide chat rate before flood mode starts
+         * @param floodBurst server-wide messages allowed back to back
+         * @param floodSlowdown how many times slower player tokens refill in flood mode
+         * @param floodDurationSeconds how long flood mode lasts once triggered
+         * @param history recent messages remembered per player
+         * @param historyWindowSeconds how long a remembered message counts, 0 for no limit
+         */
+        public Settings(double cooldownSeconds, int burst, double floodMessagesPerSecond, int floodBurst,
+                        double floodSlowdown, int floodDurationSeconds, int history, int historyWindowSeconds) {
+            this.refillPerNano = cooldownSeconds > 0 ? 1.0 / (cooldownSeconds * 1_000_000_000L) : 0;
+            this.burst = Math.max(1, burst);
+            this.floodRefillPerNano = floodMessagesPerSecond > 0 ? floodMessagesPerSecond / 1_000_000_000L : 0;
+            this.floodBurst = Math.max(1, floodBurst);
+            this.floodSlowdown = Math.max(1.0, floodSlowdown);
+            this.floodDurationNanos = Math.max(0, floodDurationSeconds) * 1_000_000_000L;
+            this.history = Math.max(1, history);
+            this.historyWindowNanos = Math.max(0, historyWindowSeconds) * 1_000_000_000L;
+        }
+    }
+    
+    /**
+     * Per-player state, guarded by its stripe
+     */
+    private static final class Bucket {
+        private double tokens;
+        private long refilledAt;
+        private int[] recent;
+        private long[] recentAt;
+        private int recentCount;
+        private int recentNext;
+    }
+    
+    /**
+     * Linear-probing table from (most, least) UUID bits to buckets
+     */
+    private static final class Stripe {
+        private long[] most = new long[16];
+        private long[] least = new long[16];
+        private Bucket[] buckets = new Bucket[16];
+        private int size;
+        
+        private Bucket get(long msb, long lsb) {
+            int mask = buckets.length - 1;
+            for (int slot = home(msb, lsb) & mask; buckets[slot] != null; slot = (slot + 1) & mask) {
+                if (most[slot] == msb && least[slot] == lsb) {
+                    return buckets[slot];
+                }
+            }
+            return null;
+        }
+        
+        private void put(long msb, long lsb, Bucket bucket) {
+            if ((size + 1) * 4 > buckets.length * 3) {
+                resize();
+            }
+            int mask = buckets.length - 1;
+            int slot = home(msb, lsb) & mask;
+            while (buckets[slot] != null) {
+                slot = (slot + 1) & mask;
+            }
+            most[slot] = msb;
+            least[slot] = lsb;
+            buckets[slot] = bucket;
+            size++;
+        }
+        
+        private void remove(long msb, long lsb) {
+            int mask = buckets.length - 1;
+            int slot = home(msb, lsb) & mask;
+            while (buckets[slot] != null && (most[slot] != msb || least[slot] != lsb)) {
+                slot = (slot + 1) & mask;
+            }
+            if (buckets[slot] == null) {
+                return;
+            }
+            buckets[slot] = null;
+            size--;
+            
+            // Shift later entries of the probe run back so lookups never stop early
+            int hole = slot;
+            for (int next = (slot + 1) & mask; buckets[next] != null; next = (next + 1) & mask) {
+                int home = home(most[next], least[next]) & mask;
+                boolean movable = hole <= next ? (home <= hole || home > next) : (home <= hole && home > next);
+                if (movable) {
+                    most[hole] = most[next];
+                    least[hole] = least[next];
+                    buckets[hole] = buckets[next];
+                    buckets[next] = null;
+                    hole = next;
+                }
+            }
+        }
+        
+        private void resize() {
+            long[] oldMost = most;
+            long[] oldLeast = least;
+            Bucket[] oldBuckets = buckets;
+            most = new long[oldBuckets.length * 2];
+            least = new long[oldBuckets.length * 2];
+            buckets = new Bucket[oldBuckets.length * 2];
+            size = 0;
+            for (int i = 0; i < oldBuckets.length; i++) {
+                if (oldBuckets[i] != null) {
+                    put(oldMost[i], oldLeast[i], oldBuckets[i]);
+                }
+            }
+        }
+        
+        // The low bits of the hash pick the stripe, so slots use the rest
+        private static int home(long msb, long lsb) {
+            return slotHash(msb, lsb) >>> 4;
+        }
+    }
+    
+    private final Stripe[] stripes = new Stripe[STRIPES];
+    private volatile Settings settings;
+    
+    // Server-wide bucket (guarded by floodLock)
+    private final Object floodLock = new Object();
+    private double floodTokens;
+    private long floodRefilledAt = System.nanoTime();
+    private long floodUntil;
+    private boolean flooding;
+    
+    public ChatRateLimiter(Settings settings) {
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new Stripe();
+        }
+        configure(settings);
+    }
+    
+    public void configure(Settings settings) {
+        this.settings = settings;
+        synchronized (floodLock) {
+            floodTokens = settings.floodBurst;
+            flooding = false;
+        }
+    }
+    
+    /**
+     * Take a message token for a player. Returns 0 if the message may be sent,
+     * otherwise the milliseconds until the next token is available.
+     */
+    public long tryAcquire(UUID playerUuid) {
+        Settings current = settings;
+        long now = System.nanoTime();
+        boolean flood = recordFlood(current, now);
+        if (current.refillPerNano <= 0) {
+            return 0;
+        }
+        
+        double rate = flood ? current.refillPerNano / current.floodSlowdown : current.refillPerNano;
+        long msb = playerUuid.getMostSignificantBits();
+        long lsb = playerUuid.getLeastSignificantBits();
+        int hash = slotHash(msb, lsb);
+        Stripe stripe = stripes[hash & (STRIPES - 1)];
+        synchronized (stripe) {
+            Bucket bucket = getOrCreate(stripe, msb, lsb, current, now);
+            bucket.tokens = Math.min(current.burst, bucket.tokens + (now - bucket.refilledAt) * rate);
+            bucket.refilledAt = now;
+            if (bucket.tokens >= 1) {
+                bucket.tokens -= 1;
+                return 0;
+            }
+            return Math.max(1, (long) Math.ceil((1 - bucket.tokens) / rate / 1_000_000));
+        }
+    }
+    
+    /**
+     * Check whether a player recently sent the same (or nearly the same) message;
+     * if not, the message is remembered
+     */
+    public boolean isRepeat(UUID playerUuid, String message) {
+        int fingerprint = fingerprint(message);
+        if (fingerprint == FNV_OFFSET) {
+            // Nothing but punctuation or spaces
+            return false;
+        }
+        
+        Settings current = settings;
+        long now = System.nanoTime();
+        long msb = playerUuid.getMostSignificantBits();
+        long lsb = playerUuid.getLeastSignificantBits();
+        int hash = slotHash(msb, lsb);
+        Stripe stripe = stripes[hash & (STRIPES - 1)];
+        synchronized (stripe) {
+            Bucket bucket = getOrCreate(stripe, msb, lsb, current, now);
+            if (bucket.recent.length != current.history) {
+                bucket.recent = new int[current.history];
+                bucket.recentAt = new long[current.history];
+                bucket.recentCount = 0;
+                bucket.recentNext = 0;
+            }
+            
+            for (int i = 0; i < bucket.recentCount; i++) {
+                boolean inWindow = current.historyWindowNanos == 0 || now - bucket.recentAt[i] <= current.historyWindowNanos;
+                if (inWindow && bucket.recent[i] == fingerprint) {
+                    return true;
+                }
+            }
+            
+            bucket.recent[bucket.recentNext] = fingerprint;
+            bucket.recentAt[bucket.recentNext] = now;
+            bucket.recentNext = (bucket.recentNext + 1) % bucket.recent.length;
+            bucket.recentCount = Math.min(bucket.recentCount + 1, bucket.recent.length);
+            return false;
+        }
+    }
+    
+    /**
+     * Whether the server is currently in flood mode
+     */
+    public boolean isFlooding() {
+        synchronized (floodLock) {
+            return flooding && System.nanoTime() - floodUntil < 0;
+        }
+    }
+    
+    /**
+     * Forget a player, e.g. when they quit
+     */
+    public void remove(UUID playerUuid) {
+        long msb = playerUuid.getMostSignificantBits();
+        long lsb = playerUuid.getLeastSignificantBits();
+        int hash = slotHash(msb, lsb);
+        Stripe stripe = stripes[hash & (STRIPES - 1)];
+        synchronized (stripe) {
+            stripe.remove(msb, lsb);
+        }
+    }
+    
+    /**
+     * Count a message against the server-wide bucket; returns whether flood mode is on
+     */
+    private boolean recordFlood(Settings current, long now) {
+        if (current.floodRefillPerNano <= 0) {
+            return false;
+        }
+        synchronized (floodLock) {
+            floodTokens = Math.min(current.floodBurst, floodTokens + (now - floodRefilledAt) * current.floodRefillPerNano);
+            floodRefilledAt = now;
+            if (floodTokens >= 1) {
+                floodTokens -= 1;
+            } else {
+                flooding = true;
+                floodUntil = now + current.floodDurationNanos;
+            }
+            if (flooding && now - floodUntil >= 0) {
+                flooding = false;
+            }
+            return flooding;
+        }
+    }
+    
+    private static Bucket getOrCreate(Stripe stripe, long msb, long lsb, Settings current, long now) {
+        Bucket bucket = stripe.get(msb, lsb);
+        if (bucket == null) {
+            bucket = new Bucket();
+            bucket.tokens = current.burst;
+            bucket.refilledAt = now;
+            bucket.recent = new int[current.history];
+            bucket.recentAt = new long[current.history];
+            stripe.put(msb, lsb, bucket);
+        }
+        return bucket;
+    }
+    
+    /**
+     * FNV-1a over the message's letters and digits, lower-cased, with repeated characters collapsed
+     */
+    private static int fingerprint(String message) {
+        int hash = FNV_OFFSET;
+        char previous = 0;
+        for (int i = 0; i < message.length(); i++) {
+            char c = Character.toLowerCase(message.charAt(i));
+            if (!Character.isLetterOrDigit(c) || c == previous) {
+                continue;
+            }
+            previous = c;
+            hash = (hash ^ c) * FNV_PRIME;
+        }
+        return hash;
+    }
+    
+    private static int slotHash(long msb, long lsb) {
+        long mixed = (msb ^ lsb) * 0x9E3779B97F4A7C15L;
+        return (int) (mixed ^ (mixed >>> 32));
+    }
+}
\ No newline at end of file
@@ -0,0 +1,118 @@
+package me.mememc.network.survivalcore.managers;
+
+import me.mememc.network.survivalcore.SurvivalCore;
+import org.bukkit.Bukkit;
+import org.bukkit.Chunk;
+import org.bukkit.World;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.logging.Level;
+
+/**
+ * Plugin chunk tickets shared by everything in the plugin that keeps chunks loaded.
+ *
+ * Bukkit keeps one ticket per plugin and chunk, not a count, so two features
+ * holding the same chunk would drop it for each other when one of them let go.
+ * Here every hold is counted, the ticket is added by the first and removed with
+ * the last. Main thread only.
+ *
+ * It is also where chunks are loaded off the main thread, with Paper's
+ * World#getChunkAtAsync when the server has it.
+ */
+public class ChunkTicketManager {
+    
+    // Paper's World#getChunkAtAsync(int, int), or null on servers without it
+    private static final MethodHandle GET_CHUNK_AT_ASYNC = findGetChunkAtAsync();
+    
+    private final SurvivalCore plugin;
+    // Holds on each ticketed chunk, per world
+    private final Map<UUID, Map<Long, Integer>> holds = new HashMap<>();
+    
+    public ChunkTicketManager(SurvivalCore plugin) {
+        this.plugin = plugin;
+    }
+    
+    /**
+     * Hold a chunk loaded; loads it now if it is not loaded yet
+     */
+    public void acquire(World world, int chunkX, int chunkZ) {
+        int count = holds.computeIfAbsent(world.getUID(), k -> new HashMap<>())
+            .merge(chunkKey(chunkX, chunkZ), 1, Integer::sum);
+        if (count == 1) {
+            world.addPluginChunkTicket(chunkX, chunkZ, plugin);
+        }
+    }
+    
+    /**
+     * Let go of one hold on a chunk; the ticket goes with the last one
+     */
+    public void release(World world, int chunkX, int chunkZ) {
+        Map<Long, Integer> worldHolds = holds.get(world.getUID());
+        if (worldHolds == null) {
+            return;
+        }
+        
+        long key = chunkKey(chunkX, chunkZ);
+        Integer count = worldHolds.get(key);
+        if (count == null) {
+            return;
+        }
+        if (count > 1) {
+            worldHolds.put(key, count - 1);
+            return;
+        }
+        
+        worldHolds.remove(key);
+        if (worldHolds.isEmpty()) {
+            holds.remove(world.getUID());
+        }
+        world.removePluginChunkTicket(chunkX, chunkZ, plugin);
+    }
+    
+    /**
+     * Drop every hold and every ticket this plugin has
+     */
+    public void releaseAll() {
+        holds.clear();
+        for (World world : Bukkit.getWorlds()) {
+            world.removePluginChunkTickets(plugin);
+        }
+    }
+    
+    /**
+     * Start loading a chunk, generating it if needed, without blocking the main thread.
+     * Returns null if the server can not; the future may complete on any thread.
+     */
+    @SuppressWarnings("unchecked")
+    public CompletableFuture<Chunk> loadAsync(World world, int chunkX, int chunkZ) {
+        if (GET_CHUNK_AT_ASYNC == null) {
+            return null;
+        }
+        
+        try {
+            return (CompletableFuture<Chunk>) GET_CHUNK_AT_ASYNC.invoke(world, chunkX, chunkZ);
+        } catch (Throwable e) {
+            plugin.getLogger().log(Level.FINE, "Async chunk load failed to start", e);
+            return null;
+        }
+    }
+    
+    private static MethodHandle findGetChunkAtAsync() {
+        try {
+            return MethodHandles.publicLookup().findVirtual(World.class, "getChunkAtAsync",
+                MethodType.methodType(CompletableFuture.class, int.class, int.class));
+        } catch (NoSuchMethodException | IllegalAccessException e) {
+            return null;
+        }
+    }
+    
+    private static long chunkKey(int chunkX, int chunkZ) {
+        return ((long) chunkX << 32) | (chunkZ & 0xFFFFFFFFL);
+    }
+}
\ No newline at end of file
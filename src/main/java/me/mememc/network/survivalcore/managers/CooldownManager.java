@@ -1,108 +1,246 @@
 package me.mememc.network.survivalcore.managers;
 
+import me.mememc.network.survivalcore.SurvivalCore;
+import org.bukkit.Bukkit;
 import org.bukkit.entity.Player;
+import org.bukkit.scheduler.BukkitTask;
 
-import java.util.HashMap;
+import java.util.Arrays;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
- * Manages cooldowns for various plugin features
+ * Manages cooldowns for various plugin features.
+ *
+ * Feature names are interned to small integer IDs once, and each player keeps
+ * their expiry times in a long array indexed by feature ID. The array is replaced
+ * on every write, so checks are lock-free and safe from async threads.
+ *
+ * Expired entries are dropped by a hierarchical timing wheel advanced once per
+ * second: four levels of 64 slots, each slot of a level spanning a full turn of
+ * the level below. Setting a cooldown files it in one slot and entries are only
+ * moved down a level when their slot comes up, so expiry costs O(1) amortized no
+ * matter how many cooldowns are running. A cooldown that is changed or removed
+ * before it expires leaves its old wheel entry behind, which is ignored when it
+ * comes due.
  */
 public class CooldownManager {
     
-    private final Map<UUID, Map<String, Long>> cooldowns = new HashMap<>();
+    private static final Map<String, Integer> FEATURE_IDS = new ConcurrentHashMap<>();
+    private static volatile String[] featureNames = new String[0];
+    
+    // Built-in features
+    public static final int RTP = feature("rtp");
+    public static final int TPA = feature("tpa");
+    public static final int HOME = feature("home");
+    public static final int WARP = feature("warp");
+    public static final int PWARP = feature("pwarp");
+    
+    private static final long TICK_MILLIS = 1000L;
+    private static final int WHEEL_BITS = 6;
+    private static final int WHEEL_SIZE = 1 << WHEEL_BITS;
+    private static final int WHEEL_MASK = WHEEL_SIZE - 1;
+    private static final int WHEEL_LEVELS = 4;
+    private static final long[] NO_COOLDOWNS = new long[0];
+    
+    /**
+     * Expiry times of one player, indexed by feature ID (0 = no cooldown)
+     */
+    private static final class PlayerCooldowns {
+        private volatile long[] expiries = NO_COOLDOWNS;
+        // Set once the entry is dropped from the map; writers must then start over
+        private boolean removed;
+    }
+    
+    /**
+     * A cooldown filed in the wheel
+     */
+    private static final class Entry {
+        private final UUID playerUuid;
+        private final int feature;
+        private final long expiresAt;
+        private long tick;
+        private Entry next;
+        
+        private Entry(UUID playerUuid, int feature, long expiresAt) {
+            this.playerUuid = playerUuid;
+            this.feature = feature;
+            this.expiresAt = expiresAt;
+            // Round up so an entry is never handled before it expires
+            this.tick = (expiresAt + TICK_MILLIS - 1) / TICK_MILLIS;
+        }
+    }
+    
+    private final SurvivalCore plugin;
+    private final Map<UUID, PlayerCooldowns> cooldowns = new ConcurrentHashMap<>();
+    
+    // Timing wheel (guarded by wheelLock)
+    private final Object wheelLock = new Object();
+    private final Entry[][] wheel = new Entry[WHEEL_LEVELS][WHEEL_SIZE];
+    private long currentTick = System.currentTimeMillis() / TICK_MILLIS;
+    
+    private BukkitTask expiryTask;
+    private final CooldownStore store;
+    
+    public CooldownManager(SurvivalCore plugin) {
+        this.plugin = plugin;
+        this.expiryTask = Bukkit.getScheduler().runTaskTimerAsynchronously(plugin, this::cleanup, 20L, 20L);
+        this.store = plugin.getConfigManager().getConfig().getBoolean("cooldowns.persist", true)
+            ? new CooldownStore(plugin, this) : null;
+    }
+    
+    /**
+     * The ID of a feature name such as "rtp" or "kit_starter"; the same name
+     * always gives the same ID
+     */
+    public static int feature(String name) {
+        Integer id = FEATURE_IDS.get(name);
+        if (id != null) {
+            return id;
+        }
+        synchronized (FEATURE_IDS) {
+            id = FEATURE_IDS.get(name);
+            if (id == null) {
+                id = featureNames.length;
+                String[] names = Arrays.copyOf(featureNames, id + 1);
+                names[id] = name;
+                featureNames = names;
+                FEATURE_IDS.put(name, id);
+            }
+            return id;
+        }
+    }
+    
+    /**
+     * The name a feature ID was interned from
+     */
+    public static String featureName(int feature) {
+        return featureNames[feature];
+    }
     
     /**
      * Set a cooldown for a player and feature
      */
     public void setCooldown(Player player, String feature, int seconds) {
-        setCooldown(player.getUniqueId(), feature, seconds);
+        setCooldown(player.getUniqueId(), feature(feature), seconds);
     }
     
     /**
      * Set a cooldown for a player UUID and feature
      */
     public void setCooldown(UUID playerUuid, String feature, int seconds) {
-        cooldowns.computeIfAbsent(playerUuid, k -> new HashMap<>())
-                .put(feature, System.currentTimeMillis() + (seconds * 1000L));
+        setCooldown(playerUuid, feature(feature), seconds);
+    }
+    
+    public void setCooldown(Player player, int feature, int seconds) {
+        setCooldown(player.getUniqueId(), feature, seconds);
+    }
+    
+    public void setCooldown(UUID playerUuid, int feature, int seconds) {
+        if (seconds <= 0) {
+            removeCooldown(playerUuid, feature);
+            return;
+        }
+        setExpiry(playerUuid, feature, System.currentTimeMillis() + (seconds * 1000L));
+    }
+    
+    /**
+     * Set when a cooldown ends, in epoch milliseconds
+     */
+    public void setExpiry(UUID playerUuid, int feature, long expiresAt) {
+        while (true) {
+            PlayerCooldowns entry = cooldowns.computeIfAbsent(playerUuid, k -> new PlayerCooldowns());
+            synchronized (entry) {
+                if (entry.removed) {
+                    continue;
+                }
+                long[] expiries = entry.expiries;
+                long[] updated = Arrays.copyOf(expiries, Math.max(expiries.length, feature + 1));
+                updated[feature] = expiresAt;
+                entry.expiries = updated;
+            }
+            break;
+        }
+        
+        synchronized (wheelLock) {
+            schedule(new Entry(playerUuid, feature, expiresAt));
+        }
     }
     
     /**
      * Check if a player has a cooldown for a feature
      */
     public boolean hasCooldown(Player player, String feature) {
-        return hasCooldown(player.getUniqueId(), feature);
+        return hasCooldown(player.getUniqueId(), feature(feature));
     }
     
     /**
      * Check if a player UUID has a cooldown for a feature
      */
     public boolean hasCooldown(UUID playerUuid, String feature) {
-        Map<String, Long> playerCooldowns = cooldowns.get(playerUuid);
-        if (playerCooldowns == null) {
-            return false;
-        }
-        
-        Long cooldownEnd = playerCooldowns.get(feature);
-        if (cooldownEnd == null) {
-            return false;
-        }
-        
-        if (System.currentTimeMillis() >= cooldownEnd) {
-            playerCooldowns.remove(feature);
-            if (playerCooldowns.isEmpty()) {
-                cooldowns.remove(playerUuid);
-            }
-            return false;
-        }
-        
-        return true;
+        return hasCooldown(playerUuid, feature(feature));
+    }
+    
+    public boolean hasCooldown(Player player, int feature) {
+        return hasCooldown(player.getUniqueId(), feature);
+    }
+    
+    public boolean hasCooldown(UUID playerUuid, int feature) {
+        return System.currentTimeMillis() < getExpiry(playerUuid, feature);
     }
     
     /**
      * Get remaining cooldown time in seconds
      */
     public int getRemainingCooldown(Player player, String feature) {
-        return getRemainingCooldown(player.getUniqueId(), feature);
+        return getRemainingCooldown(player.getUniqueId(), feature(feature));
     }
     
     /**
      * Get remaining cooldown time in seconds for a UUID
      */
     public int getRemainingCooldown(UUID playerUuid, String feature) {
-        Map<String, Long> playerCooldowns = cooldowns.get(playerUuid);
-        if (playerCooldowns == null) {
-            return 0;
-        }
-        
-        Long cooldownEnd = playerCooldowns.get(feature);
-        if (cooldownEnd == null) {
+        return getRemainingCooldown(playerUuid, feature(feature));
+    }
+    
+    public int getRemainingCooldown(Player player, int feature) {
+        return getRemainingCooldown(player.getUniqueId(), feature);
+    }
+    
+    public int getRemainingCooldown(UUID playerUuid, int feature) {
+        long remaining = getExpiry(playerUuid, feature) - System.currentTimeMillis();
+        return remaining > 0 ? (int) (remaining / 1000) : 0;
+    }
+    
+    /**
+     * When a cooldown ends in epoch milliseconds, or 0 if none was set
+     */
+    public long getExpiry(UUID playerUuid, int feature) {
+        PlayerCooldowns entry = cooldowns.get(playerUuid);
+        if (entry == null) {
             return 0;
         }
-        
-        long remaining = cooldownEnd - System.currentTimeMillis();
-        return remaining > 0 ? (int) (remaining / 1000) : 0;
+        long[] expiries = entry.expiries;
+        return feature < expiries.length ? expiries[feature] : 0;
     }
     
     /**
      * Remove a cooldown for a player and feature
      */
     public void removeCooldown(Player player, String feature) {
-        removeCooldown(player.getUniqueId(), feature);
+        removeCooldown(player.getUniqueId(), feature(feature));
     }
     
     /**
      * Remove a cooldown for a player UUID and feature
      */
     public void removeCooldown(UUID playerUuid, String feature) {
-        Map<String, Long> playerCooldowns = cooldowns.get(playerUuid);
-        if (playerCooldowns != null) {
-            playerCooldowns.remove(feature);
-            if (playerCooldowns.isEmpty()) {
-                cooldowns.remove(playerUuid);
-            }
-        }
+        removeCooldown(playerUuid, feature(feature));
+    }
+    
+    public void removeCooldown(UUID playerUuid, int feature) {
+        expire(playerUuid, feature, -1);
     }
     
     /**
@@ -116,7 +254,14 @@ public class CooldownManager {
      * Clear all cooldowns for a player UUID
      */
     public void clearCooldowns(UUID playerUuid) {
-        cooldowns.remove(playerUuid);
+        PlayerCooldowns entry = cooldowns.get(playerUuid);
+        if (entry != null) {
+            synchronized (entry) {
+                entry.removed = true;
+                entry.expiries = NO_COOLDOWNS;
+                cooldowns.remove(playerUuid, entry);
+            }
+        }
     }
     
     /**
@@ -146,16 +291,115 @@ public class CooldownManager {
     }
     
     /**
-     * Cleanup expired cooldowns
+     * Cleanup expired cooldowns by advancing the wheel to the current time
      */
     public void cleanup() {
-        long currentTime = System.currentTimeMillis();
+        long now = System.currentTimeMillis() / TICK_MILLIS;
+        Entry due = null;
+        synchronized (wheelLock) {
+            while (currentTick < now) {
+                currentTick++;
+                
+                // Move entries down from every level whose lower levels just wrapped around
+                for (int level = 1; level < WHEEL_LEVELS; level++) {
+                    if ((currentTick & ((1L << (WHEEL_BITS * level)) - 1)) != 0) {
+                        break;
+                    }
+                    int slot = (int) (currentTick >>> (WHEEL_BITS * level)) & WHEEL_MASK;
+                    Entry cascaded = wheel[level][slot];
+                    wheel[level][slot] = null;
+                    while (cascaded != null) {
+                        Entry next = cascaded.next;
+                        schedule(cascaded);
+                        cascaded = next;
+                    }
+                }
+                
+                int slot = (int) currentTick & WHEEL_MASK;
+                Entry expired = wheel[0][slot];
+                wheel[0][slot] = null;
+                while (expired != null) {
+                    Entry next = expired.next;
+                    expired.next = due;
+                    due = expired;
+                    expired = next;
+                }
+            }
+        }
+        
+        // Handled outside the wheel lock so writers are not held up
+        for (Entry entry = due; entry != null; entry = entry.next) {
+            expire(entry.playerUuid, entry.feature, entry.expiresAt);
+        }
+    }
+    
+    /**
+     * Stop the expiry task and save persisted cooldowns
+     */
+    public void shutdown() {
+        if (expiryTask != null) {
+            expiryTask.cancel();
+            expiryTask = null;
+        }
+        if (store != null) {
+            store.shutdown();
+        }
+    }
+    
+    /**
+     * File an entry in the lowest level whose span still reaches it
+     */
+    private void schedule(Entry entry) {
+        if (entry.tick <= currentTick) {
+            // Already due; picked up on the next tick
+            entry.tick = currentTick + 1;
+        }
         
-        cooldowns.entrySet().removeIf(playerEntry -> {
-            Map<String, Long> playerCooldowns = playerEntry.getValue();
-            playerCooldowns.entrySet().removeIf(cooldownEntry -> 
-                currentTime >= cooldownEntry.getValue());
-            return playerCooldowns.isEmpty();
-        });
+        for (int level = 0; level < WHEEL_LEVELS; level++) {
+            int shift = WHEEL_BITS * (level + 1);
+            if (level == WHEEL_LEVELS - 1 || (entry.tick >>> shift) == (currentTick >>> shift)) {
+                int slot = (int) (entry.tick >>> (WHEEL_BITS * level)) & WHEEL_MASK;
+                if (level == WHEEL_LEVELS - 1 && (entry.tick >>> shift) != (currentTick >>> shift)) {
+                    // Beyond the top level; park it in the last slot of this turn and file it again from there
+                    slot = (int) ((currentTick >>> (WHEEL_BITS * level)) - 1) & WHEEL_MASK;
+                }
+                entry.next = wheel[level][slot];
+                wheel[level][slot] = entry;
+                return;
+            }
+        }
+    }
+    
+    /**
+     * Drop a cooldown if it still ends at the given time (-1 drops it regardless),
+     * and the player's entry once nothing is left
+     */
+    private void expire(UUID playerUuid, int feature, long expiresAt) {
+        PlayerCooldowns entry = cooldowns.get(playerUuid);
+        if (entry == null) {
+            return;
+        }
+        synchronized (entry) {
+            long[] expiries = entry.expiries;
+            if (entry.removed || feature >= expiries.length) {
+                return;
+            }
+            if (expiresAt != -1 && expiries[feature] != expiresAt) {
+                // Set again since this wheel entry was filed
+                return;
+            }
+            
+            long[] updated = expiries.clone();
+            updated[feature] = 0;
+            for (long expiry : updated) {
+                if (expiry != 0) {
+                    entry.expiries = updated;
+                    return;
+                }
+            }
+            entry.removed = true;
+            entry.expiries = NO_COOLDOWNS;
+            cooldowns.remove(playerUuid, entry);
+        }
     }
 }
\ No newline at end of file
@@ -0,0 +1,293 @@
+package me.mememc.network.survivalcore.managers;
+
+import me.mememc.network.survivalcore.SurvivalCore;
+import org.bukkit.Bukkit;
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerJoinEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.logging.Level;
+
+/**
+ * Keeps the rtp, tpa, home, warp and pwarp cooldowns in sc_player_data so they
+ * survive relogs and restarts. The last_* columns hold when each cooldown ends,
+ * in epoch milliseconds.
+ *
+ * A player's row is read on the database threads when they join and merged into
+ * the CooldownManager. Rows are written back in batched upserts when the player
+ * quits and on a periodic flush, and only when a cooldown changed since the row
+ * was last read or written. Rows that fail to write are sent again by the next
+ * flush, including those of players who have left since. Nothing here touches
+ * the database on the main thread.
+ */
+public class CooldownStore implements Listener {
+    
+    // Persisted features and the column each one is kept in
+    private static final int[] FEATURES = {
+        CooldownManager.RTP, CooldownManager.TPA, CooldownManager.HOME, CooldownManager.WARP, CooldownManager.PWARP
+    };
+    private static final String[] COLUMNS = {"last_rtp", "last_tpa", "last_home", "last_warp", "last_pwarp"};
+    
+    private final SurvivalCore plugin;
+    private final CooldownManager cooldownManager;
+    private final String selectSql;
+    private final String upsertSql;
+    
+    // Players whose row has been loaded, with the values last read or written (main thread only)
+    private final Map<UUID, Tracked> tracked = new HashMap<>();
+    // Players who have left whose last write failed, by name; the next flush writes their current cooldowns (main thread only)
+    private final Map<UUID, String> unsaved = new HashMap<>();
+    private BukkitTask flushTask;
+    
+    private static final class Tracked {
+        private final String name;
+        private final long[] saved;
+        // The last write failed, so the row is sent again even if nothing changed
+        private boolean dirty;
+        
+        private Tracked(String name, long[] saved) {
+            this.name = name;
+            this.saved = saved;
+        }
+    }
+    
+    /**
+     * One row to upsert
+     */
+    private static final class Row {
+        private final UUID playerUuid;
+        private final String playerName;
+        private final long[] values;
+        
+        private Row(UUID playerUuid, String playerName, long[] values) {
+            this.playerUuid = playerUuid;
+            this.playerName = playerName;
+            this.values = values;
+        }
+    }
+    
+    public CooldownStore(SurvivalCore plugin, CooldownManager cooldownManager) {
+        this.plugin = plugin;
+        this.cooldownManager = cooldownManager;
+        
+        String columns = String.join(", ", COLUMNS);
+        this.selectSql = "SELECT " + columns + " FROM sc_player_data WHERE player_uuid = ?";
+        StringBuilder upsert = new StringBuilder("INSERT INTO sc_player_data (player_uuid, player_name, ")
+            .append(columns).append(", updated_at) VALUES (?, ?");
+        for (int i = 0; i < COLUMNS.length; i++) {
+            upsert.append(", ?");
+        }
+        upsert.append(", CURRENT_TIMESTAMP) ");
+        upsert.append(plugin.getDatabaseManager().isMySQL() ? "ON DUPLICATE KEY UPDATE " : "ON CONFLICT(player_uuid) DO UPDATE SET ");
+        String newValue = plugin.getDatabaseManager().isMySQL() ? "VALUES(%s)" : "excluded.%s";
+        upsert.append("player_name = ").append(String.format(newValue, "player_name"));
+        for (String column : COLUMNS) {
+            upsert.append(", ").append(column).append(" = ").append(String.format(newValue, column));
+        }
+        upsert.append(", updated_at = CURRENT_TIMESTAMP");
+        this.upsertSql = upsert.toString();
+        
+        plugin.getServer().getPluginManager().registerEvents(this, plugin);
+        for (Player player : Bukkit.getOnlinePlayers()) {
+            load(player.getUniqueId(), player.getName());
+        }
+        
+        long interval = Math.max(1, plugin.getConfigManager().getConfig().getLong("cooldowns.save-interval", 60L)) * 20L;
+        flushTask = Bukkit.getScheduler().runTaskTimer(plugin, this::flush, interval, interval);
+    }
+    
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerJoin(PlayerJoinEvent event) {
+        load(event.getPlayer().getUniqueId(), event.getPlayer().getName());
+    }
+    
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerQuit(PlayerQuitEvent event) {
+        UUID playerUuid = event.getPlayer().getUniqueId();
+        Tracked player = tracked.remove(playerUuid);
+        if (player == null) {
+            // Not loaded yet; writing now could wipe the stored row
+            return;
+        }
+        
+        Row row = takeChanged(playerUuid, player, System.currentTimeMillis());
+        if (row != null) {
+            write(Collections.singletonList(row));
+        }
+    }
+    
+    /**
+     * Write every loaded player whose cooldowns changed since the last flush (main thread)
+     */
+    public CompletableFuture<Integer> flush() {
+        long now = System.currentTimeMillis();
+        List<Row> rows = new ArrayList<>();
+        for (Map.Entry<UUID, String> entry : unsaved.entrySet()) {
+            Tracked player = tracked.get(entry.getKey());
+            if (player != null) {
+                // They came back and are written below with everyone else
+                player.dirty = true;
+            } else {
+                rows.add(new Row(entry.getKey(), entry.getValue(), currentValues(entry.getKey(), now)));
+            }
+        }
+        unsaved.clear();
+        for (Map.Entry<UUID, Tracked> entry : tracked.entrySet()) {
+            Row row = takeChanged(entry.getKey(), entry.getValue(), now);
+            if (row != null) {
+                rows.add(row);
+            }
+        }
+        return write(rows);
+    }
+    
+    /**
+     * Stop the flush task and write pending changes before the database closes
+     */
+    public void shutdown() {
+        if (flushTask != null) {
+            flushTask.cancel();
+            flushTask = null;
+        }
+        
+        try {
+            flush().get(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException | TimeoutException e) {
+            plugin.getLogger().log(Level.SEVERE, "Failed to save cooldowns on shutdown", e);
+        }
+        tracked.clear();
+        unsaved.clear();
+    }
+    
+    private void load(UUID playerUuid, String playerName) {
+        plugin.getDatabaseManager().queryAsync(selectSql, rs -> {
+            long[] values = new long[COLUMNS.length];
+            if (rs.next()) {
+                for (int i = 0; i < COLUMNS.length; i++) {
+                    values[i] = rs.getLong(i + 1);
+                }
+            }
+            return values;
+        }, playerUuid.toString()).whenComplete((values, e) -> {
+            if (e != null) {
+                plugin.getLogger().log(Level.WARNING, "Error loading cooldowns for " + playerName, e);
+                return;
+            }
+            Bukkit.getScheduler().runTask(plugin, () -> apply(playerUuid, playerName, values));
+        });
+    }
+    
+    /**
+     * Merge a loaded row into memory, keeping whichever cooldown ends later (main thread)
+     */
+    private void apply(UUID playerUuid, String playerName, long[] values) {
+        if (Bukkit.getPlayer(playerUuid) == null || tracked.containsKey(playerUuid)) {
+            return;
+        }
+        
+        long now = System.currentTimeMillis();
+        for (int i = 0; i < FEATURES.length; i++) {
+            if (values[i] > now && values[i] > cooldownManager.getExpiry(playerUuid, FEATURES[i])) {
+                cooldownManager.setExpiry(playerUuid, FEATURES[i], values[i]);
+            }
+        }
+        tracked.put(playerUuid, new Tracked(playerName, values));
+    }
+    
+    /**
+     * The player's row if any cooldown differs from what was last saved; marks it saved.
+     * Cooldowns that have run out count as 0 so expiry alone causes no write.
+     */
+    private Row takeChanged(UUID playerUuid, Tracked player, long now) {
+        long[] values = currentValues(playerUuid, now);
+        boolean changed = false;
+        for (int i = 0; i < FEATURES.length; i++) {
+            long saved = player.saved[i] > now ? player.saved[i] : 0;
+            if (values[i] != saved) {
+                changed = true;
+            }
+        }
+        if (!changed && !player.dirty) {
+            return null;
+        }
+        player.dirty = false;
+        System.arraycopy(values, 0, player.saved, 0, values.length);
+        return new Row(playerUuid, player.name, values);
+    }
+    
+    /**
+     * When each persisted cooldown ends, or 0 if it is not running
+     */
+    private long[] currentValues(UUID playerUuid, long now) {
+        long[] values = new long[FEATURES.length];
+        for (int i = 0; i < FEATURES.length; i++) {
+            long expiry = cooldownManager.getExpiry(playerUuid, FEATURES[i]);
+            values[i] = expiry > now ? expiry : 0;
+        }
+        return values;
+    }
+    
+    private CompletableFuture<Integer> write(List<Row> rows) {
+        if (rows.isEmpty()) {
+            return CompletableFuture.completedFuture(0);
+        }
+        
+        return plugin.getDatabaseManager().executeAsync(connection -> {
+            connection.setAutoCommit(false);
+            try (PreparedStatement stmt = connection.prepareStatement(upsertSql)) {
+                for (Row row : rows) {
+                    stmt.setString(1, row.playerUuid.toString());
+                    stmt.setString(2, row.playerName);
+                    for (int i = 0; i < row.values.length; i++) {
+                        stmt.setLong(i + 3, row.values[i]);
+                    }
+                    stmt.addBatch();
+                }
+                stmt.executeBatch();
+                connection.commit();
+                return rows.size();
+            } catch (SQLException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(true);
+            }
+        }).whenComplete((written, e) -> {
+            if (e != null) {
+                plugin.getLogger().log(Level.WARNING, "Error saving cooldowns for " + rows.size() + " player(s)", e);
+                if (!plugin.isEnabled()) {
+                    return;
+                }
+                // Have the next flush send these players again
+                Bukkit.getScheduler().runTask(plugin, () -> {
+                    for (Row row : rows) {
+                        Tracked player = tracked.get(row.playerUuid);
+                        if (player != null) {
+                            player.dirty = true;
+                        } else {
+                            unsaved.put(row.playerUuid, row.playerName);
+                        }
+                    }
+                });
+            }
+        });
+    }
+}
\ No newline at end of file
@@ -2,25 +2,199 @@ package me.mememc.network.survivalcore.managers;
 
 import me.mememc.network.survivalcore.SurvivalCore;
 import me.mememc.network.survivalcore.models.Home;
+import me.mememc.network.survivalcore.utils.ConfigSnapshot;
+import org.bukkit.Bukkit;
 import org.bukkit.Location;
 import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.AsyncPlayerPreLoginEvent;
+import org.bukkit.event.player.PlayerJoinEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
+import org.bukkit.scheduler.BukkitTask;
 
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.logging.Level;
 
 /**
- * Manages home system functionality
+ * Manages home system functionality.
+ *
+ * Homes are not loaded at startup. A player's homes are read on the database
+ * threads while they log in (AsyncPlayerPreLoginEvent), so they are normally in
+ * memory by the time the player joins. After a player quits their homes stay
+ * cached for a while in case they come back, then are dropped, and only a
+ * bounded number of offline players are kept at all. Homes of players who are
+ * not cached can be read with getHomesAsync, as /homes <player> does. A read
+ * of a player's homes always waits for their writes still in the queue, so a
+ * player evicted and back again before those land never reloads stale rows.
  */
-public class HomeManager {
+public class HomeManager implements Listener {
+    
+    private static final long PRE_LOGIN_WAIT_SECONDS = 5;
     
     private final SurvivalCore plugin;
-    private final Map<UUID, Map<String, Home>> playerHomes = new HashMap<>();
+    private final Map<UUID, Map<String, Home>> playerHomes = new ConcurrentHashMap<>();
+    private final Map<UUID, CompletableFuture<Map<String, Home>>> loading = new ConcurrentHashMap<>();
+    // Each player's newest home write still in flight; reads of their homes wait for it
+    private final Map<UUID, CompletableFuture<Integer>> pendingWrites = new ConcurrentHashMap<>();
+    
+    // Cached players who are offline, oldest quit first (main thread only)
+    private final LinkedHashMap<UUID, Long> offlineSince = new LinkedHashMap<>();
+    private final long expireAfterQuitMillis;
+    private final int maxOfflineCached;
+    private BukkitTask evictionTask;
     
     public HomeManager(SurvivalCore plugin) {
         this.plugin = plugin;
-        loadAllHomes();
+        this.expireAfterQuitMillis = Math.max(0, plugin.getConfigManager().getConfig().getLong("homes.cache.expire-after-quit", 300L)) * 1000L;
+        this.maxOfflineCached = Math.max(0, plugin.getConfigManager().getConfig().getInt("homes.cache.max-offline-players", 1000));
+        plugin.getServer().getPluginManager().registerEvents(this, plugin);
+        
+        // Players already online after a reload
+        for (Player player : Bukkit.getOnlinePlayers()) {
+            load(player.getUniqueId());
+        }
+        evictionTask = Bukkit.getScheduler().runTaskTimer(plugin, this::evictExpired, 1200L, 1200L);
+    }
+    
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPreLogin(AsyncPlayerPreLoginEvent event) {
+        if (event.getLoginResult() != AsyncPlayerPreLoginEvent.Result.ALLOWED) {
+            return;
+        }
+        
+        // This thread may block, so give the load a moment to finish before the join
+        try {
+            load(event.getUniqueId()).get(PRE_LOGIN_WAIT_SECONDS, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException | TimeoutException e) {
+            // Logged by load, or still running and picked up when it completes
+        }
+    }
+    
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerJoin(PlayerJoinEvent event) {
+        UUID playerUuid = event.getPlayer().getUniqueId();
+        offlineSince.remove(playerUuid);
+        load(playerUuid);
+    }
+    
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerQuit(PlayerQuitEvent event) {
+        UUID playerUuid = event.getPlayer().getUniqueId();
+        offlineSince.remove(playerUuid);
+        offlineSince.put(playerUuid, System.currentTimeMillis());
+        evictOverflow();
+    }
+    
+    /**
+     * Whether a player's homes are in memory; until then commands must not change them
+     */
+    public boolean isLoaded(Player player) {
+        return playerHomes.containsKey(player.getUniqueId());
+    }
+    
+    /**
+     * Whether a player's homes are in memory. If not, and no load is running (the
+     * one at login failed), a new one is started, so the player's next try can succeed.
+     */
+    public boolean ensureLoaded(Player player) {
+        if (isLoaded(player)) {
+            return true;
+        }
+        load(player.getUniqueId());
+        return false;
+    }
+    
+    /**
+     * Load a player's homes into the cache unless they are already there or on their way
+     */
+    private CompletableFuture<Map<String, Home>> load(UUID playerUuid) {
+        Map<String, Home> cached = playerHomes.get(playerUuid);
+        if (cached != null) {
+            return CompletableFuture.completedFuture(cached);
+        }
+        
+        CompletableFuture<Map<String, Home>> future = new CompletableFuture<>();
+        CompletableFuture<Map<String, Home>> pending = loading.putIfAbsent(playerUuid, future);
+        if (pending != null) {
+            return pending;
+        }
+        
+        queryHomes(playerUuid).whenComplete((homes, e) -> {
+            if (e != null) {
+                plugin.getLogger().log(Level.SEVERE, "Error loading homes for " + playerUuid, e);
+                loading.remove(playerUuid, future);
+                future.completeExceptionally(e);
+                return;
+            }
+            
+            playerHomes.putIfAbsent(playerUuid, homes);
+            loading.remove(playerUuid, future);
+            future.complete(homes);
+            
+            // Covers logins that never turned into a join
+            Bukkit.getScheduler().runTask(plugin, () -> {
+                if (Bukkit.getPlayer(playerUuid) == null && !offlineSince.containsKey(playerUuid)) {
+                    offlineSince.put(playerUuid, System.currentTimeMillis());
+                    evictOverflow();
+                }
+            });
+        });
+        return future;
+    }
+    
+    /**
+     * Read a player's homes from the database threads, after any of their writes still queued
+     */
+    private CompletableFuture<Map<String, Home>> queryHomes(UUID playerUuid) {
+        CompletableFuture<Integer> write = pendingWrites.get(playerUuid);
+        if (write != null) {
+            // Failed or not, the write has to be out of the way before the rows are read
+            return write.handle((rows, e) -> null).thenCompose(ignored -> readHomes(playerUuid));
+        }
+        return readHomes(playerUuid);
+    }
+    
+    private CompletableFuture<Map<String, Home>> readHomes(UUID playerUuid) {
+        return plugin.getDatabaseManager().queryAsync(
+            "SELECT * FROM sc_homes WHERE player_uuid = ?",
+            rs -> {
+                Map<String, Home> homes = new ConcurrentHashMap<>();
+                while (rs.next()) {
+                    Home home = readHome(rs);
+                    homes.put(home.getName(), home);
+                }
+                return homes;
+            },
+            playerUuid.toString()
+        );
+    }
+    
+    /**
+     * Homes of any player, online or not, without adding them to the cache.
+     * For admin lookups of offline players; may complete on a database thread.
+     */
+    public CompletableFuture<Map<String, Home>> getHomesAsync(UUID playerUuid) {
+        Map<String, Home> cached = playerHomes.get(playerUuid);
+        if (cached != null) {
+            return CompletableFuture.completedFuture(Collections.unmodifiableMap(new HashMap<>(cached)));
+        }
+        CompletableFuture<Map<String, Home>> pending = loading.get(playerUuid);
+        if (pending != null) {
+            // The loading map becomes the live cache entry, so hand out a copy
+            return pending.thenApply(homes -> Collections.unmodifiableMap(new HashMap<>(homes)));
+        }
+        return queryHomes(playerUuid);
     }
     
     /**
@@ -36,40 +210,44 @@ public class HomeManager {
         
         // Check if player has reached max homes
         int maxHomes = getMaxHomes(player);
-        Map<String, Home> homes = playerHomes.computeIfAbsent(playerUuid, k -> new HashMap<>());
+        Map<String, Home> homes = playerHomes.get(playerUuid);
+        if (homes == null) {
+            return false; // Not loaded yet
+        }
         
         if (!homes.containsKey(homeName) && homes.size() >= maxHomes) {
             return false; // Max homes reached
         }
         
         Home home = new Home(homeName, playerUuid.toString(), location);
+        Home previous = homes.put(homeName, home);
         
-        try {
-            // Save to database
-            if (homes.containsKey(homeName)) {
-                // Update existing home
-                plugin.getDatabaseManager().executeUpdate(
-                    "UPDATE sc_homes SET world = ?, x = ?, y = ?, z = ?, yaw = ?, pitch = ? WHERE player_uuid = ? AND home_name = ?",
-                    home.getWorldName(), home.getX(), home.getY(), home.getZ(), 
-                    home.getYaw(), home.getPitch(), home.getPlayerUuid(), home.getName()
-                );
-            } else {
-                // Insert new home
-                plugin.getDatabaseManager().executeUpdate(
-                    "INSERT INTO sc_homes (player_uuid, home_name, world, x, y, z, yaw, pitch) VALUES (?, ?, ?, ?, ?, ?, ?, ?)",
-                    home.getPlayerUuid(), home.getName(), home.getWorldName(), 
-                    home.getX(), home.getY(), home.getZ(), home.getYaw(), home.getPitch()
-                );
-            }
-            
-            // Update cache
-            homes.put(homeName, home);
-            return true;
-            
-        } catch (SQLException e) {
-            plugin.getLogger().log(Level.SEVERE, "Error saving home to database", e);
-            return false;
+        // Cache is updated straight away; the write happens on the database thread
+        CompletableFuture<Integer> write;
+        if (previous != null) {
+            // Update existing home
+            write = plugin.getDatabaseManager().executeUpdateAsync(
+                "UPDATE sc_homes SET world = ?, x = ?, y = ?, z = ?, yaw = ?, pitch = ? WHERE player_uuid = ? AND home_name = ?",
+                home.getWorldName(), home.getX(), home.getY(), home.getZ(),
+                home.getYaw(), home.getPitch(), home.getPlayerUuid(), home.getName()
+            );
+        } else {
+            // Insert new home
+            write = plugin.getDatabaseManager().executeUpdateAsync(
+                "INSERT INTO sc_homes (player_uuid, home_name, world, x, y, z, yaw, pitch) VALUES (?, ?, ?, ?, ?, ?, ?, ?)",
+                home.getPlayerUuid(), home.getName(), home.getWorldName(),
+                home.getX(), home.getY(), home.getZ(), home.getYaw(), home.getPitch()
+            );
         }
+        
+        trackWrite(playerUuid, write);
+        write.exceptionally(e -> {
+            plugin.getLogger().log(Level.SEVERE, "Error saving home to database", e);
+            Bukkit.getScheduler().runTask(plugin, () -> revertHome(playerUuid, homeName, home, previous));
+            return 0;
+        });
+        
+        return true;
     }
     
     /**
@@ -83,24 +261,47 @@ public class HomeManager {
             return false; // Home doesn't exist
         }
         
-        try {
-            // Delete from database
-            plugin.getDatabaseManager().executeUpdate(
-                "DELETE FROM sc_homes WHERE player_uuid = ? AND home_name = ?",
-                playerUuid.toString(), homeName
-            );
-            
-            // Remove from cache
-            homes.remove(homeName);
-            if (homes.isEmpty()) {
-                playerHomes.remove(playerUuid);
-            }
-            
-            return true;
-            
-        } catch (SQLException e) {
+        // Remove from cache
+        Home removed = homes.remove(homeName);
+        
+        // Delete from database
+        CompletableFuture<Integer> write = plugin.getDatabaseManager().executeUpdateAsync(
+            "DELETE FROM sc_homes WHERE player_uuid = ? AND home_name = ?",
+            playerUuid.toString(), homeName
+        );
+        trackWrite(playerUuid, write);
+        write.exceptionally(e -> {
             plugin.getLogger().log(Level.SEVERE, "Error deleting home from database", e);
-            return false;
+            Bukkit.getScheduler().runTask(plugin, () -> revertHome(playerUuid, homeName, null, removed));
+            return 0;
+        });
+        
+        return true;
+    }
+    
+    /**
+     * Remember a player's newest write for queryHomes. Writes run one at a time
+     * in order, so once the newest is done all the earlier ones are too.
+     */
+    private void trackWrite(UUID playerUuid, CompletableFuture<Integer> write) {
+        pendingWrites.put(playerUuid, write);
+        write.whenComplete((rows, e) -> pendingWrites.remove(playerUuid, write));
+    }
+    
+    /**
+     * Put the cache back the way it was after a failed write, unless the home changed again since
+     */
+    private void revertHome(UUID playerUuid, String homeName, Home written, Home previous) {
+        Map<String, Home> homes = playerHomes.get(playerUuid);
+        if (homes == null || homes.get(homeName) != written) {
+            // Evicted, or the home changed again since
+            return;
+        }
+        
+        if (previous != null) {
+            homes.put(homeName, previous);
+        } else {
+            homes.remove(homeName);
         }
     }
     
@@ -123,7 +324,23 @@ public class HomeManager {
      */
     public Map<String, Home> getPlayerHomes(Player player) {
         UUID playerUuid = player.getUniqueId();
-        return playerHomes.getOrDefault(playerUuid, new HashMap<>());
+        return playerHomes.getOrDefault(playerUuid, Collections.emptyMap());
+    }
+    
+    /**
+     * Up to limit of a player's home names starting with a prefix, ignoring case, for tab completion.
+     * Only the player's own homes are looked at, which the home limit keeps small.
+     */
+    public List<String> completeHomeNames(Player player, String prefix, int limit) {
+        String lowerPrefix = prefix.toLowerCase();
+        List<String> names = new ArrayList<>();
+        for (String name : getPlayerHomes(player).keySet()) {
+            if (name.toLowerCase().startsWith(lowerPrefix)) {
+                names.add(name);
+            }
+        }
+        names.sort(String.CASE_INSENSITIVE_ORDER);
+        return names.size() > limit ? new ArrayList<>(names.subList(0, limit)) : names;
     }
     
     /**
@@ -157,15 +374,13 @@ public class HomeManager {
      */
     public int getMaxHomes(Player player) {
         // Check for permission-based limits
-        Map<String, Object> limits = plugin.getConfigManager().getConfig().getConfigurationSection("home-limits").getValues(false);
-        
-        int maxHomes = plugin.getConfigManager().getMaxHomes(); // Default from config
+        ConfigSnapshot settings = plugin.getConfigManager().getSnapshot();
+        int maxHomes = settings.getMaxHomes(); // Default from config
         
-        for (Map.Entry<String, Object> entry : limits.entrySet()) {
-            String permission = entry.getKey();
-            int limit = (Integer) entry.getValue();
+        for (int i = 0; i < settings.getHomeLimitCount(); i++) {
+            int limit = settings.getHomeLimit(i);
             
-            if (player.hasPermission(permission)) {
+            if (player.hasPermission(settings.getHomeLimitPermission(i))) {
                 if (limit == -1) { // Unlimited
                     return Integer.MAX_VALUE;
                 }
@@ -176,53 +391,58 @@ public class HomeManager {
         return maxHomes;
     }
     
+    private static Home readHome(ResultSet rs) throws SQLException {
+        String playerUuid = rs.getString("player_uuid");
+        String homeName = rs.getString("home_name");
+        String worldName = rs.getString("world");
+        double x = rs.getDouble("x");
+        double y = rs.getDouble("y");
+        double z = rs.getDouble("z");
+        float yaw = rs.getFloat("yaw");
+        float pitch = rs.getFloat("pitch");
+        long createdAt = rs.getTimestamp("created_at").getTime();
+        
+        return new Home(homeName, playerUuid, worldName, x, y, z, yaw, pitch, createdAt);
+    }
+    
     /**
-     * Load all homes from database
+     * Drop offline players whose homes have been cached longer than the configured time
      */
-    private void loadAllHomes() {
-        try {
-            ResultSet rs = plugin.getDatabaseManager().executeQuery("SELECT * FROM sc_homes");
-            
-            while (rs.next()) {
-                String playerUuid = rs.getString("player_uuid");
-                String homeName = rs.getString("home_name");
-                String worldName = rs.getString("world");
-                double x = rs.getDouble("x");
-                double y = rs.getDouble("y");
-                double z = rs.getDouble("z");
-                float yaw = rs.getFloat("yaw");
-                float pitch = rs.getFloat("pitch");
-                long createdAt = rs.getTimestamp("created_at").getTime();
-                
-                Home home = new Home(homeName, playerUuid, worldName, x, y, z, yaw, pitch, createdAt);
-                
-                UUID uuid = UUID.fromString(playerUuid);
-                playerHomes.computeIfAbsent(uuid, k -> new HashMap<>()).put(homeName, home);
+    private void evictExpired() {
+        long cutoff = System.currentTimeMillis() - expireAfterQuitMillis;
+        Iterator<Map.Entry<UUID, Long>> iterator = offlineSince.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<UUID, Long> entry = iterator.next();
+            if (entry.getValue() > cutoff) {
+                break;
             }
-            
-            rs.close();
-            plugin.getLogger().info("Loaded " + getTotalHomes() + " homes from database");
-            
-        } catch (SQLException e) {
-            plugin.getLogger().log(Level.SEVERE, "Error loading homes from database", e);
+            iterator.remove();
+            playerHomes.remove(entry.getKey());
         }
     }
     
     /**
-     * Save all homes to database
+     * Drop the longest offline players once more than the configured number are cached
      */
-    public void saveAllData() {
-        // Data is saved immediately when modified, so this is mainly for cleanup
-        plugin.getLogger().info("Home data is automatically saved to database");
+    private void evictOverflow() {
+        Iterator<UUID> iterator = offlineSince.keySet().iterator();
+        while (offlineSince.size() > maxOfflineCached && iterator.hasNext()) {
+            UUID playerUuid = iterator.next();
+            iterator.remove();
+            playerHomes.remove(playerUuid);
+        }
     }
     
     /**
-     * Get total number of homes across all players
+     * Save all homes to database
      */
-    private int getTotalHomes() {
-        return playerHomes.values().stream()
-                .mapToInt(Map::size)
-                .sum();
+    public void saveAllData() {
+        // Data is saved immediately when modified, so this is mainly for cleanup
+        if (evictionTask != null) {
+            evictionTask.cancel();
+            evictionTask = null;
+        }
+        plugin.getLogger().info("Home data is automatically saved to database");
     }
     
     /**
@@ -246,11 +466,11 @@ public class HomeManager {
         
         for (Home home : homes.values()) {
             if (home.isValidLocation()) {
-                String format = String.format("%s in %s at %d, %d, %d", 
-                              home.getName(), 
+                String format = String.format("%s in %s at %d, %d, %d",
+                              home.getName(),
                               home.getWorldName(),
                               (int) home.getX(),
-                              (int) home.getY(), 
+                              (int) home.getY(),
                               (int) home.getZ());
                 formatted.add(format);
             }
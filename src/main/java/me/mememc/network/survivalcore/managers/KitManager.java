@@ -15,7 +15,6 @@ import org.bukkit.inventory.meta.ItemMeta;
 
 import java.io.File;
 import java.io.IOException;
-import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.*;
@@ -73,8 +72,9 @@ public class KitManager {
             if (kitSection == null) continue;
             
             try {
-                String displayName = kitSection.getString("display-name", kitName);
-                String description = kitSection.getString("description", "");
+                // Colored once here, since kit names are inserted into messages as they are
+                String displayName = MessageUtils.colorize(kitSection.getString("display-name", kitName));
+                String description = MessageUtils.colorize(kitSection.getString("description", ""));
                 int cooldown = kitSection.getInt("cooldown", 0);
                 double cost = kitSection.getDouble("cost", 0.0);
                 String permission = kitSection.getString("permission", "");
@@ -94,7 +94,8 @@ public class KitManager {
                     }
                 }
                 
-                Kit kit = new Kit(kitName, displayName, description, items, cooldown, cost, permission, oneTime);
+                Kit kit = new Kit(kitName, displayName, description, items, cooldown, cost, permission, oneTime,
+                    CooldownManager.feature("kit_" + kitName));
                 kits.put(kitName.toLowerCase(), kit);
                 
             } catch (Exception e) {
@@ -148,44 +149,43 @@ public class KitManager {
     public boolean giveKit(Player player, String kitName) {
         Kit kit = kits.get(kitName.toLowerCase());
         if (kit == null) {
-            MessageUtils.sendMessage(player, plugin.getConfigManager().getMessagesConfig()
-                .getString("kit.not-found", "{prefix}&cKit '{kit}' not found!")
-                .replace("{kit}", kitName));
+            MessageUtils.sendMessage(player, plugin.getConfigManager()
+                .getMessage("kit.not-found", "{prefix}&cKit '{kit}' not found!"),
+                "{kit}", kitName);
             return false;
         }
         
         // Check permission
         if (!kit.getPermission().isEmpty() && !player.hasPermission(kit.getPermission())) {
-            MessageUtils.sendMessage(player, plugin.getConfigManager().getMessagesConfig()
-                .getString("general.no-permission", "{prefix}&cYou don't have permission to use this command!"));
+            MessageUtils.sendMessage(player, plugin.getConfigManager()
+                .getMessage("general.no-permission", "{prefix}&cYou don't have permission to use this command!"));
             return false;
         }
         
         // Check if one-time kit and already claimed
         if (kit.isOneTime() && hasClaimedKit(player, kitName)) {
-            MessageUtils.sendMessage(player, plugin.getConfigManager().getMessagesConfig()
-                .getString("kit.already-claimed", "{prefix}&cYou have already claimed this kit!")
-                .replace("{kit}", kit.getDisplayName()));
+            MessageUtils.sendMessage(player, plugin.getConfigManager()
+                .getMessage("kit.already-claimed", "{prefix}&cYou have already claimed this kit!"),
+                "{kit}", kit.getDisplayName());
             return false;
         }
         
         // Check cooldown
         if (kit.getCooldown() > 0 && !player.hasPermission("survivalcore.bypass.cooldown")) {
-            if (plugin.getCooldownManager().hasCooldown(player, "kit_" + kitName)) {
-                int remaining = plugin.getCooldownManager().getRemainingCooldown(player, "kit_" + kitName);
+            if (plugin.getCooldownManager().hasCooldown(player, kit.getCooldownFeature())) {
+                int remaining = plugin.getCooldownManager().getRemainingCooldown(player, kit.getCooldownFeature());
                 String timeFormat = plugin.getCooldownManager().formatTime(remaining);
-                MessageUtils.sendMessage(player, plugin.getConfigManager().getMessagesConfig()
-                    .getString("kit.cooldown", "{prefix}&cYou must wait {time} before claiming this kit again!")
-                    .replace("{time}", timeFormat)
-                    .replace("{kit}", kit.getDisplayName()));
+                MessageUtils.sendMessage(player, plugin.getConfigManager()
+                    .getMessage("kit.cooldown", "{prefix}&cYou must wait {time} before claiming this kit again!"),
+                    "{time}", timeFormat, "{kit}", kit.getDisplayName());
                 return false;
             }
         }
         
         // Check cost (TODO: Implement economy integration)
         if (kit.getCost() > 0) {
-            MessageUtils.sendMessage(player, plugin.getConfigManager().getMessagesConfig()
-                .getString("general.no-economy", "{prefix}&cEconomy plugin not found! This feature requires Vault."));
+            MessageUtils.sendMessage(player, plugin.getConfigManager()
+                .getMessage("general.no-economy", "{prefix}&cEconomy plugin not found! This feature requires Vault."));
             return false;
         }
         
@@ -200,7 +200,7 @@ public class KitManager {
         
         // Set cooldown
         if (kit.getCooldown() > 0) {
-            plugin.getCooldownManager().setCooldown(player, "kit_" + kitName, kit.getCooldown());
+            plugin.getCooldownManager().setCooldown(player, kit.getCooldownFeature(), kit.getCooldown());
         }
         
         // Mark as claimed for one-time kits
@@ -208,9 +208,9 @@ public class KitManager {
             markKitClaimed(player, kitName);
         }
         
-        MessageUtils.sendMessage(player, plugin.getConfigManager().getMessagesConfig()
-            .getString("kit.received", "{prefix}&aYou received the '{kit}' kit!")
-            .replace("{kit}", kit.getDisplayName()));
+        MessageUtils.sendMessage(player, plugin.getConfigManager()
+            .getMessage("kit.received", "{prefix}&aYou received the '{kit}' kit!"),
+            "{kit}", kit.getDisplayName());
         
         return true;
     }
@@ -267,8 +267,8 @@ public class KitManager {
             lore.add("§7Items: §e" + kit.getItems().size());
             
             if (kit.getCooldown() > 0) {
-                if (plugin.getCooldownManager().hasCooldown(player, "kit_" + kit.getName())) {
-                    int remaining = plugin.getCooldownManager().getRemainingCooldown(player, "kit_" + kit.getName());
+                if (plugin.getCooldownManager().hasCooldown(player, kit.getCooldownFeature())) {
+                    int remaining = plugin.getCooldownManager().getRemainingCooldown(player, kit.getCooldownFeature());
                     lore.add("§7Cooldown: §c" + plugin.getCooldownManager().formatTime(remaining));
                 } else {
                     lore.add("§7Cooldown: §a" + plugin.getCooldownManager().formatTime(kit.getCooldown()));
@@ -293,7 +293,7 @@ public class KitManager {
             if (kit.isOneTime() && hasClaimedKit(player, kit.getName())) {
                 canClaim = false;
                 lore.add("§c✗ Already claimed");
-            } else if (kit.getCooldown() > 0 && plugin.getCooldownManager().hasCooldown(player, "kit_" + kit.getName())) {
+            } else if (kit.getCooldown() > 0 && plugin.getCooldownManager().hasCooldown(player, kit.getCooldownFeature())) {
                 canClaim = false;
                 lore.add("§c✗ On cooldown");
             } else if (!kit.getPermission().isEmpty() && !player.hasPermission(kit.getPermission())) {
@@ -314,14 +314,9 @@ public class KitManager {
      * Check if player has claimed a one-time kit
      */
     public boolean hasClaimedKit(Player player, String kitName) {
-        try {
-            PreparedStatement stmt = plugin.getDatabaseManager().getConnection().prepareStatement(
-                "SELECT 1 FROM sc_kit_claims WHERE player_uuid = ? AND kit_name = ?"
-            );
-            stmt.setString(1, player.getUniqueId().toString());
-            stmt.setString(2, kitName);
-            
-            ResultSet rs = stmt.executeQuery();
+        try (ResultSet rs = plugin.getDatabaseManager().executeQuery(
+                "SELECT 1 FROM sc_kit_claims WHERE player_uuid = ? AND kit_name = ?",
+                player.getUniqueId().toString(), kitName)) {
             return rs.next();
             
         } catch (SQLException e) {
@@ -334,14 +329,13 @@ public class KitManager {
      * Mark a kit as claimed by player
      */
     private void markKitClaimed(Player player, String kitName) {
-        try {
-            plugin.getDatabaseManager().executeUpdate(
-                "INSERT OR REPLACE INTO sc_kit_claims (player_uuid, kit_name) VALUES (?, ?)",
-                player.getUniqueId().toString(), kitName
-            );
-        } catch (SQLException e) {
+        plugin.getDatabaseManager().executeUpdateAsync(
+            "INSERT OR REPLACE INTO sc_kit_claims (player_uuid, kit_name) VALUES (?, ?)",
+            player.getUniqueId().toString(), kitName
+        ).exceptionally(e -> {
             plugin.getLogger().log(Level.WARNING, "Error marking kit as claimed", e);
-        }
+            return 0;
+        });
     }
     
     /**
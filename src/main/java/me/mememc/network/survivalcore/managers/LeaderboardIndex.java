@@ -0,0 +1,411 @@
+package me.mememc.network.survivalcore.managers;
+
+import me.mememc.network.survivalcore.models.PlayerStats;
+import me.mememc.network.survivalcore.models.StatCategory;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * In-memory leaderboards, so opening /leaderboard never touches the database.
+ *
+ * For each category this keeps the top entries (sorted) and the sorted values of
+ * every stored player, taken from one pass over sc_player_stats at startup. Online
+ * players are tracked live: a value is offered to its top list as it changes, so
+ * reading a top list is a copy of it, and the current value replaces the stored
+ * one when ranking. Final values of players who quit are folded into the sorted
+ * values in batches, one merge per category, rather than shifting the arrays on
+ * every quit.
+ */
+public class LeaderboardIndex {
+    
+    /**
+     * One leaderboard row
+     */
+    public static final class Entry {
+        private final UUID playerUuid;
+        private final String playerName;
+        private final long value;
+        
+        public Entry(UUID playerUuid, String playerName, long value) {
+            this.playerUuid = playerUuid;
+            this.playerName = playerName;
+            this.value = value;
+        }
+        
+        public UUID getPlayerUuid() { return playerUuid; }
+        public String getPlayerName() { return playerName; }
+        public long getValue() { return value; }
+    }
+    
+    /**
+     * Collects rows while seeding, outside the lock
+     */
+    public final class Seed {
+        private final long[][] values = new long[CATEGORIES.length][];
+        private final Entry[][] top = new Entry[CATEGORIES.length][];
+        private final int[] topSize = new int[CATEGORIES.length];
+        private int rows;
+        
+        private Seed() {
+            for (int i = 0; i < CATEGORIES.length; i++) {
+                values[i] = new long[1024];
+                top[i] = new Entry[topCapacity];
+            }
+        }
+        
+        /**
+         * Add one stored player; values are indexed by category ordinal
+         */
+        public void add(UUID playerUuid, String playerName, long[] categoryValues) {
+            if (rows == values[0].length) {
+                for (int i = 0; i < CATEGORIES.length; i++) {
+                    values[i] = Arrays.copyOf(values[i], rows * 2);
+                }
+            }
+            for (int i = 0; i < CATEGORIES.length; i++) {
+                values[i][rows] = categoryValues[i];
+                offer(top, topSize, i, playerUuid, playerName, categoryValues[i]);
+            }
+            rows++;
+        }
+    }
+    
+    private static final StatCategory[] CATEGORIES = StatCategory.values();
+    // Quits held back before the sorted values are merged regardless of the next compact()
+    private static final int MAX_PENDING_FOLDS = 256;
+    
+    private final int topCapacity;
+    
+    // Per category: top entries sorted by value descending
+    private final Entry[][] top = new Entry[CATEGORIES.length][];
+    private final int[] topSize = new int[CATEGORIES.length];
+    private final int[] versions = new int[CATEGORIES.length];
+    
+    // Per category: stored values of offline players (and the stored value of online ones), ascending
+    private final long[][] sorted = new long[CATEGORIES.length][];
+    private final int[] sortedSizes = new int[CATEGORIES.length];
+    
+    // Per category: values added and removed by players who quit, not merged into sorted yet
+    private final PendingValues[] pendingAdds = new PendingValues[CATEGORIES.length];
+    private final PendingValues[] pendingRemovals = new PendingValues[CATEGORIES.length];
+    private int pendingFolds;
+    
+    // Online players: value held in the sorted arrays (null if they had no row) and the stats object
+    private final Map<UUID, long[]> liveBaselines = new HashMap<>();
+    private final Map<UUID, PlayerStats> liveStats = new HashMap<>();
+    private boolean seeded;
+    
+    public LeaderboardIndex(int topCapacity) {
+        this.topCapacity = Math.max(1, topCapacity);
+        for (int i = 0; i < CATEGORIES.length; i++) {
+            top[i] = new Entry[this.topCapacity];
+            sorted[i] = new long[16];
+            pendingAdds[i] = new PendingValues();
+            pendingRemovals[i] = new PendingValues();
+        }
+    }
+    
+    public Seed newSeed() {
+        return new Seed();
+    }
+    
+    /**
+     * Install the result of a full table pass and re-apply online players on top of it
+     */
+    public synchronized void install(Seed seed) {
+        for (int i = 0; i < CATEGORIES.length; i++) {
+            long[] values = Arrays.copyOf(seed.values[i], Math.max(16, seed.rows + seed.rows / 4));
+            Arrays.sort(values, 0, seed.rows);
+            sorted[i] = values;
+            sortedSizes[i] = seed.rows;
+            top[i] = seed.top[i];
+            topSize[i] = seed.topSize[i];
+            versions[i]++;
+            pendingAdds[i].clear();
+            pendingRemovals[i].clear();
+        }
+        pendingFolds = 0;
+        seeded = true;
+        
+        for (PlayerStats stats : liveStats.values()) {
+            refresh(stats);
+        }
+    }
+    
+    public synchronized boolean isSeeded() {
+        return seeded;
+    }
+    
+    /**
+     * Start tracking an online player. existsInDatabase says whether their stored
+     * row (and so their current values) was part of the seed.
+     */
+    public synchronized void track(PlayerStats stats, boolean existsInDatabase) {
+        UUID uuid = stats.getPlayerUuid();
+        long[] baseline = null;
+        if (existsInDatabase) {
+            baseline = new long[CATEGORIES.length];
+            for (int i = 0; i < CATEGORIES.length; i++) {
+                baseline[i] = CATEGORIES[i].getValue(stats);
+            }
+        }
+        liveBaselines.put(uuid, baseline);
+        liveStats.put(uuid, stats);
+        refresh(stats);
+    }
+    
+    /**
+     * Stop tracking a player who left, queueing their final values to be folded into the stored ones
+     */
+    public synchronized void untrack(PlayerStats stats) {
+        UUID uuid = stats.getPlayerUuid();
+        if (liveStats.remove(uuid) == null) {
+            return;
+        }
+        long[] baseline = liveBaselines.remove(uuid);
+        refresh(stats);
+        
+        for (int i = 0; i < CATEGORIES.length; i++) {
+            // A baseline still waiting to be added from an earlier quit just cancels that add
+            if (baseline != null && !pendingAdds[i].remove(baseline[i])
+                    && Arrays.binarySearch(sorted[i], 0, sortedSizes[i], baseline[i]) >= 0) {
+                pendingRemovals[i].add(baseline[i]);
+            }
+            pendingAdds[i].add(CATEGORIES[i].getValue(stats));
+        }
+        if (++pendingFolds >= MAX_PENDING_FOLDS) {
+            compact();
+        }
+    }
+    
+    /**
+     * Merge the values of players who quit into the sorted values
+     */
+    public synchronized void compact() {
+        if (pendingFolds == 0) {
+            return;
+        }
+        for (int i = 0; i < CATEGORIES.length; i++) {
+            merge(i);
+        }
+        pendingFolds = 0;
+    }
+    
+    /**
+     * Offer a player's current value in one category to its top list; call whenever it changes
+     */
+    public synchronized void offer(StatCategory category, PlayerStats stats) {
+        int i = category.ordinal();
+        if (offer(top, topSize, i, stats.getPlayerUuid(), stats.getPlayerName(), category.getValue(stats))) {
+            versions[i]++;
+        }
+    }
+    
+    private void refresh(PlayerStats stats) {
+        for (int i = 0; i < CATEGORIES.length; i++) {
+            if (offer(top, topSize, i, stats.getPlayerUuid(), stats.getPlayerName(), CATEGORIES[i].getValue(stats))) {
+                versions[i]++;
+            }
+        }
+    }
+    
+    /**
+     * The best entries of a category, highest first
+     */
+    public synchronized List<Entry> getTop(StatCategory category, int limit) {
+        int i = category.ordinal();
+        int size = Math.min(limit, topSize[i]);
+        List<Entry> result = new ArrayList<>(size);
+        for (int n = 0; n < size; n++) {
+            result.add(top[i][n]);
+        }
+        return result;
+    }
+    
+    /**
+     * Changes whenever the top list of a category changes; used to invalidate rendered pages
+     */
+    public synchronized int getVersion(StatCategory category) {
+        return versions[category.ordinal()];
+    }
+    
+    /**
+     * 1-based rank of an online player, or -1 if they are not tracked
+     */
+    public synchronized int getRank(StatCategory category, UUID playerUuid) {
+        PlayerStats stats = liveStats.get(playerUuid);
+        if (stats == null) {
+            return -1;
+        }
+        
+        int i = category.ordinal();
+        long value = category.getValue(stats);
+        int better = sortedSizes[i] - upperBound(sorted[i], sortedSizes[i], value)
+            - pendingRemovals[i].countGreater(value) + pendingAdds[i].countGreater(value);
+        
+        // Online players rank by their live value instead of the stored one (including this player)
+        for (Map.Entry<UUID, PlayerStats> entry : liveStats.entrySet()) {
+            long[] baseline = liveBaselines.get(entry.getKey());
+            if (baseline != null && baseline[i] > value) {
+                better--;
+            }
+            if (!entry.getKey().equals(playerUuid) && category.getValue(entry.getValue()) > value) {
+                better++;
+            }
+        }
+        
+        return better + 1;
+    }
+    
+    /**
+     * Insert or move a player in a top list kept sorted by value descending; returns whether the list changed
+     */
+    private boolean offer(Entry[][] lists, int[] sizes, int category, UUID playerUuid, String playerName, long value) {
+        Entry[] list = lists[category];
+        int size = sizes[category];
+        // Values only grow, so a player below a full list's last entry can not be on it
+        if (size == list.length && value < list[size - 1].getValue()) {
+            return false;
+        }
+        
+        int index = -1;
+        for (int n = 0; n < size; n++) {
+            if (list[n].getPlayerUuid().equals(playerUuid)) {
+                index = n;
+                break;
+            }
+        }
+        
+        if (index >= 0) {
+            if (list[index].getValue() == value) {
+                return false;
+            }
+        } else if (size < list.length) {
+            index = size++;
+        } else if (value > list[size - 1].getValue()) {
+            index = size - 1;
+        } else {
+            return false;
+        }
+        
+        Entry entry = new Entry(playerUuid, playerName, value);
+        
+        // Shift towards the front or back until the order holds again
+        while (index > 0 && list[index - 1].getValue() < value) {
+            list[index] = list[index - 1];
+            index--;
+        }
+        while (index < size - 1 && list[index + 1] != null && list[index + 1].getValue() > value) {
+            list[index] = list[index + 1];
+            index++;
+        }
+        list[index] = entry;
+        sizes[category] = size;
+        return true;
+    }
+    
+    /**
+     * Rebuild one category's sorted values with its pending adds and removals in a single pass
+     */
+    private void merge(int category) {
+        long[] adds = pendingAdds[category].toSortedArray();
+        long[] removals = pendingRemovals[category].toSortedArray();
+        long[] values = sorted[category];
+        int size = sortedSizes[category];
+        long[] merged = new long[Math.max(16, size + adds.length + (size + adds.length) / 4)];
+        
+        int v = 0;
+        int a = 0;
+        int r = 0;
+        int n = 0;
+        while (v < size || a < adds.length) {
+            if (v < size) {
+                while (r < removals.length && removals[r] < values[v]) {
+                    r++;
+                }
+                if (r < removals.length && removals[r] == values[v]) {
+                    r++;
+                    v++;
+                    continue;
+                }
+            }
+            if (v == size || (a < adds.length && adds[a] <= values[v])) {
+                merged[n++] = adds[a++];
+            } else {
+                merged[n++] = values[v++];
+            }
+        }
+        
+        sorted[category] = merged;
+        sortedSizes[category] = n;
+        pendingAdds[category].clear();
+        pendingRemovals[category].clear();
+    }
+    
+    /**
+     * Index of the first element greater than value
+     */
+    private static int upperBound(long[] values, int size, long value) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (values[mid] <= value) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+    
+    /**
+     * Unordered values waiting to be merged
+     */
+    private static final class PendingValues {
+        private long[] values = new long[16];
+        private int size;
+        
+        private void add(long value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+        
+        private boolean remove(long value) {
+            for (int n = 0; n < size; n++) {
+                if (values[n] == value) {
+                    values[n] = values[--size];
+                    return true;
+                }
+            }
+            return false;
+        }
+        
+        private int countGreater(long value) {
+            int count = 0;
+            for (int n = 0; n < size; n++) {
+                if (values[n] > value) {
+                    count++;
+                }
+            }
+            return count;
+        }
+        
+        private long[] toSortedArray() {
+            long[] copy = Arrays.copyOf(values, size);
+            Arrays.sort(copy);
+            return copy;
+        }
+        
+        private void clear() {
+            size = 0;
+        }
+    }
+}
\ No newline at end of file
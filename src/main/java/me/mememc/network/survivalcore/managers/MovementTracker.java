@@ -0,0 +1,139 @@
+package me.mememc.network.survivalcore.managers;
+
+import me.mememc.network.survivalcore.SurvivalCore;
+import org.bukkit.Bukkit;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerChangedWorldEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
+import org.bukkit.event.player.PlayerTeleportEvent;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Samples player positions for the distance traveled statistic.
+ *
+ * Instead of doing work on every PlayerMoveEvent, a task reads each online
+ * player's position every few ticks into a reused Location and compares it with
+ * the last anchor kept in a per-player slot. Only once the squared displacement
+ * passes the minimum distance is a square root taken and the distance published
+ * to the player's stats. Teleports and world changes move the anchor without
+ * counting.
+ */
+public class MovementTracker implements Listener {
+    
+    private final SurvivalCore plugin;
+    private final StatsManager statsManager;
+    private final Map<UUID, Slot> slots = new HashMap<>();
+    private final Location scratch = new Location(null, 0, 0, 0);
+    private BukkitTask samplerTask;
+    
+    // Cached settings, refreshed by reload()
+    private boolean enabled;
+    private double minDistanceSquared;
+    private long sampleInterval;
+    
+    /**
+     * Last counted position of a player
+     */
+    private static final class Slot {
+        private World world;
+        private double x;
+        private double y;
+        private double z;
+        
+        private void anchor(Location location) {
+            this.world = location.getWorld();
+            this.x = location.getX();
+            this.y = location.getY();
+            this.z = location.getZ();
+        }
+    }
+    
+    public MovementTracker(SurvivalCore plugin, StatsManager statsManager) {
+        this.plugin = plugin;
+        this.statsManager = statsManager;
+        plugin.getServer().getPluginManager().registerEvents(this, plugin);
+        reload();
+    }
+    
+    /**
+     * Re-read settings and restart the sampler
+     */
+    public void reload() {
+        enabled = plugin.getConfigManager().getConfig().getBoolean("stats.track-movement", true);
+        double minDistance = plugin.getConfigManager().getConfig().getDouble("stats.min-move-distance", 1.0);
+        minDistanceSquared = minDistance * minDistance;
+        sampleInterval = Math.max(1, plugin.getConfigManager().getConfig().getLong("stats.movement-sample-interval", 10L));
+        
+        stop();
+        slots.clear();
+        if (enabled) {
+            samplerTask = Bukkit.getScheduler().runTaskTimer(plugin, this::sample, sampleInterval, sampleInterval);
+        }
+    }
+    
+    public void stop() {
+        if (samplerTask != null) {
+            samplerTask.cancel();
+            samplerTask = null;
+        }
+    }
+    
+    private void sample() {
+        for (Player player : Bukkit.getOnlinePlayers()) {
+            Location location = player.getLocation(scratch);
+            Slot slot = slots.get(player.getUniqueId());
+            if (slot == null) {
+                slot = new Slot();
+                slot.anchor(location);
+                slots.put(player.getUniqueId(), slot);
+                continue;
+            }
+            
+            if (slot.world != location.getWorld()) {
+                slot.anchor(location);
+                continue;
+            }
+            
+            double dx = location.getX() - slot.x;
+            double dy = location.getY() - slot.y;
+            double dz = location.getZ() - slot.z;
+            double distanceSquared = dx * dx + dy * dy + dz * dz;
+            
+            // Small moves stay pending against the same anchor until they add up
+            if (distanceSquared >= minDistanceSquared) {
+                statsManager.onPlayerMove(player, Math.sqrt(distanceSquared));
+                slot.anchor(location);
+            }
+        }
+    }
+    
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onPlayerTeleport(PlayerTeleportEvent event) {
+        Slot slot = slots.get(event.getPlayer().getUniqueId());
+        if (slot != null && event.getTo() != null) {
+            slot.anchor(event.getTo());
+        }
+    }
+    
+    @EventHandler
+    public void onPlayerChangedWorld(PlayerChangedWorldEvent event) {
+        Slot slot = slots.get(event.getPlayer().getUniqueId());
+        if (slot != null) {
+            slot.anchor(event.getPlayer().getLocation(scratch));
+        }
+    }
+    
+    @EventHandler
+    public void onPlayerQuit(PlayerQuitEvent event) {
+        slots.remove(event.getPlayer().getUniqueId());
+    }
+}
\ No newline at end of file
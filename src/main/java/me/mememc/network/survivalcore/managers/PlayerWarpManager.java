@@ -2,6 +2,10 @@ package me.mememc.network.survivalcore.managers;
 
 import me.mememc.network.survivalcore.SurvivalCore;
 import me.mememc.network.survivalcore.models.PlayerWarp;
+import me.mememc.network.survivalcore.utils.ConfigSnapshot;
+import me.mememc.network.survivalcore.utils.NameIndex;
+import me.mememc.network.survivalcore.utils.SpatialIndex;
+import org.bukkit.Bukkit;
 import org.bukkit.Location;
 import org.bukkit.entity.Player;
 
@@ -11,12 +15,17 @@ import java.util.*;
 import java.util.logging.Level;
 
 /**
- * Manages player warp system functionality
+ * Manages player warp system functionality.
+ *
+ * Player warps are held in a NameIndex, so lookups and tab completion are
+ * binary searches rather than scans of every warp on the server, and in a
+ * SpatialIndex by position for /pwarp near and the region cap.
  */
 public class PlayerWarpManager {
     
     private final SurvivalCore plugin;
-    private final Map<String, PlayerWarp> playerWarps = new HashMap<>();
+    private final NameIndex<PlayerWarp> playerWarps = new NameIndex<>();
+    private final SpatialIndex<PlayerWarp> positions = new SpatialIndex<>();
     private final Map<UUID, Set<String>> playerOwnedWarps = new HashMap<>();
     
     public PlayerWarpManager(SurvivalCore plugin) {
@@ -27,17 +36,17 @@ public class PlayerWarpManager {
     /**
      * Create a new player warp
      */
-    public boolean createPlayerWarp(Player player, String warpName, Location location) {
+    public CreateResult createPlayerWarp(Player player, String warpName, Location location) {
         UUID playerUuid = player.getUniqueId();
         
         // Validate warp name
         if (!isValidWarpName(warpName)) {
-            return false;
+            return CreateResult.INVALID_NAME;
         }
         
         // Check if warp already exists
-        if (playerWarps.containsKey(warpName.toLowerCase())) {
-            return false; // Warp already exists
+        if (playerWarps.containsKey(warpName)) {
+            return CreateResult.ALREADY_EXISTS;
         }
         
         // Check if player has reached max warps
@@ -45,30 +54,47 @@ public class PlayerWarpManager {
         Set<String> ownedWarps = playerOwnedWarps.computeIfAbsent(playerUuid, k -> new HashSet<>());
         
         if (ownedWarps.size() >= maxWarps) {
-            return false; // Max warps reached
+            return CreateResult.LIMIT_REACHED;
+        }
+        
+        if (isRegionFull(location)) {
+            return CreateResult.REGION_FULL;
         }
         
         PlayerWarp playerWarp = new PlayerWarp(warpName, playerUuid.toString(), location);
+        String key = warpName.toLowerCase();
         
-        try {
-            // Save to database
-            plugin.getDatabaseManager().executeUpdate(
-                "INSERT INTO sc_player_warps (player_uuid, warp_name, world, x, y, z, yaw, pitch) VALUES (?, ?, ?, ?, ?, ?, ?, ?)",
-                playerWarp.getPlayerUuid(), playerWarp.getName(), playerWarp.getWorldName(), 
-                playerWarp.getX(), playerWarp.getY(), playerWarp.getZ(), 
-                playerWarp.getYaw(), playerWarp.getPitch()
-            );
-            
-            // Update cache
-            playerWarps.put(warpName.toLowerCase(), playerWarp);
-            ownedWarps.add(warpName.toLowerCase());
-            
-            return true;
-            
-        } catch (SQLException e) {
+        // Update cache
+        playerWarps.put(warpName, playerWarp);
+        ownedWarps.add(key);
+        addPosition(playerWarp);
+        
+        // Save to database
+        plugin.getDatabaseManager().executeUpdateAsync(
+            "INSERT INTO sc_player_warps (player_uuid, warp_name, world, x, y, z, yaw, pitch) VALUES (?, ?, ?, ?, ?, ?, ?, ?)",
+            playerWarp.getPlayerUuid(), playerWarp.getName(), playerWarp.getWorldName(),
+            playerWarp.getX(), playerWarp.getY(), playerWarp.getZ(),
+            playerWarp.getYaw(), playerWarp.getPitch()
+        ).exceptionally(e -> {
             plugin.getLogger().log(Level.SEVERE, "Error saving player warp to database", e);
-            return false;
-        }
+            Bukkit.getScheduler().runTask(plugin, () -> {
+                if (playerWarps.remove(key, playerWarp)) {
+                    removeOwnedWarp(playerUuid, key);
+                    removePosition(playerWarp);
+                }
+            });
+            return 0;
+        });
+        
+        return CreateResult.CREATED;
+    }
+    
+    public enum CreateResult {
+        CREATED,
+        INVALID_NAME,
+        ALREADY_EXISTS,
+        LIMIT_REACHED,
+        REGION_FULL
     }
     
     /**
@@ -88,28 +114,36 @@ public class PlayerWarpManager {
             return false; // Player doesn't own this warp
         }
         
-        try {
-            // Delete from database
-            plugin.getDatabaseManager().executeUpdate(
-                "DELETE FROM sc_player_warps WHERE player_uuid = ? AND warp_name = ?",
-                playerUuid.toString(), warpName
-            );
-            
-            // Remove from cache
-            playerWarps.remove(key);
-            Set<String> ownedWarps = playerOwnedWarps.get(playerUuid);
-            if (ownedWarps != null) {
-                ownedWarps.remove(key);
-                if (ownedWarps.isEmpty()) {
-                    playerOwnedWarps.remove(playerUuid);
+        // Remove from cache
+        playerWarps.remove(key);
+        removeOwnedWarp(playerUuid, key);
+        removePosition(playerWarp);
+        
+        // Delete from database
+        plugin.getDatabaseManager().executeUpdateAsync(
+            "DELETE FROM sc_player_warps WHERE player_uuid = ? AND warp_name = ?",
+            playerUuid.toString(), playerWarp.getName()
+        ).exceptionally(e -> {
+            plugin.getLogger().log(Level.SEVERE, "Error deleting player warp from database", e);
+            Bukkit.getScheduler().runTask(plugin, () -> {
+                if (playerWarps.putIfAbsent(playerWarp.getName(), playerWarp) == null) {
+                    playerOwnedWarps.computeIfAbsent(playerUuid, k -> new HashSet<>()).add(key);
+                    addPosition(playerWarp);
                 }
+            });
+            return 0;
+        });
+        
+        return true;
+    }
+    
+    private void removeOwnedWarp(UUID playerUuid, String key) {
+        Set<String> ownedWarps = playerOwnedWarps.get(playerUuid);
+        if (ownedWarps != null) {
+            ownedWarps.remove(key);
+            if (ownedWarps.isEmpty()) {
+                playerOwnedWarps.remove(playerUuid);
             }
-            
-            return true;
-            
-        } catch (SQLException e) {
-            plugin.getLogger().log(Level.SEVERE, "Error deleting player warp from database", e);
-            return false;
         }
     }
     
@@ -117,37 +151,95 @@ public class PlayerWarpManager {
      * Get a specific player warp
      */
     public PlayerWarp getPlayerWarp(String warpName) {
-        return playerWarps.get(warpName.toLowerCase());
+        return playerWarps.get(warpName);
     }
     
     /**
-     * Get all player warps
+     * Get all player warps, in name order
      */
     public Collection<PlayerWarp> getAllPlayerWarps() {
         return playerWarps.values();
     }
     
+    /**
+     * Up to limit player warp names starting with a prefix, for tab completion
+     */
+    public List<String> completePlayerWarpNames(String prefix, int limit) {
+        return playerWarps.complete(prefix, limit);
+    }
+    
+    /**
+     * Up to limit names of a player's own warps starting with a prefix, for tab completion
+     */
+    public List<String> completeOwnedPlayerWarpNames(Player player, String prefix, int limit) {
+        List<String> names = new ArrayList<>();
+        for (PlayerWarp warp : getPlayerWarpsOwnedBy(player)) {
+            if (names.size() >= limit) {
+                break;
+            }
+            if (warp.getName().toLowerCase().startsWith(prefix.toLowerCase())) {
+                names.add(warp.getName());
+            }
+        }
+        return names;
+    }
+    
     /**
      * Get player warps owned by a specific player
      */
     public List<PlayerWarp> getPlayerWarpsOwnedBy(Player player) {
-        UUID playerUuid = player.getUniqueId();
-        List<PlayerWarp> ownedWarps = new ArrayList<>();
+        Set<String> ownedKeys = playerOwnedWarps.get(player.getUniqueId());
+        if (ownedKeys == null) {
+            return new ArrayList<>();
+        }
         
-        for (PlayerWarp warp : playerWarps.values()) {
-            if (warp.getPlayerUuid().equals(playerUuid.toString())) {
+        List<PlayerWarp> ownedWarps = new ArrayList<>(ownedKeys.size());
+        for (String key : ownedKeys) {
+            PlayerWarp warp = playerWarps.get(key);
+            if (warp != null) {
                 ownedWarps.add(warp);
             }
         }
+        ownedWarps.sort(Comparator.comparing(warp -> warp.getName().toLowerCase()));
         
         return ownedWarps;
     }
     
+    /**
+     * Up to limit player warps within a radius of a location, nearest first
+     */
+    public List<PlayerWarp> getPlayerWarpsNear(Location location, double radius, int limit) {
+        return positions.nearest(location.getWorld().getName(), location.getX(), location.getZ(), radius, limit);
+    }
+    
+    /**
+     * Whether the region cap forbids another player warp at this location
+     */
+    private boolean isRegionFull(Location location) {
+        ConfigSnapshot settings = plugin.getConfigManager().getSnapshot();
+        int maxWarps = settings.getPlayerWarpRegionCapMax();
+        if (maxWarps <= 0) {
+            return false;
+        }
+        
+        int nearby = positions.countWithinRadius(location.getWorld().getName(), location.getX(), location.getZ(),
+            settings.getPlayerWarpRegionCapRadius());
+        return nearby >= maxWarps;
+    }
+    
+    private void addPosition(PlayerWarp playerWarp) {
+        positions.add(playerWarp.getWorldName(), playerWarp.getX(), playerWarp.getZ(), playerWarp);
+    }
+    
+    private void removePosition(PlayerWarp playerWarp) {
+        positions.remove(playerWarp.getWorldName(), playerWarp.getX(), playerWarp.getZ(), playerWarp);
+    }
+    
     /**
      * Check if a player warp exists
      */
     public boolean playerWarpExists(String warpName) {
-        return playerWarps.containsKey(warpName.toLowerCase());
+        return playerWarps.containsKey(warpName);
     }
     
     /**
@@ -163,15 +255,13 @@ public class PlayerWarpManager {
      */
     public int getMaxPlayerWarps(Player player) {
         // Check for permission-based limits
-        Map<String, Object> limits = plugin.getConfigManager().getConfig().getConfigurationSection("pwarp-limits").getValues(false);
+        ConfigSnapshot settings = plugin.getConfigManager().getSnapshot();
+        int maxWarps = settings.getMaxPlayerWarps(); // Default from config
         
-        int maxWarps = plugin.getConfigManager().getMaxPlayerWarps(); // Default from config
-        
-        for (Map.Entry<String, Object> entry : limits.entrySet()) {
-            String permission = entry.getKey();
-            int limit = (Integer) entry.getValue();
+        for (int i = 0; i < settings.getPlayerWarpLimitCount(); i++) {
+            int limit = settings.getPlayerWarpLimit(i);
             
-            if (player.hasPermission(permission)) {
+            if (player.hasPermission(settings.getPlayerWarpLimitPermission(i))) {
                 if (limit == -1) { // Unlimited
                     return Integer.MAX_VALUE;
                 }
@@ -210,8 +300,9 @@ public class PlayerWarpManager {
                 
                 PlayerWarp playerWarp = new PlayerWarp(warpName, playerUuid, worldName, x, y, z, yaw, pitch, createdAt);
                 
-                // Add to main map
-                playerWarps.put(warpName.toLowerCase(), playerWarp);
+                // Add to main index
+                playerWarps.put(warpName, playerWarp);
+                addPosition(playerWarp);
                 
                 // Add to player owned warps map
                 UUID uuid = UUID.fromString(playerUuid);
@@ -220,7 +311,7 @@ public class PlayerWarpManager {
             
             rs.close();
             plugin.getLogger().info("Loaded " + playerWarps.size() + " player warps from database");
-            
+        
         } catch (SQLException e) {
             plugin.getLogger().log(Level.SEVERE, "Error loading player warps from database", e);
         }
@@ -255,8 +346,8 @@ public class PlayerWarpManager {
         for (PlayerWarp warp : playerWarps.values()) {
             if (warp.isValidLocation()) {
                 String ownerName = plugin.getServer().getOfflinePlayer(UUID.fromString(warp.getPlayerUuid())).getName();
-                String format = String.format("%s by %s in %s", 
-                              warp.getName(), 
+                String format = String.format("%s by %s in %s",
+                              warp.getName(),
                               ownerName != null ? ownerName : "Unknown",
                               warp.getWorldName());
                 formatted.add(format);
@@ -274,11 +365,11 @@ public class PlayerWarpManager {
         
         for (PlayerWarp warp : getPlayerWarpsOwnedBy(player)) {
             if (warp.isValidLocation()) {
-                String format = String.format("%s in %s at %d, %d, %d", 
-                              warp.getName(), 
+                String format = String.format("%s in %s at %d, %d, %d",
+                              warp.getName(),
                               warp.getWorldName(),
                               (int) warp.getX(),
-                              (int) warp.getY(), 
+                              (int) warp.getY(),
                               (int) warp.getZ());
                 formatted.add(format);
             }
@@ -0,0 +1,417 @@
+package me.mememc.network.survivalcore.managers;
+
+import me.mememc.network.survivalcore.SurvivalCore;
+import org.bukkit.Bukkit;
+import org.bukkit.Chunk;
+import org.bukkit.ChunkSnapshot;
+import org.bukkit.Location;
+import org.bukkit.Material;
+import org.bukkit.World;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.util.ArrayDeque;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+
+/**
+ * Keeps a small pool of safe random teleport locations per world.
+ *
+ * A main-thread task picks a few candidate chunks at a time, limited by a
+ * chunk-load budget per run. Chunks that are not loaded are loaded, and on Paper
+ * generated, off the main thread through ChunkTicketManager#loadAsync; servers
+ * without async chunk loading only use chunks that already exist, so the task
+ * never generates terrain on the tick. Once a chunk is in, a ChunkSnapshot of it
+ * is searched for a safe column on async worker threads using its heightmap,
+ * and the result is handed back to the main thread, so /rtp can usually hand out
+ * a location straight away instead of searching while the player waits.
+ *
+ * A chunk is held loaded through the ChunkTicketManager from its snapshot until
+ * its location is used, and every location is checked again against the live
+ * world before anyone is sent there.
+ */
+public class RtpLocationPool {
+    
+    private final SurvivalCore plugin;
+    private final Random random = new Random();
+    private final Map<String, ArrayDeque<Location>> pools = new HashMap<>();
+    private final Map<String, ArrayDeque<Waiter>> waiters = new HashMap<>();
+    private final Map<String, Integer> searching = new HashMap<>();
+    private BukkitTask fillTask;
+    
+    // Settings, refreshed by reload()
+    private List<String> allowedWorlds;
+    private int poolSize;
+    private int chunkLoadsPerTick;
+    private int candidatesPerTick;
+    private long maxWaitMillis;
+    
+    // Columns tried per snapshot before giving up on a chunk
+    private static final int COLUMNS_PER_CHUNK = 8;
+    
+    // Used when rtp.unsafe-blocks is not set
+    private static final Set<Material> DEFAULT_UNSAFE_MATERIALS = EnumSet.of(
+        Material.LAVA, Material.FIRE, Material.MAGMA_BLOCK,
+        Material.SWEET_BERRY_BUSH, Material.WITHER_ROSE, Material.CACTUS,
+        Material.CAMPFIRE, Material.SOUL_CAMPFIRE, Material.SOUL_FIRE
+    );
+    
+    // Unsafe materials for teleportation; replaced, never modified, so worker threads can read it
+    private volatile Set<Material> unsafeMaterials = DEFAULT_UNSAFE_MATERIALS;
+    
+    /**
+     * A player waiting for a location in a world whose pool was empty
+     */
+    private static final class Waiter {
+        private final Consumer<Location> callback;
+        private final long deadline;
+        
+        private Waiter(Consumer<Location> callback, long deadline) {
+            this.callback = callback;
+            this.deadline = deadline;
+        }
+    }
+    
+    public RtpLocationPool(SurvivalCore plugin) {
+        this.plugin = plugin;
+        reload();
+    }
+    
+    /**
+     * Re-read settings and restart the fill task
+     */
+    public void reload() {
+        allowedWorlds = plugin.getConfigManager().getConfig().getStringList("rtp.allowed-worlds");
+        poolSize = Math.max(0, plugin.getConfigManager().getConfig().getInt("rtp.pool.size", 10));
+        chunkLoadsPerTick = Math.max(1, plugin.getConfigManager().getConfig().getInt("rtp.pool.max-chunk-loads-per-tick", 1));
+        candidatesPerTick = Math.max(1, plugin.getConfigManager().getConfig().getInt("rtp.pool.candidates-per-tick", 4));
+        maxWaitMillis = Math.max(1, plugin.getConfigManager().getConfig().getInt("rtp.pool.max-wait", 10)) * 1000L;
+        long refillInterval = Math.max(1, plugin.getConfigManager().getConfig().getLong("rtp.pool.refill-interval", 2L));
+        unsafeMaterials = loadUnsafeMaterials();
+        
+        // Drop pools for worlds that are no longer allowed
+        Iterator<Map.Entry<String, ArrayDeque<Location>>> iterator = pools.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<String, ArrayDeque<Location>> entry = iterator.next();
+            if (!allowedWorlds.contains(entry.getKey())) {
+                entry.getValue().forEach(this::releaseTicket);
+                iterator.remove();
+            }
+        }
+        
+        if (fillTask != null) {
+            fillTask.cancel();
+        }
+        fillTask = Bukkit.getScheduler().runTaskTimer(plugin, this::fill, refillInterval, refillInterval);
+    }
+    
+    private Set<Material> loadUnsafeMaterials() {
+        List<String> names = plugin.getConfigManager().getConfig().getStringList("rtp.unsafe-blocks");
+        if (names.isEmpty()) {
+            return DEFAULT_UNSAFE_MATERIALS;
+        }
+        
+        Set<Material> materials = EnumSet.noneOf(Material.class);
+        for (String name : names) {
+            Material material = Material.matchMaterial(name);
+            if (material != null) {
+                materials.add(material);
+            } else {
+                plugin.getLogger().warning("Unknown material in rtp.unsafe-blocks: " + name);
+            }
+        }
+        return materials;
+    }
+    
+    /**
+     * Hand out a safe location for a world. The callback runs on the main thread, right away
+     * if the pool has one, otherwise as soon as one is found; it gets null if none turned up in time.
+     */
+    public void request(World world, Consumer<Location> callback) {
+        Location location = poll(world);
+        if (location != null) {
+            callback.accept(location);
+            return;
+        }
+        
+        waiters.computeIfAbsent(world.getName(), k -> new ArrayDeque<>())
+            .add(new Waiter(callback, System.currentTimeMillis() + maxWaitMillis));
+    }
+    
+    /**
+     * Take a ready location from the pool, re-checking it in case the area changed
+     */
+    public Location poll(World world) {
+        ArrayDeque<Location> pool = pools.get(world.getName());
+        if (pool == null) {
+            return null;
+        }
+        
+        Location location;
+        while ((location = pool.pollFirst()) != null) {
+            boolean safe = isSafeLocation(location);
+            releaseTicket(location);
+            if (safe) {
+                return location;
+            }
+        }
+        return null;
+    }
+    
+    public int getPooledCount(World world) {
+        ArrayDeque<Location> pool = pools.get(world.getName());
+        return pool == null ? 0 : pool.size();
+    }
+    
+    /**
+     * Runs on the main thread: start searching a few candidate chunks per world that
+     * needs locations, loading at most the budgeted number of chunks
+     */
+    private void fill() {
+        int chunkLoads = 0;
+        long now = System.currentTimeMillis();
+        
+        for (String worldName : allowedWorlds) {
+            World world = Bukkit.getWorld(worldName);
+            if (world == null) {
+                continue;
+            }
+            
+            ArrayDeque<Waiter> queue = waiters.get(worldName);
+            expireWaiters(queue, now);
+            ArrayDeque<Location> pool = pools.computeIfAbsent(worldName, k -> new ArrayDeque<>());
+            int waiting = queue == null ? 0 : queue.size();
+            int wanted = poolSize - pool.size() + waiting - searching.getOrDefault(worldName, 0);
+            
+            for (int attempt = 0; attempt < Math.min(candidatesPerTick, wanted) && chunkLoads < chunkLoadsPerTick; attempt++) {
+                int[] candidate = randomCandidate(world);
+                int chunkX = candidate[0] >> 4;
+                int chunkZ = candidate[1] >> 4;
+                if (world.isChunkLoaded(chunkX, chunkZ)) {
+                    searching.merge(worldName, 1, Integer::sum);
+                    search(world, world.getChunkAt(chunkX, chunkZ));
+                    continue;
+                }
+                
+                CompletableFuture<Chunk> load = plugin.getChunkTicketManager().loadAsync(world, chunkX, chunkZ);
+                if (load != null) {
+                    chunkLoads++;
+                    searching.merge(worldName, 1, Integer::sum);
+                    load.whenComplete((chunk, e) -> {
+                        if (!plugin.isEnabled()) {
+                            return;
+                        }
+                        if (e != null) {
+                            plugin.getLogger().log(Level.FINE, "Failed to load random teleport candidate chunk", e);
+                        }
+                        Bukkit.getScheduler().runTask(plugin, () -> {
+                            if (chunk != null && chunk.isLoaded()) {
+                                search(world, chunk);
+                            } else {
+                                doneSearching(worldName);
+                            }
+                        });
+                    });
+                } else if (world.isChunkGenerated(chunkX, chunkZ)) {
+                    // No async loading here; loading an existing chunk is fine within the budget, generating one is not
+                    chunkLoads++;
+                    searching.merge(worldName, 1, Integer::sum);
+                    search(world, world.getChunkAt(chunkX, chunkZ));
+                }
+            }
+        }
+    }
+    
+    /**
+     * Main thread: hold a loaded candidate chunk and search a snapshot of it on a worker thread
+     */
+    private void search(World world, Chunk chunk) {
+        plugin.getChunkTicketManager().acquire(world, chunk.getX(), chunk.getZ());
+        
+        // Heightmap only; no biome or temperature data needed
+        ChunkSnapshot snapshot = chunk.getChunkSnapshot(true, false, false);
+        int maxHeight = world.getMaxHeight();
+        Set<Material> unsafe = unsafeMaterials;
+        Bukkit.getScheduler().runTaskAsynchronously(plugin, () -> {
+            int[] column = null;
+            try {
+                column = findSafeColumn(snapshot, unsafe, maxHeight);
+            } catch (Exception e) {
+                plugin.getLogger().log(Level.WARNING, "Error searching for a random teleport location", e);
+            }
+            
+            if (plugin.isEnabled()) {
+                int[] found = column;
+                Bukkit.getScheduler().runTask(plugin, () -> offer(world, snapshot, found));
+            }
+        });
+    }
+    
+    /**
+     * Main thread: take the result of a snapshot search, giving it to a waiting player first
+     */
+    private void offer(World world, ChunkSnapshot snapshot, int[] column) {
+        String worldName = world.getName();
+        doneSearching(worldName);
+        if (column == null || !allowedWorlds.contains(worldName)) {
+            plugin.getChunkTicketManager().release(world, snapshot.getX(), snapshot.getZ());
+            return;
+        }
+        
+        int x = (snapshot.getX() << 4) + column[0];
+        int z = (snapshot.getZ() << 4) + column[2];
+        Location location = new Location(world, x + 0.5, column[1], z + 0.5);
+        
+        ArrayDeque<Waiter> queue = waiters.get(worldName);
+        if (queue != null && !queue.isEmpty()) {
+            // Same check as poll; the column may have changed since the snapshot
+            if (isSafeLocation(location)) {
+                queue.pollFirst().callback.accept(location);
+            }
+            releaseTicket(location);
+            return;
+        }
+        
+        // The chunk stays held for as long as the location is pooled
+        ArrayDeque<Location> pool = pools.computeIfAbsent(worldName, k -> new ArrayDeque<>());
+        if (pool.size() < poolSize) {
+            pool.addLast(location);
+        } else {
+            releaseTicket(location);
+        }
+    }
+    
+    private void doneSearching(String worldName) {
+        searching.computeIfPresent(worldName, (k, count) -> count > 1 ? count - 1 : null);
+    }
+    
+    /**
+     * Worker thread: look for a safe column in a snapshot. Returns the chunk-relative
+     * x, the feet y and the chunk-relative z, or null if none of the tried columns is safe.
+     */
+    private static int[] findSafeColumn(ChunkSnapshot snapshot, Set<Material> unsafe, int maxHeight) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (int attempt = 0; attempt < COLUMNS_PER_CHUNK; attempt++) {
+            int x = random.nextInt(16);
+            int z = random.nextInt(16);
+            int y = snapshot.getHighestBlockYAt(x, z) + 1;
+            if (y < 5 || y > maxHeight - 10) {
+                continue;
+            }
+            
+            Material ground = snapshot.getBlockType(x, y - 1, z);
+            Material feet = snapshot.getBlockType(x, y, z);
+            Material head = snapshot.getBlockType(x, y + 1, z);
+            if (isSafe(ground, feet, head, y, maxHeight, unsafe)) {
+                return new int[]{x, y, z};
+            }
+        }
+        return null;
+    }
+    
+    private void expireWaiters(ArrayDeque<Waiter> queue, long now) {
+        if (queue == null) {
+            return;
+        }
+        while (!queue.isEmpty() && queue.peekFirst().deadline <= now) {
+            queue.pollFirst().callback.accept(null);
+        }
+    }
+    
+    /**
+     * Random block coordinates in the ring between the minimum and maximum distance from spawn
+     */
+    private int[] randomCandidate(World world) {
+        int maxDistance = plugin.getConfigManager().getRtpMaxDistance();
+        int minDistance = plugin.getConfigManager().getRtpMinDistance();
+        Location spawn = world.getSpawnLocation();
+        
+        int x;
+        int z;
+        do {
+            x = random.nextInt(maxDistance * 2) - maxDistance;
+            z = random.nextInt(maxDistance * 2) - maxDistance;
+        } while (Math.abs(x) < minDistance && Math.abs(z) < minDistance);
+        
+        return new int[]{spawn.getBlockX() + x, spawn.getBlockZ() + z};
+    }
+    
+    /**
+     * Re-check a pooled location against the live world
+     */
+    private boolean isSafeLocation(Location location) {
+        World world = location.getWorld();
+        if (world == null) return false;
+        
+        int x = location.getBlockX();
+        int y = location.getBlockY();
+        int z = location.getBlockZ();
+        return isSafe(world.getBlockAt(x, y - 1, z).getType(), world.getBlockAt(x, y, z).getType(),
+            world.getBlockAt(x, y + 1, z).getType(), y, world.getMaxHeight(), unsafeMaterials);
+    }
+    
+    private static boolean isSafe(Material ground, Material feet, Material head, int y, int maxHeight, Set<Material> unsafe) {
+        // Check if ground is solid
+        if (!ground.isSolid()) {
+            return false;
+        }
+        
+        // Check if feet and head space are clear
+        if (feet.isSolid() || head.isSolid()) {
+            return false;
+        }
+        
+        // Check for unsafe materials
+        if (unsafe.contains(ground) || unsafe.contains(feet) || unsafe.contains(head)) {
+            return false;
+        }
+        
+        // Don't teleport into water/lava unless it's shallow
+        if (feet == Material.WATER || feet == Material.LAVA) {
+            return false;
+        }
+        
+        // Check if location is too high or too low
+        if (y < 5 || y > maxHeight - 10) {
+            return false;
+        }
+        
+        return true;
+    }
+    
+    private void releaseTicket(Location location) {
+        World world = location.getWorld();
+        if (world != null) {
+            plugin.getChunkTicketManager().release(world, location.getBlockX() >> 4, location.getBlockZ() >> 4);
+        }
+    }
+    
+    /**
+     * Stop filling, fail anyone still waiting and release the chunks of pooled locations
+     */
+    public void shutdown() {
+        if (fillTask != null) {
+            fillTask.cancel();
+            fillTask = null;
+        }
+        for (ArrayDeque<Waiter> queue : waiters.values()) {
+            while (!queue.isEmpty()) {
+                queue.pollFirst().callback.accept(null);
+            }
+        }
+        waiters.clear();
+        searching.clear();
+        for (ArrayDeque<Location> pool : pools.values()) {
+            pool.forEach(this::releaseTicket);
+        }
+        pools.clear();
+    }
+}
\ No newline at end of file
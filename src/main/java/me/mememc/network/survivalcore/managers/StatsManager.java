@@ -2,6 +2,7 @@ package me.mememc.network.survivalcore.managers;
 
 import me.mememc.network.survivalcore.SurvivalCore;
 import me.mememc.network.survivalcore.models.PlayerStats;
+import me.mememc.network.survivalcore.models.StatCategory;
 import me.mememc.network.survivalcore.utils.MessageUtils;
 import org.bukkit.Bukkit;
 import org.bukkit.Material;
@@ -10,14 +11,20 @@ import org.bukkit.inventory.Inventory;
 import org.bukkit.inventory.ItemStack;
 import org.bukkit.inventory.meta.ItemMeta;
 import org.bukkit.inventory.meta.SkullMeta;
+import org.bukkit.scheduler.BukkitTask;
 
 import java.sql.PreparedStatement;
-import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.text.DecimalFormat;
-import java.text.SimpleDateFormat;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.logging.Level;
 
 /**
@@ -30,17 +37,64 @@ public class StatsManager {
     private final Map<UUID, Long> playerJoinTimes = new ConcurrentHashMap<>();
     private final DecimalFormat df = new DecimalFormat("#.##");
     
+    // Write-behind: players whose stats changed since the last flush
+    private final Set<UUID> dirtyPlayers = ConcurrentHashMap.newKeySet();
+    // Stats of players who have left whose final save failed, kept until a flush writes them (main thread only)
+    private final List<PlayerStats> unsavedStats = new ArrayList<>();
+    private final Map<Integer, String> deltaSqlCache = new ConcurrentHashMap<>();
+    private final String insertRowSql;
+    private final int flushBatchSize;
+    private BukkitTask flushTask;
+    
+    // Leaderboards are served from memory; the table is only read once at startup
+    private static final int LEADERBOARD_SIZE = 45;
+    private final LeaderboardIndex leaderboardIndex = new LeaderboardIndex(64);
+    private final MovementTracker movementTracker;
+    
+    // Rendered GUI contents, reused until the data behind them changes (main thread only).
+    // Inventories copy items on insert, so one rendered array can back any number of open views.
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("MMM dd, yyyy").withZone(ZoneId.systemDefault());
+    private final Map<StatCategory, RenderedPage> leaderboardPages = new EnumMap<>(StatCategory.class);
+    private final Map<UUID, RenderedPage> statsPanels = new HashMap<>();
+    private ItemStack closeTemplate;
+    private ItemStack buildingTemplate;
+    private ItemStack combatTemplate;
+    private ItemStack travelTemplate;
+    private ItemStack survivalTemplate;
+    
+    private static final class RenderedPage {
+        private final long version;
+        private final ItemStack[] contents;
+        
+        private RenderedPage(long version, ItemStack[] contents) {
+            this.version = version;
+            this.contents = contents;
+        }
+    }
+    
+    // Column for each PlayerStats counter field id
+    private static final String[] COUNTER_COLUMNS = {
+        "time_played", "blocks_placed", "blocks_broken", "mobs_killed",
+        "deaths", "players_killed", "items_crafted", "fish_caught"
+    };
+    
     public StatsManager(SurvivalCore plugin) {
         this.plugin = plugin;
+        this.insertRowSql = (plugin.getDatabaseManager().isMySQL() ? "INSERT IGNORE" : "INSERT OR IGNORE") +
+            " INTO sc_player_stats (player_uuid, player_name, join_date, last_seen) VALUES (?, ?, ?, ?)";
+        this.flushBatchSize = Math.max(1, plugin.getConfigManager().getStatsFlushBatchSize());
         createStatsTables();
+        seedLeaderboards();
+        this.movementTracker = new MovementTracker(plugin, this);
         
         // Load stats for online players
         for (Player player : Bukkit.getOnlinePlayers()) {
             loadPlayerStats(player.getUniqueId(), player.getName());
         }
         
-        // Start periodic save task
-        Bukkit.getScheduler().runTaskTimerAsynchronously(plugin, this::saveAllStats, 6000L, 6000L); // Save every 5 minutes
+        // Start periodic flush task; deltas are taken on the main thread and written on the database thread
+        long interval = Math.max(1, plugin.getConfigManager().getStatsSaveInterval()) * 1200L;
+        flushTask = Bukkit.getScheduler().runTaskTimer(plugin, this::flushDirtyStats, interval, interval);
     }
     
     private void createStatsTables() {
@@ -70,88 +124,312 @@ public class StatsManager {
         }
     }
     
+    /**
+     * Build the leaderboard index with a single pass over the stats table
+     */
+    private void seedLeaderboards() {
+        StatCategory[] categories = StatCategory.values();
+        StringJoiner columns = new StringJoiner(", ");
+        for (StatCategory category : categories) {
+            columns.add(category.getColumn());
+        }
+        
+        plugin.getDatabaseManager().queryAsync(
+            "SELECT player_uuid, player_name, " + columns + " FROM sc_player_stats",
+            rs -> {
+                LeaderboardIndex.Seed seed = leaderboardIndex.newSeed();
+                long[] values = new long[categories.length];
+                while (rs.next()) {
+                    for (int i = 0; i < categories.length; i++) {
+                        values[i] = rs.getLong(i + 3);
+                    }
+                    seed.add(UUID.fromString(rs.getString(1)), rs.getString(2), values);
+                }
+                return seed;
+            }
+        ).whenComplete((seed, e) -> {
+            if (e != null) {
+                plugin.getLogger().log(Level.SEVERE, "Failed to build leaderboards", e);
+                return;
+            }
+            leaderboardIndex.install(seed);
+        });
+    }
+    
     /**
      * Load player stats from database
      */
     public void loadPlayerStats(UUID playerUuid, String playerName) {
-        Bukkit.getScheduler().runTaskAsynchronously(plugin, () -> {
-            try {
-                PreparedStatement stmt = plugin.getDatabaseManager().getConnection().prepareStatement(
-                    "SELECT * FROM sc_player_stats WHERE player_uuid = ?"
-                );
-                stmt.setString(1, playerUuid.toString());
-                
-                ResultSet rs = stmt.executeQuery();
-                
-                PlayerStats stats;
-                if (rs.next()) {
-                    stats = new PlayerStats(
-                        playerUuid, playerName,
-                        rs.getLong("time_played"),
-                        rs.getInt("blocks_placed"),
-                        rs.getInt("blocks_broken"),
-                        rs.getInt("mobs_killed"),
-                        rs.getInt("deaths"),
-                        rs.getInt("players_killed"),
-                        rs.getDouble("distance_traveled"),
-                        rs.getInt("items_crafted"),
-                        rs.getInt("fish_caught"),
-                        rs.getLong("join_date"),
-                        rs.getLong("last_seen")
-                    );
-                } else {
-                    // Create new stats entry
-                    stats = new PlayerStats(playerUuid, playerName);
-                    savePlayerStats(stats);
+        plugin.getDatabaseManager().queryAsync(
+            "SELECT * FROM sc_player_stats WHERE player_uuid = ?",
+            rs -> {
+                if (!rs.next()) {
+                    return null;
                 }
-                
-                playerStats.put(playerUuid, stats);
-                playerJoinTimes.put(playerUuid, System.currentTimeMillis());
-                
-            } catch (SQLException e) {
+                return new PlayerStats(
+                    playerUuid, playerName,
+                    rs.getLong("time_played"),
+                    rs.getInt("blocks_placed"),
+                    rs.getInt("blocks_broken"),
+                    rs.getInt("mobs_killed"),
+                    rs.getInt("deaths"),
+                    rs.getInt("players_killed"),
+                    rs.getDouble("distance_traveled"),
+                    rs.getInt("items_crafted"),
+                    rs.getInt("fish_caught"),
+                    rs.getLong("join_date"),
+                    rs.getLong("last_seen")
+                );
+            },
+            playerUuid.toString()
+        ).whenComplete((loaded, e) -> {
+            if (e != null) {
                 plugin.getLogger().log(Level.WARNING, "Error loading player stats for " + playerName, e);
+                return;
             }
+            Bukkit.getScheduler().runTask(plugin, () -> applyLoadedStats(playerUuid, playerName, loaded));
         });
     }
     
+    /**
+     * Start tracking loaded stats, or fresh ones if the player has none yet (main thread).
+     * Skipped if the player left before the load finished.
+     */
+    private void applyLoadedStats(UUID playerUuid, String playerName, PlayerStats loaded) {
+        if (Bukkit.getPlayer(playerUuid) == null || playerStats.containsKey(playerUuid)) {
+            return;
+        }
+        
+        PlayerStats stats = loaded;
+        if (stats == null) {
+            // Create new stats entry
+            stats = new PlayerStats(playerUuid, playerName);
+            dirtyPlayers.add(playerUuid);
+        }
+        
+        playerStats.put(playerUuid, stats);
+        playerJoinTimes.put(playerUuid, System.currentTimeMillis());
+        leaderboardIndex.track(stats, loaded != null);
+    }
+    
     /**
      * Save player stats to database
      */
     public void savePlayerStats(PlayerStats stats) {
-        Bukkit.getScheduler().runTaskAsynchronously(plugin, () -> {
+        PlayerStats.Delta delta = stats.takeDelta();
+        if (delta == null) {
+            return;
+        }
+        
+        List<PlayerStats> saved = Collections.singletonList(stats);
+        List<PlayerStats.Delta> deltas = Collections.singletonList(delta);
+        writeDeltas(deltas).whenComplete((written, e) -> {
+            if (e != null) {
+                plugin.getLogger().log(Level.WARNING, "Error saving player stats for " + stats.getPlayerName(), e);
+                retryLater(saved, deltas);
+            }
+        });
+    }
+    
+    /**
+     * Mark all loaded player stats for saving and flush them
+     */
+    public void saveAllStats() {
+        dirtyPlayers.addAll(playerStats.keySet());
+        flushDirtyStats();
+    }
+    
+    /**
+     * Write the changes of every player whose stats changed since the last flush in one transaction.
+     * Must be called on the main thread so the deltas are consistent.
+     */
+    public CompletableFuture<Integer> flushDirtyStats() {
+        // Fold in the players who quit since the last flush while we are here
+        leaderboardIndex.compact();
+        if (dirtyPlayers.isEmpty() && unsavedStats.isEmpty()) {
+            return CompletableFuture.completedFuture(0);
+        }
+        
+        List<PlayerStats> flushed = new ArrayList<>();
+        List<PlayerStats.Delta> deltas = new ArrayList<>();
+        Iterator<UUID> iterator = dirtyPlayers.iterator();
+        while (iterator.hasNext()) {
+            UUID uuid = iterator.next();
+            iterator.remove();
+            
+            addDelta(playerStats.get(uuid), flushed, deltas);
+        }
+        for (PlayerStats stats : unsavedStats) {
+            addDelta(stats, flushed, deltas);
+        }
+        unsavedStats.clear();
+        
+        return writeDeltas(deltas).whenComplete((written, e) -> {
+            if (e != null) {
+                plugin.getLogger().log(Level.WARNING, "Error saving stats for " + flushed.size() + " player(s)", e);
+                retryLater(flushed, deltas);
+            }
+        });
+    }
+    
+    private static void addDelta(PlayerStats stats, List<PlayerStats> flushed, List<PlayerStats.Delta> deltas) {
+        PlayerStats.Delta delta = stats != null ? stats.takeDelta() : null;
+        if (delta != null) {
+            flushed.add(stats);
+            deltas.add(delta);
+        }
+    }
+    
+    /**
+     * Roll the baselines of a failed write back and mark the players dirty so the next flush
+     * retries the changes; stats of players who have left are kept until then
+     */
+    private void retryLater(List<PlayerStats> failed, List<PlayerStats.Delta> deltas) {
+        if (!plugin.isEnabled()) {
+            return;
+        }
+        
+        Bukkit.getScheduler().runTask(plugin, () -> {
+            for (int i = 0; i < failed.size(); i++) {
+                PlayerStats stats = failed.get(i);
+                stats.restoreDelta(deltas.get(i));
+                UUID uuid = stats.getPlayerUuid();
+                if (playerStats.get(uuid) == stats) {
+                    dirtyPlayers.add(uuid);
+                } else {
+                    unsavedStats.add(stats);
+                }
+            }
+        });
+    }
+    
+    /**
+     * Apply deltas in a single transaction: missing rows are created first, then each
+     * distinct set of changed columns is sent as one batched additive UPDATE
+     */
+    private CompletableFuture<Integer> writeDeltas(List<PlayerStats.Delta> deltas) {
+        if (deltas.isEmpty()) {
+            return CompletableFuture.completedFuture(0);
+        }
+        
+        Map<Integer, List<PlayerStats.Delta>> byMask = new HashMap<>();
+        List<PlayerStats.Delta> newRows = new ArrayList<>();
+        for (PlayerStats.Delta delta : deltas) {
+            byMask.computeIfAbsent(delta.getMask(), k -> new ArrayList<>()).add(delta);
+            if (delta.isNewRow()) {
+                newRows.add(delta);
+            }
+        }
+        
+        return plugin.getDatabaseManager().executeAsync(connection -> {
+            connection.setAutoCommit(false);
             try {
-                plugin.getDatabaseManager().executeUpdate(
-                    "INSERT OR REPLACE INTO sc_player_stats " +
-                    "(player_uuid, player_name, time_played, blocks_placed, blocks_broken, " +
-                    "mobs_killed, deaths, players_killed, distance_traveled, items_crafted, " +
-                    "fish_caught, join_date, last_seen) " +
-                    "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)",
-                    stats.getPlayerUuid().toString(),
-                    stats.getPlayerName(),
-                    stats.getTimePlayed(),
-                    stats.getBlocksPlaced(),
-                    stats.getBlocksBroken(),
-                    stats.getMobsKilled(),
-                    stats.getDeaths(),
-                    stats.getPlayersKilled(),
-                    stats.getDistanceTraveled(),
-                    stats.getItemsCrafted(),
-                    stats.getFishCaught(),
-                    stats.getJoinDate(),
-                    stats.getLastSeen()
-                );
+                if (!newRows.isEmpty()) {
+                    try (PreparedStatement stmt = connection.prepareStatement(insertRowSql)) {
+                        int pending = 0;
+                        for (PlayerStats.Delta delta : newRows) {
+                            stmt.setString(1, delta.getPlayerUuid().toString());
+                            stmt.setString(2, delta.getPlayerName());
+                            stmt.setLong(3, delta.getJoinDate());
+                            stmt.setLong(4, delta.getLastSeen());
+                            stmt.addBatch();
+                            if (++pending >= flushBatchSize) {
+                                stmt.executeBatch();
+                                pending = 0;
+                            }
+                        }
+                        if (pending > 0) {
+                            stmt.executeBatch();
+                        }
+                    }
+                }
+                
+                for (Map.Entry<Integer, List<PlayerStats.Delta>> entry : byMask.entrySet()) {
+                    int mask = entry.getKey();
+                    try (PreparedStatement stmt = connection.prepareStatement(getDeltaSql(mask))) {
+                        int pending = 0;
+                        for (PlayerStats.Delta delta : entry.getValue()) {
+                            int index = 1;
+                            stmt.setString(index++, delta.getPlayerName());
+                            stmt.setLong(index++, delta.getLastSeen());
+                            for (int field = 0; field < PlayerStats.COUNTER_FIELDS; field++) {
+                                if (delta.isChanged(field)) {
+                                    stmt.setLong(index++, delta.getCount(field));
+                                }
+                            }
+                            if (delta.isChanged(PlayerStats.DISTANCE_TRAVELED)) {
+                                stmt.setDouble(index++, delta.getDistance());
+                            }
+                            stmt.setString(index, delta.getPlayerUuid().toString());
+                            stmt.addBatch();
+                            if (++pending >= flushBatchSize) {
+                                stmt.executeBatch();
+                                pending = 0;
+                            }
+                        }
+                        if (pending > 0) {
+                            stmt.executeBatch();
+                        }
+                    }
+                }
+                
+                connection.commit();
+                return deltas.size();
             } catch (SQLException e) {
-                plugin.getLogger().log(Level.WARNING, "Error saving player stats", e);
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(true);
             }
         });
     }
     
     /**
-     * Save all loaded player stats
+     * Build (once per mask) an UPDATE that only touches the changed columns
      */
-    public void saveAllStats() {
-        for (PlayerStats stats : playerStats.values()) {
-            savePlayerStats(stats);
+    private String getDeltaSql(int mask) {
+        return deltaSqlCache.computeIfAbsent(mask, m -> {
+            StringBuilder sql = new StringBuilder("UPDATE sc_player_stats SET player_name = ?, last_seen = ?");
+            for (int field = 0; field < PlayerStats.COUNTER_FIELDS; field++) {
+                if ((m & (1 << field)) != 0) {
+                    String column = COUNTER_COLUMNS[field];
+                    sql.append(", ").append(column).append(" = ").append(column).append(" + ?");
+                }
+            }
+            if ((m & (1 << PlayerStats.DISTANCE_TRAVELED)) != 0) {
+                sql.append(", distance_traveled = distance_traveled + ?");
+            }
+            return sql.append(" WHERE player_uuid = ?").toString();
+        });
+    }
+    
+    /**
+     * Pick up changed stats settings
+     */
+    public void reload() {
+        movementTracker.reload();
+    }
+    
+    /**
+     * Stop the flush task and write all pending stats before the database closes
+     */
+    public void shutdown() {
+        movementTracker.stop();
+        if (flushTask != null) {
+            flushTask.cancel();
+            flushTask = null;
+        }
+        
+        for (UUID uuid : playerStats.keySet()) {
+            updatePlayerSession(uuid);
+        }
+        
+        try {
+            flushDirtyStats().get(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException | TimeoutException e) {
+            plugin.getLogger().log(Level.SEVERE, "Failed to save player stats on shutdown", e);
         }
     }
     
@@ -167,6 +445,7 @@ public class StatsManager {
                 stats.addTimePlayed(sessionTime);
                 stats.setLastSeen(System.currentTimeMillis());
                 playerJoinTimes.put(playerUuid, System.currentTimeMillis()); // Reset join time
+                changed(stats, StatCategory.PLAYTIME);
             }
         }
     }
@@ -184,12 +463,28 @@ public class StatsManager {
     public void showPlayerStats(Player player, Player target) {
         PlayerStats stats = playerStats.get(target.getUniqueId());
         if (stats == null) {
-            MessageUtils.sendMessage(player, plugin.getConfigManager().getMessagesConfig()
-                .getString("stats.not-found", "{prefix}&cNo statistics found for that player!"));
+            MessageUtils.sendMessage(player, plugin.getConfigManager()
+                .getMessage("stats.not-found", "{prefix}&cNo statistics found for that player!"));
             return;
         }
         
+        int rank = getRank(target.getUniqueId(), StatCategory.PLAYTIME);
+        long version = panelVersion(stats, rank);
+        
+        RenderedPage panel = statsPanels.get(target.getUniqueId());
+        if (panel == null || panel.version != version) {
+            panel = new RenderedPage(version, renderStatsPanel(target, stats, rank));
+            statsPanels.put(target.getUniqueId(), panel);
+        }
+        
         Inventory inventory = Bukkit.createInventory(null, 54, "§6§lStats: " + target.getName());
+        inventory.setContents(panel.contents);
+        player.openInventory(inventory);
+    }
+    
+    private ItemStack[] renderStatsPanel(Player target, PlayerStats stats, int rank) {
+        ensureTemplates();
+        ItemStack[] contents = new ItemStack[54];
         
         // Player head
         ItemStack playerHead = new ItemStack(Material.PLAYER_HEAD);
@@ -200,181 +495,158 @@ public class StatsManager {
             List<String> lore = new ArrayList<>();
             lore.add("§7Player Statistics");
             lore.add("");
-            SimpleDateFormat sdf = new SimpleDateFormat("MMM dd, yyyy");
-            lore.add("§7Joined: §e" + sdf.format(new Date(stats.getJoinDate())));
-            lore.add("§7Last Seen: §e" + sdf.format(new Date(stats.getLastSeen())));
+            lore.add("§7Joined: §e" + DATE_FORMAT.format(Instant.ofEpochMilli(stats.getJoinDate())));
+            lore.add("§7Last Seen: §e" + DATE_FORMAT.format(Instant.ofEpochMilli(stats.getLastSeen())));
             lore.add("§7Time Played: §e" + stats.formatTimePlayed());
+            if (rank > 0) {
+                lore.add("§7Playtime Rank: §e#" + rank);
+            }
             skullMeta.setLore(lore);
             playerHead.setItemMeta(skullMeta);
         }
-        inventory.setItem(4, playerHead);
+        contents[4] = playerHead;
         
         // Building stats
-        ItemStack building = new ItemStack(Material.BRICKS);
-        ItemMeta buildingMeta = building.getItemMeta();
-        if (buildingMeta != null) {
-            buildingMeta.setDisplayName("§a§lBuilding Statistics");
-            List<String> lore = new ArrayList<>();
-            lore.add("§7Blocks Placed: §e" + stats.getBlocksPlaced());
-            lore.add("§7Blocks Broken: §e" + stats.getBlocksBroken());
-            lore.add("§7Items Crafted: §e" + stats.getItemsCrafted());
-            buildingMeta.setLore(lore);
-            building.setItemMeta(buildingMeta);
-        }
-        inventory.setItem(19, building);
+        contents[19] = withLore(buildingTemplate,
+            "§7Blocks Placed: §e" + stats.getBlocksPlaced(),
+            "§7Blocks Broken: §e" + stats.getBlocksBroken(),
+            "§7Items Crafted: §e" + stats.getItemsCrafted());
         
         // Combat stats
-        ItemStack combat = new ItemStack(Material.DIAMOND_SWORD);
-        ItemMeta combatMeta = combat.getItemMeta();
-        if (combatMeta != null) {
-            combatMeta.setDisplayName("§c§lCombat Statistics");
-            List<String> lore = new ArrayList<>();
-            lore.add("§7Mobs Killed: §e" + stats.getMobsKilled());
-            lore.add("§7Players Killed: §e" + stats.getPlayersKilled());
-            lore.add("§7Deaths: §e" + stats.getDeaths());
-            lore.add("§7K/D Ratio: §e" + df.format(stats.getKDRatio()));
-            combatMeta.setLore(lore);
-            combat.setItemMeta(combatMeta);
-        }
-        inventory.setItem(21, combat);
+        contents[21] = withLore(combatTemplate,
+            "§7Mobs Killed: §e" + stats.getMobsKilled(),
+            "§7Players Killed: §e" + stats.getPlayersKilled(),
+            "§7Deaths: §e" + stats.getDeaths(),
+            "§7K/D Ratio: §e" + df.format(stats.getKDRatio()));
         
         // Travel stats
-        ItemStack travel = new ItemStack(Material.LEATHER_BOOTS);
-        ItemMeta travelMeta = travel.getItemMeta();
-        if (travelMeta != null) {
-            travelMeta.setDisplayName("§b§lTravel Statistics");
-            List<String> lore = new ArrayList<>();
-            lore.add("§7Distance Traveled: §e" + df.format(stats.getDistanceTraveled()) + " blocks");
-            travelMeta.setLore(lore);
-            travel.setItemMeta(travelMeta);
-        }
-        inventory.setItem(23, travel);
+        contents[23] = withLore(travelTemplate,
+            "§7Distance Traveled: §e" + (long) stats.getDistanceTraveled() + " blocks");
         
         // Survival stats
-        ItemStack survival = new ItemStack(Material.FISHING_ROD);
-        ItemMeta survivalMeta = survival.getItemMeta();
-        if (survivalMeta != null) {
-            survivalMeta.setDisplayName("§6§lSurvival Statistics");
-            List<String> lore = new ArrayList<>();
-            lore.add("§7Fish Caught: §e" + stats.getFishCaught());
-            survivalMeta.setLore(lore);
-            survival.setItemMeta(survivalMeta);
-        }
-        inventory.setItem(25, survival);
+        contents[25] = withLore(survivalTemplate,
+            "§7Fish Caught: §e" + stats.getFishCaught());
         
         // Close button
-        ItemStack close = new ItemStack(Material.BARRIER);
-        ItemMeta closeMeta = close.getItemMeta();
-        if (closeMeta != null) {
-            closeMeta.setDisplayName("§c§lClose");
-            close.setItemMeta(closeMeta);
-        }
-        inventory.setItem(49, close);
+        contents[49] = closeTemplate;
         
-        player.openInventory(inventory);
+        return contents;
+    }
+    
+    /**
+     * Hash of every value the stats panel shows, as shown, so it is only rendered again
+     * when something visible changed rather than on every step the player takes
+     */
+    private static long panelVersion(PlayerStats stats, int rank) {
+        long hash = rank;
+        hash = hash * 31 + stats.getTimePlayed() / 1000;
+        hash = hash * 31 + stats.getLastSeen();
+        hash = hash * 31 + stats.getBlocksPlaced();
+        hash = hash * 31 + stats.getBlocksBroken();
+        hash = hash * 31 + stats.getItemsCrafted();
+        hash = hash * 31 + stats.getMobsKilled();
+        hash = hash * 31 + stats.getPlayersKilled();
+        hash = hash * 31 + stats.getDeaths();
+        hash = hash * 31 + (long) stats.getDistanceTraveled();
+        hash = hash * 31 + stats.getFishCaught();
+        return hash;
     }
     
     /**
      * Show leaderboard GUI
      */
     public void showLeaderboard(Player player, String category) {
-        Inventory inventory = Bukkit.createInventory(null, 54, "§6§lLeaderboard: " + category);
+        StatCategory statCategory = StatCategory.fromName(category);
+        if (statCategory == null) {
+            MessageUtils.sendMessage(player, plugin.getConfigManager()
+                .getMessage("stats.invalid-category", "{prefix}&cInvalid leaderboard category!"));
+            return;
+        }
         
-        Bukkit.getScheduler().runTaskAsynchronously(plugin, () -> {
-            try {
-                String orderBy = getOrderByColumn(category);
-                if (orderBy == null) {
-                    MessageUtils.sendMessage(player, plugin.getConfigManager().getMessagesConfig()
-                        .getString("stats.invalid-category", "{prefix}&cInvalid leaderboard category!"));
-                    return;
-                }
-                
-                PreparedStatement stmt = plugin.getDatabaseManager().getConnection().prepareStatement(
-                    "SELECT player_name, " + orderBy + " FROM sc_player_stats ORDER BY " + orderBy + " DESC LIMIT 45"
-                );
-                
-                ResultSet rs = stmt.executeQuery();
-                
-                List<ItemStack> items = new ArrayList<>();
-                int position = 1;
-                
-                while (rs.next() && position <= 45) {
-                    String playerName = rs.getString("player_name");
-                    long value = rs.getLong(orderBy);
-                    
-                    ItemStack item = new ItemStack(Material.PLAYER_HEAD);
-                    ItemMeta meta = item.getItemMeta();
-                    if (meta != null) {
-                        meta.setDisplayName("§e#" + position + " " + playerName);
-                        List<String> lore = new ArrayList<>();
-                        lore.add("§7" + formatCategoryName(category) + ": §e" + formatValue(category, value));
-                        meta.setLore(lore);
-                        item.setItemMeta(meta);
-                    }
-                    
-                    items.add(item);
-                    position++;
-                }
-                
-                Bukkit.getScheduler().runTask(plugin, () -> {
-                    for (int i = 0; i < items.size() && i < 45; i++) {
-                        inventory.setItem(i, items.get(i));
-                    }
-                    
-                    // Close button
-                    ItemStack close = new ItemStack(Material.BARRIER);
-                    ItemMeta closeMeta = close.getItemMeta();
-                    if (closeMeta != null) {
-                        closeMeta.setDisplayName("§c§lClose");
-                        close.setItemMeta(closeMeta);
-                    }
-                    inventory.setItem(49, close);
-                    
-                    player.openInventory(inventory);
-                });
-                
-            } catch (SQLException e) {
-                plugin.getLogger().log(Level.WARNING, "Error loading leaderboard", e);
+        int version = leaderboardIndex.getVersion(statCategory);
+        
+        RenderedPage page = leaderboardPages.get(statCategory);
+        if (page == null || page.version != version) {
+            page = new RenderedPage(version, renderLeaderboard(statCategory));
+            leaderboardPages.put(statCategory, page);
+        }
+        
+        Inventory inventory = Bukkit.createInventory(null, 54, "§6§lLeaderboard: " + statCategory.getName());
+        inventory.setContents(page.contents);
+        player.openInventory(inventory);
+    }
+    
+    private ItemStack[] renderLeaderboard(StatCategory category) {
+        ensureTemplates();
+        ItemStack[] contents = new ItemStack[54];
+        int position = 1;
+        
+        for (LeaderboardIndex.Entry entry : leaderboardIndex.getTop(category, LEADERBOARD_SIZE)) {
+            ItemStack item = new ItemStack(Material.PLAYER_HEAD);
+            ItemMeta meta = item.getItemMeta();
+            if (meta != null) {
+                meta.setDisplayName("§e#" + position + " " + entry.getPlayerName());
+                meta.setLore(Collections.singletonList("§7" + category.getDisplayName() + ": §e" + formatValue(category, entry.getValue())));
+                item.setItemMeta(meta);
             }
-        });
+            
+            contents[position - 1] = item;
+            position++;
+        }
+        
+        // Close button
+        contents[49] = closeTemplate;
+        
+        return contents;
     }
     
-    private String getOrderByColumn(String category) {
-        switch (category.toLowerCase()) {
-            case "playtime": return "time_played";
-            case "blocks": return "blocks_placed";
-            case "broken": return "blocks_broken";
-            case "kills": return "mobs_killed";
-            case "pvp": return "players_killed";
-            case "deaths": return "deaths";
-            case "travel": return "distance_traveled";
-            case "crafted": return "items_crafted";
-            case "fish": return "fish_caught";
-            default: return null;
+    /**
+     * Create the fixed GUI items once; they are never modified after this
+     */
+    private void ensureTemplates() {
+        if (closeTemplate != null) {
+            return;
         }
+        closeTemplate = createTemplate(Material.BARRIER, "§c§lClose");
+        buildingTemplate = createTemplate(Material.BRICKS, "§a§lBuilding Statistics");
+        combatTemplate = createTemplate(Material.DIAMOND_SWORD, "§c§lCombat Statistics");
+        travelTemplate = createTemplate(Material.LEATHER_BOOTS, "§b§lTravel Statistics");
+        survivalTemplate = createTemplate(Material.FISHING_ROD, "§6§lSurvival Statistics");
     }
     
-    private String formatCategoryName(String category) {
-        switch (category.toLowerCase()) {
-            case "playtime": return "Time Played";
-            case "blocks": return "Blocks Placed";
-            case "broken": return "Blocks Broken";
-            case "kills": return "Mobs Killed";
-            case "pvp": return "Players Killed";
-            case "deaths": return "Deaths";
-            case "travel": return "Distance Traveled";
-            case "crafted": return "Items Crafted";
-            case "fish": return "Fish Caught";
-            default: return category;
+    private ItemStack createTemplate(Material material, String displayName) {
+        ItemStack item = new ItemStack(material);
+        ItemMeta meta = item.getItemMeta();
+        if (meta != null) {
+            meta.setDisplayName(displayName);
+            item.setItemMeta(meta);
         }
+        return item;
     }
     
-    private String formatValue(String category, long value) {
-        if (category.equals("playtime")) {
+    private ItemStack withLore(ItemStack template, String... lore) {
+        ItemStack item = template.clone();
+        ItemMeta meta = item.getItemMeta();
+        if (meta != null) {
+            meta.setLore(Arrays.asList(lore));
+            item.setItemMeta(meta);
+        }
+        return item;
+    }
+    
+    /**
+     * Rank of an online player in a category (1 is best), or -1 if their stats are not loaded
+     */
+    public int getRank(UUID playerUuid, StatCategory category) {
+        return leaderboardIndex.getRank(category, playerUuid);
+    }
+    
+    private String formatValue(StatCategory category, long value) {
+        if (category == StatCategory.PLAYTIME) {
             long seconds = value / 1000;
             long hours = seconds / 3600;
             return hours + "h";
-        } else if (category.equals("travel")) {
+        } else if (category == StatCategory.TRAVEL) {
             return df.format(value) + " blocks";
         }
         return String.valueOf(value);
@@ -385,10 +657,12 @@ public class StatsManager {
      */
     public void unloadPlayerStats(UUID playerUuid) {
         updatePlayerSession(playerUuid); // Update final session time
-        PlayerStats stats = playerStats.get(playerUuid);
+        PlayerStats stats = playerStats.remove(playerUuid);
         if (stats != null) {
+            dirtyPlayers.remove(playerUuid);
             savePlayerStats(stats);
-            playerStats.remove(playerUuid);
+            leaderboardIndex.untrack(stats);
+            statsPanels.remove(playerUuid);
         }
         playerJoinTimes.remove(playerUuid);
     }
@@ -398,6 +672,7 @@ public class StatsManager {
         PlayerStats stats = playerStats.get(player.getUniqueId());
         if (stats != null) {
             stats.incrementBlocksPlaced();
+            changed(stats, StatCategory.BLOCKS);
         }
     }
     
@@ -405,6 +680,7 @@ public class StatsManager {
         PlayerStats stats = playerStats.get(player.getUniqueId());
         if (stats != null) {
             stats.incrementBlocksBroken();
+            changed(stats, StatCategory.BROKEN);
         }
     }
     
@@ -412,6 +688,7 @@ public class StatsManager {
         PlayerStats stats = playerStats.get(player.getUniqueId());
         if (stats != null) {
             stats.incrementMobsKilled();
+            changed(stats, StatCategory.KILLS);
         }
     }
     
@@ -419,6 +696,7 @@ public class StatsManager {
         PlayerStats stats = playerStats.get(player.getUniqueId());
         if (stats != null) {
             stats.incrementDeaths();
+            changed(stats, StatCategory.DEATHS);
         }
     }
     
@@ -426,6 +704,7 @@ public class StatsManager {
         PlayerStats stats = playerStats.get(killer.getUniqueId());
         if (stats != null) {
             stats.incrementPlayersKilled();
+            changed(stats, StatCategory.PVP);
         }
     }
     
@@ -433,6 +712,7 @@ public class StatsManager {
         PlayerStats stats = playerStats.get(player.getUniqueId());
         if (stats != null && distance > 0) {
             stats.addDistanceTraveled(distance);
+            changed(stats, StatCategory.TRAVEL);
         }
     }
     
@@ -440,6 +720,7 @@ public class StatsManager {
         PlayerStats stats = playerStats.get(player.getUniqueId());
         if (stats != null) {
             stats.incrementItemsCrafted();
+            changed(stats, StatCategory.CRAFTED);
         }
     }
     
@@ -447,6 +728,15 @@ public class StatsManager {
         PlayerStats stats = playerStats.get(player.getUniqueId());
         if (stats != null) {
             stats.incrementFishCaught();
+            changed(stats, StatCategory.FISH);
         }
     }
+    
+    /**
+     * Mark a player's stats for the next flush and offer the changed value to its leaderboard
+     */
+    private void changed(PlayerStats stats, StatCategory category) {
+        dirtyPlayers.add(stats.getPlayerUuid());
+        leaderboardIndex.offer(category, stats);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,290 @@
+package me.mememc.network.survivalcore.managers;
+
+import me.mememc.network.survivalcore.SurvivalCore;
+import me.mememc.network.survivalcore.utils.MessageUtils;
+import org.bukkit.Bukkit;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.entity.Player;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.logging.Level;
+
+/**
+ * Delayed teleports shared by homes, warps, player warps and TPA.
+ *
+ * As soon as a teleport is requested the destination chunk starts loading - with
+ * Paper's World#getChunkAtAsync when the server has it, otherwise with a normal
+ * load right away rather than at the end of the countdown - and a hold on it in
+ * the shared ChunkTicketManager keeps it loaded until the player has arrived.
+ * The countdown runs in the meantime; the teleport happens once both the
+ * countdown is over and the chunk is ready, so it never waits on a chunk load
+ * inside the tick.
+ *
+ * All pending teleports sit in one list advanced by a single per-tick task,
+ * rather than a scheduler task each. Movement is checked against the block
+ * coordinates the player started on, read into one reused Location, so a tick
+ * costs a few int compares per pending teleport and allocates nothing.
+ *
+ * A player has at most one pending teleport; asking for another replaces it.
+ */
+public class TeleportService {
+    
+    /**
+     * Takes payment for a teleport; returns false if the player can not pay
+     */
+    public interface PaymentHandler {
+        boolean withdraw(Player player, double amount);
+    }
+    
+    private final SurvivalCore plugin;
+    // Pending teleports in the order they started, and the same by player (main thread only)
+    private final List<Pending> active = new ArrayList<>();
+    private final Map<UUID, Pending> pending = new HashMap<>();
+    // Scratch location for reading player positions without allocating
+    private final Location scratch = new Location(null, 0, 0, 0);
+    private PaymentHandler paymentHandler;
+    private BukkitTask tickTask;
+    
+    /**
+     * A teleport waiting for its countdown and destination chunk
+     */
+    private final class Pending {
+        private final Player player;
+        private final Supplier<Location> destination;
+        private final boolean cancelOnMove;
+        private final double cost;
+        private final Consumer<Player> onArrival;
+        private final World world;
+        private final int chunkX;
+        private final int chunkZ;
+        private final int startX;
+        private final int startY;
+        private final int startZ;
+        private int ticksLeft;
+        private boolean chunkReady;
+        private boolean holdsChunk;
+        private boolean done;
+        
+        private Pending(Player player, Location target, Supplier<Location> destination, int delaySeconds,
+                        boolean cancelOnMove, double cost, Consumer<Player> onArrival) {
+            this.player = player;
+            this.destination = destination;
+            this.cancelOnMove = cancelOnMove;
+            this.cost = cost;
+            this.onArrival = onArrival;
+            this.world = target.getWorld();
+            this.chunkX = target.getBlockX() >> 4;
+            this.chunkZ = target.getBlockZ() >> 4;
+            Location start = player.getLocation(scratch);
+            this.startX = start.getBlockX();
+            this.startY = start.getBlockY();
+            this.startZ = start.getBlockZ();
+            this.ticksLeft = delaySeconds * 20;
+        }
+        
+        private void tick() {
+            if (!player.isOnline()) {
+                finish();
+                return;
+            }
+            
+            // Check if player moved (if enabled)
+            if (cancelOnMove && hasMoved()) {
+                MessageUtils.sendMessage(player, plugin.getConfigManager()
+                    .getMessage("general.teleport-cancelled", "Teleportation cancelled because you moved!"));
+                finish();
+                return;
+            }
+            
+            if (ticksLeft > 0) {
+                ticksLeft--;
+                if (ticksLeft > 0 && ticksLeft % 20 == 0 && ticksLeft <= 60) {
+                    MessageUtils.sendMessage(player, "&e" + (ticksLeft / 20) + "...");
+                }
+            }
+            if (ticksLeft <= 0 && chunkReady) {
+                arrive();
+            }
+        }
+        
+        private boolean hasMoved() {
+            Location current = player.getLocation(scratch);
+            return current.getBlockX() != startX ||
+                   current.getBlockY() != startY ||
+                   current.getBlockZ() != startZ;
+        }
+        
+        private void arrive() {
+            Location location = destination.get();
+            if (location == null || location.getWorld() == null) {
+                finish();
+                return;
+            }
+            
+            if (cost > 0 && paymentHandler != null && !paymentHandler.withdraw(player, cost)) {
+                MessageUtils.sendMessage(player, plugin.getConfigManager()
+                    .getMessage("general.insufficient-funds", "{prefix}&cYou need {amount} to use this command!"),
+                    "{amount}", String.valueOf(cost));
+                finish();
+                return;
+            }
+            
+            player.teleport(location);
+            finish();
+            onArrival.accept(player);
+        }
+        
+        private void finish() {
+            if (done) {
+                return;
+            }
+            done = true;
+            pending.remove(player.getUniqueId(), this);
+            if (holdsChunk) {
+                holdsChunk = false;
+                plugin.getChunkTicketManager().release(world, chunkX, chunkZ);
+            }
+        }
+    }
+    
+    public TeleportService(SurvivalCore plugin) {
+        this.plugin = plugin;
+        this.tickTask = Bukkit.getScheduler().runTaskTimer(plugin, this::tick, 1L, 1L);
+    }
+    
+    /**
+     * Teleport a player after a countdown
+     *
+     * @param player the player to move
+     * @param destination where to; asked again when the countdown ends, so it may follow a moving target
+     * @param delaySeconds countdown length, 0 to go as soon as the destination chunk is loaded
+     * @param cancelOnMove whether moving to another block cancels the teleport
+     * @param cost price taken when the teleport happens, if a payment handler is installed
+     * @param onArrival run right after the player has been teleported
+     */
+    public void teleport(Player player, Supplier<Location> destination, int delaySeconds, boolean cancelOnMove,
+                         double cost, Consumer<Player> onArrival) {
+        Location target = destination.get();
+        if (target == null || target.getWorld() == null) {
+            return;
+        }
+        
+        cancel(player);
+        Pending teleport = new Pending(player, target, destination, Math.max(0, delaySeconds), cancelOnMove, cost, onArrival);
+        pending.put(player.getUniqueId(), teleport);
+        active.add(teleport);
+        
+        if (delaySeconds > 0) {
+            MessageUtils.sendMessage(player, plugin.getConfigManager()
+                .getMessage("general.teleporting", "Teleporting in {delay} seconds... Don't move!"),
+                "{delay}", String.valueOf(delaySeconds));
+        }
+        
+        // It goes on the first tick where the countdown is over and the chunk is ready
+        loadDestination(teleport).whenComplete((ignored, e) -> {
+            if (e != null) {
+                plugin.getLogger().log(Level.WARNING, "Failed to load destination chunk for " + player.getName(), e);
+            }
+            // Even if the async load failed, the teleport itself still loads the chunk
+            onMainThread(() -> teleport.chunkReady = true);
+        });
+    }
+    
+    /**
+     * Cancel a player's pending teleport, if any
+     */
+    public void cancel(Player player) {
+        Pending teleport = pending.get(player.getUniqueId());
+        if (teleport != null) {
+            teleport.finish();
+        }
+    }
+    
+    public boolean hasPendingTeleport(Player player) {
+        return pending.containsKey(player.getUniqueId());
+    }
+    
+    /**
+     * Install the economy hook used for teleport costs. Without one, costs are not charged.
+     */
+    public void setPaymentHandler(PaymentHandler paymentHandler) {
+        this.paymentHandler = paymentHandler;
+    }
+    
+    /**
+     * Stop the ticker, cancel every pending teleport and let go of their chunks
+     */
+    public void shutdown() {
+        if (tickTask != null) {
+            tickTask.cancel();
+            tickTask = null;
+        }
+        for (Pending teleport : active) {
+            teleport.finish();
+        }
+        active.clear();
+    }
+    
+    /**
+     * Advance every pending teleport by one tick
+     */
+    private void tick() {
+        if (active.isEmpty()) {
+            return;
+        }
+        
+        // Teleports started during this pass wait for the next tick
+        int size = active.size();
+        for (int i = 0; i < size; i++) {
+            Pending teleport = active.get(i);
+            if (!teleport.done) {
+                teleport.tick();
+            }
+        }
+        active.removeIf(teleport -> teleport.done);
+    }
+    
+    /**
+     * Start loading the destination chunk and hold it; completes once the chunk is loaded
+     */
+    private CompletableFuture<?> loadDestination(Pending teleport) {
+        World world = teleport.world;
+        if (!world.isChunkLoaded(teleport.chunkX, teleport.chunkZ)) {
+            CompletableFuture<?> load = plugin.getChunkTicketManager().loadAsync(world, teleport.chunkX, teleport.chunkZ);
+            if (load != null) {
+                return load.thenRun(() -> onMainThread(() -> {
+                    // Only hold it if the teleport still needs it
+                    if (!teleport.done) {
+                        hold(teleport);
+                    }
+                }));
+            }
+        }
+        
+        // Already loaded, or no async chunk loading on this server; load it now, during the countdown
+        hold(teleport);
+        return CompletableFuture.completedFuture(null);
+    }
+    
+    private void hold(Pending teleport) {
+        plugin.getChunkTicketManager().acquire(teleport.world, teleport.chunkX, teleport.chunkZ);
+        teleport.holdsChunk = true;
+    }
+    
+    private void onMainThread(Runnable task) {
+        if (Bukkit.isPrimaryThread()) {
+            task.run();
+        } else {
+            Bukkit.getScheduler().runTask(plugin, task);
+        }
+    }
+}
\ No newline at end of file
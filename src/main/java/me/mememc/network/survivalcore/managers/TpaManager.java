@@ -2,101 +2,339 @@ package me.mememc.network.survivalcore.managers;
 
 import me.mememc.network.survivalcore.SurvivalCore;
 import me.mememc.network.survivalcore.models.TpaRequest;
+import me.mememc.network.survivalcore.utils.MessageUtils;
+import org.bukkit.Bukkit;
 import org.bukkit.entity.Player;
+import org.bukkit.scheduler.BukkitTask;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.DelayQueue;
 
 /**
- * Manages teleport accept (TPA) requests between players
+ * Manages teleport accept (TPA) requests between players.
+ *
+ * Every player has a bounded inbox of incoming requests, indexed by requester
+ * UUID and linked newest first, so sending, accepting or denying one request is
+ * O(1) and a plain /tpaccept takes the newest. A requester has at most one
+ * outgoing request. Every request also goes into a DelayQueue ordered
+ * by expiry time; a task drains whatever has expired each tick, so requests time
+ * out on schedule and both players are told, without anyone having to run a
+ * command first. Requests that were accepted, denied or replaced are left in the
+ * queue and skipped when they come due.
  */
 public class TpaManager {
     
     private final SurvivalCore plugin;
-    private final Map<UUID, TpaRequest> incomingRequests = new HashMap<>();
-    private final Map<UUID, TpaRequest> outgoingRequests = new HashMap<>();
+    private final Map<UUID, Inbox> incomingRequests = new ConcurrentHashMap<>();
+    private final Map<UUID, TpaRequest> outgoingRequests = new ConcurrentHashMap<>();
+    private final DelayQueue<TpaRequest> expiryQueue = new DelayQueue<>();
+    private BukkitTask expiryTask;
+    
+    /**
+     * Pending requests to one player: a map by requester plus a list from newest to oldest
+     */
+    private static final class Inbox {
+        private final Map<UUID, Node> byRequester = new HashMap<>();
+        private Node newest;
+        
+        private static final class Node {
+            private final TpaRequest request;
+            private Node newer;
+            private Node older;
+            
+            private Node(TpaRequest request) {
+                this.request = request;
+            }
+        }
+        
+        private synchronized int size() {
+            return byRequester.size();
+        }
+        
+        private synchronized TpaRequest get(UUID requesterUuid) {
+            Node node = byRequester.get(requesterUuid);
+            return node != null ? node.request : null;
+        }
+        
+        private synchronized TpaRequest newest() {
+            return newest != null ? newest.request : null;
+        }
+        
+        /**
+         * Add a request, replacing any earlier one from the same requester; returns the replaced request
+         */
+        private synchronized TpaRequest add(TpaRequest request) {
+            Node node = new Node(request);
+            Node replaced = byRequester.put(request.getRequesterUuid(), node);
+            if (replaced != null) {
+                unlink(replaced);
+            }
+            node.older = newest;
+            if (newest != null) {
+                newest.newer = node;
+            }
+            newest = node;
+            return replaced != null ? replaced.request : null;
+        }
+        
+        /**
+         * Remove a request if it is still the pending one from its requester
+         */
+        private synchronized boolean remove(TpaRequest request) {
+            Node node = byRequester.get(request.getRequesterUuid());
+            if (node == null || node.request != request) {
+                return false;
+            }
+            byRequester.remove(request.getRequesterUuid());
+            unlink(node);
+            return true;
+        }
+        
+        /**
+         * Remove and return every request, newest first
+         */
+        private synchronized List<TpaRequest> clear() {
+            List<TpaRequest> requests = new ArrayList<>(byRequester.size());
+            for (Node node = newest; node != null; node = node.older) {
+                requests.add(node.request);
+            }
+            byRequester.clear();
+            newest = null;
+            return requests;
+        }
+        
+        /**
+         * Remove and return every request that is no longer valid
+         */
+        private synchronized List<TpaRequest> removeInvalid() {
+            List<TpaRequest> removed = new ArrayList<>();
+            Node node = newest;
+            while (node != null) {
+                Node older = node.older;
+                if (!node.request.isValid()) {
+                    byRequester.remove(node.request.getRequesterUuid());
+                    unlink(node);
+                    removed.add(node.request);
+                }
+                node = older;
+            }
+            return removed;
+        }
+        
+        private synchronized List<String> requesterNames() {
+            List<String> names = new ArrayList<>(byRequester.size());
+            for (Node node = newest; node != null; node = node.older) {
+                names.add(node.request.getRequesterName());
+            }
+            return names;
+        }
+        
+        private void unlink(Node node) {
+            if (node.newer != null) {
+                node.newer.older = node.older;
+            } else {
+                newest = node.older;
+            }
+            if (node.older != null) {
+                node.older.newer = node.newer;
+            }
+            node.newer = null;
+            node.older = null;
+        }
+    }
     
     public TpaManager(SurvivalCore plugin) {
         this.plugin = plugin;
+        this.expiryTask = Bukkit.getScheduler().runTaskTimer(plugin, this::expireRequests, 1L, 1L);
     }
     
     /**
      * Send a TPA request
      */
-    public boolean sendRequest(Player requester, Player target, TpaRequest.TpaType type) {
+    public SendResult sendRequest(Player requester, Player target, TpaRequest.TpaType type) {
         // Check if requester already has an outgoing request
         if (hasOutgoingRequest(requester)) {
-            return false;
+            return SendResult.ALREADY_PENDING;
         }
         
-        // Check if target already has an incoming request from this player
-        TpaRequest existingRequest = incomingRequests.get(target.getUniqueId());
-        if (existingRequest != null && existingRequest.getRequester().equals(requester)) {
-            return false;
+        Inbox inbox = incomingRequests.computeIfAbsent(target.getUniqueId(), k -> new Inbox());
+        int maxPending = plugin.getConfigManager().getSnapshot().getTpaMaxPendingRequests();
+        if (maxPending > 0 && inbox.get(requester.getUniqueId()) == null && inbox.size() >= maxPending) {
+            // Requests from players who logged out do not count; drop them and check again
+            for (TpaRequest stale : inbox.removeInvalid()) {
+                outgoingRequests.remove(stale.getRequesterUuid(), stale);
+            }
+            if (inbox.size() >= maxPending) {
+                return SendResult.INBOX_FULL;
+            }
         }
         
         int timeout = plugin.getConfigManager().getTpaTimeout();
         TpaRequest request = new TpaRequest(requester, target, type, timeout);
         
-        // Remove any existing requests
-        removeRequest(requester, target);
-        
-        // Add new request
+        TpaRequest replaced = inbox.add(request);
+        if (replaced != null) {
+            outgoingRequests.remove(replaced.getRequesterUuid(), replaced);
+        }
         outgoingRequests.put(requester.getUniqueId(), request);
-        incomingRequests.put(target.getUniqueId(), request);
+        expiryQueue.add(request);
         
-        return true;
+        return SendResult.SENT;
+    }
+    
+    public enum SendResult {
+        SENT,
+        ALREADY_PENDING,
+        INBOX_FULL
     }
     
     /**
-     * Accept a TPA request
+     * Accept the newest TPA request
      */
     public TpaRequest acceptRequest(Player target) {
-        TpaRequest request = incomingRequests.get(target.getUniqueId());
-        if (request == null || !request.isValid()) {
-            if (request != null) {
-                removeRequest(request.getRequester(), target);
+        Inbox inbox = incomingRequests.get(target.getUniqueId());
+        TpaRequest request;
+        // Skip requests that went stale because the requester logged out
+        while (inbox != null && (request = inbox.newest()) != null) {
+            removeRequest(request);
+            if (request.isValid()) {
+                return request;
             }
+        }
+        return null;
+    }
+    
+    /**
+     * Accept the TPA request from one requester
+     */
+    public TpaRequest acceptRequest(Player target, UUID requesterUuid) {
+        TpaRequest request = getIncomingRequest(target, requesterUuid);
+        if (request != null) {
+            removeRequest(request);
+        }
+        return request;
+    }
+    
+    /**
+     * Accept every pending request that asks to teleport to the target. Requests to
+     * bring the target somewhere else stay pending, since only one of those could be honoured.
+     */
+    public List<TpaRequest> acceptAllRequests(Player target) {
+        Inbox inbox = incomingRequests.get(target.getUniqueId());
+        if (inbox == null) {
+            return Collections.emptyList();
+        }
+        
+        List<TpaRequest> accepted = new ArrayList<>();
+        List<TpaRequest> pending = inbox.clear();
+        // Oldest first so the requests that stay keep their order
+        for (int i = pending.size() - 1; i >= 0; i--) {
+            TpaRequest request = pending.get(i);
+            if (request.getType() == TpaRequest.TpaType.TPA_HERE && request.isValid()) {
+                inbox.add(request);
+                continue;
+            }
+            outgoingRequests.remove(request.getRequesterUuid(), request);
+            if (request.isValid()) {
+                accepted.add(request);
+            }
+        }
+        return accepted;
+    }
+    
+    /**
+     * Deny the newest TPA request
+     */
+    public TpaRequest denyRequest(Player target) {
+        Inbox inbox = incomingRequests.get(target.getUniqueId());
+        TpaRequest request = inbox != null ? inbox.newest() : null;
+        if (request == null) {
             return null;
         }
         
-        removeRequest(request.getRequester(), target);
+        removeRequest(request);
         return request;
     }
     
     /**
-     * Deny a TPA request
+     * Deny the TPA request from one requester
      */
-    public TpaRequest denyRequest(Player target) {
-        TpaRequest request = incomingRequests.get(target.getUniqueId());
+    public TpaRequest denyRequest(Player target, UUID requesterUuid) {
+        Inbox inbox = incomingRequests.get(target.getUniqueId());
+        TpaRequest request = inbox != null ? inbox.get(requesterUuid) : null;
         if (request == null) {
             return null;
         }
         
-        removeRequest(request.getRequester(), target);
+        removeRequest(request);
         return request;
     }
     
     /**
-     * Get incoming request for a player
+     * Deny every pending request, newest first
+     */
+    public List<TpaRequest> denyAllRequests(Player target) {
+        Inbox inbox = incomingRequests.get(target.getUniqueId());
+        if (inbox == null) {
+            return Collections.emptyList();
+        }
+        
+        List<TpaRequest> denied = inbox.clear();
+        for (TpaRequest request : denied) {
+            outgoingRequests.remove(request.getRequesterUuid(), request);
+        }
+        return denied;
+    }
+    
+    /**
+     * Get the newest incoming request for a player
      */
     public TpaRequest getIncomingRequest(Player player) {
-        TpaRequest request = incomingRequests.get(player.getUniqueId());
+        Inbox inbox = incomingRequests.get(player.getUniqueId());
+        TpaRequest request;
+        while (inbox != null && (request = inbox.newest()) != null) {
+            if (request.isValid()) {
+                return request;
+            }
+            removeRequest(request);
+        }
+        return null;
+    }
+    
+    /**
+     * Get the incoming request for a player from one requester
+     */
+    public TpaRequest getIncomingRequest(Player player, UUID requesterUuid) {
+        Inbox inbox = incomingRequests.get(player.getUniqueId());
+        TpaRequest request = inbox != null ? inbox.get(requesterUuid) : null;
         if (request != null && !request.isValid()) {
-            removeRequest(request.getRequester(), player);
+            removeRequest(request);
             return null;
         }
         return request;
     }
     
+    /**
+     * Names of the players with a request pending to this player, newest first
+     */
+    public List<String> getRequesterNames(Player player) {
+        Inbox inbox = incomingRequests.get(player.getUniqueId());
+        return inbox != null ? inbox.requesterNames() : Collections.emptyList();
+    }
+    
     /**
      * Get outgoing request for a player
      */
     public TpaRequest getOutgoingRequest(Player player) {
         TpaRequest request = outgoingRequests.get(player.getUniqueId());
         if (request != null && !request.isValid()) {
-            removeRequest(player, request.getTarget());
+            removeRequest(request);
             return null;
         }
         return request;
@@ -117,11 +355,12 @@ public class TpaManager {
     }
     
     /**
-     * Remove a request between two players
+     * Remove a request from both players; returns false if it was no longer pending
      */
-    public void removeRequest(Player requester, Player target) {
-        outgoingRequests.remove(requester.getUniqueId());
-        incomingRequests.remove(target.getUniqueId());
+    public boolean removeRequest(TpaRequest request) {
+        Inbox inbox = incomingRequests.get(request.getTargetUuid());
+        boolean removed = inbox != null && inbox.remove(request);
+        return outgoingRequests.remove(request.getRequesterUuid(), request) || removed;
     }
     
     /**
@@ -130,27 +369,56 @@ public class TpaManager {
     public void removeAllRequests(Player player) {
         UUID uuid = player.getUniqueId();
         
-        // Remove outgoing request
-        outgoingRequests.remove(uuid);
+        TpaRequest outgoingRequest = outgoingRequests.get(uuid);
+        if (outgoingRequest != null) {
+            removeRequest(outgoingRequest);
+        }
         
-        // Remove incoming request
-        TpaRequest incomingRequest = incomingRequests.remove(uuid);
-        if (incomingRequest != null) {
-            outgoingRequests.remove(incomingRequest.getRequester().getUniqueId());
+        Inbox inbox = incomingRequests.remove(uuid);
+        if (inbox != null) {
+            for (TpaRequest incomingRequest : inbox.clear()) {
+                outgoingRequests.remove(incomingRequest.getRequesterUuid(), incomingRequest);
+            }
         }
     }
     
     /**
-     * Clean up expired requests
+     * Stop the expiry task and drop all pending requests
      */
-    public void cleanupExpiredRequests() {
-        incomingRequests.entrySet().removeIf(entry -> {
-            TpaRequest request = entry.getValue();
-            if (request.isExpired()) {
-                outgoingRequests.remove(request.getRequester().getUniqueId());
-                return true;
+    public void shutdown() {
+        if (expiryTask != null) {
+            expiryTask.cancel();
+            expiryTask = null;
+        }
+        expiryQueue.clear();
+        incomingRequests.clear();
+        outgoingRequests.clear();
+    }
+    
+    /**
+     * Time out every request whose expiry has passed and tell both players
+     */
+    private void expireRequests() {
+        TpaRequest request;
+        while ((request = expiryQueue.poll()) != null) {
+            if (!removeRequest(request)) {
+                // Already accepted, denied or replaced
+                continue;
+            }
+            
+            Player requester = request.getRequester();
+            if (requester != null) {
+                MessageUtils.sendMessage(requester, plugin.getConfigManager()
+                    .getMessage("tpa.request-expired", "{prefix}&cYour teleport request to &e{player} &chas expired!"),
+                    "{player}", request.getTargetName());
             }
-            return false;
-        });
+            
+            Player target = request.getTarget();
+            if (target != null) {
+                MessageUtils.sendMessage(target, plugin.getConfigManager()
+                    .getMessage("tpa.request-expired-target", "{prefix}&cThe teleport request from &e{player} &chas expired!"),
+                    "{player}", request.getRequesterName());
+            }
+        }
     }
 }
\ No newline at end of file
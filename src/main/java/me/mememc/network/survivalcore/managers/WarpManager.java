@@ -2,6 +2,9 @@ package me.mememc.network.survivalcore.managers;
 
 import me.mememc.network.survivalcore.SurvivalCore;
 import me.mememc.network.survivalcore.models.Warp;
+import me.mememc.network.survivalcore.utils.NameIndex;
+import me.mememc.network.survivalcore.utils.SpatialIndex;
+import org.bukkit.Bukkit;
 import org.bukkit.Location;
 import org.bukkit.entity.Player;
 
@@ -11,12 +14,18 @@ import java.util.*;
 import java.util.logging.Level;
 
 /**
- * Manages warp system functionality
+ * Manages warp system functionality.
+ *
+ * Warps are held in a NameIndex, so lookups and tab completion are binary
+ * searches rather than scans of every warp, in a SpatialIndex by position for
+ * /warp near and nearest warp queries, and by creator.
  */
 public class WarpManager {
     
     private final SurvivalCore plugin;
-    private final Map<String, Warp> warps = new HashMap<>();
+    private final NameIndex<Warp> warps = new NameIndex<>();
+    private final SpatialIndex<Warp> positions = new SpatialIndex<>();
+    private final Map<String, List<Warp>> warpsByCreator = new HashMap<>();
     
     public WarpManager(SurvivalCore plugin) {
         this.plugin = plugin;
@@ -33,66 +42,71 @@ public class WarpManager {
         }
         
         // Check if warp already exists
-        if (warps.containsKey(warpName.toLowerCase())) {
+        if (warps.containsKey(warpName)) {
             return false; // Warp already exists
         }
         
         Warp warp = new Warp(warpName, location, createdBy);
         
-        try {
-            // Save to database
-            plugin.getDatabaseManager().executeUpdate(
-                "INSERT INTO sc_warps (warp_name, world, x, y, z, yaw, pitch, created_by) VALUES (?, ?, ?, ?, ?, ?, ?, ?)",
-                warp.getName(), warp.getWorldName(), warp.getX(), warp.getY(), warp.getZ(), 
-                warp.getYaw(), warp.getPitch(), warp.getCreatedBy()
-            );
-            
-            // Update cache
-            warps.put(warpName.toLowerCase(), warp);
-            return true;
-            
-        } catch (SQLException e) {
+        // Update cache
+        warps.put(warpName, warp);
+        index(warp);
+        
+        // Save to database
+        plugin.getDatabaseManager().executeUpdateAsync(
+            "INSERT INTO sc_warps (warp_name, world, x, y, z, yaw, pitch, created_by) VALUES (?, ?, ?, ?, ?, ?, ?, ?)",
+            warp.getName(), warp.getWorldName(), warp.getX(), warp.getY(), warp.getZ(),
+            warp.getYaw(), warp.getPitch(), warp.getCreatedBy()
+        ).exceptionally(e -> {
             plugin.getLogger().log(Level.SEVERE, "Error saving warp to database", e);
-            return false;
-        }
+            Bukkit.getScheduler().runTask(plugin, () -> {
+                if (warps.remove(warpName, warp)) {
+                    unindex(warp);
+                }
+            });
+            return 0;
+        });
+        
+        return true;
     }
     
     /**
      * Delete a warp
      */
     public boolean deleteWarp(String warpName) {
-        String key = warpName.toLowerCase();
-        
-        if (!warps.containsKey(key)) {
+        // Remove from cache
+        Warp removed = warps.remove(warpName);
+        if (removed == null) {
             return false; // Warp doesn't exist
         }
+        unindex(removed);
         
-        try {
-            // Delete from database
-            plugin.getDatabaseManager().executeUpdate(
-                "DELETE FROM sc_warps WHERE warp_name = ?",
-                warpName
-            );
-            
-            // Remove from cache
-            warps.remove(key);
-            return true;
-            
-        } catch (SQLException e) {
+        // Delete from database
+        plugin.getDatabaseManager().executeUpdateAsync(
+            "DELETE FROM sc_warps WHERE warp_name = ?",
+            removed.getName()
+        ).exceptionally(e -> {
             plugin.getLogger().log(Level.SEVERE, "Error deleting warp from database", e);
-            return false;
-        }
+            Bukkit.getScheduler().runTask(plugin, () -> {
+                if (warps.putIfAbsent(removed.getName(), removed) == null) {
+                    index(removed);
+                }
+            });
+            return 0;
+        });
+        
+        return true;
     }
     
     /**
      * Get a specific warp
      */
     public Warp getWarp(String warpName) {
-        return warps.get(warpName.toLowerCase());
+        return warps.get(warpName);
     }
     
     /**
-     * Get all warps
+     * Get all warps, in name order
      */
     public Collection<Warp> getAllWarps() {
         return warps.values();
@@ -102,14 +116,53 @@ public class WarpManager {
      * Get all warp names
      */
     public Set<String> getWarpNames() {
-        return new HashSet<>(warps.keySet());
+        Set<String> names = new LinkedHashSet<>();
+        for (Warp warp : warps.values()) {
+            names.add(warp.getName());
+        }
+        return names;
+    }
+    
+    /**
+     * Up to limit warp names starting with a prefix, for tab completion
+     */
+    public List<String> completeWarpNames(String prefix, int limit) {
+        return warps.complete(prefix, limit);
+    }
+    
+    /**
+     * Up to limit warps within a radius of a location, nearest first
+     */
+    public List<Warp> getWarpsNear(Location location, double radius, int limit) {
+        return positions.nearest(location.getWorld().getName(), location.getX(), location.getZ(), radius, limit);
+    }
+    
+    /**
+     * The warp nearest to a location, or null if none is within maxRadius
+     */
+    public Warp getNearestWarp(Location location, double maxRadius) {
+        List<Warp> nearest = getWarpsNear(location, maxRadius, 1);
+        return nearest.isEmpty() ? null : nearest.get(0);
+    }
+    
+    private void index(Warp warp) {
+        positions.add(warp.getWorldName(), warp.getX(), warp.getZ(), warp);
+        warpsByCreator.computeIfAbsent(warp.getCreatedBy(), k -> new ArrayList<>(1)).add(warp);
+    }
+    
+    private void unindex(Warp warp) {
+        positions.remove(warp.getWorldName(), warp.getX(), warp.getZ(), warp);
+        List<Warp> created = warpsByCreator.get(warp.getCreatedBy());
+        if (created != null && created.remove(warp) && created.isEmpty()) {
+            warpsByCreator.remove(warp.getCreatedBy());
+        }
     }
     
     /**
      * Check if a warp exists
      */
     public boolean warpExists(String warpName) {
-        return warps.containsKey(warpName.toLowerCase());
+        return warps.containsKey(warpName);
     }
     
     /**
@@ -138,12 +191,13 @@ public class WarpManager {
                 long createdAt = rs.getTimestamp("created_at").getTime();
                 
                 Warp warp = new Warp(warpName, worldName, x, y, z, yaw, pitch, createdBy, createdAt);
-                warps.put(warpName.toLowerCase(), warp);
+                warps.put(warpName, warp);
+                index(warp);
             }
             
             rs.close();
             plugin.getLogger().info("Loaded " + warps.size() + " warps from database");
-            
+        
         } catch (SQLException e) {
             plugin.getLogger().log(Level.SEVERE, "Error loading warps from database", e);
         }
@@ -177,11 +231,11 @@ public class WarpManager {
         
         for (Warp warp : warps.values()) {
             if (warp.isValidLocation()) {
-                String format = String.format("%s in %s at %d, %d, %d", 
-                              warp.getName(), 
+                String format = String.format("%s in %s at %d, %d, %d",
+                              warp.getName(),
                               warp.getWorldName(),
                               (int) warp.getX(),
-                              (int) warp.getY(), 
+                              (int) warp.getY(),
                               (int) warp.getZ());
                 formatted.add(format);
             }
@@ -194,14 +248,7 @@ public class WarpManager {
      * Get warps created by a specific player
      */
     public List<Warp> getWarpsByCreator(String playerUuid) {
-        List<Warp> playerWarps = new ArrayList<>();
-        
-        for (Warp warp : warps.values()) {
-            if (warp.getCreatedBy().equals(playerUuid)) {
-                playerWarps.add(warp);
-            }
-        }
-        
-        return playerWarps;
+        List<Warp> created = warpsByCreator.get(playerUuid);
+        return created != null ? new ArrayList<>(created) : new ArrayList<>();
     }
 }
\ No newline at end of file
@@ -17,9 +17,10 @@ public class Kit {
     private final double cost;
     private final String permission;
     private final boolean oneTime;
+    private final int cooldownFeature;
     
     public Kit(String name, String displayName, String description, List<ItemStack> items, 
-               int cooldown, double cost, String permission, boolean oneTime) {
+               int cooldown, double cost, String permission, boolean oneTime, int cooldownFeature) {
         this.name = name;
         this.displayName = displayName;
         this.description = description;
@@ -28,6 +29,7 @@ public class Kit {
         this.cost = cost;
         this.permission = permission;
         this.oneTime = oneTime;
+        this.cooldownFeature = cooldownFeature;
     }
     
     public String getName() {
@@ -61,4 +63,11 @@ public class Kit {
     public boolean isOneTime() {
         return oneTime;
     }
+    
+    /**
+     * CooldownManager feature ID for this kit's cooldown
+     */
+    public int getCooldownFeature() {
+        return cooldownFeature;
+    }
 }
\ No newline at end of file
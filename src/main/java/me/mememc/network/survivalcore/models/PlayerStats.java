@@ -1,96 +1,238 @@
 package me.mememc.network.survivalcore.models;
 
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
 import java.util.UUID;
 
 /**
- * Represents player statistics data
+ * Represents player statistics data.
+ *
+ * All values live in one long[] updated through VarHandles, so increments from
+ * event handlers are never lost and readers on other threads never see torn values.
  */
 public class PlayerStats {
     
+    // Field ids for dirty tracking; counters first, then the non-additive fields
+    public static final int TIME_PLAYED = 0;
+    public static final int BLOCKS_PLACED = 1;
+    public static final int BLOCKS_BROKEN = 2;
+    public static final int MOBS_KILLED = 3;
+    public static final int DEATHS = 4;
+    public static final int PLAYERS_KILLED = 5;
+    public static final int ITEMS_CRAFTED = 6;
+    public static final int FISH_CAUGHT = 7;
+    public static final int DISTANCE_TRAVELED = 8;
+    public static final int LAST_SEEN = 9;
+    public static final int COUNTER_FIELDS = 8;
+    private static final int FIELD_COUNT = 10;
+    
+    private static final VarHandle VALUES = MethodHandles.arrayElementVarHandle(long[].class);
+    private static final VarHandle DIRTY_MASK;
+    
+    static {
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            DIRTY_MASK = lookup.findVarHandle(PlayerStats.class, "dirtyMask", int.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+    
     private final UUID playerUuid;
     private final String playerName;
-    private long timePlayed;
-    private int blocksPlaced;
-    private int blocksBroken;
-    private int mobsKilled;
-    private int deaths;
-    private int playersKilled;
-    private double distanceTraveled;
-    private int itemsCrafted;
-    private int fishCaught;
-    private long joinDate;
-    private long lastSeen;
+    private final long joinDate;
+    
+    // Counters, distance (as double bits) and last seen, indexed by field id
+    private final long[] values = new long[FIELD_COUNT];
+    private volatile int dirtyMask;
+    
+    // Values as of the last save, used to compute deltas (guarded by this)
+    private final long[] savedCounts = new long[COUNTER_FIELDS];
+    private double savedDistance;
+    private volatile boolean stored;
     
     public PlayerStats(UUID playerUuid, String playerName) {
         this.playerUuid = playerUuid;
         this.playerName = playerName;
         this.joinDate = System.currentTimeMillis();
-        this.lastSeen = System.currentTimeMillis();
+        this.values[LAST_SEEN] = System.currentTimeMillis();
+        this.values[DISTANCE_TRAVELED] = Double.doubleToRawLongBits(0.0);
+        this.dirtyMask = 1 << LAST_SEEN;
     }
     
-    public PlayerStats(UUID playerUuid, String playerName, long timePlayed, int blocksPlaced, 
-                      int blocksBroken, int mobsKilled, int deaths, int playersKilled, 
-                      double distanceTraveled, int itemsCrafted, int fishCaught, 
+    public PlayerStats(UUID playerUuid, String playerName, long timePlayed, int blocksPlaced,
+                      int blocksBroken, int mobsKilled, int deaths, int playersKilled,
+                      double distanceTraveled, int itemsCrafted, int fishCaught,
                       long joinDate, long lastSeen) {
         this.playerUuid = playerUuid;
         this.playerName = playerName;
-        this.timePlayed = timePlayed;
-        this.blocksPlaced = blocksPlaced;
-        this.blocksBroken = blocksBroken;
-        this.mobsKilled = mobsKilled;
-        this.deaths = deaths;
-        this.playersKilled = playersKilled;
-        this.distanceTraveled = distanceTraveled;
-        this.itemsCrafted = itemsCrafted;
-        this.fishCaught = fishCaught;
         this.joinDate = joinDate;
-        this.lastSeen = lastSeen;
+        this.values[TIME_PLAYED] = timePlayed;
+        this.values[BLOCKS_PLACED] = blocksPlaced;
+        this.values[BLOCKS_BROKEN] = blocksBroken;
+        this.values[MOBS_KILLED] = mobsKilled;
+        this.values[DEATHS] = deaths;
+        this.values[PLAYERS_KILLED] = playersKilled;
+        this.values[ITEMS_CRAFTED] = itemsCrafted;
+        this.values[FISH_CAUGHT] = fishCaught;
+        this.values[DISTANCE_TRAVELED] = Double.doubleToRawLongBits(distanceTraveled);
+        this.values[LAST_SEEN] = lastSeen;
+        this.stored = true;
+        System.arraycopy(values, 0, savedCounts, 0, COUNTER_FIELDS);
+        this.savedDistance = distanceTraveled;
     }
     
     // Getters
     public UUID getPlayerUuid() { return playerUuid; }
     public String getPlayerName() { return playerName; }
-    public long getTimePlayed() { return timePlayed; }
-    public int getBlocksPlaced() { return blocksPlaced; }
-    public int getBlocksBroken() { return blocksBroken; }
-    public int getMobsKilled() { return mobsKilled; }
-    public int getDeaths() { return deaths; }
-    public int getPlayersKilled() { return playersKilled; }
-    public double getDistanceTraveled() { return distanceTraveled; }
-    public int getItemsCrafted() { return itemsCrafted; }
-    public int getFishCaught() { return fishCaught; }
+    public long getTimePlayed() { return get(TIME_PLAYED); }
+    public int getBlocksPlaced() { return (int) get(BLOCKS_PLACED); }
+    public int getBlocksBroken() { return (int) get(BLOCKS_BROKEN); }
+    public int getMobsKilled() { return (int) get(MOBS_KILLED); }
+    public int getDeaths() { return (int) get(DEATHS); }
+    public int getPlayersKilled() { return (int) get(PLAYERS_KILLED); }
+    public double getDistanceTraveled() { return Double.longBitsToDouble(get(DISTANCE_TRAVELED)); }
+    public int getItemsCrafted() { return (int) get(ITEMS_CRAFTED); }
+    public int getFishCaught() { return (int) get(FISH_CAUGHT); }
     public long getJoinDate() { return joinDate; }
-    public long getLastSeen() { return lastSeen; }
+    public long getLastSeen() { return get(LAST_SEEN); }
     
     // Setters
-    public void setTimePlayed(long timePlayed) { this.timePlayed = timePlayed; }
-    public void setBlocksPlaced(int blocksPlaced) { this.blocksPlaced = blocksPlaced; }
-    public void setBlocksBroken(int blocksBroken) { this.blocksBroken = blocksBroken; }
-    public void setMobsKilled(int mobsKilled) { this.mobsKilled = mobsKilled; }
-    public void setDeaths(int deaths) { this.deaths = deaths; }
-    public void setPlayersKilled(int playersKilled) { this.playersKilled = playersKilled; }
-    public void setDistanceTraveled(double distanceTraveled) { this.distanceTraveled = distanceTraveled; }
-    public void setItemsCrafted(int itemsCrafted) { this.itemsCrafted = itemsCrafted; }
-    public void setFishCaught(int fishCaught) { this.fishCaught = fishCaught; }
-    public void setLastSeen(long lastSeen) { this.lastSeen = lastSeen; }
+    public void setTimePlayed(long timePlayed) { set(TIME_PLAYED, timePlayed); }
+    public void setBlocksPlaced(int blocksPlaced) { set(BLOCKS_PLACED, blocksPlaced); }
+    public void setBlocksBroken(int blocksBroken) { set(BLOCKS_BROKEN, blocksBroken); }
+    public void setMobsKilled(int mobsKilled) { set(MOBS_KILLED, mobsKilled); }
+    public void setDeaths(int deaths) { set(DEATHS, deaths); }
+    public void setPlayersKilled(int playersKilled) { set(PLAYERS_KILLED, playersKilled); }
+    public void setDistanceTraveled(double distanceTraveled) { set(DISTANCE_TRAVELED, Double.doubleToRawLongBits(distanceTraveled)); }
+    public void setItemsCrafted(int itemsCrafted) { set(ITEMS_CRAFTED, itemsCrafted); }
+    public void setFishCaught(int fishCaught) { set(FISH_CAUGHT, fishCaught); }
+    public void setLastSeen(long lastSeen) { set(LAST_SEEN, lastSeen); }
     
     // Increment methods
-    public void addTimePlayed(long time) { this.timePlayed += time; }
-    public void incrementBlocksPlaced() { this.blocksPlaced++; }
-    public void incrementBlocksBroken() { this.blocksBroken++; }
-    public void incrementMobsKilled() { this.mobsKilled++; }
-    public void incrementDeaths() { this.deaths++; }
-    public void incrementPlayersKilled() { this.playersKilled++; }
-    public void addDistanceTraveled(double distance) { this.distanceTraveled += distance; }
-    public void incrementItemsCrafted() { this.itemsCrafted++; }
-    public void incrementFishCaught() { this.fishCaught++; }
+    public void addTimePlayed(long time) { add(TIME_PLAYED, time); }
+    public void incrementBlocksPlaced() { add(BLOCKS_PLACED, 1); }
+    public void incrementBlocksBroken() { add(BLOCKS_BROKEN, 1); }
+    public void incrementMobsKilled() { add(MOBS_KILLED, 1); }
+    public void incrementDeaths() { add(DEATHS, 1); }
+    public void incrementPlayersKilled() { add(PLAYERS_KILLED, 1); }
+    public void incrementItemsCrafted() { add(ITEMS_CRAFTED, 1); }
+    public void incrementFishCaught() { add(FISH_CAUGHT, 1); }
+    
+    public void addDistanceTraveled(double distance) {
+        // No atomic add for doubles, so CAS on the raw bits
+        long current;
+        long updated;
+        do {
+            current = (long) VALUES.getVolatile(values, DISTANCE_TRAVELED);
+            updated = Double.doubleToRawLongBits(Double.longBitsToDouble(current) + distance);
+        } while (!VALUES.weakCompareAndSet(values, DISTANCE_TRAVELED, current, updated));
+        markDirty(DISTANCE_TRAVELED);
+    }
+    
+    private long get(int field) {
+        return (long) VALUES.getVolatile(values, field);
+    }
+    
+    private void set(int field, long value) {
+        VALUES.setVolatile(values, field, value);
+        markDirty(field);
+    }
+    
+    private void add(int field, long amount) {
+        VALUES.getAndAdd(values, field, amount);
+        markDirty(field);
+    }
+    
+    private void markDirty(int field) {
+        int bit = 1 << field;
+        // Plain read first so the common already-dirty case does not write shared memory
+        if ((dirtyMask & bit) == 0) {
+            DIRTY_MASK.getAndBitwiseOr(this, bit);
+        }
+    }
+    
+    public boolean isDirty() {
+        return dirtyMask != 0 || !stored;
+    }
+    
+    /**
+     * Get a counter field by id
+     */
+    public long getCount(int field) {
+        if (field < 0 || field >= COUNTER_FIELDS) {
+            throw new IllegalArgumentException("Not a counter field: " + field);
+        }
+        return get(field);
+    }
+    
+    /**
+     * Copy all values at once, indexed by field id. The distance slot holds raw double bits.
+     */
+    public long[] snapshot() {
+        long[] copy = new long[FIELD_COUNT];
+        for (int field = 0; field < FIELD_COUNT; field++) {
+            copy[field] = get(field);
+        }
+        return copy;
+    }
+    
+    /**
+     * Take the changes made since the last save and clear the dirty flags.
+     * Returns null when nothing changed.
+     */
+    public synchronized Delta takeDelta() {
+        if (!isDirty()) {
+            return null;
+        }
+        
+        // Clear the mask before reading: an increment racing with us sets its bit again
+        // and is either included here or picked up by the next delta, never lost
+        int mask = (int) DIRTY_MASK.getAndSet(this, 0);
+        long[] snapshot = snapshot();
+        
+        long[] counts = new long[COUNTER_FIELDS];
+        for (int field = 0; field < COUNTER_FIELDS; field++) {
+            if ((mask & (1 << field)) != 0) {
+                counts[field] = snapshot[field] - savedCounts[field];
+                savedCounts[field] = snapshot[field];
+            }
+        }
+        
+        double distance = 0.0;
+        if ((mask & (1 << DISTANCE_TRAVELED)) != 0) {
+            double current = Double.longBitsToDouble(snapshot[DISTANCE_TRAVELED]);
+            distance = current - savedDistance;
+            savedDistance = current;
+        }
+        
+        Delta delta = new Delta(this, !stored, mask, counts, distance, snapshot[LAST_SEEN]);
+        stored = true;
+        return delta;
+    }
+    
+    /**
+     * Put back a delta that failed to save so it is included in the next one
+     */
+    public synchronized void restoreDelta(Delta delta) {
+        for (int field = 0; field < COUNTER_FIELDS; field++) {
+            savedCounts[field] -= delta.counts[field];
+        }
+        savedDistance -= delta.distance;
+        DIRTY_MASK.getAndBitwiseOr(this, delta.mask | (1 << LAST_SEEN));
+        if (delta.newRow) {
+            stored = false;
+        }
+    }
     
     public double getKDRatio() {
+        int deaths = getDeaths();
+        int playersKilled = getPlayersKilled();
         return deaths == 0 ? playersKilled : (double) playersKilled / deaths;
     }
     
     public String formatTimePlayed() {
-        long seconds = timePlayed / 1000;
+        long seconds = getTimePlayed() / 1000;
         long hours = seconds / 3600;
         long minutes = (seconds % 3600) / 60;
         long secs = seconds % 60;
@@ -103,4 +245,39 @@ public class PlayerStats {
             return String.format("%ds", secs);
         }
     }
+    
+    /**
+     * Stat changes since the last save; counters are relative, name and last seen are absolute
+     */
+    public static final class Delta {
+        private final UUID playerUuid;
+        private final String playerName;
+        private final boolean newRow;
+        private final int mask;
+        private final long[] counts;
+        private final double distance;
+        private final long joinDate;
+        private final long lastSeen;
+        
+        private Delta(PlayerStats stats, boolean newRow, int mask, long[] counts, double distance, long lastSeen) {
+            this.playerUuid = stats.playerUuid;
+            this.playerName = stats.playerName;
+            this.newRow = newRow;
+            this.mask = mask & ~(1 << LAST_SEEN);
+            this.counts = counts;
+            this.distance = distance;
+            this.joinDate = stats.joinDate;
+            this.lastSeen = lastSeen;
+        }
+        
+        public UUID getPlayerUuid() { return playerUuid; }
+        public String getPlayerName() { return playerName; }
+        public boolean isNewRow() { return newRow; }
+        public int getMask() { return mask; }
+        public boolean isChanged(int field) { return (mask & (1 << field)) != 0; }
+        public long getCount(int field) { return counts[field]; }
+        public double getDistance() { return distance; }
+        public long getJoinDate() { return joinDate; }
+        public long getLastSeen() { return lastSeen; }
+    }
 }
\ No newline at end of file
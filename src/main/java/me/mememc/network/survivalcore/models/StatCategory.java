@@ -0,0 +1,57 @@
+package me.mememc.network.survivalcore.models;
+
+/**
+ * Leaderboard categories and the stat each one ranks by
+ */
+public enum StatCategory {
+    
+    PLAYTIME("playtime", "time_played", "Time Played", PlayerStats.TIME_PLAYED),
+    BLOCKS("blocks", "blocks_placed", "Blocks Placed", PlayerStats.BLOCKS_PLACED),
+    BROKEN("broken", "blocks_broken", "Blocks Broken", PlayerStats.BLOCKS_BROKEN),
+    KILLS("kills", "mobs_killed", "Mobs Killed", PlayerStats.MOBS_KILLED),
+    PVP("pvp", "players_killed", "Players Killed", PlayerStats.PLAYERS_KILLED),
+    DEATHS("deaths", "deaths", "Deaths", PlayerStats.DEATHS),
+    TRAVEL("travel", "distance_traveled", "Distance Traveled", PlayerStats.DISTANCE_TRAVELED),
+    CRAFTED("crafted", "items_crafted", "Items Crafted", PlayerStats.ITEMS_CRAFTED),
+    FISH("fish", "fish_caught", "Fish Caught", PlayerStats.FISH_CAUGHT);
+    
+    private static final StatCategory[] VALUES = values();
+    
+    private final String name;
+    private final String column;
+    private final String displayName;
+    private final int field;
+    
+    StatCategory(String name, String column, String displayName, int field) {
+        this.name = name;
+        this.column = column;
+        this.displayName = displayName;
+        this.field = field;
+    }
+    
+    public String getName() { return name; }
+    public String getColumn() { return column; }
+    public String getDisplayName() { return displayName; }
+    
+    /**
+     * The value this category ranks by; distance is truncated to whole blocks
+     */
+    public long getValue(PlayerStats stats) {
+        if (field == PlayerStats.DISTANCE_TRAVELED) {
+            return (long) stats.getDistanceTraveled();
+        }
+        return stats.getCount(field);
+    }
+    
+    /**
+     * Look up a category by its command name, or null if there is none
+     */
+    public static StatCategory fromName(String name) {
+        for (StatCategory category : VALUES) {
+            if (category.name.equalsIgnoreCase(name)) {
+                return category;
+            }
+        }
+        return null;
+    }
+}
\ No newline at end of file
@@ -1,14 +1,25 @@
 package me.mememc.network.survivalcore.models;
 
+import org.bukkit.Bukkit;
 import org.bukkit.entity.Player;
 
+import java.util.UUID;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.TimeUnit;
+
 /**
- * Represents a teleport request between players
+ * Represents a teleport request between players.
+ *
+ * Only the players' UUIDs and names are kept, so a pending request never holds
+ * on to a Player after they log out. The request is Delayed until it expires so
+ * it can sit in the TpaManager's expiry queue.
  */
-public class TpaRequest {
+public class TpaRequest implements Delayed {
     
-    private final Player requester;
-    private final Player target;
+    private final UUID requesterUuid;
+    private final String requesterName;
+    private final UUID targetUuid;
+    private final String targetName;
     private final TpaType type;
     private final long createdAt;
     private final long expiresAt;
@@ -19,19 +30,43 @@ public class TpaRequest {
     }
     
     public TpaRequest(Player requester, Player target, TpaType type, int timeoutSeconds) {
-        this.requester = requester;
-        this.target = target;
+        this.requesterUuid = requester.getUniqueId();
+        this.requesterName = requester.getName();
+        this.targetUuid = target.getUniqueId();
+        this.targetName = target.getName();
         this.type = type;
         this.createdAt = System.currentTimeMillis();
         this.expiresAt = createdAt + (timeoutSeconds * 1000L);
     }
     
+    /**
+     * The requester if they are online, otherwise null
+     */
     public Player getRequester() {
-        return requester;
+        return Bukkit.getPlayer(requesterUuid);
     }
     
+    /**
+     * The target if they are online, otherwise null
+     */
     public Player getTarget() {
-        return target;
+        return Bukkit.getPlayer(targetUuid);
+    }
+    
+    public UUID getRequesterUuid() {
+        return requesterUuid;
+    }
+    
+    public String getRequesterName() {
+        return requesterName;
+    }
+    
+    public UUID getTargetUuid() {
+        return targetUuid;
+    }
+    
+    public String getTargetName() {
+        return targetName;
     }
     
     public TpaType getType() {
@@ -56,14 +91,27 @@ public class TpaRequest {
     }
     
     public boolean isValid() {
-        return !isExpired() && 
-               requester.isOnline() && 
-               target.isOnline();
+        return !isExpired() &&
+               getRequester() != null &&
+               getTarget() != null;
+    }
+    
+    @Override
+    public long getDelay(TimeUnit unit) {
+        return unit.convert(expiresAt - System.currentTimeMillis(), TimeUnit.MILLISECONDS);
+    }
+    
+    @Override
+    public int compareTo(Delayed other) {
+        if (other instanceof TpaRequest) {
+            return Long.compare(expiresAt, ((TpaRequest) other).expiresAt);
+        }
+        return Long.compare(getDelay(TimeUnit.MILLISECONDS), other.getDelay(TimeUnit.MILLISECONDS));
     }
     
     @Override
     public String toString() {
-        return String.format("TpaRequest{requester='%s', target='%s', type=%s, remaining=%ds}", 
-                           requester.getName(), target.getName(), type, getRemainingTime());
+        return String.format("TpaRequest{requester='%s', target='%s', type=%s, remaining=%ds}",
+                           requesterName, targetName, type, getRemainingTime());
     }
 }
\ No newline at end of file
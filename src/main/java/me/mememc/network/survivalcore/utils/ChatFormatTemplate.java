@@ -0,0 +1,98 @@
+package me.mememc.network.survivalcore.utils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A chat format from the config, colorized and split at its placeholders once.
+ *
+ * Rendering produces a format string for AsyncPlayerChatEvent#setFormat: {player}
+ * becomes %1$s (the display name) and {message} becomes %2$s, while {name} and
+ * {world} are filled in directly. Literal '%' characters are escaped so they can
+ * not break String.format.
+ */
+public final class ChatFormatTemplate {
+    
+    private enum Placeholder { PLAYER, NAME, WORLD, MESSAGE }
+    
+    // literals[i] comes before placeholders[i]; the last literal ends the format
+    private final String[] literals;
+    private final Placeholder[] placeholders;
+    private final int literalLength;
+    
+    private ChatFormatTemplate(String[] literals, Placeholder[] placeholders) {
+        this.literals = literals;
+        this.placeholders = placeholders;
+        int length = 0;
+        for (String literal : literals) {
+            length += literal.length();
+        }
+        this.literalLength = length;
+    }
+    
+    /**
+     * Parse and colorize a format such as "&7{player}&f: {message}"
+     */
+    public static ChatFormatTemplate compile(String format) {
+        String colored = MessageUtils.colorize(format).replace("%", "%%");
+        List<String> literals = new ArrayList<>();
+        List<Placeholder> placeholders = new ArrayList<>();
+        
+        int literalStart = 0;
+        int open = colored.indexOf('{');
+        while (open >= 0) {
+            int close = colored.indexOf('}', open);
+            if (close < 0) {
+                break;
+            }
+            Placeholder placeholder = parse(colored.substring(open + 1, close));
+            if (placeholder == null) {
+                open = colored.indexOf('{', open + 1);
+                continue;
+            }
+            literals.add(colored.substring(literalStart, open));
+            placeholders.add(placeholder);
+            literalStart = close + 1;
+            open = colored.indexOf('{', literalStart);
+        }
+        literals.add(colored.substring(literalStart));
+        
+        return new ChatFormatTemplate(literals.toArray(new String[0]), placeholders.toArray(new Placeholder[0]));
+    }
+    
+    /**
+     * Fill in the player specific parts, leaving the display name and message to Bukkit
+     */
+    public String render(String name, String world) {
+        StringBuilder format = new StringBuilder(literalLength + 32);
+        for (int i = 0; i < placeholders.length; i++) {
+            format.append(literals[i]);
+            switch (placeholders[i]) {
+                case PLAYER:
+                    format.append("%1$s");
+                    break;
+                case MESSAGE:
+                    format.append("%2$s");
+                    break;
+                case NAME:
+                    format.append(name.replace("%", "%%"));
+                    break;
+                case WORLD:
+                    format.append(world.replace("%", "%%"));
+                    break;
+            }
+        }
+        format.append(literals[literals.length - 1]);
+        return format.toString();
+    }
+    
+    private static Placeholder parse(String key) {
+        switch (key) {
+            case "player": return Placeholder.PLAYER;
+            case "name": return Placeholder.NAME;
+            case "world": return Placeholder.WORLD;
+            case "message": return Placeholder.MESSAGE;
+            default: return null;
+        }
+    }
+}
\ No newline at end of file
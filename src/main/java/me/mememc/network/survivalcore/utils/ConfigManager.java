@@ -17,6 +17,8 @@ public class ConfigManager {
     private FileConfiguration config;
     private FileConfiguration shopConfig;
     private FileConfiguration messagesConfig;
+    private volatile ConfigSnapshot snapshot;
+    private volatile MessageTemplates messages;
     
     private File shopConfigFile;
     private File messagesConfigFile;
@@ -43,6 +45,9 @@ public class ConfigManager {
             plugin.saveResource("messages.yml", false);
         }
         messagesConfig = YamlConfiguration.loadConfiguration(messagesConfigFile);
+        
+        this.snapshot = new ConfigSnapshot(config);
+        this.messages = new MessageTemplates(messagesConfig);
     }
     
     public void reloadConfigs() {
@@ -50,6 +55,15 @@ public class ConfigManager {
         this.config = plugin.getConfig();
         this.shopConfig = YamlConfiguration.loadConfiguration(shopConfigFile);
         this.messagesConfig = YamlConfiguration.loadConfiguration(messagesConfigFile);
+        this.snapshot = new ConfigSnapshot(config);
+        this.messages = new MessageTemplates(messagesConfig);
+    }
+    
+    /**
+     * Publish a new snapshot after settings were changed in memory
+     */
+    public void refreshSnapshot() {
+        this.snapshot = new ConfigSnapshot(config);
     }
     
     public void saveShopConfig() {
@@ -66,6 +80,7 @@ public class ConfigManager {
         } catch (IOException e) {
             plugin.getLogger().log(Level.SEVERE, "Could not save messages.yml", e);
         }
+        this.messages = new MessageTemplates(messagesConfig);
     }
     
     // Getters
@@ -81,77 +96,99 @@ public class ConfigManager {
         return messagesConfig;
     }
     
+    /**
+     * Current typed settings; read this instead of getConfig() on hot paths
+     */
+    public ConfigSnapshot getSnapshot() {
+        return snapshot;
+    }
+    
+    /**
+     * Compiled message from messages.yml, with {prefix} and color codes already applied
+     */
+    public MessageTemplate getMessage(String path, String defaultMessage) {
+        return messages.get(path, defaultMessage);
+    }
+    
     // Configuration value getters with defaults
     public boolean isRtpEnabled() {
-        return config.getBoolean("rtp.enabled", true);
+        return snapshot.isRtpEnabled();
     }
     
     public int getRtpCooldown() {
-        return config.getInt("rtp.cooldown", 300);
+        return snapshot.getRtpCooldown();
     }
     
     public int getRtpMaxDistance() {
-        return config.getInt("rtp.max-distance", 10000);
+        return snapshot.getRtpMaxDistance();
     }
     
     public int getRtpMinDistance() {
-        return config.getInt("rtp.min-distance", 100);
+        return snapshot.getRtpMinDistance();
     }
     
     public boolean isTpaEnabled() {
-        return config.getBoolean("tpa.enabled", true);
+        return snapshot.isTpaEnabled();
     }
     
     public int getTpaCooldown() {
-        return config.getInt("tpa.cooldown", 10);
+        return snapshot.getTpaCooldown();
     }
     
     public int getTpaTimeout() {
-        return config.getInt("tpa.timeout", 60);
+        return snapshot.getTpaTimeout();
     }
     
     public boolean isHomeEnabled() {
-        return config.getBoolean("homes.enabled", true);
+        return snapshot.isHomeEnabled();
     }
     
     public int getMaxHomes() {
-        return config.getInt("homes.max-homes", 3);
+        return snapshot.getMaxHomes();
     }
     
     public int getHomeCooldown() {
-        return config.getInt("homes.cooldown", 10);
+        return snapshot.getHomeCooldown();
     }
     
     public boolean isWarpEnabled() {
-        return config.getBoolean("warps.enabled", true);
+        return snapshot.isWarpEnabled();
     }
     
     public int getWarpCooldown() {
-        return config.getInt("warps.cooldown", 10);
+        return snapshot.getWarpCooldown();
     }
     
     public boolean isPlayerWarpEnabled() {
-        return config.getBoolean("player-warps.enabled", true);
+        return snapshot.isPlayerWarpEnabled();
     }
     
     public int getMaxPlayerWarps() {
-        return config.getInt("player-warps.max-warps", 2);
+        return snapshot.getMaxPlayerWarps();
     }
     
     public int getPlayerWarpCooldown() {
-        return config.getInt("player-warps.cooldown", 10);
+        return snapshot.getPlayerWarpCooldown();
     }
     
     public boolean isShopEnabled() {
-        return config.getBoolean("shop.enabled", true);
+        return snapshot.isShopEnabled();
     }
     
     public boolean isKitEnabled() {
-        return config.getBoolean("kits.enabled", true);
+        return snapshot.isKitEnabled();
     }
     
     public boolean isStatsEnabled() {
-        return config.getBoolean("stats.enabled", true);
+        return snapshot.isStatsEnabled();
+    }
+    
+    public int getStatsSaveInterval() {
+        return snapshot.getStatsSaveInterval();
+    }
+    
+    public int getStatsFlushBatchSize() {
+        return snapshot.getStatsFlushBatchSize();
     }
     
     public String getDatabaseType() {
@@ -177,4 +214,36 @@ public class ConfigManager {
     public String getDatabasePassword() {
         return config.getString("database.mysql.password", "");
     }
+    
+    public int getDatabasePoolSize() {
+        return config.getInt("database.pool.maximum-pool-size", 10);
+    }
+    
+    public int getDatabaseSqliteReaders() {
+        return config.getInt("database.pool.sqlite-readers", 4);
+    }
+    
+    public long getDatabaseBorrowTimeout() {
+        return config.getLong("database.pool.borrow-timeout", 5000L);
+    }
+    
+    public long getDatabaseLeakDetectionThreshold() {
+        return config.getLong("database.pool.leak-detection-threshold", 10000L);
+    }
+    
+    public long getDatabaseValidationInterval() {
+        return config.getLong("database.pool.validation-interval", 30000L);
+    }
+    
+    public int getDatabaseReaderThreads() {
+        return config.getInt("database.executor.reader-threads", 2);
+    }
+    
+    public int getDatabaseQueueSize() {
+        return config.getInt("database.executor.queue-size", 1000);
+    }
+    
+    public boolean isDatabaseMainThreadWarningEnabled() {
+        return config.getBoolean("database.executor.warn-main-thread-access", false);
+    }
 }
\ No newline at end of file
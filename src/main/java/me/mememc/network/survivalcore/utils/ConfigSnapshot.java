@@ -0,0 +1,224 @@
+package me.mememc.network.survivalcore.utils;
+
+import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.configuration.file.FileConfiguration;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Typed, immutable copy of the config.yml settings read on hot paths.
+ *
+ * Built once per load or reload and published by ConfigManager as a whole, so
+ * event handlers and commands read final fields instead of walking the
+ * configuration tree, and never see a half-reloaded mix of old and new values.
+ */
+public final class ConfigSnapshot {
+    
+    // RTP
+    private final boolean rtpEnabled;
+    private final int rtpCooldown;
+    private final int rtpMaxDistance;
+    private final int rtpMinDistance;
+    private final Set<String> rtpAllowedWorlds;
+    
+    // TPA
+    private final boolean tpaEnabled;
+    private final int tpaCooldown;
+    private final int tpaTimeout;
+    private final int tpaTeleportDelay;
+    private final boolean tpaCancelOnMove;
+    private final int tpaMaxPendingRequests;
+    
+    // Homes
+    private final boolean homeEnabled;
+    private final int maxHomes;
+    private final int homeCooldown;
+    private final int homeTeleportDelay;
+    private final boolean homeCancelOnMove;
+    private final double homeTeleportCost;
+    private final String[] homeLimitPermissions;
+    private final int[] homeLimits;
+    
+    // Warps
+    private final boolean warpEnabled;
+    private final int warpCooldown;
+    private final int warpTeleportDelay;
+    private final boolean warpCancelOnMove;
+    private final double warpTeleportCost;
+    private final int warpNearRadius;
+    private final int warpMaxNearRadius;
+    
+    // Player warps
+    private final boolean playerWarpEnabled;
+    private final int maxPlayerWarps;
+    private final int playerWarpCooldown;
+    private final int playerWarpTeleportDelay;
+    private final boolean playerWarpCancelOnMove;
+    private final double playerWarpTeleportCost;
+    private final int playerWarpNearRadius;
+    private final int playerWarpMaxNearRadius;
+    private final int playerWarpRegionCapRadius;
+    private final int playerWarpRegionCapMax;
+    private final String[] playerWarpLimitPermissions;
+    private final int[] playerWarpLimits;
+    
+    // Shop, kits and stats
+    private final boolean shopEnabled;
+    private final boolean kitEnabled;
+    private final boolean statsEnabled;
+    private final int statsSaveInterval;
+    private final int statsFlushBatchSize;
+    
+    // Chat
+    private final boolean chatEnabled;
+    private final boolean chatFilterEnabled;
+    private final boolean chatFilterBlockMessage;
+    private final String chatFilterReplacement;
+    private final boolean chatBlockUrls;
+    private final boolean chatCapsFilter;
+    private final int chatMaxCapsPercent;
+    private final boolean chatFormatEnabled;
+    
+    public ConfigSnapshot(FileConfiguration config) {
+        this.rtpEnabled = config.getBoolean("rtp.enabled", true);
+        this.rtpCooldown = config.getInt("rtp.cooldown", 300);
+        this.rtpMaxDistance = config.getInt("rtp.max-distance", 10000);
+        this.rtpMinDistance = config.getInt("rtp.min-distance", 100);
+        this.rtpAllowedWorlds = Collections.unmodifiableSet(new HashSet<>(config.getStringList("rtp.allowed-worlds")));
+        
+        this.tpaEnabled = config.getBoolean("tpa.enabled", true);
+        this.tpaCooldown = config.getInt("tpa.cooldown", 10);
+        this.tpaTimeout = config.getInt("tpa.timeout", 60);
+        this.tpaTeleportDelay = config.getInt("tpa.teleport-delay", 3);
+        this.tpaCancelOnMove = config.getBoolean("tpa.cancel-on-move", true);
+        this.tpaMaxPendingRequests = config.getInt("tpa.max-pending-requests", 10);
+        
+        this.homeEnabled = config.getBoolean("homes.enabled", true);
+        this.maxHomes = config.getInt("homes.max-homes", 3);
+        this.homeCooldown = config.getInt("homes.cooldown", 10);
+        this.homeTeleportDelay = config.getInt("homes.teleport-delay", 3);
+        this.homeCancelOnMove = config.getBoolean("homes.cancel-on-move", true);
+        this.homeTeleportCost = config.getDouble("homes.teleport-cost", 0.0);
+        ConfigurationSection homeLimitSection = config.getConfigurationSection("home-limits");
+        this.homeLimitPermissions = limitPermissions(homeLimitSection);
+        this.homeLimits = limitValues(homeLimitSection, homeLimitPermissions);
+        
+        this.warpEnabled = config.getBoolean("warps.enabled", true);
+        this.warpCooldown = config.getInt("warps.cooldown", 10);
+        this.warpTeleportDelay = config.getInt("warps.teleport-delay", 3);
+        this.warpCancelOnMove = config.getBoolean("warps.cancel-on-move", true);
+        this.warpTeleportCost = config.getDouble("warps.teleport-cost", 0.0);
+        this.warpNearRadius = config.getInt("warps.near-radius", 500);
+        this.warpMaxNearRadius = config.getInt("warps.max-near-radius", 5000);
+        
+        this.playerWarpEnabled = config.getBoolean("player-warps.enabled", true);
+        this.maxPlayerWarps = config.getInt("player-warps.max-warps", 2);
+        this.playerWarpCooldown = config.getInt("player-warps.cooldown", 10);
+        this.playerWarpTeleportDelay = config.getInt("player-warps.teleport-delay", 3);
+        this.playerWarpCancelOnMove = config.getBoolean("player-warps.cancel-on-move", true);
+        this.playerWarpTeleportCost = config.getDouble("player-warps.teleport-cost", 0.0);
+        this.playerWarpNearRadius = config.getInt("player-warps.near-radius", 200);
+        this.playerWarpMaxNearRadius = config.getInt("player-warps.max-near-radius", 2000);
+        this.playerWarpRegionCapRadius = config.getInt("player-warps.region-cap.radius", 32);
+        this.playerWarpRegionCapMax = config.getInt("player-warps.region-cap.max-warps", 0);
+        ConfigurationSection playerWarpLimitSection = config.getConfigurationSection("pwarp-limits");
+        this.playerWarpLimitPermissions = limitPermissions(playerWarpLimitSection);
+        this.playerWarpLimits = limitValues(playerWarpLimitSection, playerWarpLimitPermissions);
+        
+        this.shopEnabled = config.getBoolean("shop.enabled", true);
+        this.kitEnabled = config.getBoolean("kits.enabled", true);
+        this.statsEnabled = config.getBoolean("stats.enabled", true);
+        this.statsSaveInterval = config.getInt("stats.save-interval", 5);
+        this.statsFlushBatchSize = config.getInt("stats.flush-batch-size", 100);
+        
+        this.chatEnabled = config.getBoolean("chat.enabled", true);
+        this.chatFilterEnabled = config.getBoolean("chat.filter.enabled", true);
+        this.chatFilterBlockMessage = config.getBoolean("chat.filter.block-message", false);
+        this.chatFilterReplacement = config.getString("chat.filter.replacement", "***");
+        this.chatBlockUrls = config.getBoolean("chat.block-urls", true);
+        this.chatCapsFilter = config.getBoolean("chat.caps-filter", true);
+        this.chatMaxCapsPercent = config.getInt("chat.max-caps-percent", 50);
+        this.chatFormatEnabled = config.getBoolean("chat.format.enabled", true);
+    }
+    
+    private static String[] limitPermissions(ConfigurationSection section) {
+        return section == null ? new String[0] : section.getKeys(false).toArray(new String[0]);
+    }
+    
+    private static int[] limitValues(ConfigurationSection section, String[] permissions) {
+        int[] limits = new int[permissions.length];
+        for (int i = 0; i < permissions.length; i++) {
+            limits[i] = section.getInt(permissions[i]);
+        }
+        return limits;
+    }
+    
+    // RTP
+    public boolean isRtpEnabled() { return rtpEnabled; }
+    public int getRtpCooldown() { return rtpCooldown; }
+    public int getRtpMaxDistance() { return rtpMaxDistance; }
+    public int getRtpMinDistance() { return rtpMinDistance; }
+    public Set<String> getRtpAllowedWorlds() { return rtpAllowedWorlds; }
+    
+    // TPA
+    public boolean isTpaEnabled() { return tpaEnabled; }
+    public int getTpaCooldown() { return tpaCooldown; }
+    public int getTpaTimeout() { return tpaTimeout; }
+    public int getTpaTeleportDelay() { return tpaTeleportDelay; }
+    public boolean isTpaCancelOnMove() { return tpaCancelOnMove; }
+    public int getTpaMaxPendingRequests() { return tpaMaxPendingRequests; }
+    
+    // Homes
+    public boolean isHomeEnabled() { return homeEnabled; }
+    public int getMaxHomes() { return maxHomes; }
+    public int getHomeCooldown() { return homeCooldown; }
+    public int getHomeTeleportDelay() { return homeTeleportDelay; }
+    public boolean isHomeCancelOnMove() { return homeCancelOnMove; }
+    public double getHomeTeleportCost() { return homeTeleportCost; }
+    public int getHomeLimitCount() { return homeLimits.length; }
+    public String getHomeLimitPermission(int index) { return homeLimitPermissions[index]; }
+    public int getHomeLimit(int index) { return homeLimits[index]; }
+    
+    // Warps
+    public boolean isWarpEnabled() { return warpEnabled; }
+    public int getWarpCooldown() { return warpCooldown; }
+    public int getWarpTeleportDelay() { return warpTeleportDelay; }
+    public boolean isWarpCancelOnMove() { return warpCancelOnMove; }
+    public double getWarpTeleportCost() { return warpTeleportCost; }
+    public int getWarpNearRadius() { return warpNearRadius; }
+    public int getWarpMaxNearRadius() { return warpMaxNearRadius; }
+    
+    // Player warps
+    public boolean isPlayerWarpEnabled() { return playerWarpEnabled; }
+    public int getMaxPlayerWarps() { return maxPlayerWarps; }
+    public int getPlayerWarpCooldown() { return playerWarpCooldown; }
+    public int getPlayerWarpTeleportDelay() { return playerWarpTeleportDelay; }
+    public boolean isPlayerWarpCancelOnMove() { return playerWarpCancelOnMove; }
+    public double getPlayerWarpTeleportCost() { return playerWarpTeleportCost; }
+    public int getPlayerWarpNearRadius() { return playerWarpNearRadius; }
+    public int getPlayerWarpMaxNearRadius() { return playerWarpMaxNearRadius; }
+    public int getPlayerWarpRegionCapRadius() { return playerWarpRegionCapRadius; }
+    public int getPlayerWarpRegionCapMax() { return playerWarpRegionCapMax; }
+    public int getPlayerWarpLimitCount() { return playerWarpLimits.length; }
+    public String getPlayerWarpLimitPermission(int index) { return playerWarpLimitPermissions[index]; }
+    public int getPlayerWarpLimit(int index) { return playerWarpLimits[index]; }
+    
+    // Shop, kits and stats
+    public boolean isShopEnabled() { return shopEnabled; }
+    public boolean isKitEnabled() { return kitEnabled; }
+    public boolean isStatsEnabled() { return statsEnabled; }
+    public int getStatsSaveInterval() { return statsSaveInterval; }
+    public int getStatsFlushBatchSize() { return statsFlushBatchSize; }
+    
+    // Chat
+    public boolean isChatEnabled() { return chatEnabled; }
+    public boolean isChatFilterEnabled() { return chatFilterEnabled; }
+    public boolean isChatFilterBlockMessage() { return chatFilterBlockMessage; }
+    public String getChatFilterReplacement() { return chatFilterReplacement; }
+    public boolean isChatBlockUrls() { return chatBlockUrls; }
+    public boolean isChatCapsFilter() { return chatCapsFilter; }
+    public int getChatMaxCapsPercent() { return chatMaxCapsPercent; }
+    public boolean isChatFormatEnabled() { return chatFormatEnabled; }
+}
\ No newline at end of file
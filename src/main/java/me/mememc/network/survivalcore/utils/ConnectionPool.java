@@ -0,0 +1,337 @@
+package me.mememc.network.survivalcore.utils;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * A small bounded JDBC connection pool.
+ *
+ * Connections handed out by {@link #borrow()} are proxies; closing them returns
+ * the underlying connection to the pool instead of closing it.
+ */
+public class ConnectionPool {
+    
+    /**
+     * Opens a new physical connection for the pool
+     */
+    @FunctionalInterface
+    public interface ConnectionFactory {
+        Connection create() throws SQLException;
+    }
+    
+    private final String name;
+    private final Logger logger;
+    private final ConnectionFactory factory;
+    private final int maxSize;
+    private final long borrowTimeoutMillis;
+    private final long leakThresholdMillis;
+    private final long validationIntervalMillis;
+    
+    private final Semaphore permits;
+    private final LinkedBlockingDeque<PooledConnection> idle = new LinkedBlockingDeque<>();
+    private final Map<PooledConnection, Lease> leases = new ConcurrentHashMap<>();
+    private final AtomicBoolean closed = new AtomicBoolean(false);
+    
+    // Metrics
+    private final AtomicInteger totalConnections = new AtomicInteger();
+    private final AtomicInteger waitingThreads = new AtomicInteger();
+    private final AtomicLong totalBorrows = new AtomicLong();
+    private final AtomicLong totalWaitNanos = new AtomicLong();
+    private final AtomicLong timeouts = new AtomicLong();
+    private final AtomicLong leaksDetected = new AtomicLong();
+    private final AtomicLong connectionsDiscarded = new AtomicLong();
+    
+    public ConnectionPool(String name, Logger logger, ConnectionFactory factory, int maxSize,
+                          long borrowTimeoutMillis, long leakThresholdMillis, long validationIntervalMillis) {
+        this.name = name;
+        this.logger = logger;
+        this.factory = factory;
+        this.maxSize = Math.max(1, maxSize);
+        this.borrowTimeoutMillis = Math.max(0, borrowTimeoutMillis);
+        this.leakThresholdMillis = Math.max(0, leakThresholdMillis);
+        this.validationIntervalMillis = Math.max(0, validationIntervalMillis);
+        this.permits = new Semaphore(this.maxSize, true);
+    }
+    
+    /**
+     * Borrow a connection, waiting up to the borrow timeout for one to become free.
+     * The caller must close the returned connection to give it back.
+     */
+    public Connection borrow() throws SQLException {
+        if (closed.get()) {
+            throw new SQLException("Connection pool '" + name + "' is closed");
+        }
+        
+        long start = System.nanoTime();
+        waitingThreads.incrementAndGet();
+        try {
+            if (!permits.tryAcquire(borrowTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                timeouts.incrementAndGet();
+                throw new SQLTimeoutException("Timed out after " + borrowTimeoutMillis + "ms waiting for a connection from pool '" + name + "'");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for a connection from pool '" + name + "'", e);
+        } finally {
+            waitingThreads.decrementAndGet();
+        }
+        
+        try {
+            PooledConnection pooled = takeIdleOrCreate();
+            totalBorrows.incrementAndGet();
+            totalWaitNanos.addAndGet(System.nanoTime() - start);
+            leases.put(pooled, new Lease(leakThresholdMillis > 0 ? new Throwable("Connection borrowed here") : null));
+            return pooled.createProxy();
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+    
+    private PooledConnection takeIdleOrCreate() throws SQLException {
+        PooledConnection pooled;
+        while ((pooled = idle.pollFirst()) != null) {
+            if (isUsable(pooled)) {
+                return pooled;
+            }
+            discard(pooled);
+        }
+        
+        Connection connection = factory.create();
+        totalConnections.incrementAndGet();
+        return new PooledConnection(connection);
+    }
+    
+    private boolean isUsable(PooledConnection pooled) {
+        try {
+            if (pooled.connection.isClosed()) {
+                return false;
+            }
+            // Only pay for a round trip when the connection has been sitting idle for a while
+            if (System.currentTimeMillis() - pooled.lastReturned >= validationIntervalMillis) {
+                return pooled.connection.isValid(5);
+            }
+            return true;
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+    
+    private void release(PooledConnection pooled) {
+        leases.remove(pooled);
+        
+        boolean healthy;
+        try {
+            if (!pooled.connection.getAutoCommit()) {
+                pooled.connection.rollback();
+                pooled.connection.setAutoCommit(true);
+            }
+            healthy = !pooled.connection.isClosed();
+        } catch (SQLException e) {
+            healthy = false;
+        }
+        
+        if (healthy && !closed.get()) {
+            pooled.lastReturned = System.currentTimeMillis();
+            idle.offerFirst(pooled);
+        } else {
+            discard(pooled);
+        }
+        permits.release();
+    }
+    
+    private void discard(PooledConnection pooled) {
+        totalConnections.decrementAndGet();
+        connectionsDiscarded.incrementAndGet();
+        try {
+            pooled.connection.close();
+        } catch (SQLException ignored) {
+            // Already broken, nothing more to do
+        }
+    }
+    
+    /**
+     * Log connections that have been held longer than the leak detection threshold
+     */
+    public void checkForLeaks() {
+        if (leakThresholdMillis <= 0) {
+            return;
+        }
+        
+        long now = System.currentTimeMillis();
+        for (Lease lease : leases.values()) {
+            if (!lease.reported && now - lease.borrowedAt >= leakThresholdMillis) {
+                lease.reported = true;
+                leaksDetected.incrementAndGet();
+                logger.log(Level.WARNING, "Possible connection leak in pool '" + name + "': connection held for "
+                    + (now - lease.borrowedAt) + "ms", lease.origin);
+            }
+        }
+    }
+    
+    /**
+     * Close the pool and all idle connections. Borrowed connections are closed when returned.
+     */
+    public void close() {
+        if (!closed.compareAndSet(false, true)) {
+            return;
+        }
+        
+        PooledConnection pooled;
+        while ((pooled = idle.pollFirst()) != null) {
+            discard(pooled);
+        }
+        
+        if (!leases.isEmpty()) {
+            logger.warning("Connection pool '" + name + "' closed with " + leases.size() + " connection(s) still in use");
+        }
+    }
+    
+    public boolean isClosed() {
+        return closed.get();
+    }
+    
+    // Metrics
+    public String getName() {
+        return name;
+    }
+    
+    public int getMaxSize() {
+        return maxSize;
+    }
+    
+    public int getTotalConnections() {
+        return totalConnections.get();
+    }
+    
+    public int getActiveConnections() {
+        return leases.size();
+    }
+    
+    public int getIdleConnections() {
+        return idle.size();
+    }
+    
+    public int getWaitingThreads() {
+        return waitingThreads.get();
+    }
+    
+    public long getTotalBorrows() {
+        return totalBorrows.get();
+    }
+    
+    public double getAverageWaitMillis() {
+        long borrows = totalBorrows.get();
+        return borrows == 0 ? 0.0 : totalWaitNanos.get() / 1_000_000.0 / borrows;
+    }
+    
+    public long getTimeouts() {
+        return timeouts.get();
+    }
+    
+    public long getLeaksDetected() {
+        return leaksDetected.get();
+    }
+    
+    public long getConnectionsDiscarded() {
+        return connectionsDiscarded.get();
+    }
+    
+    @Override
+    public String toString() {
+        return String.format("%s{active=%d, idle=%d, total=%d/%d, waiting=%d, borrows=%d, avgWait=%.2fms, timeouts=%d, leaks=%d}",
+                           name, getActiveConnections(), getIdleConnections(), getTotalConnections(), maxSize,
+                           getWaitingThreads(), getTotalBorrows(), getAverageWaitMillis(), getTimeouts(), getLeaksDetected());
+    }
+    
+    /**
+     * Bookkeeping for a borrowed connection
+     */
+    private static final class Lease {
+        private final long borrowedAt = System.currentTimeMillis();
+        private final Throwable origin;
+        private volatile boolean reported;
+        
+        private Lease(Throwable origin) {
+            this.origin = origin;
+        }
+    }
+    
+    /**
+     * A physical connection owned by the pool
+     */
+    private final class PooledConnection {
+        private final Connection connection;
+        private volatile long lastReturned = System.currentTimeMillis();
+        
+        private PooledConnection(Connection connection) {
+            this.connection = connection;
+        }
+        
+        private Connection createProxy() {
+            return (Connection) Proxy.newProxyInstance(
+                ConnectionPool.class.getClassLoader(),
+                new Class<?>[]{Connection.class},
+                new LeasedConnectionHandler(this)
+            );
+        }
+    }
+    
+    /**
+     * Routes calls to the physical connection until the lease is closed
+     */
+    private final class LeasedConnectionHandler implements InvocationHandler {
+        private final PooledConnection pooled;
+        private final AtomicBoolean returned = new AtomicBoolean(false);
+        
+        private LeasedConnectionHandler(PooledConnection pooled) {
+            this.pooled = pooled;
+        }
+        
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    if (returned.compareAndSet(false, true)) {
+                        release(pooled);
+                    }
+                    return null;
+                case "isClosed":
+                    return returned.get() || pooled.connection.isClosed();
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "PooledConnection[" + name + "]";
+                default:
+                    break;
+            }
+            
+            if (returned.get()) {
+                throw new SQLException("Connection has already been returned to pool '" + name + "'");
+            }
+            
+            try {
+                return method.invoke(pooled.connection, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+}
\ No newline at end of file
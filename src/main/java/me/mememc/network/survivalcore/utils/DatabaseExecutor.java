@@ -0,0 +1,215 @@
+package me.mememc.network.survivalcore.utils;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Callable;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BooleanSupplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Runs database work off the server thread.
+ *
+ * Writes go through a single thread so they are applied in the order they were
+ * submitted (an UPDATE can never overtake the INSERT it depends on). Reads are
+ * spread over a small pool of reader threads. Both lanes have bounded queues.
+ *
+ * When the write queue is full, a background submitter waits a bounded time for
+ * room, so the write still goes through the queue and keeps its place in line;
+ * the server thread never waits or runs a write itself, and its write fails with
+ * a RejectedExecutionException for the caller to roll back. When the read queue
+ * is full, a background submitter runs the read itself, since reads have no
+ * order to keep, and the server thread's read is rejected the same way.
+ */
+public class DatabaseExecutor {
+    
+    private static final long SATURATION_WARNING_INTERVAL = 30000L;
+    private static final long WRITE_OFFER_TIMEOUT_MILLIS = 5000L;
+    
+    private final Logger logger;
+    private final BooleanSupplier onServerThread;
+    private final ThreadPoolExecutor writeExecutor;
+    private final ThreadPoolExecutor readExecutor;
+    private final AtomicLong lastSaturationWarning = new AtomicLong();
+    private final AtomicLong callerRuns = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    
+    /**
+     * @param onServerThread whether the calling thread is the server thread, which must never block or run JDBC
+     */
+    public DatabaseExecutor(Logger logger, BooleanSupplier onServerThread, int readerThreads, int queueSize) {
+        this.logger = logger;
+        this.onServerThread = onServerThread;
+        this.writeExecutor = createExecutor("SurvivalCore-DB-Writer", 1, queueSize, false);
+        this.readExecutor = createExecutor("SurvivalCore-DB-Reader", Math.max(1, readerThreads), queueSize, true);
+    }
+    
+    private ThreadPoolExecutor createExecutor(String name, int threads, int queueSize, boolean callerMayRun) {
+        return new ThreadPoolExecutor(
+            threads, threads,
+            60L, TimeUnit.SECONDS,
+            new ArrayBlockingQueue<>(Math.max(1, queueSize)),
+            new NamedThreadFactory(name, threads > 1),
+            new BackpressurePolicy(name, callerMayRun)
+        );
+    }
+    
+    /**
+     * Run a task on the writer thread
+     */
+    public <T> CompletableFuture<T> submitWrite(Callable<T> task) {
+        return submit(writeExecutor, task);
+    }
+    
+    /**
+     * Run a task on one of the reader threads
+     */
+    public <T> CompletableFuture<T> submitRead(Callable<T> task) {
+        return submit(readExecutor, task);
+    }
+    
+    private <T> CompletableFuture<T> submit(ThreadPoolExecutor executor, Callable<T> task) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        try {
+            executor.execute(() -> {
+                try {
+                    future.complete(task.call());
+                } catch (Throwable t) {
+                    future.completeExceptionally(t);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            future.completeExceptionally(e);
+        }
+        return future;
+    }
+    
+    /**
+     * Stop accepting work and wait for queued tasks to finish
+     */
+    public void shutdown(long timeoutMillis) {
+        writeExecutor.shutdown();
+        readExecutor.shutdown();
+        
+        try {
+            long deadline = System.currentTimeMillis() + timeoutMillis;
+            if (!writeExecutor.awaitTermination(timeoutMillis, TimeUnit.MILLISECONDS)) {
+                logger.warning("Timed out waiting for " + writeExecutor.getQueue().size() + " queued database write(s)");
+                writeExecutor.shutdownNow();
+            }
+            long remaining = Math.max(0L, deadline - System.currentTimeMillis());
+            if (!readExecutor.awaitTermination(remaining, TimeUnit.MILLISECONDS)) {
+                readExecutor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            writeExecutor.shutdownNow();
+            readExecutor.shutdownNow();
+        }
+    }
+    
+    public boolean isShutdown() {
+        return writeExecutor.isShutdown();
+    }
+    
+    // Metrics
+    public int getQueuedWrites() {
+        return writeExecutor.getQueue().size();
+    }
+    
+    public int getQueuedReads() {
+        return readExecutor.getQueue().size();
+    }
+    
+    public long getCompletedTasks() {
+        return writeExecutor.getCompletedTaskCount() + readExecutor.getCompletedTaskCount();
+    }
+    
+    public long getCallerRuns() {
+        return callerRuns.get();
+    }
+    
+    public long getRejected() {
+        return rejected.get();
+    }
+    
+    /**
+     * Handles a full queue: rejects work from the server thread, otherwise either
+     * runs the task on the submitting thread or waits a bounded time for room
+     */
+    private final class BackpressurePolicy implements RejectedExecutionHandler {
+        private final String name;
+        private final boolean callerMayRun;
+        
+        private BackpressurePolicy(String name, boolean callerMayRun) {
+            this.name = name;
+            this.callerMayRun = callerMayRun;
+        }
+        
+        @Override
+        public void rejectedExecution(Runnable task, ThreadPoolExecutor executor) {
+            if (executor.isShutdown()) {
+                throw new RejectedExecutionException(name + " has been shut down");
+            }
+            
+            warnSaturated();
+            if (onServerThread.getAsBoolean()) {
+                rejected.incrementAndGet();
+                throw new RejectedExecutionException(name + " queue is full");
+            }
+            
+            if (callerMayRun) {
+                callerRuns.incrementAndGet();
+                task.run();
+                return;
+            }
+            
+            // Queue it behind the writes already waiting so the order is kept
+            try {
+                if (executor.getQueue().offer(task, WRITE_OFFER_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS)) {
+                    return;
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            rejected.incrementAndGet();
+            throw new RejectedExecutionException(name + " queue is still full after " + WRITE_OFFER_TIMEOUT_MILLIS + "ms");
+        }
+        
+        private void warnSaturated() {
+            long now = System.currentTimeMillis();
+            long last = lastSaturationWarning.get();
+            if (now - last >= SATURATION_WARNING_INTERVAL && lastSaturationWarning.compareAndSet(last, now)) {
+                logger.log(Level.WARNING, name + " queue is full (submitted from " + Thread.currentThread().getName() + ")");
+            }
+        }
+    }
+    
+    /**
+     * Gives database threads recognisable names in thread dumps
+     */
+    private static final class NamedThreadFactory implements ThreadFactory {
+        private final String prefix;
+        private final boolean numbered;
+        private final AtomicInteger counter = new AtomicInteger();
+        
+        private NamedThreadFactory(String prefix, boolean numbered) {
+            this.prefix = prefix;
+            this.numbered = numbered;
+        }
+        
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, numbered ? prefix + "-" + counter.incrementAndGet() : prefix);
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
\ No newline at end of file
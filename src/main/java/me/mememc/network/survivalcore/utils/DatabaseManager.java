@@ -2,9 +2,13 @@ package me.mememc.network.survivalcore.utils;
 
 import me.mememc.network.survivalcore.SurvivalCore;
 import org.bukkit.Bukkit;
+import org.bukkit.scheduler.BukkitTask;
 
+import javax.sql.rowset.CachedRowSet;
+import javax.sql.rowset.RowSetProvider;
 import java.io.File;
 import java.sql.*;
+import java.util.concurrent.CompletableFuture;
 import java.util.logging.Level;
 
 /**
@@ -13,21 +17,60 @@ import java.util.logging.Level;
 public class DatabaseManager {
     
     private final SurvivalCore plugin;
-    private Connection connection;
     private final String databaseType;
     
+    // For MySQL both pools point at the same pool; SQLite gets a single writer and several readers
+    private volatile ConnectionPool writePool;
+    private volatile ConnectionPool readPool;
+    // Set by closeConnection; the pools and the executor are not reopened after it
+    private volatile boolean closed;
+    private BukkitTask leakDetectionTask;
+    
+    private final DatabaseExecutor executor;
+    private final boolean warnMainThreadAccess;
+    
+    /**
+     * Reads rows from a live result set on a database thread
+     */
+    @FunctionalInterface
+    public interface ResultSetHandler<T> {
+        T handle(ResultSet resultSet) throws SQLException;
+    }
+    
+    /**
+     * Does several statements on one connection, e.g. a batch inside a transaction
+     */
+    @FunctionalInterface
+    public interface ConnectionCallback<T> {
+        T doInConnection(Connection connection) throws SQLException;
+    }
+    
     public DatabaseManager(SurvivalCore plugin) {
         this.plugin = plugin;
         this.databaseType = plugin.getConfigManager().getDatabaseType().toLowerCase();
+        this.warnMainThreadAccess = plugin.getConfigManager().isDatabaseMainThreadWarningEnabled();
+        this.executor = new DatabaseExecutor(
+            plugin.getLogger(),
+            Bukkit::isPrimaryThread,
+            plugin.getConfigManager().getDatabaseReaderThreads(),
+            plugin.getConfigManager().getDatabaseQueueSize()
+        );
     }
     
-    public boolean initialize() {
+    public synchronized boolean initialize() {
+        if (closed) {
+            return false;
+        }
+        if (isConnected()) {
+            return true; // Already initialized lazily by an earlier getConnection()
+        }
+        
         try {
-            if (databaseType.equals("mysql")) {
-                return initializeMySQL();
-            } else {
-                return initializeSQLite();
+            boolean connected = databaseType.equals("mysql") ? initializeMySQL() : initializeSQLite();
+            if (connected && leakDetectionTask == null) {
+                leakDetectionTask = Bukkit.getScheduler().runTaskTimerAsynchronously(plugin, this::checkForLeaks, 200L, 200L);
             }
+            return connected;
         } catch (Exception e) {
             plugin.getLogger().log(Level.SEVERE, "Failed to initialize database", e);
             return false;
@@ -45,9 +88,19 @@ public class DatabaseManager {
             String url = String.format("jdbc:mysql://%s:%d/%s?useSSL=false&serverTimezone=UTC", 
                                      host, port, database);
             
-            connection = DriverManager.getConnection(url, username, password);
+            ConnectionPool pool = createPool("mysql", plugin.getConfigManager().getDatabasePoolSize(),
+                () -> DriverManager.getConnection(url, username, password));
             
-            plugin.getLogger().info("Successfully connected to MySQL database!");
+            // Borrow once so connection problems surface now rather than on first use
+            try (Connection ignored = pool.borrow()) {
+                writePool = pool;
+                readPool = pool;
+            } catch (SQLException e) {
+                pool.close();
+                throw e;
+            }
+            
+            plugin.getLogger().info("Successfully connected to MySQL database! (pool size: " + pool.getMaxSize() + ")");
             createTables();
             return true;
             
@@ -67,9 +120,22 @@ public class DatabaseManager {
             File databaseFile = new File(dataFolder, "survivalcore.db");
             String url = "jdbc:sqlite:" + databaseFile.getAbsolutePath();
             
-            connection = DriverManager.getConnection(url);
+            // SQLite only allows one writer at a time, so writes share a single connection
+            // while reads get their own connections (WAL mode lets them run alongside the writer)
+            ConnectionPool writer = createPool("sqlite-writer", 1, () -> openSQLiteConnection(url, false));
+            ConnectionPool readers = createPool("sqlite-reader", plugin.getConfigManager().getDatabaseSqliteReaders(),
+                () -> openSQLiteConnection(url, true));
             
-            plugin.getLogger().info("Successfully connected to SQLite database!");
+            try (Connection ignored = writer.borrow()) {
+                writePool = writer;
+                readPool = readers;
+            } catch (SQLException e) {
+                writer.close();
+                readers.close();
+                throw e;
+            }
+            
+            plugin.getLogger().info("Successfully connected to SQLite database! (readers: " + readers.getMaxSize() + ")");
             createTables();
             return true;
             
@@ -79,6 +145,33 @@ public class DatabaseManager {
         }
     }
     
+    private ConnectionPool createPool(String name, int size, ConnectionPool.ConnectionFactory factory) {
+        return new ConnectionPool(
+            name,
+            plugin.getLogger(),
+            factory,
+            size,
+            plugin.getConfigManager().getDatabaseBorrowTimeout(),
+            plugin.getConfigManager().getDatabaseLeakDetectionThreshold(),
+            plugin.getConfigManager().getDatabaseValidationInterval()
+        );
+    }
+    
+    private Connection openSQLiteConnection(String url, boolean readOnly) throws SQLException {
+        Connection connection = DriverManager.getConnection(url);
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("PRAGMA journal_mode=WAL");
+            statement.execute("PRAGMA busy_timeout=" + plugin.getConfigManager().getDatabaseBorrowTimeout());
+            if (readOnly) {
+                statement.execute("PRAGMA query_only=true");
+            }
+        } catch (SQLException e) {
+            connection.close();
+            throw e;
+        }
+        return connection;
+    }
+    
     private void createTables() throws SQLException {
         // Homes table
         executeUpdate(
@@ -147,50 +240,178 @@ public class DatabaseManager {
         plugin.getLogger().info("Database tables created successfully!");
     }
     
-    public void executeUpdate(String sql, Object... params) throws SQLException {
-        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+    public int executeUpdate(String sql, Object... params) throws SQLException {
+        try (Connection connection = getConnection();
+             PreparedStatement statement = connection.prepareStatement(sql)) {
             for (int i = 0; i < params.length; i++) {
                 statement.setObject(i + 1, params[i]);
             }
-            statement.executeUpdate();
+            return statement.executeUpdate();
         }
     }
     
+    /**
+     * Run an INSERT/UPDATE/DELETE on the database writer thread.
+     * Writes are applied in the order they are submitted.
+     */
+    public CompletableFuture<Integer> executeUpdateAsync(String sql, Object... params) {
+        return executor.submitWrite(() -> executeUpdate(sql, params));
+    }
+    
+    /**
+     * Run a query on a database reader thread and map the rows with the given handler
+     */
+    public <T> CompletableFuture<T> queryAsync(String sql, ResultSetHandler<T> handler, Object... params) {
+        return executor.submitRead(() -> {
+            try (Connection connection = getReadConnection();
+                 PreparedStatement statement = connection.prepareStatement(sql)) {
+                for (int i = 0; i < params.length; i++) {
+                    statement.setObject(i + 1, params[i]);
+                }
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    return handler.handle(resultSet);
+                }
+            }
+        });
+    }
+    
+    /**
+     * Run several statements on one write connection on the database writer thread
+     */
+    public <T> CompletableFuture<T> executeAsync(ConnectionCallback<T> callback) {
+        return executor.submitWrite(() -> {
+            try (Connection connection = getConnection()) {
+                return callback.doInConnection(connection);
+            }
+        });
+    }
+    
+    /**
+     * Run a query on a read connection. The rows are copied into a disconnected
+     * result set so the connection can go straight back to the pool.
+     */
     public ResultSet executeQuery(String sql, Object... params) throws SQLException {
-        PreparedStatement statement = connection.prepareStatement(sql);
-        for (int i = 0; i < params.length; i++) {
-            statement.setObject(i + 1, params[i]);
+        try (Connection connection = getReadConnection();
+             PreparedStatement statement = connection.prepareStatement(sql)) {
+            for (int i = 0; i < params.length; i++) {
+                statement.setObject(i + 1, params[i]);
+            }
+            try (ResultSet resultSet = statement.executeQuery()) {
+                CachedRowSet rowSet = RowSetProvider.newFactory().createCachedRowSet();
+                rowSet.populate(resultSet);
+                return rowSet;
+            }
         }
-        return statement.executeQuery();
     }
     
-    public void closeConnection() {
-        try {
-            if (connection != null && !connection.isClosed()) {
-                connection.close();
-                plugin.getLogger().info("Database connection closed successfully!");
+    public synchronized void closeConnection() {
+        // Let queued writes reach the database before the pools go away
+        executor.shutdown(10000L);
+        closed = true;
+        
+        if (leakDetectionTask != null) {
+            leakDetectionTask.cancel();
+            leakDetectionTask = null;
+        }
+        
+        ConnectionPool writer = writePool;
+        ConnectionPool reader = readPool;
+        writePool = null;
+        readPool = null;
+        
+        if (writer != null) {
+            writer.close();
+        }
+        if (reader != null && reader != writer) {
+            reader.close();
+        }
+        if (writer != null) {
+            plugin.getLogger().info("Database connection closed successfully!");
+        }
+    }
+    
+    /**
+     * Borrow a connection for writing. Callers must close it (try-with-resources)
+     * to return it to the pool.
+     */
+    public Connection getConnection() throws SQLException {
+        checkMainThreadAccess();
+        ConnectionPool pool = writePool;
+        if (pool == null) {
+            if (closed) {
+                throw new SQLException("Database is closed");
+            }
+            initialize();
+            pool = writePool;
+            if (pool == null) {
+                throw new SQLException("Database is not available");
             }
-        } catch (SQLException e) {
-            plugin.getLogger().log(Level.SEVERE, "Error closing database connection", e);
         }
+        return pool.borrow();
     }
     
-    public Connection getConnection() {
-        try {
-            if (connection == null || connection.isClosed()) {
-                initialize();
+    /**
+     * Borrow a connection for reading. On MySQL this is the same pool as
+     * {@link #getConnection()}; on SQLite it is a separate read-only pool.
+     */
+    public Connection getReadConnection() throws SQLException {
+        checkMainThreadAccess();
+        ConnectionPool pool = readPool;
+        if (pool == null) {
+            if (closed) {
+                throw new SQLException("Database is closed");
+            }
+            initialize();
+            pool = readPool;
+            if (pool == null) {
+                throw new SQLException("Database is not available");
             }
-        } catch (SQLException e) {
-            plugin.getLogger().log(Level.SEVERE, "Error checking database connection", e);
         }
-        return connection;
+        return pool.borrow();
     }
     
-    public boolean isConnected() {
-        try {
-            return connection != null && !connection.isClosed();
-        } catch (SQLException e) {
-            return false;
+    /**
+     * Debug guard: report database access from the server thread with a stack trace
+     */
+    private void checkMainThreadAccess() {
+        if (warnMainThreadAccess && Bukkit.isPrimaryThread()) {
+            plugin.getLogger().log(Level.WARNING, "Database accessed from the main server thread",
+                new Throwable("Main thread database access"));
+        }
+    }
+    
+    /**
+     * Log connections that have been borrowed for too long
+     */
+    public void checkForLeaks() {
+        ConnectionPool writer = writePool;
+        ConnectionPool reader = readPool;
+        if (writer != null) {
+            writer.checkForLeaks();
         }
+        if (reader != null && reader != writer) {
+            reader.checkForLeaks();
+        }
+    }
+    
+    public ConnectionPool getWritePool() {
+        return writePool;
+    }
+    
+    public ConnectionPool getReadPool() {
+        return readPool;
+    }
+    
+    public DatabaseExecutor getExecutor() {
+        return executor;
+    }
+    
+    public boolean isMySQL() {
+        return databaseType.equals("mysql");
+    }
+    
+    public boolean isConnected() {
+        ConnectionPool pool = writePool;
+        return pool != null && !pool.isClosed();
     }
 }
\ No newline at end of file
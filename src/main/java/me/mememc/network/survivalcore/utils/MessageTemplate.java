@@ -0,0 +1,84 @@
+package me.mememc.network.survivalcore.utils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A message compiled once: {prefix} inlined, color codes translated, and the text
+ * split around its {placeholder} slots.
+ *
+ * Rendering takes the same "{key}", value pairs as MessageUtils.sendMessage and
+ * fills each slot with the matching value. Placeholders without a value are left
+ * as they are. Instances are immutable and safe to share between threads.
+ */
+public final class MessageTemplate {
+    
+    private static final ThreadLocal<StringBuilder> BUFFER = ThreadLocal.withInitial(() -> new StringBuilder(256));
+    
+    // literals[i] comes before slots[i]; the last literal ends the message
+    private final String[] literals;
+    private final String[] slots;
+    private final String text;
+    
+    private MessageTemplate(String[] literals, String[] slots) {
+        this.literals = literals;
+        this.slots = slots;
+        this.text = slots.length == 0 ? literals[0] : null;
+    }
+    
+    /**
+     * Compile a raw message from messages.yml
+     */
+    public static MessageTemplate compile(String message, String prefix) {
+        String colored = MessageUtils.formatMessage(message.replace("{prefix}", prefix));
+        List<String> literals = new ArrayList<>();
+        List<String> slots = new ArrayList<>();
+        
+        int literalStart = 0;
+        int open = colored.indexOf('{');
+        while (open >= 0) {
+            int close = colored.indexOf('}', open);
+            if (close < 0) {
+                break;
+            }
+            literals.add(colored.substring(literalStart, open));
+            slots.add(colored.substring(open, close + 1));
+            literalStart = close + 1;
+            open = colored.indexOf('{', literalStart);
+        }
+        literals.add(colored.substring(literalStart));
+        
+        return new MessageTemplate(literals.toArray(new String[0]), slots.toArray(new String[0]));
+    }
+    
+    /**
+     * Render with "{key}", value pairs
+     */
+    public String render(String... replacements) {
+        if (text != null) {
+            return text;
+        }
+        
+        StringBuilder builder = BUFFER.get();
+        builder.setLength(0);
+        for (int i = 0; i < slots.length; i++) {
+            builder.append(literals[i]);
+            builder.append(valueOf(slots[i], replacements));
+        }
+        builder.append(literals[literals.length - 1]);
+        return builder.toString();
+    }
+    
+    public boolean isEmpty() {
+        return slots.length == 0 && literals[0].isEmpty();
+    }
+    
+    private static String valueOf(String slot, String[] replacements) {
+        for (int i = 0; i < replacements.length - 1; i += 2) {
+            if (slot.equals(replacements[i])) {
+                return replacements[i + 1];
+            }
+        }
+        return slot;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,40 @@
+package me.mememc.network.survivalcore.utils;
+
+import org.bukkit.configuration.file.FileConfiguration;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Every message in messages.yml, compiled when the file is loaded.
+ *
+ * Paths missing from the file fall back to the default given by the caller,
+ * compiled the first time it is asked for and kept until the next reload.
+ */
+public final class MessageTemplates {
+    
+    private final String prefix;
+    private final Map<String, MessageTemplate> templates = new HashMap<>();
+    private final Map<String, MessageTemplate> defaults = new ConcurrentHashMap<>();
+    
+    public MessageTemplates(FileConfiguration messages) {
+        this.prefix = messages.getString("general.prefix", "&8[&6SurvivalCore&8]&r ");
+        for (String path : messages.getKeys(true)) {
+            if (messages.isString(path)) {
+                templates.put(path, MessageTemplate.compile(messages.getString(path), prefix));
+            }
+        }
+    }
+    
+    /**
+     * The compiled message at a path, or the compiled default if the path is not set
+     */
+    public MessageTemplate get(String path, String defaultMessage) {
+        MessageTemplate template = templates.get(path);
+        if (template != null) {
+            return template;
+        }
+        return defaults.computeIfAbsent(path, k -> MessageTemplate.compile(defaultMessage, prefix));
+    }
+}
\ No newline at end of file
@@ -9,7 +9,8 @@ import org.bukkit.command.CommandSender;
 public class MessageUtils {
     
     /**
-     * Send a formatted message to a command sender
+     * Send a formatted message to a command sender. Color codes are translated, so
+     * the text must not contain player input or an already rendered template.
      */
     public static void sendMessage(CommandSender sender, String message) {
         if (message == null || message.isEmpty()) {
@@ -29,7 +30,7 @@ public class MessageUtils {
     }
     
     /**
-     * Send a message with replacements
+     * Send a message with replacements; color codes in the values are translated too
      */
     public static void sendMessage(CommandSender sender, String message, String... replacements) {
         String formattedMessage = message;
@@ -39,6 +40,16 @@ public class MessageUtils {
         sendMessage(sender, formattedMessage);
     }
     
+    /**
+     * Send a compiled message with replacements; the values are inserted as they are
+     */
+    public static void sendMessage(CommandSender sender, MessageTemplate template, String... replacements) {
+        if (template.isEmpty()) {
+            return;
+        }
+        sender.sendMessage(template.render(replacements));
+    }
+    
     /**
      * Format time in seconds to a readable format
      */
@@ -0,0 +1,232 @@
+package me.mememc.network.survivalcore.utils;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Values indexed by name, case-insensitively, in name order.
+ *
+ * Names are kept lowercased in a sorted array, so exact lookups are a binary
+ * search and every name starting with a prefix sits in one contiguous range
+ * found with two more. Adding or removing a name shifts the arrays once, which
+ * for a few tens of thousands of entries is far cheaper than filtering them all
+ * on every lookup or tab completion. The lists returned are views over the
+ * arrays and only valid until the index next changes. Not thread-safe.
+ */
+public final class NameIndex<V> {
+    
+    private static final int INITIAL_CAPACITY = 16;
+    
+    private String[] keys = new String[INITIAL_CAPACITY];
+    private String[] names = new String[INITIAL_CAPACITY];
+    private Object[] values = new Object[INITIAL_CAPACITY];
+    private int size;
+    
+    /**
+     * The value with this name, ignoring case
+     */
+    public V get(String name) {
+        int index = indexOf(name.toLowerCase());
+        return index >= 0 ? valueAt(index) : null;
+    }
+    
+    public boolean containsKey(String name) {
+        return indexOf(name.toLowerCase()) >= 0;
+    }
+    
+    /**
+     * Add or replace a value; returns the one it replaced
+     */
+    public V put(String name, V value) {
+        String key = name.toLowerCase();
+        int index = indexOf(key);
+        if (index >= 0) {
+            V previous = valueAt(index);
+            names[index] = name;
+            values[index] = value;
+            return previous;
+        }
+        
+        insert(-(index + 1), key, name, value);
+        return null;
+    }
+    
+    /**
+     * Add a value unless the name is taken; returns the value already there
+     */
+    public V putIfAbsent(String name, V value) {
+        String key = name.toLowerCase();
+        int index = indexOf(key);
+        if (index >= 0) {
+            return valueAt(index);
+        }
+        
+        insert(-(index + 1), key, name, value);
+        return null;
+    }
+    
+    /**
+     * Remove a name; returns the value it had
+     */
+    public V remove(String name) {
+        int index = indexOf(name.toLowerCase());
+        if (index < 0) {
+            return null;
+        }
+        
+        V removed = valueAt(index);
+        delete(index);
+        return removed;
+    }
+    
+    /**
+     * Remove a name only while it still maps to this value
+     */
+    public boolean remove(String name, V value) {
+        int index = indexOf(name.toLowerCase());
+        if (index < 0 || values[index] != value) {
+            return false;
+        }
+        
+        delete(index);
+        return true;
+    }
+    
+    public int size() {
+        return size;
+    }
+    
+    public boolean isEmpty() {
+        return size == 0;
+    }
+    
+    /**
+     * Every value, in name order
+     */
+    public List<V> values() {
+        return new Range(0, size);
+    }
+    
+    /**
+     * Values whose name starts with the prefix, ignoring case, in name order
+     */
+    public List<V> withPrefix(String prefix) {
+        String key = prefix.toLowerCase();
+        int from = lowerBound(key);
+        return new Range(from, prefixEnd(key, from));
+    }
+    
+    /**
+     * Up to limit names starting with the prefix, as they were given, in name order
+     */
+    public List<String> complete(String prefix, int limit) {
+        String key = prefix.toLowerCase();
+        int from = lowerBound(key);
+        int to = Math.min(prefixEnd(key, from), from + limit);
+        return new ArrayList<>(Arrays.asList(names).subList(from, to));
+    }
+    
+    /**
+     * Remove everything
+     */
+    public void clear() {
+        Arrays.fill(keys, 0, size, null);
+        Arrays.fill(names, 0, size, null);
+        Arrays.fill(values, 0, size, null);
+        size = 0;
+    }
+    
+    /**
+     * Index of the key, or -(insertion point + 1) if it is not there
+     */
+    private int indexOf(String key) {
+        return Arrays.binarySearch(keys, 0, size, key);
+    }
+    
+    /**
+     * First index whose key is not less than the given key
+     */
+    private int lowerBound(String key) {
+        int index = indexOf(key);
+        return index >= 0 ? index : -(index + 1);
+    }
+    
+    /**
+     * End of the run of keys starting with the prefix, which begins at from
+     */
+    private int prefixEnd(String prefix, int from) {
+        int low = from;
+        int high = size;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (keys[mid].startsWith(prefix)) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+    
+    private void insert(int index, String key, String name, V value) {
+        if (size == keys.length) {
+            int capacity = keys.length * 2;
+            keys = Arrays.copyOf(keys, capacity);
+            names = Arrays.copyOf(names, capacity);
+            values = Arrays.copyOf(values, capacity);
+        }
+        
+        int moved = size - index;
+        System.arraycopy(keys, index, keys, index + 1, moved);
+        System.arraycopy(names, index, names, index + 1, moved);
+        System.arraycopy(values, index, values, index + 1, moved);
+        keys[index] = key;
+        names[index] = name;
+        values[index] = value;
+        size++;
+    }
+    
+    private void delete(int index) {
+        int moved = size - index - 1;
+        System.arraycopy(keys, index + 1, keys, index, moved);
+        System.arraycopy(names, index + 1, names, index, moved);
+        System.arraycopy(values, index + 1, values, index, moved);
+        size--;
+        keys[size] = null;
+        names[size] = null;
+        values[size] = null;
+    }
+    
+    @SuppressWarnings("unchecked")
+    private V valueAt(int index) {
+        return (V) values[index];
+    }
+    
+    /**
+     * Read-only view of the values between two indexes
+     */
+    private final class Range extends AbstractList<V> {
+        private final int from;
+        private final int to;
+        
+        private Range(int from, int to) {
+            this.from = from;
+            this.to = to;
+        }
+        
+        @Override
+        public V get(int index) {
+            if (index < 0 || index >= to - from) {
+                throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + (to - from));
+            }
+            return valueAt(from + index);
+        }
+        
+        @Override
+        public int size() {
+            return to - from;
+        }
+    }
+}
\ No newline at end of file
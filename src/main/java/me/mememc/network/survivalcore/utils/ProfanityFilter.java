@@ -0,0 +1,227 @@
+package me.mememc.network.survivalcore.utils;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.TreeSet;
+
+/**
+ * Banned word filter compiled into an Aho-Corasick automaton.
+ *
+ * All words are folded (lower case, and optionally leetspeak digits and symbols
+ * mapped to letters) and built into one automaton with a full transition table,
+ * so a message is scanned in a single pass with one table lookup per character
+ * no matter how many words are banned. Folding maps one char to one char, so
+ * match positions line up with the original message. Instances are immutable and
+ * safe to share between chat threads.
+ */
+public final class ProfanityFilter {
+    
+    private static final ProfanityFilter EMPTY = new ProfanityFilter(new char[0], new int[]{0}, new int[]{0}, new int[]{-1}, false, false);
+    
+    // Folded characters that occur in any word, sorted; their index is the symbol used in the table
+    private final char[] alphabet;
+    private final int[] asciiSymbols = new int[128];
+    
+    // transitions[state * alphabet.length + symbol], complete (failure links already followed)
+    private final int[] transitions;
+    // Length of the word ending in a state, or 0
+    private final int[] matchLength;
+    // Nearest state on the failure chain where a word ends, or -1
+    private final int[] outputLink;
+    private final boolean leetspeak;
+    private final boolean wholeWordsOnly;
+    
+    private ProfanityFilter(char[] alphabet, int[] transitions, int[] matchLength, int[] outputLink,
+                            boolean leetspeak, boolean wholeWordsOnly) {
+        this.alphabet = alphabet;
+        this.transitions = transitions;
+        this.matchLength = matchLength;
+        this.outputLink = outputLink;
+        this.leetspeak = leetspeak;
+        this.wholeWordsOnly = wholeWordsOnly;
+        
+        Arrays.fill(asciiSymbols, -1);
+        for (int symbol = 0; symbol < alphabet.length; symbol++) {
+            if (alphabet[symbol] < 128) {
+                asciiSymbols[alphabet[symbol]] = symbol;
+            }
+        }
+    }
+    
+    /**
+     * Compile a filter for the given words. Blank entries are ignored.
+     */
+    public static ProfanityFilter compile(Collection<String> words, boolean leetspeak, boolean wholeWordsOnly) {
+        TreeSet<String> folded = new TreeSet<>();
+        TreeSet<Character> chars = new TreeSet<>();
+        for (String word : words) {
+            if (word == null || word.trim().isEmpty()) {
+                continue;
+            }
+            char[] foldedWord = word.trim().toCharArray();
+            for (int i = 0; i < foldedWord.length; i++) {
+                foldedWord[i] = fold(foldedWord[i], leetspeak);
+                chars.add(foldedWord[i]);
+            }
+            folded.add(new String(foldedWord));
+        }
+        if (folded.isEmpty()) {
+            return EMPTY;
+        }
+        
+        char[] alphabet = new char[chars.size()];
+        int index = 0;
+        for (char c : chars) {
+            alphabet[index++] = c;
+        }
+        int width = alphabet.length;
+        
+        // Build the trie
+        int capacity = 16;
+        for (String word : folded) {
+            capacity += word.length();
+        }
+        int[] transitions = new int[capacity * width];
+        Arrays.fill(transitions, -1);
+        int[] matchLength = new int[capacity];
+        int states = 1;
+        for (String word : folded) {
+            int state = 0;
+            for (int i = 0; i < word.length(); i++) {
+                int symbol = Arrays.binarySearch(alphabet, word.charAt(i));
+                int next = transitions[state * width + symbol];
+                if (next < 0) {
+                    next = states++;
+                    transitions[state * width + symbol] = next;
+                }
+                state = next;
+            }
+            matchLength[state] = word.length();
+        }
+        
+        // Breadth-first pass: failure links, output links, and fill in missing transitions
+        int[] failure = new int[states];
+        int[] outputLink = new int[states];
+        outputLink[0] = -1;
+        ArrayDeque<Integer> queue = new ArrayDeque<>();
+        for (int symbol = 0; symbol < width; symbol++) {
+            int child = transitions[symbol];
+            if (child < 0) {
+                transitions[symbol] = 0;
+            } else {
+                failure[child] = 0;
+                outputLink[child] = -1;
+                queue.add(child);
+            }
+        }
+        while (!queue.isEmpty()) {
+            int state = queue.poll();
+            for (int symbol = 0; symbol < width; symbol++) {
+                int child = transitions[state * width + symbol];
+                int fallback = transitions[failure[state] * width + symbol];
+                if (child < 0) {
+                    transitions[state * width + symbol] = fallback;
+                } else {
+                    failure[child] = fallback;
+                    outputLink[child] = matchLength[fallback] > 0 ? fallback : outputLink[fallback];
+                    queue.add(child);
+                }
+            }
+        }
+        
+        return new ProfanityFilter(alphabet, Arrays.copyOf(transitions, states * width),
+            Arrays.copyOf(matchLength, states), outputLink, leetspeak, wholeWordsOnly);
+    }
+    
+    /**
+     * Check whether a message contains a banned word
+     */
+    public boolean containsProfanity(String message) {
+        return findMatches(message) != null;
+    }
+    
+    /**
+     * Replace every banned word (or run of overlapping ones) with the replacement.
+     * Returns the message itself when nothing matched.
+     */
+    public String filter(String message, String replacement) {
+        boolean[] masked = findMatches(message);
+        if (masked == null) {
+            return message;
+        }
+        
+        StringBuilder filtered = new StringBuilder(message.length());
+        for (int i = 0; i < message.length(); i++) {
+            if (!masked[i]) {
+                filtered.append(message.charAt(i));
+            } else if (i == 0 || !masked[i - 1]) {
+                filtered.append(replacement);
+            }
+        }
+        return filtered.toString();
+    }
+    
+    /**
+     * Scan once and mark matched characters; null when there is no match
+     */
+    private boolean[] findMatches(String message) {
+        if (alphabet.length == 0) {
+            return null;
+        }
+        
+        boolean[] masked = null;
+        int width = alphabet.length;
+        int state = 0;
+        for (int end = 0; end < message.length(); end++) {
+            int symbol = symbolOf(fold(message.charAt(end), leetspeak));
+            state = symbol < 0 ? 0 : transitions[state * width + symbol];
+            
+            // Longest word first; shorter ones ending here are inside it
+            for (int match = matchLength[state] > 0 ? state : outputLink[state]; match >= 0; match = outputLink[match]) {
+                int start = end - matchLength[match] + 1;
+                if (wholeWordsOnly && !isWholeWord(message, start, end)) {
+                    continue;
+                }
+                if (masked == null) {
+                    masked = new boolean[message.length()];
+                }
+                Arrays.fill(masked, start, end + 1, true);
+                break;
+            }
+        }
+        return masked;
+    }
+    
+    private int symbolOf(char c) {
+        if (c < 128) {
+            return asciiSymbols[c];
+        }
+        int symbol = Arrays.binarySearch(alphabet, c);
+        return symbol < 0 ? -1 : symbol;
+    }
+    
+    private static boolean isWholeWord(String message, int start, int end) {
+        return (start == 0 || !Character.isLetterOrDigit(message.charAt(start - 1)))
+            && (end == message.length() - 1 || !Character.isLetterOrDigit(message.charAt(end + 1)));
+    }
+    
+    private static char fold(char c, boolean leetspeak) {
+        c = Character.toLowerCase(c);
+        if (!leetspeak) {
+            return c;
+        }
+        switch (c) {
+            case '0': return 'o';
+            case '1':
+            case '!': return 'i';
+            case '3': return 'e';
+            case '4':
+            case '@': return 'a';
+            case '5':
+            case '$': return 's';
+            case '7': return 't';
+            default: return c;
+        }
+    }
+}
\ No newline at end of file
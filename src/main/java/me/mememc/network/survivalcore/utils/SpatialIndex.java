@@ -0,0 +1,243 @@
+package me.mememc.network.survivalcore.utils;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * Values at fixed x/z positions, per world, bucketed into a hash grid of
+ * chunk-sized cells.
+ *
+ * A radius count only visits the cells its square overlaps, and a nearest
+ * query walks rings of cells outwards from the start, keeping the best matches
+ * in a heap bounded by its limit, and stops once no farther ring can hold
+ * anything closer than the worst of them. Both cost roughly the number of
+ * cells and values near the point rather than the number of values in the
+ * world, and nothing is sorted beyond the limit. A query only falls back to
+ * scanning the occupied cells once its walk has visited more cells than the
+ * world has in use, so it never costs much more than that scan would, and a
+ * wide nearest query that stops early never scans at all. Not thread-safe.
+ */
+public final class SpatialIndex<V> {
+    
+    private static final int CELL_SHIFT = 4;
+    private static final int CELL_SIZE = 1 << CELL_SHIFT;
+    private static final int MAX_INITIAL_CAPACITY = 64;
+    
+    private final Map<String, Map<Long, List<Entry<V>>>> worlds = new HashMap<>();
+    private int size;
+    
+    private static final class Entry<V> {
+        private final double x;
+        private final double z;
+        private final V value;
+        
+        private Entry(double x, double z, V value) {
+            this.x = x;
+            this.z = z;
+            this.value = value;
+        }
+        
+        private double distanceSquared(double otherX, double otherZ) {
+            double dx = x - otherX;
+            double dz = z - otherZ;
+            return dx * dx + dz * dz;
+        }
+    }
+    
+    /**
+     * Add a value at a position
+     */
+    public void add(String world, double x, double z, V value) {
+        worlds.computeIfAbsent(world, k -> new HashMap<>())
+            .computeIfAbsent(cellKey(cell(x), cell(z)), k -> new ArrayList<>(2))
+            .add(new Entry<>(x, z, value));
+        size++;
+    }
+    
+    /**
+     * Remove a value added at this position; returns false if it was not there
+     */
+    public boolean remove(String world, double x, double z, V value) {
+        Map<Long, List<Entry<V>>> cells = worlds.get(world);
+        if (cells == null) {
+            return false;
+        }
+        
+        long key = cellKey(cell(x), cell(z));
+        List<Entry<V>> entries = cells.get(key);
+        if (entries == null) {
+            return false;
+        }
+        
+        for (int i = 0; i < entries.size(); i++) {
+            if (entries.get(i).value == value) {
+                entries.remove(i);
+                size--;
+                if (entries.isEmpty()) {
+                    cells.remove(key);
+                    if (cells.isEmpty()) {
+                        worlds.remove(world);
+                    }
+                }
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    public int size() {
+        return size;
+    }
+    
+    /**
+     * Number of values within a radius of a point
+     */
+    public int countWithinRadius(String world, double x, double z, double radius) {
+        Map<Long, List<Entry<V>>> cells = worlds.get(world);
+        if (cells == null || radius < 0) {
+            return 0;
+        }
+        
+        double radiusSquared = radius * radius;
+        int minX = cell(x - radius);
+        int maxX = cell(x + radius);
+        int minZ = cell(z - radius);
+        int maxZ = cell(z + radius);
+        long visited = 0;
+        int count = 0;
+        for (int cellX = minX; cellX <= maxX; cellX++) {
+            visited += (long) maxZ - minZ + 1;
+            if (visited > cells.size()) {
+                // The square covers more cells than the world has in use; check those instead
+                count = 0;
+                for (List<Entry<V>> entries : cells.values()) {
+                    count += countFrom(entries, x, z, radiusSquared);
+                }
+                return count;
+            }
+            
+            for (int cellZ = minZ; cellZ <= maxZ; cellZ++) {
+                List<Entry<V>> entries = cells.get(cellKey(cellX, cellZ));
+                if (entries != null) {
+                    count += countFrom(entries, x, z, radiusSquared);
+                }
+            }
+        }
+        return count;
+    }
+    
+    /**
+     * Up to limit values within maxRadius of a point, nearest first
+     */
+    public List<V> nearest(String world, double x, double z, double maxRadius, int limit) {
+        Map<Long, List<Entry<V>>> cells = worlds.get(world);
+        if (cells == null || maxRadius < 0 || limit <= 0) {
+            return Collections.emptyList();
+        }
+        
+        // The farthest of the best so far sits on top, so it is the one a closer value pushes out
+        Comparator<Entry<V>> byDistance = Comparator.comparingDouble(entry -> entry.distanceSquared(x, z));
+        PriorityQueue<Entry<V>> best = new PriorityQueue<>(Math.min(limit, MAX_INITIAL_CAPACITY), byDistance.reversed());
+        double maxDistanceSquared = maxRadius * maxRadius;
+        int centerX = cell(x);
+        int centerZ = cell(z);
+        int maxRing = cellSpan(maxRadius);
+        long visited = 0;
+        
+        for (int ring = 0; ring <= maxRing; ring++) {
+            // Every cell in this ring is at least (ring - 1) cells away from the point
+            double ringDistance = (double) (ring - 1) * CELL_SIZE;
+            if (best.size() == limit && ringDistance > 0
+                    && ringDistance * ringDistance > best.peek().distanceSquared(x, z)) {
+                break;
+            }
+            
+            visited += ring == 0 ? 1 : 8L * ring;
+            if (visited > cells.size()) {
+                // The walk has reached more cells than the world has in use; check those instead
+                best.clear();
+                for (List<Entry<V>> entries : cells.values()) {
+                    offer(entries, x, z, maxDistanceSquared, limit, best);
+                }
+                return drain(best);
+            }
+            
+            for (int dx = -ring; dx <= ring; dx++) {
+                // Only the edge of the ring; the inside was covered by earlier rings
+                int step = Math.abs(dx) == ring ? 1 : ring * 2;
+                for (int dz = -ring; dz <= ring; dz += step) {
+                    List<Entry<V>> entries = cells.get(cellKey(centerX + dx, centerZ + dz));
+                    if (entries != null) {
+                        offer(entries, x, z, maxDistanceSquared, limit, best);
+                    }
+                }
+            }
+        }
+        return drain(best);
+    }
+    
+    private static <V> int countFrom(List<Entry<V>> entries, double x, double z, double radiusSquared) {
+        int count = 0;
+        for (Entry<V> entry : entries) {
+            if (entry.distanceSquared(x, z) <= radiusSquared) {
+                count++;
+            }
+        }
+        return count;
+    }
+    
+    /**
+     * Keep the entries that are among the limit nearest seen so far
+     */
+    private static <V> void offer(List<Entry<V>> entries, double x, double z, double maxDistanceSquared, int limit,
+                                  PriorityQueue<Entry<V>> best) {
+        for (Entry<V> entry : entries) {
+            double distanceSquared = entry.distanceSquared(x, z);
+            if (distanceSquared > maxDistanceSquared) {
+                continue;
+            }
+            if (best.size() < limit) {
+                best.add(entry);
+            } else if (distanceSquared < best.peek().distanceSquared(x, z)) {
+                best.poll();
+                best.add(entry);
+            }
+        }
+    }
+    
+    /**
+     * The values in the heap, nearest first
+     */
+    private static <V> List<V> drain(PriorityQueue<Entry<V>> best) {
+        if (best.isEmpty()) {
+            return Collections.emptyList();
+        }
+        
+        List<V> values = new ArrayList<>(best.size());
+        while (!best.isEmpty()) {
+            values.add(best.poll().value);
+        }
+        Collections.reverse(values);
+        return values;
+    }
+    
+    /**
+     * How many cells out from the point's cell a radius can reach
+     */
+    private static int cellSpan(double radius) {
+        return (int) Math.min(Integer.MAX_VALUE / 4, Math.ceil(radius / CELL_SIZE) + 1);
+    }
+    
+    private static int cell(double coordinate) {
+        return (int) Math.floor(coordinate) >> CELL_SHIFT;
+    }
+    
+    private static long cellKey(int cellX, int cellZ) {
+        return ((long) cellX << 32) | (cellZ & 0xFFFFFFFFL);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,158 @@
+package me.mememc.network.survivalcore.utils;
+
+import java.util.Arrays;
+
+/**
+ * Finds links and bare domains in chat messages.
+ *
+ * A message is read once, host-like runs of characters at a time. A run counts
+ * as a link when it follows http:// or https://, when it starts with www., or when
+ * one of its labels after a dot is a known top-level domain. Top-level domains
+ * are kept in a letter trie built once, and scanning allocates nothing.
+ */
+public final class UrlDetector {
+    
+    /**
+     * Top-level domains blocked as bare domains (e.g. "example.net")
+     */
+    public static final String[] DEFAULT_TLDS = {
+        "com", "net", "org", "edu", "gov", "mil", "int", "co", "uk", "de", "fr", "it", "es", "nl", "au", "ca",
+        "jp", "ru", "br", "in", "mx", "ch", "se", "no", "dk", "fi", "pl", "cz", "hu", "ro", "bg", "hr", "si",
+        "sk", "lt", "lv", "ee", "ie", "mt", "cy", "lu", "is", "li", "mc", "sm", "va", "ad", "md", "by", "ua",
+        "mk", "al", "me", "rs", "ba", "xk", "tr", "ge", "am", "az", "kz", "kg", "uz", "tm", "tj", "mn", "cn",
+        "kp", "kr", "ph", "th", "vn", "my", "sg", "id", "bn", "kh", "la", "mm", "bd", "lk", "np", "bt", "mv",
+        "af", "pk", "ir", "iq", "sy", "lb", "jo", "il", "ps", "sa", "ye", "om", "ae", "qa", "bh", "kw", "eg",
+        "ly", "tn", "dz", "ma", "sd", "ss", "et", "so", "dj", "er", "ke", "ug", "tz", "rw", "bi", "mw", "zm",
+        "zw", "bw", "sz", "ls", "za", "na", "mg", "mu", "sc", "km", "mz", "ao", "cd", "cg", "cf", "td", "cm",
+        "gq", "ga", "st", "cv", "gw", "gm", "sn", "ml", "bf", "ne", "ng", "bj", "tg", "gh", "ci", "lr", "sl", "gn"
+    };
+    
+    // children[node * 26 + letter], 0 meaning no child (the root is never a child)
+    private final int[] children;
+    private final boolean[] terminal;
+    
+    public UrlDetector(String... tlds) {
+        int capacity = 1;
+        for (String tld : tlds) {
+            capacity += tld.length();
+        }
+        int[] children = new int[capacity * 26];
+        boolean[] terminal = new boolean[capacity];
+        int nodes = 1;
+        
+        for (String tld : tlds) {
+            int node = 0;
+            for (int i = 0; i < tld.length(); i++) {
+                int letter = letterIndex(tld.charAt(i));
+                if (letter < 0) {
+                    throw new IllegalArgumentException("Top-level domains may only contain letters: " + tld);
+                }
+                if (children[node * 26 + letter] == 0) {
+                    children[node * 26 + letter] = nodes++;
+                }
+                node = children[node * 26 + letter];
+            }
+            terminal[node] = true;
+        }
+        
+        this.children = Arrays.copyOf(children, nodes * 26);
+        this.terminal = Arrays.copyOf(terminal, nodes);
+    }
+    
+    /**
+     * Check whether a message contains a link or a domain
+     */
+    public boolean containsUrl(String message) {
+        int length = message.length();
+        int start = 0;
+        while (start < length) {
+            if (!isHostChar(message.charAt(start))) {
+                start++;
+                continue;
+            }
+            
+            int end = start;
+            while (end < length && isHostChar(message.charAt(end))) {
+                end++;
+            }
+            if (isUrl(message, start, end)) {
+                return true;
+            }
+            start = end;
+        }
+        return false;
+    }
+    
+    /**
+     * Check one run of host characters [start, end)
+     */
+    private boolean isUrl(String message, int start, int end) {
+        boolean afterScheme = endsWithScheme(message, start);
+        int afterWww = -1;
+        
+        for (int i = start; i < end; i++) {
+            if (message.charAt(i) != '.') {
+                continue;
+            }
+            
+            // A dot with at least one host character before it
+            if (i > start) {
+                if ((afterScheme || (afterWww >= 0 && i > afterWww)) && twoLetters(message, i + 1, end)) {
+                    return true;
+                }
+                if (isTld(message, i + 1, end)) {
+                    return true;
+                }
+            }
+            if (afterWww < 0 && i - start >= 3 && message.regionMatches(true, i - 3, "www", 0, 3)) {
+                afterWww = i + 1;
+            }
+        }
+        return false;
+    }
+    
+    private boolean isTld(String message, int from, int end) {
+        int node = 0;
+        for (int i = from; i < end; i++) {
+            int letter = letterIndex(message.charAt(i));
+            if (letter < 0) {
+                return false;
+            }
+            node = children[node * 26 + letter];
+            if (node == 0) {
+                return false;
+            }
+            // The label has to end here, so "file.coffee" is not read as ".co"
+            if (terminal[node] && (i + 1 == end || !Character.isLetterOrDigit(message.charAt(i + 1)))) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    private static boolean endsWithScheme(String message, int index) {
+        if (index < 3 || !message.startsWith("://", index - 3)) {
+            return false;
+        }
+        return (index >= 7 && message.regionMatches(true, index - 7, "http", 0, 4))
+            || (index >= 8 && message.regionMatches(true, index - 8, "https", 0, 5));
+    }
+    
+    private static boolean twoLetters(String message, int from, int end) {
+        return from + 1 < end && letterIndex(message.charAt(from)) >= 0 && letterIndex(message.charAt(from + 1)) >= 0;
+    }
+    
+    private static boolean isHostChar(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9') || c == '_' || c == '.' || c == '-';
+    }
+    
+    private static int letterIndex(char c) {
+        if (c >= 'a' && c <= 'z') {
+            return c - 'a';
+        }
+        if (c >= 'A' && c <= 'Z') {
+            return c - 'A';
+        }
+        return -1;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,159 @@
+package me.mememc.network.survivalcore.utils;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.regex.Pattern;
+
+/**
+ * Compares UrlDetector with the three regexes ChatManager used before it, on a
+ * corpus of typical chat lines.
+ *
+ * It needs nothing but UrlDetector, so it can be run from the IDE or with plain
+ * javac and java. Each round times both sides over the whole corpus after a
+ * warmup, and the messages the two disagree on are listed at the end.
+ */
+public final class UrlDetectorBenchmark {
+    
+    private static final int CORPUS_SIZE = 50_000;
+    private static final int WARMUP_ROUNDS = 5;
+    private static final int ROUNDS = 10;
+    
+    // The patterns ChatManager#loadUrlPatterns compiled before UrlDetector
+    private static final Pattern[] REGEXES = {
+        Pattern.compile("(?i)https?://[\\w\\.-]+\\.[a-z]{2,}"),
+        Pattern.compile("(?i)www\\.[\\w\\.-]+\\.[a-z]{2,}"),
+        Pattern.compile("(?i)[\\w\\.-]+\\.(com|net|org|edu|gov|mil|int|co|uk|de|fr|it|es|nl|au|ca|jp|ru|br|in|mx|ch|se|no|dk|fi|pl|cz|hu|ro|bg|hr|si|sk|lt|lv|ee|ie|mt|cy|lu|is|li|mc|sm|va|ad|md|by|ua|mk|al|me|rs|ba|xk|tr|ge|am|az|kz|kg|uz|tm|tj|mn|cn|kp|kr|jp|ph|th|vn|my|sg|id|bn|kh|la|mm|bd|lk|np|bt|mv|af|pk|ir|iq|sy|lb|jo|il|ps|sa|ye|om|ae|qa|bh|kw|eg|ly|tn|dz|ma|sd|ss|et|so|dj|er|ke|ug|tz|rw|bi|mw|zm|zw|bw|sz|ls|za|na|mg|mu|sc|km|mz|ao|cd|cg|cf|td|cm|gq|ga|st|cv|gw|gm|sn|ml|bf|ne|ng|bj|tg|gh|ci|lr|sl|gn)")
+    };
+    
+    // Ordinary chat, most of it without links, weighted towards short lines
+    private static final String[] CLEAN = {
+        "hi", "gg", "lol", "brb", "ty", "np", "wb", "o/", "anyone online?", "hello everyone!",
+        "anyone selling diamonds?", "wts 2 stacks of iron, 5 each", "can someone tpa to me",
+        "where is the end portal", "my base is at 1200 64 -340", "who wants to go to the nether with me",
+        "lag?", "server is so laggy rn...", "i just found 3 diamonds!!!", "does anyone have a fortune pick",
+        "how do i set a home", "/home doesnt work for me", "what version is the server on? 1.20.1?",
+        "selling enchanted books, msg me", "price is 3.5k for the elytra", "ok.", "wait... what",
+        "that creeper blew up my house :(", "GG EZ", "i'm going to bed, night all", "the shop is at spawn",
+        "who killed me at 200 70 300", "no griefing pls", "i need 64 oak logs", "trade: 10 emeralds for a saddle",
+        "can i join your town?", "nice build!", "mending villager anyone?", "rip", "afk for 5 min",
+        "lmao he fell in lava", "vote for the server pls it helps", "when is the next event?",
+        "i.e. the big one", "e.g. wood, stone etc.", "v1.2 of the farm is done", "3...2...1... go",
+        "ur right tbh", "i got 1.5 million coins now", "the mob farm gives like 2k xp/h",
+        "meet me at the warp", "dont go in there, its a trap", "idk lol", "ok i'm back"
+    };
+    
+    private static final String[] LINKS = {
+        "join my server play.example.net", "check this out https://youtu.be/dQw4w9WgXcQ",
+        "my discord is discord.gg/abcdef", "go to www.example.com for free ranks",
+        "cheap ranks at minecraft-shop.co.uk", "http://192.168.0.1/admin lol",
+        "best client: hacked-client.ru", "watch me on twitch.tv/someone"
+    };
+    
+    // Long runs of host characters and dots, which the old patterns backtrack over; at most the 256 chat allows
+    private static final String[] HOSTILE = {
+        repeat("a.", 120) + "!", repeat("word.", 50) + "x", repeat("-", 250) + ".q"
+    };
+    
+    public static void main(String[] args) {
+        List<String> corpus = buildCorpus(new Random(42));
+        UrlDetector detector = new UrlDetector(UrlDetector.DEFAULT_TLDS);
+        System.out.println("Corpus: " + corpus.size() + " messages");
+        
+        for (int round = 0; round < WARMUP_ROUNDS; round++) {
+            runRegexes(corpus);
+            runDetector(detector, corpus);
+        }
+        
+        long regexNanos = 0;
+        long detectorNanos = 0;
+        int regexHits = 0;
+        int detectorHits = 0;
+        for (int round = 0; round < ROUNDS; round++) {
+            long start = System.nanoTime();
+            regexHits = runRegexes(corpus);
+            regexNanos += System.nanoTime() - start;
+            
+            start = System.nanoTime();
+            detectorHits = runDetector(detector, corpus);
+            detectorNanos += System.nanoTime() - start;
+        }
+        
+        long messages = (long) corpus.size() * ROUNDS;
+        System.out.printf("Regexes:     %8.1f ns/message, %d flagged%n", (double) regexNanos / messages, regexHits);
+        System.out.printf("UrlDetector: %8.1f ns/message, %d flagged%n", (double) detectorNanos / messages, detectorHits);
+        System.out.printf("Speedup:     %8.1fx%n", (double) regexNanos / detectorNanos);
+        
+        printDisagreements(detector);
+    }
+    
+    private static int runRegexes(List<String> corpus) {
+        int hits = 0;
+        for (String message : corpus) {
+            for (Pattern pattern : REGEXES) {
+                if (pattern.matcher(message).find()) {
+                    hits++;
+                    break;
+                }
+            }
+        }
+        return hits;
+    }
+    
+    private static int runDetector(UrlDetector detector, List<String> corpus) {
+        int hits = 0;
+        for (String message : corpus) {
+            if (detector.containsUrl(message)) {
+                hits++;
+            }
+        }
+        return hits;
+    }
+    
+    /**
+     * Print every distinct message where the detector and the old patterns differ
+     */
+    private static void printDisagreements(UrlDetector detector) {
+        List<String> distinct = new ArrayList<>();
+        Collections.addAll(distinct, CLEAN);
+        Collections.addAll(distinct, LINKS);
+        Collections.addAll(distinct, HOSTILE);
+        
+        for (String message : distinct) {
+            boolean regex = runRegexes(Collections.singletonList(message)) > 0;
+            boolean detected = detector.containsUrl(message);
+            if (regex != detected) {
+                String shown = message.length() > 60 ? message.substring(0, 60) + "..." : message;
+                System.out.println("Differs: \"" + shown + "\" regexes=" + regex + " detector=" + detected);
+            }
+        }
+    }
+    
+    /**
+     * About 95% clean lines, 5% links and 0.2% hostile input, shuffled
+     */
+    private static List<String> buildCorpus(Random random) {
+        List<String> corpus = new ArrayList<>(CORPUS_SIZE);
+        for (int i = 0; i < CORPUS_SIZE; i++) {
+            int roll = random.nextInt(1000);
+            if (roll < 950) {
+                corpus.add(CLEAN[random.nextInt(CLEAN.length)]);
+            } else if (roll < 998) {
+                corpus.add(LINKS[random.nextInt(LINKS.length)]);
+            } else {
+                corpus.add(HOSTILE[random.nextInt(HOSTILE.length)]);
+            }
+        }
+        Collections.shuffle(corpus, random);
+        return corpus;
+    }
+    
+    private static String repeat(String text, int times) {
+        StringBuilder builder = new StringBuilder(text.length() * times);
+        for (int i = 0; i < times; i++) {
+            builder.append(text);
+        }
+        return builder.toString();
+    }
+}
\ No newline at end of file